@@ -1,23 +1,39 @@
 package com.group3.conduitedeprojet.config;
 
 import com.group3.conduitedeprojet.dto.ErrorResponse;
+import com.group3.conduitedeprojet.exceptions.DocumentationNotFoundException;
+import com.group3.conduitedeprojet.exceptions.DocumentationRevisionNotFoundException;
 import com.group3.conduitedeprojet.exceptions.EmailAlreadyExistsException;
+import com.group3.conduitedeprojet.exceptions.InvalidBulkUpdateException;
 import com.group3.conduitedeprojet.exceptions.InvalidCredentialsException;
+import com.group3.conduitedeprojet.exceptions.InvalidCursorException;
+import com.group3.conduitedeprojet.exceptions.InvalidRefreshTokenException;
+import com.group3.conduitedeprojet.exceptions.InvalidSearchQueryException;
 import com.group3.conduitedeprojet.exceptions.IssueDoesntBelongToProjectException;
 import com.group3.conduitedeprojet.exceptions.IssueNotFoundException;
 import com.group3.conduitedeprojet.exceptions.NotAuthorizedException;
+import com.group3.conduitedeprojet.exceptions.PasswordHashingUnavailableException;
+import com.group3.conduitedeprojet.exceptions.PreconditionFailedException;
 import com.group3.conduitedeprojet.exceptions.ProjectNotFoundException;
+import com.group3.conduitedeprojet.exceptions.ReleaseNotFoundException;
 import com.group3.conduitedeprojet.exceptions.SprintNotFoundException;
 import com.group3.conduitedeprojet.exceptions.TaskNotFoundException;
+import com.group3.conduitedeprojet.exceptions.TestCodeNotFoundException;
 import com.group3.conduitedeprojet.exceptions.TestNotFoundException;
+import com.group3.conduitedeprojet.exceptions.TestRunnerUnavailableException;
+import com.group3.conduitedeprojet.exceptions.TooManyRequestsException;
 import com.group3.conduitedeprojet.exceptions.UserNotFoundException;
 import java.time.LocalDateTime;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -70,6 +86,60 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
   }
 
+  @ExceptionHandler(PasswordHashingUnavailableException.class)
+  public ResponseEntity<ErrorResponse> handlePasswordHashingUnavailable(
+      PasswordHashingUnavailableException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .message(ex.getMessage())
+            .error("AUTHENTICATION_BUSY")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(error);
+  }
+
+  @ExceptionHandler(TestRunnerUnavailableException.class)
+  public ResponseEntity<ErrorResponse> handleTestRunnerUnavailable(
+      TestRunnerUnavailableException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+            .message(ex.getMessage())
+            .error("TEST_RUNNER_UNAVAILABLE")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+        .header(HttpHeaders.RETRY_AFTER, "1")
+        .body(error);
+  }
+
+  @ExceptionHandler(TooManyRequestsException.class)
+  public ResponseEntity<ErrorResponse> handleTooManyRequests(
+      TooManyRequestsException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.TOO_MANY_REQUESTS.value())
+            .message(ex.getMessage())
+            .error("TOO_MANY_REQUESTS")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .body(error);
+  }
+
   @ExceptionHandler(InvalidCredentialsException.class)
   public ResponseEntity<ErrorResponse> handleInvalidCredentials(
       InvalidCredentialsException ex, WebRequest request) {
@@ -86,6 +156,22 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
   }
 
+  @ExceptionHandler(InvalidRefreshTokenException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidRefreshToken(
+      InvalidRefreshTokenException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.UNAUTHORIZED.value())
+            .message(ex.getMessage())
+            .error("INVALID_REFRESH_TOKEN")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.UNAUTHORIZED);
+  }
+
   @ExceptionHandler(BadCredentialsException.class)
   public ResponseEntity<ErrorResponse> handleBadCredentials(
       BadCredentialsException ex, WebRequest request) {
@@ -150,6 +236,22 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
   }
 
+  @ExceptionHandler(TestCodeNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleTestCodeNotFound(
+      TestCodeNotFoundException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.NOT_FOUND.value())
+            .message(ex.getMessage())
+            .error("TEST_CODE_NOT_FOUND")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+  }
+
   @ExceptionHandler(TaskNotFoundException.class)
   public ResponseEntity<ErrorResponse> handleTaskNotFound(
       TaskNotFoundException ex, WebRequest request) {
@@ -166,6 +268,54 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
   }
 
+  @ExceptionHandler(ReleaseNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleReleaseNotFound(
+      ReleaseNotFoundException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.NOT_FOUND.value())
+            .message("Release was not found")
+            .error("RELEASE_NOT_FOUND")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+  }
+
+  @ExceptionHandler(DocumentationNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleDocumentationNotFound(
+      DocumentationNotFoundException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.NOT_FOUND.value())
+            .message("Documentation was not found")
+            .error("DOCUMENTATION_NOT_FOUND")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+  }
+
+  @ExceptionHandler(DocumentationRevisionNotFoundException.class)
+  public ResponseEntity<ErrorResponse> handleDocumentationRevisionNotFound(
+      DocumentationRevisionNotFoundException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.NOT_FOUND.value())
+            .message("Documentation revision was not found")
+            .error("DOCUMENTATION_REVISION_NOT_FOUND")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+  }
+
   @ExceptionHandler(SprintNotFoundException.class)
   public ResponseEntity<ErrorResponse> handleSprintNotFound(
       SprintNotFoundException ex, WebRequest request) {
@@ -198,6 +348,125 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(error, HttpStatus.FORBIDDEN);
   }
 
+  @ExceptionHandler(MethodArgumentNotValidException.class)
+  public ResponseEntity<ErrorResponse> handleValidation(
+      MethodArgumentNotValidException ex, WebRequest request) {
+
+    String message =
+        ex.getBindingResult().getFieldErrors().stream()
+            .findFirst()
+            .map(fieldError -> fieldError.getDefaultMessage())
+            .orElse("Requête invalide");
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.BAD_REQUEST.value())
+            .message(message)
+            .error("VALIDATION_ERROR")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+  public ResponseEntity<ErrorResponse> handleTypeMismatch(
+      MethodArgumentTypeMismatchException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.BAD_REQUEST.value())
+            .message("Valeur invalide pour le paramètre " + ex.getName())
+            .error("VALIDATION_ERROR")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(InvalidBulkUpdateException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidBulkUpdate(
+      InvalidBulkUpdateException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.BAD_REQUEST.value())
+            .message(ex.getMessage())
+            .error("INVALID_BULK_UPDATE")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<ErrorResponse> handlePreconditionFailed(
+      PreconditionFailedException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.PRECONDITION_FAILED.value())
+            .message(ex.getMessage())
+            .error("PRECONDITION_FAILED")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+  }
+
+  /** Two updates of the same entity raced, the version check of the second one failed. */
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(
+      OptimisticLockingFailureException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.CONFLICT.value())
+            .message("La ressource a été modifiée par une autre requête, rechargez-la")
+            .error("CONFLICT")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+  }
+
+  @ExceptionHandler(InvalidCursorException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidCursor(
+      InvalidCursorException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.BAD_REQUEST.value())
+            .message(ex.getMessage())
+            .error("INVALID_CURSOR")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+  }
+
+  @ExceptionHandler(InvalidSearchQueryException.class)
+  public ResponseEntity<ErrorResponse> handleInvalidSearchQuery(
+      InvalidSearchQueryException ex, WebRequest request) {
+
+    ErrorResponse error =
+        ErrorResponse.builder()
+            .status(HttpStatus.BAD_REQUEST.value())
+            .message(ex.getMessage())
+            .error("INVALID_SEARCH_QUERY")
+            .timestamp(LocalDateTime.now())
+            .path(request.getDescription(false).replace("uri=", ""))
+            .build();
+
+    return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, WebRequest request) {
 
@@ -0,0 +1,133 @@
+package com.group3.conduitedeprojet.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Regions of the Hibernate second-level cache, held in an in-process Caffeine JCache. Every region
+ * is declared in {@code app.cache.second-level} with its size bound and time to live; Hibernate
+ * refuses to start when an entity, collection or query names a region that is not declared.
+ *
+ * <p>Hits and misses of each region are published as {@code cache.gets} metrics, tagged with the
+ * region as {@code cache}, along with their ratio in {@code cache.hit.ratio}.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+  public static final String USER_REGION = "user";
+
+  public static final String PROJECT_REGION = "project";
+
+  public static final String SPRINT_REGION = "sprint";
+
+  public static final String SPRINT_QUERY_REGION = "sprint-by-project";
+
+  private static final String SETTINGS_PREFIX = "app.cache.second-level";
+
+  /**
+   * Last change of each table, checked before a cached query result is used. It must outlive the
+   * query results, so it is neither bounded nor expired: it holds one entry per table.
+   */
+  private static final String TIMESTAMPS_REGION =
+      RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+  /** Size bound and time to live of a region. */
+  public record RegionSettings(long maximumSize, long expireAfterWriteMs) {}
+
+  @Bean(destroyMethod = "close")
+  public CacheManager secondLevelCacheManager(Environment environment) {
+    CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+    // One manager per application context, the provider shares the ones with the same URI
+    CacheManager cacheManager =
+        provider.getCacheManager(
+            URI.create("urn:second-level-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+
+    regionSettings(environment)
+        .forEach(
+            (region, settings) -> {
+              CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+              configuration.setMaximumSize(OptionalLong.of(settings.maximumSize()));
+              configuration.setExpireAfterWrite(
+                  OptionalLong.of(Duration.ofMillis(settings.expireAfterWriteMs()).toNanos()));
+              cacheManager.createCache(region, configuration);
+            });
+    cacheManager.createCache(TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+    return cacheManager;
+  }
+
+  @Bean
+  public HibernatePropertiesCustomizer secondLevelCacheCustomizer(
+      CacheManager secondLevelCacheManager) {
+    return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+  }
+
+  @Bean
+  public MeterBinder secondLevelCacheMetrics(
+      EntityManagerFactory entityManagerFactory, Environment environment) {
+    return registry -> {
+      Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+      for (String region : regionSettings(environment).keySet()) {
+        FunctionCounter.builder(
+                "cache.gets",
+                statistics,
+                stats -> count(stats, region, CacheRegionStatistics::getHitCount))
+            .tags("cache", region, "cacheManager", "hibernate", "result", "hit")
+            .description("Lookups in the second-level cache region that found an entry")
+            .register(registry);
+        FunctionCounter.builder(
+                "cache.gets",
+                statistics,
+                stats -> count(stats, region, CacheRegionStatistics::getMissCount))
+            .tags("cache", region, "cacheManager", "hibernate", "result", "miss")
+            .description("Lookups in the second-level cache region that went to the database")
+            .register(registry);
+        Gauge.builder("cache.hit.ratio", statistics, stats -> hitRatio(stats, region))
+            .tags("cache", region, "cacheManager", "hibernate")
+            .description("Share of the lookups in the second-level cache region that hit")
+            .register(registry);
+      }
+    };
+  }
+
+  private static Map<String, RegionSettings> regionSettings(Environment environment) {
+    return Binder.get(environment)
+        .bind(SETTINGS_PREFIX, Bindable.mapOf(String.class, RegionSettings.class))
+        .orElse(Map.of());
+  }
+
+  private static long count(
+      Statistics statistics, String region, ToLongFunction<CacheRegionStatistics> counter) {
+    CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+    return regionStatistics != null ? counter.applyAsLong(regionStatistics) : 0;
+  }
+
+  private static double hitRatio(Statistics statistics, String region) {
+    long hits = count(statistics, region, CacheRegionStatistics::getHitCount);
+    long lookups = hits + count(statistics, region, CacheRegionStatistics::getMissCount);
+    return lookups == 0 ? Double.NaN : (double) hits / lookups;
+  }
+}
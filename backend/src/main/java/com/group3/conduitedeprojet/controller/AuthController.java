@@ -2,7 +2,9 @@ package com.group3.conduitedeprojet.controller;
 
 import com.group3.conduitedeprojet.dto.AuthResponse;
 import com.group3.conduitedeprojet.dto.LoginRequest;
+import com.group3.conduitedeprojet.dto.RefreshTokenRequest;
 import com.group3.conduitedeprojet.dto.RegisterRequest;
+import com.group3.conduitedeprojet.security.AuthRateLimiter;
 import com.group3.conduitedeprojet.services.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -10,6 +12,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +28,8 @@ public class AuthController {
 
   @Autowired private AuthService authService;
 
+  @Autowired private AuthRateLimiter authRateLimiter;
+
   @Operation(
       summary = "Register a new user",
       description = "Creates a new user account and returns a JWT token")
@@ -45,13 +50,19 @@ public class AuthController {
             responseCode = "409",
             description = "Conflict (email or username already exists)",
             content = @Content),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too many attempts from this address or for this email",
+            content = @Content),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error",
             content = @Content)
       })
   @PostMapping("/register")
-  public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+  public ResponseEntity<AuthResponse> register(
+      @Valid @RequestBody RegisterRequest request, HttpServletRequest httpRequest) {
+    authRateLimiter.checkAttempt(httpRequest.getRemoteAddr(), request.getEmail());
     return ResponseEntity.ok(authService.register(request));
   }
 
@@ -70,13 +81,72 @@ public class AuthController {
             description = "Invalid request (missing data)",
             content = @Content),
         @ApiResponse(responseCode = "401", description = "Invalid credentials", content = @Content),
+        @ApiResponse(
+            responseCode = "429",
+            description = "Too many attempts from this address or for this email",
+            content = @Content),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error",
             content = @Content)
       })
   @PostMapping("/login")
-  public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+  public ResponseEntity<AuthResponse> login(
+      @Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+    authRateLimiter.checkAttempt(httpRequest.getRemoteAddr(), request.getEmail());
     return ResponseEntity.ok(authService.login(request));
   }
+
+  @Operation(
+      summary = "Refresh access token",
+      description =
+          "Exchanges a refresh token for a new access token and a new refresh token, the given"
+              + " refresh token can only be used once")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tokens successfully refreshed",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = AuthResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request (missing data)",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unknown, expired, revoked or already used refresh token",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content)
+      })
+  @PostMapping("/refresh")
+  public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+    return ResponseEntity.ok(authService.refresh(request));
+  }
+
+  @Operation(
+      summary = "Logout user",
+      description = "Revokes the session of the given refresh token and its access tokens")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "204", description = "Session successfully revoked"),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request (missing data)",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content)
+      })
+  @PostMapping("/logout")
+  public ResponseEntity<Void> logout(@Valid @RequestBody RefreshTokenRequest request) {
+    authService.logout(request);
+    return ResponseEntity.noContent().build();
+  }
 }
@@ -1,14 +1,31 @@
 package com.group3.conduitedeprojet.controller;
 
+import com.group3.conduitedeprojet.dto.DocumentationDiffDto;
 import com.group3.conduitedeprojet.dto.DocumentationDto;
+import com.group3.conduitedeprojet.dto.DocumentationRevisionDto;
+import com.group3.conduitedeprojet.dto.DocumentationSummaryDto;
+import com.group3.conduitedeprojet.services.DocumentationContentService;
+import com.group3.conduitedeprojet.services.DocumentationContentService.Content;
+import com.group3.conduitedeprojet.services.DocumentationContentService.Encoding;
+import com.group3.conduitedeprojet.services.DocumentationRenderService;
+import com.group3.conduitedeprojet.services.DocumentationRenderService.RenderedPage;
+import com.group3.conduitedeprojet.services.DocumentationRevisionService;
 import com.group3.conduitedeprojet.services.DocumentationService;
+import com.group3.conduitedeprojet.services.EntityTags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,18 +38,153 @@ public class DocumentationController {
 
   @Autowired private DocumentationService documentationService;
 
+  @Autowired private DocumentationRevisionService documentationRevisionService;
+
+  @Autowired private DocumentationContentService documentationContentService;
+
+  @Autowired private DocumentationRenderService documentationRenderService;
+
+  private static final MediaType MARKDOWN =
+      new MediaType("text", "markdown", StandardCharsets.UTF_8);
+
   @Operation(
       summary = "Get documentation for a project",
-      description = "Retrieves all documentation entries for the specified project")
+      description =
+          "Retrieves the documentation entries of the specified project, without their content:"
+              + " each entry has its size in bytes and the SHA-256 of its content, read it from the"
+              + " content endpoint. The response carries an ETag, send it back in If-None-Match to get a 304 while they are unchanged.")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved documentation"),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Documentation unchanged since the ETag sent in If-None-Match"),
         @ApiResponse(responseCode = "404", description = "Project not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
       })
   @GetMapping
-  public ResponseEntity<List<DocumentationDto>> getDocumentation(@PathVariable UUID projectId) {
-    return ResponseEntity.ok(documentationService.getDocumentationByProject(projectId));
+  public ResponseEntity<List<DocumentationSummaryDto>> getDocumentation(
+      @PathVariable UUID projectId) {
+    List<DocumentationSummaryDto> docs = documentationService.getDocumentationByProject(projectId);
+    return ResponseEntity.ok()
+        .eTag(EntityTags.ofAll(docs, DocumentationSummaryDto::getId, EntityTags::of))
+        .body(docs);
+  }
+
+  @Operation(
+      summary = "Get a documentation entry",
+      description =
+          "Retrieves the specified documentation entry. The response carries an ETag, send it"
+              + " back in If-None-Match to get a 304 while it is unchanged, or in If-Match to"
+              + " update it only if nobody else did in the meantime.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved documentation"),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Documentation unchanged since the ETag sent in If-None-Match"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - user not member of project"),
+        @ApiResponse(responseCode = "404", description = "Documentation not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+      })
+  @GetMapping("/{docId}")
+  public ResponseEntity<DocumentationDto> getDocumentationEntry(
+      @PathVariable UUID projectId, @PathVariable Long docId, Principal principal) {
+    DocumentationDto doc = documentationService.getDocumentation(projectId, docId, principal);
+    return ResponseEntity.ok().eTag(EntityTags.of(doc)).body(doc);
+  }
+
+  @Operation(
+      summary = "Get the content of a documentation entry",
+      description =
+          "Returns the markdown content of the entry, gzipped when the client accepts it and it is"
+              + " large enough. A single byte range of the uncompressed content can be requested"
+              + " with Range, guarded by If-Range. The ETag is the SHA-256 of the content, suffixed"
+              + " with -gzip for the gzipped representation.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the content"),
+        @ApiResponse(responseCode = "206", description = "Requested range of the content"),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Content unchanged since the ETag sent in If-None-Match"),
+        @ApiResponse(responseCode = "404", description = "Documentation not found"),
+        @ApiResponse(responseCode = "416", description = "Range not satisfiable")
+      })
+  @GetMapping("/{docId}/content")
+  public ResponseEntity<byte[]> getDocumentationContent(
+      @PathVariable UUID projectId,
+      @PathVariable Long docId,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+      @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange) {
+    // Ranges address the uncompressed bytes
+    boolean gzip = range == null && DocumentationContentService.acceptsGzip(acceptEncoding);
+    Content content = documentationContentService.getContent(projectId, docId, gzip);
+    byte[] bytes = content.bytes();
+
+    // A stale If-Range asks for the whole new content instead of a part of it
+    if (range == null || (ifRange != null && !ifRange.equals(content.eTag()))) {
+      return contentResponse(HttpStatus.OK, content).body(bytes);
+    }
+
+    long start;
+    long end;
+    try {
+      List<HttpRange> ranges = HttpRange.parseRanges(range);
+      if (ranges.size() != 1) {
+        return contentResponse(HttpStatus.OK, content).body(bytes);
+      }
+      start = ranges.get(0).getRangeStart(bytes.length);
+      end = ranges.get(0).getRangeEnd(bytes.length);
+      if (start >= bytes.length) {
+        throw new IllegalArgumentException("Range starts after the content");
+      }
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+          .header(HttpHeaders.CONTENT_RANGE, "bytes */" + bytes.length)
+          .build();
+    }
+    return contentResponse(HttpStatus.PARTIAL_CONTENT, content)
+        .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + bytes.length)
+        .body(Arrays.copyOfRange(bytes, (int) start, (int) end + 1));
+  }
+
+  @Operation(
+      summary = "Get a documentation entry rendered to HTML",
+      description =
+          "Returns the content of the entry rendered to sanitized HTML: raw HTML of the markdown is"
+              + " escaped and only http, https, mailto and relative links are kept. The ETag is"
+              + " derived from the SHA-256 of the content.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully rendered the content"),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Content unchanged since the ETag sent in If-None-Match"),
+        @ApiResponse(responseCode = "404", description = "Documentation not found")
+      })
+  @GetMapping("/{docId}/html")
+  public ResponseEntity<byte[]> getRenderedDocumentation(
+      @PathVariable UUID projectId, @PathVariable Long docId) {
+    RenderedPage page = documentationRenderService.getRenderedPage(projectId, docId);
+    return ResponseEntity.ok()
+        .eTag(page.eTag())
+        .contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+        .body(page.html());
+  }
+
+  private static ResponseEntity.BodyBuilder contentResponse(HttpStatus status, Content content) {
+    ResponseEntity.BodyBuilder response =
+        ResponseEntity.status(status)
+            .eTag(content.eTag())
+            .contentType(MARKDOWN)
+            .varyBy(HttpHeaders.ACCEPT_ENCODING)
+            .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+    if (content.encoding() == Encoding.GZIP) {
+      response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+    return response;
   }
 
   @Operation(
@@ -52,17 +204,32 @@ public class DocumentationController {
 
   @Operation(
       summary = "Update documentation",
-      description = "Updates an existing documentation entry for the specified project")
+      description =
+          "Updates an existing documentation entry for the specified project. With an If-Match"
+              + " header, the update is only applied if the entry still has that ETag.")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "200", description = "Documentation successfully updated"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - user not member of project"),
         @ApiResponse(responseCode = "404", description = "Project or documentation not found"),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Documentation updated concurrently by another request"),
+        @ApiResponse(
+            responseCode = "412",
+            description = "Documentation modified since the ETag sent in If-Match"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
       })
   @PutMapping("/{docId}")
   public ResponseEntity<DocumentationDto> updateDocumentation(
-      @PathVariable UUID projectId, @PathVariable Long docId, @RequestBody DocumentationDto dto) {
-    return ResponseEntity.ok(documentationService.updateDocumentation(docId, dto));
+      @PathVariable UUID projectId,
+      @PathVariable Long docId,
+      @RequestBody DocumentationDto dto,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      Principal principal) {
+    DocumentationDto doc =
+        documentationService.updateDocumentation(projectId, docId, dto, ifMatch, principal);
+    return ResponseEntity.ok().eTag(EntityTags.of(doc)).body(doc);
   }
 
   @Operation(
@@ -71,13 +238,67 @@ public class DocumentationController {
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "204", description = "Documentation successfully deleted"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - user not member of project"),
         @ApiResponse(responseCode = "404", description = "Project or documentation not found"),
         @ApiResponse(responseCode = "500", description = "Internal server error")
       })
   @DeleteMapping("/{docId}")
   public ResponseEntity<Void> deleteDocumentation(
-      @PathVariable UUID projectId, @PathVariable Long docId) {
-    documentationService.deleteDocumentation(docId);
+      @PathVariable UUID projectId, @PathVariable Long docId, Principal principal) {
+    documentationService.deleteDocumentation(projectId, docId, principal);
     return ResponseEntity.noContent().build();
   }
+
+  @Operation(
+      summary = "List the revisions of a documentation",
+      description =
+          "Lists the revisions of the documentation, latest first, without their content. The"
+              + " first one is its creation, each update of the title or content adds one.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved revisions"),
+        @ApiResponse(responseCode = "404", description = "Documentation not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+      })
+  @GetMapping("/{docId}/revisions")
+  public ResponseEntity<List<DocumentationRevisionDto>> getRevisions(
+      @PathVariable UUID projectId, @PathVariable Long docId) {
+    return ResponseEntity.ok(documentationRevisionService.getRevisions(projectId, docId));
+  }
+
+  @Operation(
+      summary = "Get a revision of a documentation",
+      description = "Retrieves the title and content of the documentation at the given revision")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved revision"),
+        @ApiResponse(responseCode = "404", description = "Documentation or revision not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+      })
+  @GetMapping("/{docId}/revisions/{revision}")
+  public ResponseEntity<DocumentationRevisionDto> getRevision(
+      @PathVariable UUID projectId, @PathVariable Long docId, @PathVariable int revision) {
+    return ResponseEntity.ok(documentationRevisionService.getRevision(projectId, docId, revision));
+  }
+
+  @Operation(
+      summary = "Compare two revisions of a documentation",
+      description =
+          "Returns the unified diff of the content between the two revisions, by lines and with"
+              + " three lines of context")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully compared revisions"),
+        @ApiResponse(responseCode = "404", description = "Documentation or revision not found"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+      })
+  @GetMapping("/{docId}/revisions/diff")
+  public ResponseEntity<DocumentationDiffDto> diffRevisions(
+      @PathVariable UUID projectId,
+      @PathVariable Long docId,
+      @RequestParam int from,
+      @RequestParam int to) {
+    return ResponseEntity.ok(
+        documentationRevisionService.diffRevisions(projectId, docId, from, to));
+  }
 }
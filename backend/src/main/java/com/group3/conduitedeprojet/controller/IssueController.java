@@ -1,8 +1,15 @@
 package com.group3.conduitedeprojet.controller;
 
+import com.group3.conduitedeprojet.dto.BulkCreateIssuesRequest;
+import com.group3.conduitedeprojet.dto.BulkUpdateIssuesRequest;
+import com.group3.conduitedeprojet.dto.BulkUpdateIssuesResponse;
 import com.group3.conduitedeprojet.dto.CreateIssueRequest;
 import com.group3.conduitedeprojet.dto.IssueDto;
+import com.group3.conduitedeprojet.dto.IssueFilter;
+import com.group3.conduitedeprojet.dto.IssuePageDto;
 import com.group3.conduitedeprojet.dto.UpdateIssueRequest;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.services.EntityTags;
 import com.group3.conduitedeprojet.services.IssueService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,19 +18,24 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -76,9 +88,106 @@ public class IssueController {
     return ResponseEntity.ok(issueService.createIssue(projectId, createIssueRequest, principal));
   }
 
+  @Operation(
+      summary = "Create many issues in a project",
+      description =
+          "Creates up to 5000 issues within the specified project in a single transaction")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Issues successfully created, in the order of the request",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = IssueDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request data",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - authentication required",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - user not member of project",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Project or assignee not found",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content)
+      })
+  @PostMapping("/bulk")
+  public ResponseEntity<List<IssueDto>> createIssues(
+      @PathVariable UUID projectId,
+      @Valid @RequestBody BulkCreateIssuesRequest bulkCreateIssuesRequest,
+      Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    return ResponseEntity.ok(
+        issueService.createIssues(projectId, bulkCreateIssuesRequest.getIssues(), principal));
+  }
+
+  @Operation(
+      summary = "Update many issues of a project",
+      description =
+          "Applies the same changes (status, priority, assignee, sprint or release) to the listed"
+              + " issues, or to up to 5000 issues matching the filter, in a single transaction")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Issues updated, with the outcome for each of them",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = BulkUpdateIssuesResponse.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request data or too many issues selected",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - authentication required",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - user not member of project",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Project, assignee, sprint or release not found",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content)
+      })
+  @PatchMapping("/bulk")
+  public ResponseEntity<BulkUpdateIssuesResponse> updateIssues(
+      @PathVariable UUID projectId,
+      @Valid @RequestBody BulkUpdateIssuesRequest bulkUpdateIssuesRequest,
+      Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    return ResponseEntity.ok(
+        issueService.updateIssues(projectId, bulkUpdateIssuesRequest, principal));
+  }
+
   @Operation(
       summary = "Get all issues in a project",
-      description = "Retrieves all issues associated with the specified project")
+      description =
+          "Retrieves all issues associated with the specified project. The response carries an"
+              + " ETag, send it back in If-None-Match to get a 304 while the issues are unchanged.")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -88,6 +197,10 @@ public class IssueController {
                 @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = IssueDto.class))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Issues unchanged since the ETag sent in If-None-Match",
+            content = @Content),
         @ApiResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -109,7 +222,117 @@ public class IssueController {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    return ResponseEntity.ok(issueService.getIssuesByProject(projectId, principal));
+    List<IssueDto> issues = issueService.getIssuesByProject(projectId, principal);
+    return ResponseEntity.ok()
+        .eTag(EntityTags.ofAll(issues, IssueDto::getId, EntityTags::of))
+        .body(issues);
+  }
+
+  @Operation(
+      summary = "Get an issue of a project",
+      description =
+          "Retrieves the specified issue. The response carries an ETag, send it back in"
+              + " If-None-Match to get a 304 while the issue is unchanged, or in If-Match to update"
+              + " it only if nobody else did in the meantime.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Issue successfully retrieved",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = IssueDto.class))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Issue unchanged since the ETag sent in If-None-Match",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - authentication required",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - user not member of project",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Project or issue not found",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content)
+      })
+  @GetMapping("/{issueId}")
+  public ResponseEntity<IssueDto> getIssue(
+      @PathVariable UUID projectId, @PathVariable Long issueId, Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    IssueDto issue = issueService.getIssue(projectId, issueId, principal);
+    return ResponseEntity.ok().eTag(EntityTags.of(issue)).body(issue);
+  }
+
+  @Operation(
+      summary = "Get a page of the issues of a project",
+      description =
+          "Retrieves the issues of the project newest first, optionally filtered by status,"
+              + " priority, assignee, sprint or release. Pass the returned nextCursor to get the"
+              + " following page, it is null on the last page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Page successfully retrieved",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = IssuePageDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid cursor or filter value",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - authentication required",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - user not member of project",
+            content = @Content),
+        @ApiResponse(responseCode = "404", description = "Project not found", content = @Content),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content)
+      })
+  @GetMapping("/page")
+  public ResponseEntity<IssuePageDto> getProjectIssuePage(
+      @PathVariable UUID projectId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit,
+      @RequestParam(required = false) Issue.Status status,
+      @RequestParam(required = false) Issue.Priority priority,
+      @RequestParam(required = false) Long assigneeId,
+      @RequestParam(required = false) Long sprintId,
+      @RequestParam(required = false) Long releaseId,
+      Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    IssueFilter filter =
+        IssueFilter.builder()
+            .status(status)
+            .priority(priority)
+            .assigneeId(assigneeId)
+            .sprintId(sprintId)
+            .releaseId(releaseId)
+            .build();
+    return ResponseEntity.ok(
+        issueService.getIssuePage(projectId, filter, cursor, limit, principal));
   }
 
   @Operation(
@@ -142,7 +365,9 @@ public class IssueController {
 
   @Operation(
       summary = "Update an issue",
-      description = "Updates the specified issue in the project")
+      description =
+          "Updates the specified issue in the project. With an If-Match header, the update is"
+              + " only applied if the issue still has that ETag.")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -170,6 +395,14 @@ public class IssueController {
             description =
                 "Project or issue not found (ProjectNotFoundException, IssueNotFoundException)",
             content = @Content),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Issue updated concurrently by another request",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "412",
+            description = "Issue modified since the ETag sent in If-Match",
+            content = @Content),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error",
@@ -180,12 +413,14 @@ public class IssueController {
       @PathVariable UUID projectId,
       @PathVariable Long issueId,
       @RequestBody UpdateIssueRequest updateIssueRequest,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
       Principal principal) {
     if (principal == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    return ResponseEntity.ok(
-        issueService.updateIssue(projectId, issueId, updateIssueRequest, principal));
+    IssueDto issue =
+        issueService.updateIssue(projectId, issueId, updateIssueRequest, ifMatch, principal);
+    return ResponseEntity.ok().eTag(EntityTags.of(issue)).body(issue);
   }
 }
@@ -2,6 +2,7 @@ package com.group3.conduitedeprojet.controller;
 
 import com.group3.conduitedeprojet.dto.*;
 import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.services.ProjectExportService;
 import com.group3.conduitedeprojet.services.ProjectService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,9 +15,13 @@ import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/projects")
@@ -26,6 +31,8 @@ public class ProjectController {
 
   @Autowired private ProjectService projectService;
 
+  @Autowired private ProjectExportService projectExportService;
+
   @Operation(
       summary = "Create a new project",
       description = "Creates a new project with the authenticated user as owner")
@@ -253,4 +260,44 @@ public class ProjectController {
     return ResponseEntity.ok(
         projectService.removeCollaboratorFromProject(projectId, collaboratorId, principal));
   }
+
+  @Operation(
+      summary = "Export project",
+      description =
+          "Streams the issues, tasks, tests and documentation of a project as newline-delimited"
+              + " JSON, one {\"type\", \"data\"} object per line")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Export streamed",
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE)),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - authentication required",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - user not member of project",
+            content = @Content),
+        @ApiResponse(responseCode = "404", description = "Project not found", content = @Content)
+      })
+  @GetMapping(value = "/{projectId}/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportProject(
+      @PathVariable UUID projectId, Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    StreamingResponseBody body = projectExportService.exportProject(projectId, principal);
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment()
+                .filename("project-" + projectId + ".ndjson")
+                .build()
+                .toString())
+        .body(body);
+  }
 }
@@ -2,7 +2,10 @@ package com.group3.conduitedeprojet.controller;
 
 import com.group3.conduitedeprojet.dto.CreateReleaseRequest;
 import com.group3.conduitedeprojet.dto.ReleaseDto;
+import com.group3.conduitedeprojet.dto.TestRunReportDto;
 import com.group3.conduitedeprojet.services.ReleaseService;
+import com.group3.conduitedeprojet.services.TestRunnerService;
+import com.group3.conduitedeprojet.services.TestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -27,6 +30,10 @@ public class ReleaseController {
 
   @Autowired private ReleaseService releaseService;
 
+  @Autowired private TestService testService;
+
+  @Autowired private TestRunnerService testRunnerService;
+
   @Operation(
       summary = "Create release",
       description = "Creates a new release for the specified project")
@@ -67,4 +74,34 @@ public class ReleaseController {
 
     return ResponseEntity.ok(releaseService.getReleases(projectId, principal));
   }
+
+  @Operation(
+      summary = "Run the tests of a release",
+      description =
+          "Runs every test of the issues of the release on the server, in parallel, and returns"
+              + " their results with the pass and fail counts summed up")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Tests run"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required"),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - user not member of project (NotAuthorizedException)"),
+        @ApiResponse(responseCode = "404", description = "Project or release not found"),
+        @ApiResponse(
+            responseCode = "503",
+            description = "No JavaScript engine installed or test runner saturated"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+      })
+  @PostMapping("/{releaseId}/tests/run")
+  public ResponseEntity<TestRunReportDto> runReleaseTests(
+      @PathVariable UUID projectId, @PathVariable Long releaseId, Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    return ResponseEntity.ok(
+        testRunnerService.run(
+            testService.getRunnableTestsForRelease(projectId, releaseId, principal)));
+  }
 }
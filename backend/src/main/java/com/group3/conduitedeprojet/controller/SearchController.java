@@ -0,0 +1,81 @@
+package com.group3.conduitedeprojet.controller;
+
+import com.group3.conduitedeprojet.dto.SearchPageDto;
+import com.group3.conduitedeprojet.services.SearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.security.Principal;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/projects/{projectId}/search")
+@Tag(name = "Search", description = "Full-text search endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class SearchController {
+
+  @Autowired private SearchService searchService;
+
+  @Operation(
+      summary = "Search the issues, tasks and documentation of a project",
+      description =
+          "Full-text search in the titles, descriptions, definitions of done and documentation"
+              + " contents of the project, most relevant first. The query accepts words, \"quoted"
+              + " phrases\", or and -excluded words. Matches are wrapped in <mark> tags in the"
+              + " highlighted title and snippet, the rest of them is HTML-escaped. A query matching"
+              + " more than 1000 items of a kind only ranks 1000 of them, refine it to reach the"
+              + " others. Pass the returned nextCursor to get the following page, it is null on"
+              + " the last page.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Hits successfully retrieved",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = SearchPageDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Empty or too long query, or invalid cursor",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - authentication required",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - user not member of project",
+            content = @Content),
+        @ApiResponse(responseCode = "404", description = "Project not found", content = @Content),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content)
+      })
+  @GetMapping
+  public ResponseEntity<SearchPageDto> search(
+      @PathVariable UUID projectId,
+      @RequestParam(value = "q", required = false) String query,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int limit,
+      Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    return ResponseEntity.ok(searchService.search(projectId, query, cursor, limit, principal));
+  }
+}
@@ -3,8 +3,12 @@ package com.group3.conduitedeprojet.controller;
 import com.group3.conduitedeprojet.dto.CreateSprintRequest;
 import com.group3.conduitedeprojet.dto.IssueDto;
 import com.group3.conduitedeprojet.dto.SprintDto;
+import com.group3.conduitedeprojet.dto.TestRunReportDto;
 import com.group3.conduitedeprojet.dto.UpdateSprintRequest;
+import com.group3.conduitedeprojet.services.EntityTags;
 import com.group3.conduitedeprojet.services.SprintService;
+import com.group3.conduitedeprojet.services.TestRunnerService;
+import com.group3.conduitedeprojet.services.TestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,6 +18,7 @@ import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -24,6 +29,10 @@ public class SprintController {
 
   @Autowired private SprintService sprintService;
 
+  @Autowired private TestService testService;
+
+  @Autowired private TestRunnerService testRunnerService;
+
   @Operation(summary = "Create a sprint", description = "Creates a new sprint for a project")
   @ApiResponses(
       value = {
@@ -69,7 +78,9 @@ public class SprintController {
 
   @Operation(
       summary = "Get all sprints for a project",
-      description = "Retrieves all sprints for a specific project")
+      description =
+          "Retrieves all sprints for a specific project. The response carries an ETag, send it"
+              + " back in If-None-Match to get a 304 while the sprints are unchanged.")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -79,6 +90,10 @@ public class SprintController {
                 @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = SprintDto.class))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Sprints unchanged since the ETag sent in If-None-Match",
+            content = @Content),
         @ApiResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -103,10 +118,18 @@ public class SprintController {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    return ResponseEntity.ok(sprintService.getSprintsByProject(projectId, principal));
+    List<SprintDto> sprints = sprintService.getSprintsByProject(projectId, principal);
+    return ResponseEntity.ok()
+        .eTag(EntityTags.ofAll(sprints, SprintDto::getId, EntityTags::of))
+        .body(sprints);
   }
 
-  @Operation(summary = "Get a sprint by ID", description = "Retrieves a specific sprint by its ID")
+  @Operation(
+      summary = "Get a sprint by ID",
+      description =
+          "Retrieves a specific sprint by its ID. The response carries an ETag, send it back in"
+              + " If-None-Match to get a 304 while the sprint is unchanged, or in If-Match to update"
+              + " it only if nobody else did in the meantime.")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -116,6 +139,10 @@ public class SprintController {
                 @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = SprintDto.class))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Sprint unchanged since the ETag sent in If-None-Match",
+            content = @Content),
         @ApiResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -141,10 +168,15 @@ public class SprintController {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    return ResponseEntity.ok(sprintService.getSprintById(projectId, sprintId, principal));
+    SprintDto sprint = sprintService.getSprintById(projectId, sprintId, principal);
+    return ResponseEntity.ok().eTag(EntityTags.of(sprint)).body(sprint);
   }
 
-  @Operation(summary = "Update a sprint", description = "Updates the specified sprint")
+  @Operation(
+      summary = "Update a sprint",
+      description =
+          "Updates the specified sprint. With an If-Match header, the update is only applied if"
+              + " the sprint still has that ETag.")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -171,6 +203,14 @@ public class SprintController {
             description =
                 "Project or sprint not found (ProjectNotFoundException, SprintNotFoundException)",
             content = @Content),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Sprint or one of its issues updated concurrently by another request",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "412",
+            description = "Sprint modified since the ETag sent in If-Match",
+            content = @Content),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error",
@@ -181,13 +221,15 @@ public class SprintController {
       @PathVariable UUID projectId,
       @PathVariable Long sprintId,
       @RequestBody UpdateSprintRequest updateSprintRequest,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
       Principal principal) {
     if (principal == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    return ResponseEntity.ok(
-        sprintService.updateSprint(projectId, sprintId, updateSprintRequest, principal));
+    SprintDto sprint =
+        sprintService.updateSprint(projectId, sprintId, updateSprintRequest, ifMatch, principal);
+    return ResponseEntity.ok().eTag(EntityTags.of(sprint)).body(sprint);
   }
 
   @Operation(summary = "Delete a sprint", description = "Deletes the specified sprint")
@@ -224,4 +266,34 @@ public class SprintController {
 
     return ResponseEntity.ok(sprintService.getIssuesBySprint(projectId, sprintId, principal));
   }
+
+  @Operation(
+      summary = "Run the tests of a sprint",
+      description =
+          "Runs every test of the issues of the sprint on the server, in parallel, and returns"
+              + " their results with the pass and fail counts summed up")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Tests run"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required"),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - user not member of project (NotAuthorizedException)"),
+        @ApiResponse(responseCode = "404", description = "Project or sprint not found"),
+        @ApiResponse(
+            responseCode = "503",
+            description = "No JavaScript engine installed or test runner saturated"),
+        @ApiResponse(responseCode = "500", description = "Internal server error")
+      })
+  @PostMapping("/{sprintId}/tests/run")
+  public ResponseEntity<TestRunReportDto> runSprintTests(
+      @PathVariable UUID projectId, @PathVariable Long sprintId, Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    return ResponseEntity.ok(
+        testRunnerService.run(
+            testService.getRunnableTestsForSprint(projectId, sprintId, principal)));
+  }
 }
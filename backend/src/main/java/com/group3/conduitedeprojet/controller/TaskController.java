@@ -2,6 +2,7 @@ package com.group3.conduitedeprojet.controller;
 
 import com.group3.conduitedeprojet.dto.CreateTaskRequest;
 import com.group3.conduitedeprojet.dto.TaskDto;
+import com.group3.conduitedeprojet.services.EntityTags;
 import com.group3.conduitedeprojet.services.TaskService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -14,6 +15,7 @@ import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -22,6 +24,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -82,7 +85,9 @@ public class TaskController {
 
   @Operation(
       summary = "Get all tasks for an issue",
-      description = "Retrieves all tasks associated with the specified issue")
+      description =
+          "Retrieves all tasks associated with the specified issue. The response carries an ETag,"
+              + " send it back in If-None-Match to get a 304 while the tasks are unchanged.")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -92,6 +97,10 @@ public class TaskController {
                 @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = TaskDto.class))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Tasks unchanged since the ETag sent in If-None-Match",
+            content = @Content),
         @ApiResponse(
             responseCode = "401",
             description = "Unauthorized - authentication required",
@@ -116,10 +125,67 @@ public class TaskController {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    return ResponseEntity.ok(taskService.getTasksByIssue(projectId, issueId, principal));
+    List<TaskDto> tasks = taskService.getTasksByIssue(projectId, issueId, principal);
+    return ResponseEntity.ok()
+        .eTag(EntityTags.ofAll(tasks, TaskDto::getId, EntityTags::of))
+        .body(tasks);
+  }
+
+  @Operation(
+      summary = "Get a task",
+      description =
+          "Retrieves the specified task. The response carries an ETag, send it back in"
+              + " If-None-Match to get a 304 while the task is unchanged, or in If-Match to update"
+              + " it only if nobody else did in the meantime.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Task successfully retrieved",
+            content =
+                @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = TaskDto.class))),
+        @ApiResponse(
+            responseCode = "304",
+            description = "Task unchanged since the ETag sent in If-None-Match",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized - authentication required",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "403",
+            description = "Forbidden - user not member of project",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Project, issue, or task not found",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Internal server error",
+            content = @Content)
+      })
+  @GetMapping("/{taskId}")
+  public ResponseEntity<TaskDto> getTask(
+      @PathVariable UUID projectId,
+      @PathVariable Long issueId,
+      @PathVariable Long taskId,
+      Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    TaskDto task = taskService.getTask(projectId, issueId, taskId, principal);
+    return ResponseEntity.ok().eTag(EntityTags.of(task)).body(task);
   }
 
-  @Operation(summary = "Update a task", description = "Updates the specified task")
+  @Operation(
+      summary = "Update a task",
+      description =
+          "Updates the specified task. With an If-Match header, the update is only applied if"
+              + " the task still has that ETag.")
   @ApiResponses(
       value = {
         @ApiResponse(
@@ -145,6 +211,14 @@ public class TaskController {
             responseCode = "404",
             description = "Project, issue, or task not found",
             content = @Content),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Task updated concurrently by another request",
+            content = @Content),
+        @ApiResponse(
+            responseCode = "412",
+            description = "Task modified since the ETag sent in If-Match",
+            content = @Content),
         @ApiResponse(
             responseCode = "500",
             description = "Internal server error",
@@ -156,13 +230,15 @@ public class TaskController {
       @PathVariable Long issueId,
       @PathVariable Long taskId,
       @RequestBody CreateTaskRequest updateTaskRequest,
+      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
       Principal principal) {
     if (principal == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    return ResponseEntity.ok(
-        taskService.updateTask(projectId, issueId, taskId, updateTaskRequest, principal));
+    TaskDto task =
+        taskService.updateTask(projectId, issueId, taskId, updateTaskRequest, ifMatch, principal);
+    return ResponseEntity.ok().eTag(EntityTags.of(task)).body(task);
   }
 
   @Operation(summary = "Delete a task", description = "Deletes the specified task")
@@ -0,0 +1,56 @@
+package com.group3.conduitedeprojet.controller;
+
+import com.group3.conduitedeprojet.services.TestService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/projects/{projectId}/test-code")
+@Tag(name = "Test Code Controller", description = "Serves the code of the tests by hash")
+public class TestCodeController {
+
+  @Autowired private TestService testService;
+
+  @Operation(
+      summary = "Get test code by hash",
+      description =
+          "Returns the program or tests stored under the SHA-256 listed by the tests of the"
+              + " project. The code under a hash never changes: the hash is the ETag and the"
+              + " response can be cached for good.")
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the code"),
+        @ApiResponse(responseCode = "304", description = "The cached code is still valid"),
+        @ApiResponse(
+            responseCode = "404",
+            description = "No test of the project uses code with this hash")
+      })
+  @GetMapping("/{hash}")
+  public ResponseEntity<String> getTestCode(
+      @PathVariable UUID projectId, @PathVariable String hash, Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    return ResponseEntity.ok()
+        .eTag(hash)
+        .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+        .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+        .body(testService.getCode(projectId, hash, principal));
+  }
+}
@@ -2,7 +2,10 @@ package com.group3.conduitedeprojet.controller;
 
 import com.group3.conduitedeprojet.dto.CreateTestRequest;
 import com.group3.conduitedeprojet.dto.TestDto;
+import com.group3.conduitedeprojet.dto.TestRunReportDto;
 import com.group3.conduitedeprojet.dto.UpdateTestRequest;
+import com.group3.conduitedeprojet.services.EntityTags;
+import com.group3.conduitedeprojet.services.TestRunnerService;
 import com.group3.conduitedeprojet.services.TestService;
 import java.security.Principal;
 import java.util.List;
@@ -17,6 +20,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -25,6 +29,8 @@ public class TestController {
 
   @Autowired private TestService testService;
 
+  @Autowired private TestRunnerService testRunnerService;
+
   @PostMapping
   public ResponseEntity<TestDto> createTest(
       @PathVariable UUID projectId,
@@ -39,14 +45,38 @@ public class TestController {
         testService.createTest(projectId, issueId, createTestRequest, principal));
   }
 
+  /**
+   * Lists the tests of the issue with the hashes of their code, and the code itself unless {@code
+   * includeCode} is false: the client then reads each distinct code once from the test code
+   * endpoint and keeps it. The ETag changes whenever a test is added, removed or its code changed.
+   */
   @GetMapping
   public ResponseEntity<List<TestDto>> getTestsForIssue(
+      @PathVariable UUID projectId,
+      @PathVariable Long issueId,
+      @RequestParam(defaultValue = "true") boolean includeCode,
+      Principal principal) {
+    if (principal == null) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+
+    List<TestDto> tests = testService.getTestsForIssue(projectId, issueId, includeCode, principal);
+    // The listings with and without the code are different representations
+    String eTag =
+        EntityTags.ofAll(tests, TestDto::getId, test -> EntityTags.of(test) + includeCode);
+    return ResponseEntity.ok().eTag(eTag).body(tests);
+  }
+
+  /** Runs every test of the issue on the server, in parallel. */
+  @PostMapping("/run")
+  public ResponseEntity<TestRunReportDto> runTestsForIssue(
       @PathVariable UUID projectId, @PathVariable Long issueId, Principal principal) {
     if (principal == null) {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    return ResponseEntity.ok(testService.getTestsForIssue(projectId, issueId, principal));
+    return ResponseEntity.ok(
+        testRunnerService.run(testService.getRunnableTestsForIssue(projectId, issueId, principal)));
   }
 
   @PutMapping("/{testId}")
@@ -3,6 +3,7 @@ package com.group3.conduitedeprojet.controller;
 import com.group3.conduitedeprojet.dto.ChangePasswordRequest;
 import com.group3.conduitedeprojet.dto.ChangeUserRequest;
 import com.group3.conduitedeprojet.dto.UserDto;
+import com.group3.conduitedeprojet.security.AuthenticatedUser;
 import com.group3.conduitedeprojet.services.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +14,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import java.security.Principal;
 import java.util.List;
+import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -130,7 +132,8 @@ public class UserController {
 
   @Operation(
       summary = "Change user password",
-      description = "Changes the authenticated user's password")
+      description =
+          "Changes the authenticated user's password and revokes the user's other sessions")
   @ApiResponses(
       value = {
         @ApiResponse(responseCode = "204", description = "Password successfully changed"),
@@ -159,7 +162,10 @@ public class UserController {
       return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
     }
 
-    userService.changePassword(principal.getName(), req.getCurrentPassword(), req.getNewPassword());
+    UUID currentSessionId =
+        AuthenticatedUser.from(principal).map(AuthenticatedUser::sessionId).orElse(null);
+    userService.changePassword(
+        principal.getName(), req.getCurrentPassword(), req.getNewPassword(), currentSessionId);
     return ResponseEntity.noContent().build();
   }
 }
@@ -0,0 +1,28 @@
+package com.group3.conduitedeprojet.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers updates of in-memory state, such as caches, until the data they reflect is committed, so
+ * that other requests never see it before the database does and a rollback leaves it untouched.
+ */
+public final class AfterCommit {
+
+  private AfterCommit() {}
+
+  /** Runs the action after the current transaction commits, or right away outside of one. */
+  public static void run(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
+}
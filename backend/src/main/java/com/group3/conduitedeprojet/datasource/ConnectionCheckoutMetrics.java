@@ -0,0 +1,92 @@
+package com.group3.conduitedeprojet.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Counts the connections checked out of the application datasource during each HTTP request, in the
+ * {@code db.connection.checkouts} summary recorded when the request completes. With service methods
+ * owning the transactions, a request should check out a single connection; how long it is held is
+ * published by the pool as {@code hikari.connections.usage}.
+ */
+@Component
+public class ConnectionCheckoutMetrics implements BeanPostProcessor {
+
+  private static final String ATTRIBUTE = ConnectionCheckoutMetrics.class.getName();
+
+  /** Datasource used by JPA, with or without read replicas. */
+  private static final String DATA_SOURCE_BEAN = "dataSource";
+
+  /** Resolved lazily, post-processors are created before the meter registry is configured. */
+  @Autowired private ObjectProvider<MeterRegistry> meterRegistry;
+
+  private volatile DistributionSummary checkoutsSummary;
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource) {
+      return new CheckoutCountingDataSource(dataSource);
+    }
+    return bean;
+  }
+
+  private void countCheckout() {
+    RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+    if (attributes == null) {
+      return;
+    }
+
+    int[] checkouts = (int[]) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (checkouts == null) {
+      int[] created = new int[1];
+      attributes.setAttribute(ATTRIBUTE, created, RequestAttributes.SCOPE_REQUEST);
+      attributes.registerDestructionCallback(
+          ATTRIBUTE,
+          () -> getCheckoutsSummary().record(created[0]),
+          RequestAttributes.SCOPE_REQUEST);
+      checkouts = created;
+    }
+    checkouts[0]++;
+  }
+
+  private DistributionSummary getCheckoutsSummary() {
+    if (checkoutsSummary == null) {
+      checkoutsSummary =
+          DistributionSummary.builder("db.connection.checkouts")
+              .description("Connections checked out of the datasource, per request")
+              .register(meterRegistry.getObject());
+    }
+    return checkoutsSummary;
+  }
+
+  private class CheckoutCountingDataSource extends DelegatingDataSource {
+
+    CheckoutCountingDataSource(DataSource targetDataSource) {
+      super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      Connection connection = super.getConnection();
+      countCheckout();
+      return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      Connection connection = super.getConnection(username, password);
+      countCheckout();
+      return connection;
+    }
+  }
+}
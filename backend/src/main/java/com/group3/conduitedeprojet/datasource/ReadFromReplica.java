@@ -0,0 +1,21 @@
+package com.group3.conduitedeprojet.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Runs the method in a read-only transaction that may be served by a read replica when replicas are
+ * configured. The replica is only used if it has replayed the last write of the client, see {@link
+ * ReplicaRoutingDataSource}.
+ *
+ * <p>Only for methods that never write: the connection of a replica rejects writes.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Transactional(readOnly = true)
+public @interface ReadFromReplica {}
@@ -0,0 +1,67 @@
+package com.group3.conduitedeprojet.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the single datasource with a {@link ReplicaRoutingDataSource} when read replicas are
+ * listed in {@code app.datasource.replicas}. The primary keeps the {@code spring.datasource}
+ * settings, each replica gets a read-only pool with the same credentials and pool settings.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.datasource.replicas:}'.isBlank()")
+public class ReadReplicaConfig {
+
+  @Value("${app.datasource.replicas}")
+  private List<String> replicaUrls;
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+    return dataSource;
+  }
+
+  @Bean
+  public ReplicaRoutingDataSource replicaRoutingDataSource(
+      HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+    List<ReplicaRoutingDataSource.NamedDataSource> replicas = new ArrayList<>();
+    for (String url : replicaUrls) {
+      HikariConfig config = new HikariConfig();
+      primaryDataSource.copyStateTo(config);
+      config.setPoolName("replica-" + (replicas.size() + 1));
+      config.setJdbcUrl(url.strip());
+      config.setReadOnly(true);
+      // A replica that is down at startup is skipped until it comes back
+      config.setInitializationFailTimeout(-1);
+      config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+      replicas.add(
+          new ReplicaRoutingDataSource.NamedDataSource(
+              config.getPoolName(), new HikariDataSource(config)));
+    }
+
+    return new ReplicaRoutingDataSource(
+        primaryDataSource, replicas, new ReadYourWritesTracker(), meterRegistry);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+    return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+  }
+}
@@ -0,0 +1,79 @@
+package com.group3.conduitedeprojet.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Position in the write-ahead log of the last transaction committed for the client. A replica can
+ * serve the reads of the client once it has replayed up to that position, so that clients always
+ * see their own writes.
+ *
+ * <p>The position travels with the client in the {@value #HEADER} header: every response to a write
+ * carries it, and the client sends the last one it received with its next requests. Any instance
+ * can then route the read, whichever served the write.
+ */
+public class ReadYourWritesTracker {
+
+  public static final String HEADER = "X-Last-Write-Lsn";
+
+  /**
+   * Position recorded when the real one is unknown, sends the reads of the request to the primary.
+   */
+  static final long UNKNOWN_LSN = Long.MAX_VALUE;
+
+  private static final String ATTRIBUTE = ReadYourWritesTracker.class.getName();
+
+  /** Tells whether the current thread serves a request that a position can be returned to. */
+  public boolean isTracking() {
+    return currentRequest() != null;
+  }
+
+  /**
+   * Remembers a write of the current request, committed at or before {@code lsn}, and returns the
+   * position to the client. An unknown position only holds for the rest of the request.
+   */
+  public void recordWrite(long lsn) {
+    ServletRequestAttributes attributes = currentRequest();
+    if (attributes == null) {
+      return;
+    }
+    long required = Math.max(lsn, requiredLsn());
+    attributes.setAttribute(ATTRIBUTE, required, RequestAttributes.SCOPE_REQUEST);
+    HttpServletResponse response = attributes.getResponse();
+    if (required != UNKNOWN_LSN && response != null && !response.isCommitted()) {
+      response.setHeader(HEADER, Long.toString(required));
+    }
+  }
+
+  /** Position a replica must have replayed to serve the current request, 0 if any will do. */
+  public long requiredLsn() {
+    ServletRequestAttributes attributes = currentRequest();
+    if (attributes == null) {
+      return 0;
+    }
+    Long recorded = (Long) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    long required = recorded != null ? recorded : 0;
+    return Math.max(required, parseLsn(attributes.getRequest()));
+  }
+
+  private static long parseLsn(HttpServletRequest request) {
+    String value = request.getHeader(HEADER);
+    if (value == null) {
+      return 0;
+    }
+    try {
+      return Math.max(0, Long.parseLong(value.strip()));
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private static ServletRequestAttributes currentRequest() {
+    return RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes servlet
+        ? servlet
+        : null;
+  }
+}
@@ -0,0 +1,90 @@
+package com.group3.conduitedeprojet.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import java.lang.reflect.UndeclaredThrowableException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Marks the current thread while a {@link ReadFromReplica} method runs, so that {@link
+ * ReplicaRoutingDataSource} can tell these reads apart from the read-only transactions that Spring
+ * Data opens around single repository calls.
+ *
+ * <p>When replicas are configured, the method only reads the second-level cache: rows read from a
+ * lagging replica must not replace the ones written on the primary.
+ */
+@Aspect
+@Component
+public class ReplicaReadAspect {
+
+  private static final ThreadLocal<Boolean> REPLICA_READ = new ThreadLocal<>();
+
+  @Value("${app.datasource.replicas:}")
+  private String replicas;
+
+  /** Resolved lazily, aspects are created before the persistence unit. */
+  @Autowired private ObjectProvider<PlatformTransactionManager> transactionManager;
+
+  @Autowired private ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+  @Around("@annotation(com.group3.conduitedeprojet.datasource.ReadFromReplica)")
+  public Object allowReplica(ProceedingJoinPoint joinPoint) throws Throwable {
+    Boolean previous = REPLICA_READ.get();
+    REPLICA_READ.set(Boolean.TRUE);
+    try {
+      return replicas.isBlank() ? joinPoint.proceed() : proceedWithoutCachePuts(joinPoint);
+    } finally {
+      if (previous == null) {
+        REPLICA_READ.remove();
+      } else {
+        REPLICA_READ.set(previous);
+      }
+    }
+  }
+
+  /** Tells whether the current thread runs inside a {@link ReadFromReplica} method. */
+  public static boolean isReplicaReadAllowed() {
+    return REPLICA_READ.get() != null;
+  }
+
+  /**
+   * Runs the method with {@link CacheMode#GET}. The read-only transaction of the method is joined,
+   * or started here when this advice runs first, so that the session is the one the method uses.
+   */
+  private Object proceedWithoutCachePuts(ProceedingJoinPoint joinPoint) throws Throwable {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager.getObject());
+    transaction.setReadOnly(true);
+    try {
+      return transaction.execute(
+          status -> {
+            Session session =
+                EntityManagerFactoryUtils.getTransactionalEntityManager(
+                        entityManagerFactory.getObject())
+                    .unwrap(Session.class);
+            CacheMode previous = session.getCacheMode();
+            session.setCacheMode(CacheMode.GET);
+            try {
+              return joinPoint.proceed();
+            } catch (RuntimeException | Error e) {
+              throw e;
+            } catch (Throwable e) {
+              throw new UndeclaredThrowableException(e);
+            } finally {
+              session.setCacheMode(previous);
+            }
+          });
+    } catch (UndeclaredThrowableException e) {
+      throw e.getUndeclaredThrowable();
+    }
+  }
+}
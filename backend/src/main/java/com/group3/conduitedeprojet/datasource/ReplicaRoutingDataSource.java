@@ -0,0 +1,212 @@
+package com.group3.conduitedeprojet.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out connections of the primary, or of a replica for the read-only transactions of {@link
+ * ReadFromReplica} methods. Replicas are taken in turn, skipping the ones that have not yet
+ * replayed the last write of the client (see {@link ReadYourWritesTracker}) or that are
+ * unreachable; the primary serves the read when none is left.
+ *
+ * <p>The position of every write transaction on the primary is read after its commit, on the
+ * connection of the transaction before it is released. Each connection handed out is counted in the
+ * {@code datasource.routing} metric, tagged with the pool ({@code target}) and the reason it was
+ * picked ({@code write}, {@code read}, {@code lagging} or {@code unavailable}).
+ *
+ * <p>Must sit behind a {@link LazyConnectionDataSourceProxy}: the connection is then chosen on the
+ * first statement, once the transaction is marked read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+  static final String METRIC = "datasource.routing";
+
+  static final String PRIMARY = "primary";
+
+  /** Current position of the server in bytes, the replayed one on a standby. */
+  private static final String REPLAYED_LSN_QUERY =
+      "SELECT CASE WHEN pg_is_in_recovery() THEN pg_last_wal_replay_lsn()"
+          + " ELSE pg_current_wal_lsn() END - '0/0'::pg_lsn";
+
+  /**
+   * Insert position of the primary, past the commit record of the transaction even when commits do
+   * not wait for the flush ({@code synchronous_commit = off}), unlike the write position.
+   */
+  private static final String CURRENT_LSN_QUERY =
+      "SELECT pg_current_wal_insert_lsn() - '0/0'::pg_lsn";
+
+  private final DataSource primary;
+
+  private final List<Replica> replicas;
+
+  private final ReadYourWritesTracker tracker;
+
+  private final MeterRegistry meterRegistry;
+
+  private final AtomicInteger nextReplica = new AtomicInteger();
+
+  /**
+   * @param replicas the replicas, their names are used as {@code target} tag
+   */
+  public ReplicaRoutingDataSource(
+      DataSource primary,
+      List<NamedDataSource> replicas,
+      ReadYourWritesTracker tracker,
+      MeterRegistry meterRegistry) {
+    this.primary = primary;
+    this.replicas = replicas.stream().map(Replica::new).toList();
+    this.tracker = tracker;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    if (!readOnly || !ReplicaReadAspect.isReplicaReadAllowed() || replicas.isEmpty()) {
+      Connection connection = primary.getConnection();
+      if (!readOnly) {
+        trackWriteTransaction(connection);
+      }
+      return route(connection, PRIMARY, "write");
+    }
+
+    long requiredLsn = tracker.requiredLsn();
+    String fallbackReason = "lagging";
+    int first = nextReplica.getAndIncrement();
+    for (int i = 0; i < replicas.size() && requiredLsn != ReadYourWritesTracker.UNKNOWN_LSN; i++) {
+      Replica replica = replicas.get(Math.floorMod(first + i, replicas.size()));
+      try {
+        Connection connection = replica.connectionAt(requiredLsn);
+        if (connection != null) {
+          return route(connection, replica.name(), "read");
+        }
+      } catch (SQLException e) {
+        fallbackReason = "unavailable";
+      }
+    }
+    return route(primary.getConnection(), PRIMARY, fallbackReason);
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return route(primary.getConnection(username, password), PRIMARY, "write");
+  }
+
+  /** Closes the replica pools, the primary is closed by its owner. */
+  @Override
+  public void close() throws Exception {
+    for (Replica replica : replicas) {
+      if (replica.dataSource instanceof AutoCloseable closeable) {
+        closeable.close();
+      }
+    }
+  }
+
+  private Connection route(Connection connection, String target, String reason) {
+    meterRegistry.counter(METRIC, "target", target, "reason", reason).increment();
+    return connection;
+  }
+
+  /**
+   * Records the position of the primary once the current write transaction has committed, read on
+   * {@code connection}, which the transaction holds until its completion. Registered once per
+   * transaction.
+   */
+  private void trackWriteTransaction(Connection connection) {
+    if (!tracker.isTracking()
+        || !TransactionSynchronizationManager.isSynchronizationActive()
+        || TransactionSynchronizationManager.hasResource(this)) {
+      return;
+    }
+    TransactionSynchronizationManager.bindResource(this, connection);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            tracker.recordWrite(committedLsn(connection));
+          }
+
+          @Override
+          public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(
+                ReplicaRoutingDataSource.this);
+          }
+        });
+  }
+
+  private static long committedLsn(Connection connection) {
+    try {
+      if (!connection.isClosed()) {
+        return queryLsn(connection, CURRENT_LSN_QUERY);
+      }
+    } catch (SQLException e) {
+      // Handled below
+    }
+    // The write is committed, without its position the request is served by the primary
+    return ReadYourWritesTracker.UNKNOWN_LSN;
+  }
+
+  private static long queryLsn(Connection connection, String query) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(query)) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    }
+  }
+
+  /** Data source of a replica with the name used in metrics. */
+  public record NamedDataSource(String name, DataSource dataSource) {}
+
+  private static final class Replica {
+
+    private final String name;
+
+    private final DataSource dataSource;
+
+    /** Highest position seen replayed, replay only moves forward. */
+    private final AtomicLong replayedLsn = new AtomicLong();
+
+    Replica(NamedDataSource namedDataSource) {
+      this.name = namedDataSource.name();
+      this.dataSource = namedDataSource.dataSource();
+    }
+
+    String name() {
+      return name;
+    }
+
+    /**
+     * A connection to the replica if it has replayed up to {@code requiredLsn}, {@code null}
+     * otherwise. The replica is only queried when the last known position is not enough.
+     */
+    Connection connectionAt(long requiredLsn) throws SQLException {
+      Connection connection = dataSource.getConnection();
+      if (requiredLsn <= replayedLsn.get()) {
+        return connection;
+      }
+      try {
+        long lsn = queryLsn(connection, REPLAYED_LSN_QUERY);
+        replayedLsn.accumulateAndGet(lsn, Math::max);
+        if (lsn >= requiredLsn) {
+          return connection;
+        }
+      } catch (SQLException e) {
+        connection.close();
+        throw e;
+      }
+      connection.close();
+      return null;
+    }
+  }
+}
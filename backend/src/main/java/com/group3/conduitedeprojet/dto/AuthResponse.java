@@ -11,6 +11,7 @@ import lombok.NoArgsConstructor;
 @Builder
 public class AuthResponse {
   private String token;
+  private String refreshToken;
   private String email;
   private String name;
   private Long id;
@@ -0,0 +1,17 @@
+package com.group3.conduitedeprojet.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkCreateIssuesRequest {
+  @NotEmpty(message = "La liste des issues ne peut pas être vide")
+  @Size(max = 5000, message = "Au plus 5000 issues peuvent être créées à la fois")
+  private List<CreateIssueRequest> issues;
+}
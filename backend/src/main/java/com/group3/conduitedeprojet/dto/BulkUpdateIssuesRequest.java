@@ -0,0 +1,24 @@
+package com.group3.conduitedeprojet.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One patch applied to the listed issues, or to the issues of the project matching the filter. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateIssuesRequest {
+  @Size(max = 5000, message = "Au plus 5000 issues peuvent être modifiées à la fois")
+  private List<Long> issueIds;
+
+  private IssueFilter filter;
+
+  @NotNull(message = "Les modifications à appliquer sont obligatoires")
+  private IssuePatch patch;
+}
@@ -0,0 +1,32 @@
+package com.group3.conduitedeprojet.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkUpdateIssuesResponse {
+  /** Number of issues updated. */
+  private int updated;
+
+  /** Outcome for each issue, in the order of the request or by id for a filter. */
+  private List<Result> results;
+
+  public enum Outcome {
+    UPDATED,
+    /** The issue does not exist in the project, nothing was changed for it. */
+    NOT_FOUND
+  }
+
+  @Data
+  @Builder
+  public static class Result {
+    private Long issueId;
+
+    private Outcome outcome;
+
+    /** New version of the issue, {@code null} when it was not updated. */
+    private Long version;
+  }
+}
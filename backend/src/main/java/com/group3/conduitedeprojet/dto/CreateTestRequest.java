@@ -6,4 +6,12 @@ import lombok.Data;
 public class CreateTestRequest {
   private String programCode;
   private String testCode;
+
+  /**
+   * Hash of code already used in the project, sent in place of the code so that it is not uploaded
+   * again. The code wins when both are sent.
+   */
+  private String programHash;
+
+  private String testHash;
 }
@@ -0,0 +1,19 @@
+package com.group3.conduitedeprojet.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Unified diff of the content of two revisions, empty when it is the same. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentationDiffDto {
+  private Integer from;
+  private Integer to;
+  private String fromTitle;
+  private String toTitle;
+  private String diff;
+}
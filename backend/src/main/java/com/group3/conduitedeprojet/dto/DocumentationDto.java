@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class DocumentationDto {
   private Long id;
+  private Long version;
   private String title;
   private String content;
   private LocalDateTime createdAt;
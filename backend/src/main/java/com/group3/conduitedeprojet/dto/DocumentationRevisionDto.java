@@ -0,0 +1,20 @@
+package com.group3.conduitedeprojet.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** A revision of a documentation, {@code content} is only filled when a single one is read. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentationRevisionDto {
+  private Integer revision;
+  private String title;
+  private String content;
+  private Integer contentLength;
+  private LocalDateTime createdAt;
+}
@@ -0,0 +1,25 @@
+package com.group3.conduitedeprojet.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A documentation in a listing, without its content. {@code size} is the length of the content in
+ * UTF-8 bytes and {@code contentHash} its hex SHA-256, which is also the ETag of the content.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentationSummaryDto {
+  private Long id;
+  private Long version;
+  private String title;
+  private Integer size;
+  private String contentHash;
+  private LocalDateTime createdAt;
+  private LocalDateTime updatedAt;
+}
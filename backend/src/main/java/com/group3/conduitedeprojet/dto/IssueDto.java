@@ -11,6 +11,8 @@ import lombok.Data;
 public class IssueDto {
   private Long id;
 
+  private Long version;
+
   private String title;
 
   private Issue.Priority priority;
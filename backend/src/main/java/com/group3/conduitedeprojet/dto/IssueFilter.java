@@ -0,0 +1,24 @@
+package com.group3.conduitedeprojet.dto;
+
+import com.group3.conduitedeprojet.models.Issue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** Optional criteria of an issue listing, a {@code null} field does not filter. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssueFilter {
+  private Issue.Status status;
+
+  private Issue.Priority priority;
+
+  private Long assigneeId;
+
+  private Long sprintId;
+
+  private Long releaseId;
+}
@@ -0,0 +1,33 @@
+package com.group3.conduitedeprojet.dto;
+
+import com.group3.conduitedeprojet.models.Issue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Changes applied to every issue of a bulk update, a {@code null} field is left unchanged. The
+ * {@code clear*} flags take the issues out of their sprint, release or assignee.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IssuePatch {
+  private Issue.Status status;
+
+  private Issue.Priority priority;
+
+  private Long assigneeId;
+
+  private boolean clearAssignee;
+
+  private Long sprintId;
+
+  private boolean clearSprint;
+
+  private Long releaseId;
+
+  private boolean clearRelease;
+}
@@ -0,0 +1,14 @@
+package com.group3.conduitedeprojet.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+  @NotBlank(message = "Le refresh token ne peut pas être vide")
+  private String refreshToken;
+}
@@ -1,7 +1,9 @@
 package com.group3.conduitedeprojet.dto;
 
+import com.group3.conduitedeprojet.models.Issue;
 import com.group3.conduitedeprojet.models.Release;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import lombok.Builder;
@@ -16,5 +18,7 @@ public class ReleaseDto {
   private String releaseNotes;
   private Long creatorId;
   private Set<Long> issueIds;
+  private long totalStoryPoints;
+  private Map<Issue.Status, Long> issueCountByStatus;
   private UUID projectId;
 }
@@ -0,0 +1,32 @@
+package com.group3.conduitedeprojet.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SearchHitDto {
+  public enum Type {
+    ISSUE,
+    TASK,
+    DOCUMENTATION
+  }
+
+  private Type type;
+
+  private Long id;
+
+  /** Issue of the hit: the issue itself, the parent issue of a task, {@code null} otherwise. */
+  private Long issueId;
+
+  private String title;
+
+  /** Title with the matching words between {@code <mark>} tags, the rest is HTML-escaped. */
+  private String highlightedTitle;
+
+  /** Best passages of the text with the matching words between {@code <mark>} tags. */
+  private String snippet;
+
+  /** Relevance of the hit, higher first. */
+  private float rank;
+}
@@ -0,0 +1,14 @@
+package com.group3.conduitedeprojet.dto;
+
+import java.util.List;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class SearchPageDto {
+  private List<SearchHitDto> items;
+
+  /** Cursor of the next page, {@code null} on the last page. */
+  private String nextCursor;
+}
@@ -1,7 +1,9 @@
 package com.group3.conduitedeprojet.dto;
 
+import com.group3.conduitedeprojet.models.Issue;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import lombok.Builder;
 import lombok.Data;
@@ -10,10 +12,13 @@ import lombok.Data;
 @Builder
 public class SprintDto {
   private Long id;
+  private Long version;
   private String name;
   private LocalDateTime startDate;
   private LocalDateTime endDate;
   private UUID projectId;
   private List<Long> issueIds;
+  private long totalStoryPoints;
+  private Map<Issue.Status, Long> issueCountByStatus;
   private LocalDateTime createdAt;
 }
@@ -10,6 +10,7 @@ import lombok.Data;
 @Builder
 public class TaskDto {
   private Long id;
+  private Long version;
   private String title;
   private String description;
   private String definitionOfDone;
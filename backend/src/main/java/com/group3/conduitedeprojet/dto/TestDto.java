@@ -10,6 +10,11 @@ public class TestDto {
   private Long id;
   private String programCode;
   private String testCode;
+
+  /** Hex SHA-256 of the program and of the tests, also the ETags of their code. */
+  private String programHash;
+
+  private String testHash;
   private Long creatorId;
   private Long issueId;
   private LocalDateTime createdAt;
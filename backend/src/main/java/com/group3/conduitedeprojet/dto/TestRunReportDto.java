@@ -0,0 +1,57 @@
+package com.group3.conduitedeprojet.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of running several stored tests on the server, with the fields of the {@code
+ * WorkerResponse} of the browser test worker summed over every run.
+ */
+@Data
+@Builder
+public class TestRunReportDto {
+  /** Every run completed, whether its assertions passed or not. */
+  private boolean success;
+
+  private String output;
+
+  /** Set when some runs did not complete, their own error is in their result. */
+  private String error;
+
+  private int testCount;
+
+  private int passedCount;
+
+  private int failedCount;
+
+  /** One result per stored test, by test id. */
+  private List<Result> results;
+
+  /** Run of one stored test, shaped like the {@code WorkerResponse} of the browser test worker. */
+  @Data
+  @Builder
+  @NoArgsConstructor
+  @AllArgsConstructor
+  public static class Result {
+    private Long testId;
+
+    private Long issueId;
+
+    private boolean success;
+
+    private String output;
+
+    private String error;
+
+    private String stack;
+
+    private Integer testCount;
+
+    private Integer passedCount;
+
+    private Integer failedCount;
+  }
+}
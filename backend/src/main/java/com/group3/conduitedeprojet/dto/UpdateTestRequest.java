@@ -2,8 +2,14 @@ package com.group3.conduitedeprojet.dto;
 
 import lombok.Data;
 
+/** Code sent neither as code nor as hash stays unchanged. */
 @Data
 public class UpdateTestRequest {
   private String programCode;
   private String testCode;
+
+  /** Switches to code already stored for the project, see {@link CreateTestRequest}. */
+  private String programHash;
+
+  private String testHash;
 }
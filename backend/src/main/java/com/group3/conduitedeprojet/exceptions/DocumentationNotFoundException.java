@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class DocumentationNotFoundException extends RuntimeException {
+  public DocumentationNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class DocumentationRevisionNotFoundException extends RuntimeException {
+  public DocumentationRevisionNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class InvalidBulkUpdateException extends RuntimeException {
+  public InvalidBulkUpdateException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+  public InvalidCursorException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class InvalidRefreshTokenException extends RuntimeException {
+  public InvalidRefreshTokenException(String message) {
+    super(message);
+  }
+}
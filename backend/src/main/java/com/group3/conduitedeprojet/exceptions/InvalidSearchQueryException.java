@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class InvalidSearchQueryException extends RuntimeException {
+  public InvalidSearchQueryException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+  public PasswordHashingUnavailableException(String message) {
+    super(message);
+  }
+}
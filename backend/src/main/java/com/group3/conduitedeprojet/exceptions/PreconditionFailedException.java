@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+  public PreconditionFailedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class ReleaseNotFoundException extends RuntimeException {
+  public ReleaseNotFoundException(String message) {
+    super(message);
+  }
+}
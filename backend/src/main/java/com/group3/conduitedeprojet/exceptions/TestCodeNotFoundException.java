@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class TestCodeNotFoundException extends RuntimeException {
+  public TestCodeNotFoundException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package com.group3.conduitedeprojet.exceptions;
+
+public class TestRunnerUnavailableException extends RuntimeException {
+  public TestRunnerUnavailableException(String message) {
+    super(message);
+  }
+}
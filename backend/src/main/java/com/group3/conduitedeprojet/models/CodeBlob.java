@@ -0,0 +1,38 @@
+package com.group3.conduitedeprojet.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * Code of tests, stored once per distinct content and keyed by the hex SHA-256 of its UTF-8 bytes.
+ * {@code data} holds those bytes, deflated when {@code compressed} is set. {@code refCount} counts
+ * the test columns pointing to the blob.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@Table(name = "code_blobs")
+public class CodeBlob {
+  @Id
+  @Column(length = 64)
+  private String hash;
+
+  @Column(nullable = false)
+  private boolean compressed;
+
+  @Column(nullable = false)
+  private byte[] data;
+
+  @Column(name = "code_length", nullable = false)
+  private Integer codeLength;
+
+  @Column(name = "ref_count", nullable = false)
+  private Integer refCount;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+}
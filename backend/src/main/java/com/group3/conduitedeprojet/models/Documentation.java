@@ -1,7 +1,12 @@
 package com.group3.conduitedeprojet.models;
 
+import com.group3.conduitedeprojet.dto.DocumentationDto;
 import jakarta.persistence.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import lombok.*;
 
 @Entity
@@ -13,16 +18,32 @@ import lombok.*;
 @Table(name = "documentation")
 public class Documentation {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documentation_seq")
+  @SequenceGenerator(
+      name = "documentation_seq",
+      sequenceName = "documentation_seq",
+      allocationSize = 50)
   private Long id;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   @Column(nullable = false)
   private String title;
 
   @Column(columnDefinition = "TEXT")
   private String content;
 
-  @ManyToOne
+  /** Size of the content in UTF-8 bytes. */
+  @Column(name = "content_length", nullable = false)
+  private Integer contentLength;
+
+  /** Hex SHA-256 of the content in UTF-8. */
+  @Column(name = "content_hash", nullable = false, length = 64)
+  private String contentHash;
+
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "project_id", nullable = false)
   private Project project;
 
@@ -36,10 +57,33 @@ public class Documentation {
   protected void onCreate() {
     createdAt = LocalDateTime.now();
     updatedAt = LocalDateTime.now();
+    digestContent();
   }
 
   @PreUpdate
   protected void onUpdate() {
     updatedAt = LocalDateTime.now();
+    digestContent();
+  }
+
+  private void digestContent() {
+    byte[] bytes = (content == null ? "" : content).getBytes(StandardCharsets.UTF_8);
+    contentLength = bytes.length;
+    try {
+      contentHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  public DocumentationDto toDocumentationDto() {
+    return DocumentationDto.builder()
+        .id(id)
+        .version(version)
+        .title(title)
+        .content(content)
+        .createdAt(createdAt)
+        .updatedAt(updatedAt)
+        .build();
   }
 }
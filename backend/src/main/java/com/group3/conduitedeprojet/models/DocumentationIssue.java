@@ -15,14 +15,18 @@ import lombok.*;
     uniqueConstraints = {@UniqueConstraint(columnNames = {"documentation_id", "issue_id"})})
 public class DocumentationIssue {
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documentation_issues_seq")
+  @SequenceGenerator(
+      name = "documentation_issues_seq",
+      sequenceName = "documentation_issues_seq",
+      allocationSize = 50)
   private Long id;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "documentation_id", nullable = false)
   private Documentation documentation;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "issue_id", nullable = false)
   private Issue issue;
 
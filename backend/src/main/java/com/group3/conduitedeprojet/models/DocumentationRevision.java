@@ -0,0 +1,55 @@
+package com.group3.conduitedeprojet.models;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import lombok.*;
+
+/**
+ * A revision of a documentation. {@code data} is a deflated copy of the content when {@code
+ * snapshot} is set, a deflated delta from the previous revision otherwise.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@Table(
+    name = "documentation_revisions",
+    uniqueConstraints = {@UniqueConstraint(columnNames = {"documentation_id", "revision"})})
+public class DocumentationRevision {
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "documentation_revisions_seq")
+  @SequenceGenerator(
+      name = "documentation_revisions_seq",
+      sequenceName = "documentation_revisions_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "documentation_id", nullable = false)
+  private Documentation documentation;
+
+  @Column(nullable = false)
+  private Integer revision;
+
+  @Column(nullable = false)
+  private String title;
+
+  @Column(nullable = false)
+  private boolean snapshot;
+
+  @Column(nullable = false)
+  private byte[] data;
+
+  @Column(name = "content_length", nullable = false)
+  private Integer contentLength;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  protected void onCreate() {
+    createdAt = LocalDateTime.now();
+  }
+}
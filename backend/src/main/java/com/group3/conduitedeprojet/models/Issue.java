@@ -3,6 +3,7 @@ package com.group3.conduitedeprojet.models;
 import com.group3.conduitedeprojet.dto.IssueDto;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,8 +11,13 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -28,9 +34,14 @@ import lombok.Setter;
 public class Issue {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "issues_seq")
+  @SequenceGenerator(name = "issues_seq", sequenceName = "issues_seq", allocationSize = 50)
   private Long id;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   @Column(nullable = false)
   private String title;
 
@@ -47,10 +58,10 @@ public class Issue {
   @Builder.Default
   private Status status = Status.TODO;
 
-  @ManyToOne(optional = false)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
   private Project project;
 
-  @ManyToOne(optional = false)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
   @JoinColumn(
       name = "creator_id",
       nullable = false,
@@ -65,18 +76,18 @@ public class Issue {
     this.createdAt = LocalDateTime.now();
   }
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "assignee_id", nullable = true, foreignKey = @ForeignKey(name = "fk_assignee"))
   private User assignee;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(
       name = "sprint_id",
       nullable = true,
       foreignKey = @ForeignKey(name = "fk_issue_sprint"))
   private Sprint sprint;
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(
       name = "release_id",
       nullable = true,
@@ -95,10 +106,26 @@ public class Issue {
     CLOSED
   }
 
+  /** Number of issues per status, every status present. */
+  public static Map<Status, Long> countByStatus(Collection<Issue> issues) {
+    Map<Status, Long> counts = new EnumMap<>(Status.class);
+    for (Status status : Status.values()) {
+      counts.put(status, 0L);
+    }
+    issues.forEach(issue -> counts.merge(issue.getStatus(), 1L, Long::sum));
+    return counts;
+  }
+
+  /** Sum of the story points of the issues. */
+  public static long totalStoryPoints(Collection<Issue> issues) {
+    return issues.stream().mapToLong(Issue::getStoryPoints).sum();
+  }
+
   public IssueDto toIssueDto() {
     IssueDto.IssueDtoBuilder builder =
         IssueDto.builder()
             .id(id)
+            .version(version)
             .title(title)
             .priority(priority)
             .status(status)
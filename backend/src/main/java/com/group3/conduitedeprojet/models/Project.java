@@ -1,8 +1,11 @@
 package com.group3.conduitedeprojet.models;
 
+import com.group3.conduitedeprojet.config.SecondLevelCacheConfig;
 import com.group3.conduitedeprojet.dto.ProjectDto;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
@@ -20,6 +23,8 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @NoArgsConstructor
@@ -27,6 +32,8 @@ import lombok.Setter;
 @Builder
 @Getter
 @Setter
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PROJECT_REGION)
 @Table(name = "project")
 public class Project {
 
@@ -46,13 +53,19 @@ public class Project {
     this.createdAt = LocalDateTime.now();
   }
 
-  @ManyToOne
+  /** Last change of the collaborators, other instances refresh their membership index from it. */
+  @Column(name = "members_changed_at")
+  private LocalDateTime membersChangedAt;
+
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(
       name = "creator_id",
       nullable = false,
       foreignKey = @ForeignKey(name = "fk_project_creator"))
   private User creator;
 
+  // Not cached: each instance has its own second-level cache, and a collaborator removed on another
+  // instance must not be indexed again as a member from a stale copy
   @ManyToMany
   @JoinTable(
       name = "project_user",
@@ -0,0 +1,74 @@
+package com.group3.conduitedeprojet.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Refresh token of a login session. Only the SHA-256 hash of the token is stored. Every refresh
+ * consumes the token and issues a new one in the same session, so a token that is presented again
+ * after the grace period of concurrent refreshes reveals a leak and revokes the whole session.
+ */
+@Entity
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Getter
+@Setter
+@Table(name = "refresh_tokens")
+public class RefreshToken {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+  @SequenceGenerator(
+      name = "refresh_tokens_seq",
+      sequenceName = "refresh_tokens_seq",
+      allocationSize = 50)
+  private Long id;
+
+  @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+  private String tokenHash;
+
+  @Column(name = "session_id", nullable = false)
+  private UUID sessionId;
+
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
+  @JoinColumn(
+      name = "user_id",
+      nullable = false,
+      foreignKey = @ForeignKey(name = "fk_refresh_token_user"))
+  private User user;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+
+  @Column(name = "used_at")
+  private LocalDateTime usedAt;
+
+  @Column(name = "revoked_at")
+  private LocalDateTime revokedAt;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private LocalDateTime createdAt;
+
+  @PrePersist
+  private void onCreate() {
+    this.createdAt = LocalDateTime.now();
+  }
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Embeddable;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -13,6 +14,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -30,7 +32,8 @@ import lombok.*;
 public class Release {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "release_seq")
+  @SequenceGenerator(name = "release_seq", sequenceName = "release_seq", allocationSize = 50)
   private Long id;
 
   @Embedded private Version version;
@@ -41,7 +44,7 @@ public class Release {
   @Column(name = "created_at", nullable = false, updatable = false)
   private LocalDateTime createdAt;
 
-  @ManyToOne(optional = false)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
   private Project project;
 
   @PrePersist
@@ -49,7 +52,7 @@ public class Release {
     this.createdAt = LocalDateTime.now();
   }
 
-  @ManyToOne
+  @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(
       name = "creator_id",
       nullable = false,
@@ -77,6 +80,8 @@ public class Release {
         .releaseNotes(releaseNotes)
         .projectId(project.getId())
         .issueIds(issues.stream().map(Issue::getId).collect(Collectors.toSet()))
+        .totalStoryPoints(Issue.totalStoryPoints(issues))
+        .issueCountByStatus(Issue.countByStatus(issues))
         .build();
   }
 }
@@ -1,11 +1,14 @@
 package com.group3.conduitedeprojet.models;
 
+import com.group3.conduitedeprojet.config.SecondLevelCacheConfig;
 import com.group3.conduitedeprojet.dto.SprintDto;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @NoArgsConstructor
@@ -13,13 +16,20 @@ import lombok.*;
 @Builder
 @Getter
 @Setter
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.SPRINT_REGION)
 @Table(name = "sprints")
 public class Sprint {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sprints_seq")
+  @SequenceGenerator(name = "sprints_seq", sequenceName = "sprints_seq", allocationSize = 50)
   private Long id;
 
+  @Version
+  @Column(nullable = false)
+  private Long version;
+
   @Column(nullable = false)
   private String name;
 
@@ -29,7 +39,7 @@ public class Sprint {
   @Column(name = "end_date", nullable = false)
   private LocalDateTime endDate;
 
-  @ManyToOne(optional = false)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
   @JoinColumn(
       name = "project_id",
       nullable = false,
@@ -37,6 +47,7 @@ public class Sprint {
   private Project project;
 
   @OneToMany(mappedBy = "sprint", cascade = CascadeType.ALL)
+  @OrderBy("id")
   @Builder.Default
   private List<Issue> issues = new ArrayList<>();
 
@@ -51,11 +62,14 @@ public class Sprint {
   public SprintDto toSprintDto() {
     return SprintDto.builder()
         .id(id)
+        .version(version)
         .name(name)
         .startDate(startDate)
         .endDate(endDate)
         .projectId(project.getId())
         .issueIds(issues.stream().map(Issue::getId).toList())
+        .totalStoryPoints(Issue.totalStoryPoints(issues))
+        .issueCountByStatus(Issue.countByStatus(issues))
         .createdAt(createdAt)
         .build();
   }
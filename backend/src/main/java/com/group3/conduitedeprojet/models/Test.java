@@ -3,6 +3,7 @@ package com.group3.conduitedeprojet.models;
 import com.group3.conduitedeprojet.dto.TestDto;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,8 +11,10 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import java.time.LocalDateTime;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -28,23 +31,26 @@ import lombok.Setter;
 public class Test {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tests_seq")
+  @SequenceGenerator(name = "tests_seq", sequenceName = "tests_seq", allocationSize = 50)
   private Long id;
 
-  @Column(columnDefinition = "text", nullable = false)
-  private String programCode;
+  /** Hex SHA-256 of the program, the code itself is a {@link CodeBlob}. */
+  @Column(name = "program_hash", length = 64, nullable = false)
+  private String programHash;
 
-  @Column(columnDefinition = "text", nullable = false)
-  private String testCode;
+  /** Hex SHA-256 of the tests, the code itself is a {@link CodeBlob}. */
+  @Column(name = "test_hash", length = 64, nullable = false)
+  private String testHash;
 
-  @ManyToOne(optional = false)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
   @JoinColumn(
       name = "creator_id",
       nullable = false,
       foreignKey = @ForeignKey(name = "fk_project_creator"))
   private User creator;
 
-  @ManyToOne(optional = false)
+  @ManyToOne(fetch = FetchType.LAZY, optional = false)
   private Issue issue;
 
   @Column(name = "created_at", nullable = false, updatable = false)
@@ -55,12 +61,17 @@ public class Test {
     this.createdAt = LocalDateTime.now();
   }
 
-  public TestDto toTestDto() {
+  /**
+   * @param codes code by hash, the code missing from it is left out of the DTO
+   */
+  public TestDto toTestDto(Map<String, String> codes) {
     return TestDto.builder()
         .creatorId(creator.getId())
         .id(id)
-        .programCode(programCode)
-        .testCode(testCode)
+        .programHash(programHash)
+        .testHash(testHash)
+        .programCode(codes.get(programHash))
+        .testCode(codes.get(testHash))
         .issueId(issue.getId())
         .createdAt(createdAt)
         .build();
@@ -0,0 +1,44 @@
+package com.group3.conduitedeprojet.repositories;
+
+import com.group3.conduitedeprojet.models.CodeBlob;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface CodeBlobRepository extends JpaRepository<CodeBlob, String> {
+
+  List<CodeBlob> findByHashIn(Collection<String> hashes);
+
+  /** Adds a reference to a stored blob, returns 0 when the blob is not stored. */
+  @Modifying
+  @Query("UPDATE CodeBlob b SET b.refCount = b.refCount + 1 WHERE b.hash = :hash")
+  int addReference(@Param("hash") String hash);
+
+  /**
+   * Stores a blob with one reference, or adds a reference when a concurrent transaction stored it
+   * first.
+   */
+  @Modifying
+  @Query(
+      value =
+          "INSERT INTO code_blobs (hash, compressed, data, code_length, ref_count, created_at)"
+              + " VALUES (:hash, :compressed, :data, :codeLength, 1, now())"
+              + " ON CONFLICT (hash) DO UPDATE SET ref_count = code_blobs.ref_count + 1",
+      nativeQuery = true)
+  int insertOrAddReference(
+      @Param("hash") String hash,
+      @Param("compressed") boolean compressed,
+      @Param("data") byte[] data,
+      @Param("codeLength") int codeLength);
+
+  @Modifying
+  @Query("UPDATE CodeBlob b SET b.refCount = b.refCount - 1 WHERE b.hash = :hash")
+  int removeReference(@Param("hash") String hash);
+
+  @Modifying
+  @Query("DELETE FROM CodeBlob b WHERE b.refCount <= 0")
+  int deleteUnreferenced();
+}
@@ -3,11 +3,13 @@ package com.group3.conduitedeprojet.repositories;
 import com.group3.conduitedeprojet.models.DocumentationIssue;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface DocumentationIssueRepository extends JpaRepository<DocumentationIssue, Long> {
+  @EntityGraph(attributePaths = "issue")
   List<DocumentationIssue> findByDocumentationId(Long documentationId);
 
   List<DocumentationIssue> findByIssueId(Long issueId);
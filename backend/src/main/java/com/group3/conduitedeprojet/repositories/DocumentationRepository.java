@@ -1,12 +1,51 @@
 package com.group3.conduitedeprojet.repositories;
 
+import com.group3.conduitedeprojet.dto.DocumentationSummaryDto;
 import com.group3.conduitedeprojet.models.Documentation;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface DocumentationRepository extends JpaRepository<Documentation, Long> {
   List<Documentation> findByProjectId(UUID projectId);
+
+  boolean existsByIdAndProjectId(Long id, UUID projectId);
+
+  Optional<Documentation> findByIdAndProjectId(Long id, UUID projectId);
+
+  /** Documentations of a project without their content, in creation order. */
+  @Query(
+      "SELECT new com.group3.conduitedeprojet.dto.DocumentationSummaryDto(d.id, d.version, d.title,"
+          + " d.contentLength, d.contentHash, d.createdAt, d.updatedAt)"
+          + " FROM Documentation d WHERE d.project.id = :projectId ORDER BY d.id")
+  List<DocumentationSummaryDto> findSummariesByProjectId(@Param("projectId") UUID projectId);
+
+  @Query("SELECT d.contentHash FROM Documentation d WHERE d.id = :id AND d.project.id = :projectId")
+  Optional<String> findContentHash(@Param("id") Long id, @Param("projectId") UUID projectId);
+
+  @Query(
+      "SELECT new com.group3.conduitedeprojet.repositories.DocumentationRepository$DocumentationContent("
+          + "d.contentHash, d.content)"
+          + " FROM Documentation d WHERE d.id = :id AND d.project.id = :projectId")
+  Optional<DocumentationContent> findContent(
+      @Param("id") Long id, @Param("projectId") UUID projectId);
+
+  /** Streams the documentations of a project for the export, must be consumed in a transaction. */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT d FROM Documentation d WHERE d.project.id = :projectId ORDER BY d.id")
+  Stream<Documentation> streamByProjectId(@Param("projectId") UUID projectId);
+
+  record DocumentationContent(String hash, String content) {}
 }
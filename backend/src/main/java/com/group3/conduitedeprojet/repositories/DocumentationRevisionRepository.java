@@ -0,0 +1,50 @@
+package com.group3.conduitedeprojet.repositories;
+
+import com.group3.conduitedeprojet.models.DocumentationRevision;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DocumentationRevisionRepository
+    extends JpaRepository<DocumentationRevision, Long> {
+
+  /** Revisions of a documentation without their data, latest first. */
+  @Query(
+      "SELECT new com.group3.conduitedeprojet.repositories.DocumentationRevisionRepository$RevisionHeader("
+          + "r.revision, r.title, r.contentLength, r.createdAt)"
+          + " FROM DocumentationRevision r WHERE r.documentation.id = :documentationId"
+          + " ORDER BY r.revision DESC")
+  List<RevisionHeader> findHeadersByDocumentationId(@Param("documentationId") Long documentationId);
+
+  /** Latest revision and latest snapshot of a documentation, both null when it has none. */
+  @Query(
+      "SELECT new com.group3.conduitedeprojet.repositories.DocumentationRevisionRepository$RevisionHead("
+          + "MAX(r.revision), MAX(CASE WHEN r.snapshot = true THEN r.revision END))"
+          + " FROM DocumentationRevision r WHERE r.documentation.id = :documentationId")
+  RevisionHead findHeadByDocumentationId(@Param("documentationId") Long documentationId);
+
+  /** Latest snapshot at or before the revision, null when the revision does not exist. */
+  @Query(
+      "SELECT MAX(r.revision) FROM DocumentationRevision r"
+          + " WHERE r.documentation.id = :documentationId AND r.snapshot = true"
+          + " AND r.revision <= :revision")
+  Integer findSnapshotRevision(
+      @Param("documentationId") Long documentationId, @Param("revision") int revision);
+
+  List<DocumentationRevision> findByDocumentationIdAndRevisionBetweenOrderByRevisionAsc(
+      Long documentationId, int from, int to);
+
+  @Modifying
+  @Query("DELETE FROM DocumentationRevision r WHERE r.documentation.id = :documentationId")
+  int deleteByDocumentationId(@Param("documentationId") Long documentationId);
+
+  record RevisionHeader(
+      Integer revision, String title, Integer contentLength, LocalDateTime createdAt) {}
+
+  record RevisionHead(Integer latest, Integer latestSnapshot) {}
+}
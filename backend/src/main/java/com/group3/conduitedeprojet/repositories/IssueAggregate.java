@@ -0,0 +1,31 @@
+package com.group3.conduitedeprojet.repositories;
+
+import com.group3.conduitedeprojet.models.Issue;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Issue columns aggregated by a summary query: the ids of the issues, the sum of their story points
+ * and their number per status.
+ */
+public interface IssueAggregate {
+
+  List<Long> getIssueIds();
+
+  long getTotalStoryPoints();
+
+  long getTodoCount();
+
+  long getInProgressCount();
+
+  long getClosedCount();
+
+  default Map<Issue.Status, Long> getIssueCountByStatus() {
+    Map<Issue.Status, Long> counts = new EnumMap<>(Issue.Status.class);
+    counts.put(Issue.Status.TODO, getTodoCount());
+    counts.put(Issue.Status.IN_PROGRESS, getInProgressCount());
+    counts.put(Issue.Status.CLOSED, getClosedCount());
+    return counts;
+  }
+}
@@ -1,16 +1,59 @@
 package com.group3.conduitedeprojet.repositories;
 
 import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Sprint;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface IssueRepository extends JpaRepository<Issue, Long> {
-  List<Issue> findByProjectId(java.util.UUID projectId);
+public interface IssueRepository extends JpaRepository<Issue, Long>, IssueRepositoryCustom {
+  List<Issue> findByProjectIdOrderByCreatedAtAscIdAsc(java.util.UUID projectId);
 
   Optional<Issue> findByIdAndProjectId(Long id, java.util.UUID projectId);
 
-  List<Issue> findBySprintId(Long sprintId);
+  List<Issue> findBySprintIdOrderByIdAsc(Long sprintId);
 
   Optional<Issue> findByIdAndSprintId(Long id, Long sprintId);
+
+  long countByIdIn(Collection<Long> ids);
+
+  /**
+   * Takes every issue out of the sprint in one statement. The persistence context is cleared, the
+   * issues and sprint it holds would be stale.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE Issue i SET i.sprint = NULL, i.version = i.version + 1"
+          + " WHERE i.sprint.id = :sprintId")
+  int removeFromSprint(@Param("sprintId") Long sprintId);
+
+  /**
+   * Moves the listed issues of the project into the sprint in one statement, returns the number of
+   * issues moved. Ids of other projects are left alone. The persistence context is cleared.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query(
+      "UPDATE Issue i SET i.sprint = :sprint, i.version = i.version + 1"
+          + " WHERE i.id IN :issueIds AND i.project.id = :projectId")
+  int moveToSprint(
+      @Param("sprint") Sprint sprint,
+      @Param("issueIds") Collection<Long> issueIds,
+      @Param("projectId") UUID projectId);
+
+  /** Streams the issues of a project for the export, must be consumed in a transaction. */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT i FROM Issue i WHERE i.project.id = :projectId ORDER BY i.id")
+  Stream<Issue> streamByProjectId(@Param("projectId") UUID projectId);
 }
@@ -0,0 +1,42 @@
+package com.group3.conduitedeprojet.repositories;
+
+import com.group3.conduitedeprojet.dto.IssueFilter;
+import com.group3.conduitedeprojet.dto.IssuePatch;
+import com.group3.conduitedeprojet.models.Issue;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface IssueRepositoryCustom {
+
+  /**
+   * Issues of a project matching the filter, newest first, ordered by {@code (createdAt, id)}.
+   *
+   * @param after position of the last issue of the previous page, {@code null} for the first page
+   * @param limit maximum number of issues returned
+   */
+  List<Issue> findPage(UUID projectId, IssueFilter filter, Keyset after, int limit);
+
+  /**
+   * Issues of a project among the ids, or matching the filter when {@code ids} is {@code null},
+   * locked until the end of the transaction. They are locked in id order, so that two bulk updates
+   * cannot deadlock on each other.
+   *
+   * @param limit maximum number of issues returned
+   */
+  List<IssueVersion> lockForUpdate(
+      UUID projectId, Collection<Long> ids, IssueFilter filter, int limit);
+
+  /**
+   * Applies the patch to the issues in one statement per table, and increments their version.
+   * Referenced sprint, release and assignee must have been checked.
+   */
+  void applyPatch(Collection<Long> ids, IssuePatch patch);
+
+  /** Sort key of an issue, the page starts right after it. */
+  record Keyset(LocalDateTime createdAt, Long id) {}
+
+  /** Id and current version of an issue. */
+  record IssueVersion(Long id, Long version) {}
+}
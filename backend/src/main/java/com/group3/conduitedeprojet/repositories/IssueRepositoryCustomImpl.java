@@ -0,0 +1,158 @@
+package com.group3.conduitedeprojet.repositories;
+
+import com.group3.conduitedeprojet.dto.IssueFilter;
+import com.group3.conduitedeprojet.dto.IssuePatch;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Sprint;
+import com.group3.conduitedeprojet.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Keyset pagination of issues. Only the criteria actually set are added to the query, so that each
+ * combination gets its own plan on the {@code (project_id, <filter>, created_at, id)} indexes, and
+ * the position is a row comparison on {@code (created_at, id)}, so a deep page costs the same as
+ * the first one.
+ *
+ * <p>Bulk updates are set-based: whatever the number of issues, they lock them with one query and
+ * change them with one statement per table.
+ */
+class IssueRepositoryCustomImpl implements IssueRepositoryCustom {
+
+  /** Join table of the releases, changed by native statements. */
+  private static final String RELEASE_ISSUES_TABLE = "release_issues";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  @Override
+  public List<Issue> findPage(UUID projectId, IssueFilter filter, Keyset after, int limit) {
+    StringBuilder jpql = new StringBuilder("SELECT i FROM Issue i WHERE i.project.id = :projectId");
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("projectId", projectId);
+    appendFilter(filter, jpql, parameters);
+
+    if (after != null) {
+      jpql.append(" AND (i.createdAt, i.id) < (:afterCreatedAt, :afterId)");
+      parameters.put("afterCreatedAt", after.createdAt());
+      parameters.put("afterId", after.id());
+    }
+    jpql.append(" ORDER BY i.createdAt DESC, i.id DESC");
+
+    TypedQuery<Issue> query = entityManager.createQuery(jpql.toString(), Issue.class);
+    parameters.forEach(query::setParameter);
+    return query.setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public List<IssueVersion> lockForUpdate(
+      UUID projectId, Collection<Long> ids, IssueFilter filter, int limit) {
+    StringBuilder jpql =
+        new StringBuilder(
+            "SELECT new com.group3.conduitedeprojet.repositories.IssueRepositoryCustom$IssueVersion("
+                + "i.id, i.version) FROM Issue i WHERE i.project.id = :projectId");
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("projectId", projectId);
+    if (ids != null) {
+      jpql.append(" AND i.id IN :ids");
+      parameters.put("ids", ids);
+    } else {
+      appendFilter(filter, jpql, parameters);
+    }
+    jpql.append(" ORDER BY i.id");
+
+    TypedQuery<IssueVersion> query = entityManager.createQuery(jpql.toString(), IssueVersion.class);
+    parameters.forEach(query::setParameter);
+    return query.setLockMode(LockModeType.PESSIMISTIC_WRITE).setMaxResults(limit).getResultList();
+  }
+
+  @Override
+  public void applyPatch(Collection<Long> ids, IssuePatch patch) {
+    StringBuilder jpql = new StringBuilder("UPDATE Issue i SET i.version = i.version + 1");
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("ids", ids);
+
+    if (patch.getStatus() != null) {
+      jpql.append(", i.status = :status");
+      parameters.put("status", patch.getStatus());
+    }
+    if (patch.getPriority() != null) {
+      jpql.append(", i.priority = :priority");
+      parameters.put("priority", patch.getPriority());
+    }
+    if (patch.isClearAssignee()) {
+      jpql.append(", i.assignee = NULL");
+    } else if (patch.getAssigneeId() != null) {
+      jpql.append(", i.assignee = :assignee");
+      parameters.put("assignee", entityManager.getReference(User.class, patch.getAssigneeId()));
+    }
+    if (patch.isClearSprint()) {
+      jpql.append(", i.sprint = NULL");
+    } else if (patch.getSprintId() != null) {
+      jpql.append(", i.sprint = :sprint");
+      parameters.put("sprint", entityManager.getReference(Sprint.class, patch.getSprintId()));
+    }
+    jpql.append(" WHERE i.id IN :ids");
+
+    Query update = entityManager.createQuery(jpql.toString());
+    parameters.forEach(update::setParameter);
+    update.executeUpdate();
+
+    if (patch.isClearRelease() || patch.getReleaseId() != null) {
+      releaseIssuesStatement("DELETE FROM release_issues WHERE issues_id IN (:ids)")
+          .setParameter("ids", ids)
+          .executeUpdate();
+    }
+    if (!patch.isClearRelease() && patch.getReleaseId() != null) {
+      releaseIssuesStatement(
+              "INSERT INTO release_issues (release_id, issues_id)"
+                  + " SELECT :releaseId, i.id FROM issues i WHERE i.id IN (:ids)")
+          .setParameter("releaseId", patch.getReleaseId())
+          .setParameter("ids", ids)
+          .executeUpdate();
+    }
+  }
+
+  private static void appendFilter(
+      IssueFilter filter, StringBuilder jpql, Map<String, Object> parameters) {
+    if (filter.getStatus() != null) {
+      jpql.append(" AND i.status = :status");
+      parameters.put("status", filter.getStatus());
+    }
+    if (filter.getPriority() != null) {
+      jpql.append(" AND i.priority = :priority");
+      parameters.put("priority", filter.getPriority());
+    }
+    if (filter.getAssigneeId() != null) {
+      jpql.append(" AND i.assignee.id = :assigneeId");
+      parameters.put("assigneeId", filter.getAssigneeId());
+    }
+    if (filter.getSprintId() != null) {
+      jpql.append(" AND i.sprint.id = :sprintId");
+      parameters.put("sprintId", filter.getSprintId());
+    }
+    if (filter.getReleaseId() != null) {
+      jpql.append(
+          " AND i.id IN (SELECT ri.id FROM Release r JOIN r.issues ri WHERE r.id = :releaseId)");
+      parameters.put("releaseId", filter.getReleaseId());
+    }
+  }
+
+  /**
+   * Native statement on the release join table. Declaring the table keeps Hibernate from
+   * invalidating every region of the second-level cache, as it does for unknown native statements.
+   */
+  private Query releaseIssuesStatement(String sql) {
+    Query query = entityManager.createNativeQuery(sql);
+    query.unwrap(NativeQuery.class).addSynchronizedQuerySpace(RELEASE_ISSUES_TABLE);
+    return query;
+  }
+}
@@ -1,16 +1,34 @@
 package com.group3.conduitedeprojet.repositories;
 
 import com.group3.conduitedeprojet.models.Project;
-import com.group3.conduitedeprojet.models.User;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
 
+  /** Loads the creators in the same query, {@link Project#toProjectDto()} reads them. */
+  @Override
+  @EntityGraph(attributePaths = "creator")
+  List<Project> findAllById(Iterable<UUID> ids);
+
+  /** Ids of the creator and the collaborators of the project. */
+  @Query(
+      value =
+          "SELECT p.creator_id FROM project p WHERE p.id = :projectId"
+              + " UNION SELECT pu.user_id FROM project_user pu WHERE pu.project_id = :projectId",
+      nativeQuery = true)
+  List<Long> findMemberIds(@Param("projectId") UUID projectId);
+
+  @Query("SELECT p.id FROM Project p WHERE p.membersChangedAt > :since")
+  List<UUID> findIdsByMembersChangedSince(@Param("since") LocalDateTime since);
+
   @Query(
-      "SELECT DISTINCT p FROM Project p LEFT JOIN p.collaborators c WHERE p.creator = :user OR c = :user")
-  List<Project> findAllByUserParticipation(@Param("user") User user);
+      "SELECT DISTINCT p.id FROM Project p LEFT JOIN p.collaborators c"
+          + " WHERE p.creator.id = :userId OR c.id = :userId")
+  List<UUID> findProjectIdsByMember(@Param("userId") Long userId);
 }
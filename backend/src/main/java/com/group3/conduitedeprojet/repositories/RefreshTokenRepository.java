@@ -0,0 +1,46 @@
+package com.group3.conduitedeprojet.repositories;
+
+import com.group3.conduitedeprojet.models.RefreshToken;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+  /** The user comes along, it is rendered in the response once the transaction is over. */
+  @EntityGraph(attributePaths = "user")
+  Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+  /** Consumes a token, returns 0 if it was already used or revoked by a concurrent request. */
+  @Modifying
+  @Query(
+      "UPDATE RefreshToken t SET t.usedAt = :now"
+          + " WHERE t.id = :id AND t.usedAt IS NULL AND t.revokedAt IS NULL")
+  int markUsed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+  @Modifying
+  @Query(
+      "UPDATE RefreshToken t SET t.revokedAt = :now"
+          + " WHERE t.sessionId = :sessionId AND t.revokedAt IS NULL")
+  int revokeSession(@Param("sessionId") UUID sessionId, @Param("now") LocalDateTime now);
+
+  @Query(
+      "SELECT DISTINCT t.sessionId FROM RefreshToken t"
+          + " WHERE t.user.id = :userId AND t.revokedAt IS NULL AND t.expiresAt > :now")
+  List<UUID> findActiveSessionIds(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+  @Query("SELECT DISTINCT t.sessionId FROM RefreshToken t WHERE t.revokedAt > :since")
+  List<UUID> findSessionIdsRevokedSince(@Param("since") LocalDateTime since);
+
+  @Transactional
+  @Modifying
+  @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :before")
+  int deleteExpiredBefore(@Param("before") LocalDateTime before);
+}
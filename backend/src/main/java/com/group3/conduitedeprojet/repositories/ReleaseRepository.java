@@ -1,10 +1,74 @@
 package com.group3.conduitedeprojet.repositories;
 
+import com.group3.conduitedeprojet.dto.ReleaseDto;
 import com.group3.conduitedeprojet.models.Release;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ReleaseRepository extends JpaRepository<Release, Long> {
-  List<Release> findByProjectId(UUID projectId);
+
+  boolean existsByIdAndProjectId(Long id, UUID projectId);
+
+  /**
+   * Releases of a project with their issues aggregated in the same statement. Statuses are stored
+   * by ordinal, in the order of {@link com.group3.conduitedeprojet.models.Issue.Status}.
+   */
+  @Query(
+      value =
+          "SELECT r.id AS id, r.major AS major, r.minor AS minor, r.patch AS patch,"
+              + " r.release_notes AS releaseNotes, r.created_at AS createdAt,"
+              + " r.creator_id AS creatorId, r.project_id AS projectId,"
+              + " array_remove(array_agg(i.id ORDER BY i.id), NULL) AS issueIds,"
+              + " COALESCE(SUM(i.story_points), 0) AS totalStoryPoints,"
+              + " COUNT(i.id) FILTER (WHERE i.status = 0) AS todoCount,"
+              + " COUNT(i.id) FILTER (WHERE i.status = 1) AS inProgressCount,"
+              + " COUNT(i.id) FILTER (WHERE i.status = 2) AS closedCount"
+              + " FROM release r"
+              + " LEFT JOIN release_issues ri ON ri.release_id = r.id"
+              + " LEFT JOIN issues i ON i.id = ri.issues_id"
+              + " WHERE r.project_id = :projectId"
+              + " GROUP BY r.id ORDER BY r.id",
+      nativeQuery = true)
+  List<Summary> findSummariesByProjectId(@Param("projectId") UUID projectId);
+
+  interface Summary extends IssueAggregate {
+    Long getId();
+
+    Integer getMajor();
+
+    Integer getMinor();
+
+    Integer getPatch();
+
+    String getReleaseNotes();
+
+    LocalDateTime getCreatedAt();
+
+    Long getCreatorId();
+
+    UUID getProjectId();
+
+    default ReleaseDto toReleaseDto() {
+      return ReleaseDto.builder()
+          .id(getId())
+          .version(
+              new Release.Version(
+                  getMajor() != null ? getMajor() : 0,
+                  getMinor() != null ? getMinor() : 0,
+                  getPatch() != null ? getPatch() : 0))
+          .releaseNotes(getReleaseNotes())
+          .createdAt(getCreatedAt())
+          .creatorId(getCreatorId())
+          .projectId(getProjectId())
+          .issueIds(new HashSet<>(getIssueIds()))
+          .totalStoryPoints(getTotalStoryPoints())
+          .issueCountByStatus(getIssueCountByStatus())
+          .build();
+    }
+  }
 }
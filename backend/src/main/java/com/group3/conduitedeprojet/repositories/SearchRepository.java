@@ -0,0 +1,134 @@
+package com.group3.conduitedeprojet.repositories;
+
+import com.group3.conduitedeprojet.dto.SearchHitDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Full-text search of the issues, tasks and documentation of a project, on the {@code
+ * search_vector} columns generated by PostgreSQL. Hits are ordered by {@code (rank, type, id)},
+ * best first, and pages are keyset-paginated on that key.
+ *
+ * <p>Ranking reads and scores every match, which is too slow for a word found in tens of thousands
+ * of rows: only the {@link #MAX_RANKED_MATCHES} most recent matches of each kind are ranked, the
+ * older ones are left out until the query is refined. This is a cap, not the top of the ranking: a
+ * better hit past it is not found. The candidates are the same on every request, so that the pages
+ * neither skip nor repeat a hit. Passages are highlighted only for the page returned, since {@code
+ * ts_headline} has to parse the text again.
+ *
+ * <p>The query and the vectors both use the {@code simple} configuration.
+ */
+@Repository
+public class SearchRepository {
+
+  /** Matches of each kind ranked for a query, the most recent ones. */
+  public static final int MAX_RANKED_MATCHES = 1000;
+
+  private static final String TS_QUERY = "websearch_to_tsquery('simple', :query)";
+
+  private static final String HEADLINE_OPTIONS =
+      "'StartSel=<mark>, StopSel=</mark>, MaxWords=30, MinWords=10, MaxFragments=2'";
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /**
+   * Hits of a project for a query in web search syntax: words, {@code "quoted phrases"}, {@code or}
+   * and {@code -excluded} words.
+   *
+   * @param after position of the last hit of the previous page, {@code null} for the first page
+   * @param limit maximum number of hits returned
+   */
+  public List<SearchHitDto> search(UUID projectId, String query, Keyset after, int limit) {
+    StringBuilder sql =
+        new StringBuilder("SELECT h.type, h.id, h.issue_id, h.title, h.rank, ")
+            .append(headline("h.title"))
+            .append(", ")
+            .append(headline("h.body"))
+            .append(" FROM (SELECT 'ISSUE' AS type, i.id, i.id AS issue_id, i.title,")
+            .append(" i.description AS body, ")
+            .append(rank("i"))
+            .append(" AS rank FROM ")
+            .append(matches("issues", "id, title, description"))
+            .append(" i UNION ALL SELECT 'TASK', t.id, t.issue_id, t.title,")
+            .append(" concat_ws(E'\\n', t.description, t.definition_of_done), ")
+            .append(rank("t"))
+            .append(" FROM ")
+            .append(matches("tasks", "id, issue_id, title, description, definition_of_done"))
+            .append(" t UNION ALL SELECT 'DOCUMENTATION', d.id, NULL, d.title, d.content, ")
+            .append(rank("d"))
+            .append(" FROM ")
+            .append(matches("documentation", "id, title, content"))
+            .append(" d) h");
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("projectId", projectId);
+    parameters.put("query", query);
+    parameters.put("candidates", MAX_RANKED_MATCHES);
+
+    if (after != null) {
+      sql.append(" WHERE (h.rank, h.type, h.id) < (:afterRank, :afterType, :afterId)");
+      parameters.put("afterRank", after.rank());
+      parameters.put("afterType", after.type().name());
+      parameters.put("afterId", after.id());
+    }
+    sql.append(" ORDER BY h.rank DESC, h.type DESC, h.id DESC LIMIT :limit");
+    parameters.put("limit", limit);
+
+    Query search = entityManager.createNativeQuery(sql.toString(), Object[].class);
+    parameters.forEach(search::setParameter);
+    @SuppressWarnings("unchecked")
+    List<Object[]> rows = search.getResultList();
+    return rows.stream().map(SearchRepository::toHit).toList();
+  }
+
+  /**
+   * Rows of the project matching the query, the {@link #MAX_RANKED_MATCHES} most recent ones.
+   * Picking the best ones would rank every match; going down the ids stops at the cap.
+   */
+  private static String matches(String table, String columns) {
+    return "(SELECT "
+        + columns
+        + ", search_vector FROM "
+        + table
+        + " WHERE project_id = :projectId AND search_vector @@ "
+        + TS_QUERY
+        + " ORDER BY id DESC LIMIT :candidates)";
+  }
+
+  private static String rank(String alias) {
+    return "ts_rank(" + alias + ".search_vector, " + TS_QUERY + ", 1)";
+  }
+
+  /** Passages of an HTML-escaped text, the only tags left are the ones around the matches. */
+  private static String headline(String text) {
+    return "ts_headline('simple', replace(replace(replace(coalesce("
+        + text
+        + ", ''), '&', '&amp;'), '<', '&lt;'), '>', '&gt;'),"
+        + " "
+        + TS_QUERY
+        + ", "
+        + HEADLINE_OPTIONS
+        + ")";
+  }
+
+  private static SearchHitDto toHit(Object[] row) {
+    SearchHitDto.Type type = SearchHitDto.Type.valueOf((String) row[0]);
+    return SearchHitDto.builder()
+        .type(type)
+        .id(((Number) row[1]).longValue())
+        .issueId(row[2] != null ? ((Number) row[2]).longValue() : null)
+        .title((String) row[3])
+        .rank(((Number) row[4]).floatValue())
+        .highlightedTitle((String) row[5])
+        .snippet((String) row[6])
+        .build();
+  }
+
+  /** Sort key of a hit, the page starts right after it. */
+  public record Keyset(float rank, SearchHitDto.Type type, Long id) {}
+}
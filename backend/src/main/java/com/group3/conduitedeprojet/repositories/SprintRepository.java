@@ -1,13 +1,79 @@
 package com.group3.conduitedeprojet.repositories;
 
+import com.group3.conduitedeprojet.config.SecondLevelCacheConfig;
+import com.group3.conduitedeprojet.dto.SprintDto;
 import com.group3.conduitedeprojet.models.Sprint;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface SprintRepository extends JpaRepository<Sprint, Long> {
-  List<Sprint> findByProjectId(UUID projectId);
-
+  /**
+   * Cached query, the result is dropped whenever the {@code sprints} table changes and the sprint
+   * itself is read from its entity region.
+   */
+  @QueryHints({
+    @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+    @QueryHint(
+        name = AvailableHints.HINT_CACHE_REGION,
+        value = SecondLevelCacheConfig.SPRINT_QUERY_REGION)
+  })
   Optional<Sprint> findByIdAndProjectId(Long id, UUID projectId);
+
+  /**
+   * Sprints of a project with their issues aggregated in the same statement. Statuses are stored by
+   * ordinal, in the order of {@link com.group3.conduitedeprojet.models.Issue.Status}.
+   */
+  @Query(
+      value =
+          "SELECT s.id AS id, s.version AS version, s.name AS name, s.start_date AS startDate, s.end_date AS endDate,"
+              + " s.project_id AS projectId, s.created_at AS createdAt,"
+              + " array_remove(array_agg(i.id ORDER BY i.id), NULL) AS issueIds,"
+              + " COALESCE(SUM(i.story_points), 0) AS totalStoryPoints,"
+              + " COUNT(i.id) FILTER (WHERE i.status = 0) AS todoCount,"
+              + " COUNT(i.id) FILTER (WHERE i.status = 1) AS inProgressCount,"
+              + " COUNT(i.id) FILTER (WHERE i.status = 2) AS closedCount"
+              + " FROM sprints s LEFT JOIN issues i ON i.sprint_id = s.id"
+              + " WHERE s.project_id = :projectId"
+              + " GROUP BY s.id ORDER BY s.id",
+      nativeQuery = true)
+  List<Summary> findSummariesByProjectId(@Param("projectId") UUID projectId);
+
+  interface Summary extends IssueAggregate {
+    Long getId();
+
+    Long getVersion();
+
+    String getName();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    UUID getProjectId();
+
+    LocalDateTime getCreatedAt();
+
+    default SprintDto toSprintDto() {
+      return SprintDto.builder()
+          .id(getId())
+          .version(getVersion())
+          .name(getName())
+          .startDate(getStartDate())
+          .endDate(getEndDate())
+          .projectId(getProjectId())
+          .issueIds(getIssueIds())
+          .totalStoryPoints(getTotalStoryPoints())
+          .issueCountByStatus(getIssueCountByStatus())
+          .createdAt(getCreatedAt())
+          .build();
+    }
+  }
 }
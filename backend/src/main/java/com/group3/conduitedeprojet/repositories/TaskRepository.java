@@ -1,9 +1,24 @@
 package com.group3.conduitedeprojet.repositories;
 
 import com.group3.conduitedeprojet.models.Task;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface TaskRepository extends JpaRepository<Task, Long> {
   List<Task> findByIssueId(Long issueId);
+
+  /** Streams the tasks of a project for the export, must be consumed in a transaction. */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT t FROM Task t WHERE t.project.id = :projectId ORDER BY t.id")
+  Stream<Task> streamByProjectId(@Param("projectId") UUID projectId);
 }
@@ -1,9 +1,62 @@
 package com.group3.conduitedeprojet.repositories;
 
 import com.group3.conduitedeprojet.models.Test;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface TestRepository extends JpaRepository<Test, Long> {
   List<Test> findByIssueId(Long issueId);
+
+  /** Streams the tests of a project for the export, must be consumed in a transaction. */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+  })
+  @Query("SELECT t FROM Test t WHERE t.issue.project.id = :projectId ORDER BY t.id")
+  Stream<Test> streamByProjectId(@Param("projectId") UUID projectId);
+
+  @Query(
+      "SELECT new com.group3.conduitedeprojet.repositories.TestRepository$TestCodeRef("
+          + "t.id, t.issue.id, t.programHash, t.testHash)"
+          + " FROM Test t WHERE t.issue.id = :issueId AND t.issue.project.id = :projectId"
+          + " ORDER BY t.id")
+  List<TestCodeRef> findRunnableByIssueId(
+      @Param("issueId") Long issueId, @Param("projectId") UUID projectId);
+
+  @Query(
+      "SELECT new com.group3.conduitedeprojet.repositories.TestRepository$TestCodeRef("
+          + "t.id, t.issue.id, t.programHash, t.testHash)"
+          + " FROM Test t WHERE t.issue.sprint.id = :sprintId AND t.issue.project.id = :projectId"
+          + " ORDER BY t.id")
+  List<TestCodeRef> findRunnableBySprintId(
+      @Param("sprintId") Long sprintId, @Param("projectId") UUID projectId);
+
+  @Query(
+      "SELECT new com.group3.conduitedeprojet.repositories.TestRepository$TestCodeRef("
+          + "t.id, t.issue.id, t.programHash, t.testHash)"
+          + " FROM Test t WHERE t.issue.project.id = :projectId AND t.issue IN"
+          + " (SELECT i FROM Release r JOIN r.issues i WHERE r.id = :releaseId)"
+          + " ORDER BY t.id")
+  List<TestCodeRef> findRunnableByReleaseId(
+      @Param("releaseId") Long releaseId, @Param("projectId") UUID projectId);
+
+  /** Whether the code is used by a test of the project, as its program or as its tests. */
+  @Query(
+      "SELECT COUNT(t) > 0 FROM Test t WHERE t.issue.project.id = :projectId"
+          + " AND (t.programHash = :hash OR t.testHash = :hash)")
+  boolean existsByProjectIdAndCodeHash(
+      @Param("projectId") UUID projectId, @Param("hash") String hash);
+
+  /** Hashes of the code of a test to run, without its creator nor its issue. */
+  record TestCodeRef(Long id, Long issueId, String programHash, String testHash) {}
+
+  /** Code of a test to run. */
+  record RunnableTest(Long id, Long issueId, String programCode, String testCode) {}
 }
@@ -0,0 +1,102 @@
+package com.group3.conduitedeprojet.security;
+
+import com.group3.conduitedeprojet.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.Locale;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Throttles the login and registration endpoints per client IP and per email, before any password
+ * hashing or database access. Rejected calls are counted in {@code auth.rate_limit.rejected}.
+ */
+@Component
+public class AuthRateLimiter {
+
+  private static final int STRIPES = 64;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Value("${security.rate-limit.ip.capacity}")
+  private int ipCapacity;
+
+  @Value("${security.rate-limit.ip.refill-per-minute}")
+  private int ipRefillPerMinute;
+
+  @Value("${security.rate-limit.email.capacity}")
+  private int emailCapacity;
+
+  @Value("${security.rate-limit.email.refill-per-minute}")
+  private int emailRefillPerMinute;
+
+  @Value("${security.rate-limit.idle-eviction-ms}")
+  private long idleEvictionMs;
+
+  private StripedTokenBuckets ipBuckets;
+
+  private StripedTokenBuckets emailBuckets;
+
+  private Counter ipRejections;
+
+  private Counter emailRejections;
+
+  @PostConstruct
+  void init() {
+    ipBuckets =
+        new StripedTokenBuckets(
+            STRIPES, ipCapacity, ipRefillPerMinute / 60.0, idleEvictionMs, System::nanoTime);
+    emailBuckets =
+        new StripedTokenBuckets(
+            STRIPES, emailCapacity, emailRefillPerMinute / 60.0, idleEvictionMs, System::nanoTime);
+
+    ipRejections = rejections("ip");
+    emailRejections = rejections("email");
+    Gauge.builder("auth.rate_limit.buckets", ipBuckets, StripedTokenBuckets::size)
+        .tag("scope", "ip")
+        .register(meterRegistry);
+    Gauge.builder("auth.rate_limit.buckets", emailBuckets, StripedTokenBuckets::size)
+        .tag("scope", "email")
+        .register(meterRegistry);
+  }
+
+  private Counter rejections(String scope) {
+    return Counter.builder("auth.rate_limit.rejected").tag("scope", scope).register(meterRegistry);
+  }
+
+  /**
+   * Takes a token for the client IP, then for the email.
+   *
+   * @throws TooManyRequestsException if one of the two buckets is empty
+   */
+  public void checkAttempt(String clientIp, String email) {
+    if (!ipBuckets.tryAcquire(clientIp)) {
+      ipRejections.increment();
+      throw new TooManyRequestsException(
+          "Trop de tentatives depuis cette adresse, veuillez réessayer plus tard",
+          ipBuckets.secondsUntilNextToken(clientIp));
+    }
+
+    if (email != null) {
+      String key = email.trim().toLowerCase(Locale.ROOT);
+      if (!emailBuckets.tryAcquire(key)) {
+        emailRejections.increment();
+        throw new TooManyRequestsException(
+            "Trop de tentatives pour ce compte, veuillez réessayer plus tard",
+            emailBuckets.secondsUntilNextToken(key));
+      }
+    }
+  }
+
+  @Scheduled(
+      fixedDelayString = "${security.rate-limit.idle-eviction-ms}",
+      initialDelayString = "${security.rate-limit.idle-eviction-ms}")
+  public void evictIdleBuckets() {
+    ipBuckets.evictIdle();
+    emailBuckets.evictIdle();
+  }
+}
@@ -0,0 +1,48 @@
+package com.group3.conduitedeprojet.security;
+
+import com.group3.conduitedeprojet.services.JwtService;
+import io.jsonwebtoken.Claims;
+import java.security.Principal;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Principal built from the claims of a verified JWT token. {@link #getName()} returns the email so
+ * that services relying on {@code principal.getName()} keep working unchanged.
+ */
+public record AuthenticatedUser(Long id, String email, String name, UUID sessionId)
+    implements Principal {
+
+  /**
+   * Builds the principal from the claims of a token.
+   *
+   * @return the principal, or {@code null} if the token was issued without the user claims
+   */
+  public static AuthenticatedUser fromClaims(Claims claims) {
+    Number id = claims.get(JwtService.USER_ID_CLAIM, Number.class);
+    if (id == null || claims.getSubject() == null) {
+      return null;
+    }
+    String sessionId = claims.get(JwtService.SESSION_ID_CLAIM, String.class);
+    return new AuthenticatedUser(
+        id.longValue(),
+        claims.getSubject(),
+        claims.get(JwtService.NAME_CLAIM, String.class),
+        sessionId != null ? UUID.fromString(sessionId) : null);
+  }
+
+  /** Returns the authenticated user behind the principal injected in a controller, if any. */
+  public static Optional<AuthenticatedUser> from(Principal principal) {
+    if (principal instanceof Authentication authentication
+        && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+      return Optional.of(user);
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public String getName() {
+    return email;
+  }
+}
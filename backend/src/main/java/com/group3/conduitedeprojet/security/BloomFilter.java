@@ -0,0 +1,65 @@
+package com.group3.conduitedeprojet.security;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over UUIDs. {@link #mightContain(UUID)} never returns a false negative,
+ * and returns a false positive with roughly the probability the filter was sized for as long as no
+ * more than the expected number of elements is inserted.
+ */
+final class BloomFilter {
+
+  private final AtomicLongArray words;
+
+  private final int numBits;
+
+  private final int numHashes;
+
+  private BloomFilter(int numBits, int numHashes) {
+    this.words = new AtomicLongArray((numBits + 63) / 64);
+    this.numBits = numBits;
+    this.numHashes = numHashes;
+  }
+
+  static BloomFilter create(int expectedInsertions, double falsePositiveRate) {
+    int n = Math.max(1, expectedInsertions);
+    double ln2 = Math.log(2);
+    int numBits = (int) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+    int numHashes = Math.max(1, (int) Math.round((double) numBits / n * ln2));
+    return new BloomFilter(Math.max(64, numBits), numHashes);
+  }
+
+  void put(UUID value) {
+    long h1 = mix(value.getMostSignificantBits());
+    long h2 = mix(value.getLeastSignificantBits());
+    for (int i = 0; i < numHashes; i++) {
+      int bit = (int) Math.floorMod(h1 + i * h2, (long) numBits);
+      long mask = 1L << bit;
+      int index = bit >>> 6;
+      long word;
+      do {
+        word = words.get(index);
+      } while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask));
+    }
+  }
+
+  boolean mightContain(UUID value) {
+    long h1 = mix(value.getMostSignificantBits());
+    long h2 = mix(value.getLeastSignificantBits());
+    for (int i = 0; i < numHashes; i++) {
+      int bit = (int) Math.floorMod(h1 + i * h2, (long) numBits);
+      if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Finalizer of SplitMix64, spreads the UUID bits before double hashing. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
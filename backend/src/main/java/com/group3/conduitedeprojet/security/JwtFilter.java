@@ -1,13 +1,18 @@
 package com.group3.conduitedeprojet.security;
 
 import com.group3.conduitedeprojet.services.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -18,10 +23,15 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
+  private static final List<GrantedAuthority> USER_AUTHORITIES =
+      List.of(new SimpleGrantedAuthority("ROLE_USER"));
+
   @Autowired private JwtService jwtService;
 
   @Autowired private UserDetailsService userDetailsService;
 
+  @Autowired private RevokedSessionRegistry revokedSessionRegistry;
+
   @Override
   protected void doFilterInternal(
       HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -36,18 +46,14 @@ public class JwtFilter extends OncePerRequestFilter {
 
     try {
       final String jwt = authHeader.substring(7);
-      final String username = jwtService.extractUsername(jwt);
+      final Claims claims = jwtService.parseClaims(jwt);
 
-      if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-        if (isTokenValid(jwt, userDetails)) {
-          UsernamePasswordAuthenticationToken authToken =
-              new UsernamePasswordAuthenticationToken(
-                  userDetails, null, userDetails.getAuthorities());
-          authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-          SecurityContextHolder.getContext().setAuthentication(authToken);
-        }
+      if (claims.getSubject() != null
+          && !isSessionRevoked(claims)
+          && SecurityContextHolder.getContext().getAuthentication() == null) {
+        UsernamePasswordAuthenticationToken authToken = buildAuthentication(claims);
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
       }
     } catch (io.jsonwebtoken.ExpiredJwtException e) {
       response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -61,8 +67,22 @@ public class JwtFilter extends OncePerRequestFilter {
     filterChain.doFilter(request, response);
   }
 
-  private boolean isTokenValid(String token, UserDetails userDetails) {
-    final String username = jwtService.extractUsername(token);
-    return username.equals(userDetails.getUsername());
+  private boolean isSessionRevoked(Claims claims) {
+    String sessionId = claims.get(JwtService.SESSION_ID_CLAIM, String.class);
+    return sessionId != null && revokedSessionRegistry.isRevoked(UUID.fromString(sessionId));
+  }
+
+  /**
+   * Builds the authentication from the already verified claims. Tokens issued before the user
+   * claims were added fall back to loading the user from the database.
+   */
+  private UsernamePasswordAuthenticationToken buildAuthentication(Claims claims) {
+    AuthenticatedUser principal = AuthenticatedUser.fromClaims(claims);
+    if (principal != null) {
+      return new UsernamePasswordAuthenticationToken(principal, null, USER_AUTHORITIES);
+    }
+
+    UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+    return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
   }
 }
@@ -0,0 +1,90 @@
+package com.group3.conduitedeprojet.security;
+
+import com.group3.conduitedeprojet.repositories.RefreshTokenRepository;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory set of revoked login sessions, checked by {@link JwtFilter} on every request.
+ *
+ * <p>A Bloom filter answers the common case (session not revoked) without touching the exact set or
+ * the database. Entries only need to live as long as an access token issued before the revocation
+ * can still be valid, after which they are pruned and the filter is rebuilt. Revocations made by
+ * other instances are picked up from the database on every sync.
+ */
+@Component
+public class RevokedSessionRegistry {
+
+  private static final long SYNC_OVERLAP_SECONDS = 60;
+
+  @Autowired private RefreshTokenRepository refreshTokenRepository;
+
+  @Value("${security.jwt.expiration-ms}")
+  private long accessTokenExpirationMs;
+
+  @Value("${security.jwt.revocation.expected-insertions}")
+  private int expectedInsertions;
+
+  @Value("${security.jwt.revocation.false-positive-rate}")
+  private double falsePositiveRate;
+
+  /** Revoked session id to the instant after which no access token of the session is valid. */
+  private final Map<UUID, Instant> revokedSessions = new ConcurrentHashMap<>();
+
+  private volatile BloomFilter bloomFilter;
+
+  private volatile LocalDateTime lastSync;
+
+  @PostConstruct
+  void init() {
+    bloomFilter = BloomFilter.create(expectedInsertions, falsePositiveRate);
+    lastSync = LocalDateTime.now().minus(Duration.ofMillis(accessTokenExpirationMs));
+    sync();
+  }
+
+  public boolean isRevoked(UUID sessionId) {
+    return bloomFilter.mightContain(sessionId) && revokedSessions.containsKey(sessionId);
+  }
+
+  public synchronized void revoke(UUID sessionId) {
+    Instant expiresAt = Instant.now().plusMillis(accessTokenExpirationMs);
+    if (revokedSessions.putIfAbsent(sessionId, expiresAt) == null) {
+      bloomFilter.put(sessionId);
+    }
+  }
+
+  /** Loads the sessions revoked since the last sync, then drops the entries that expired. */
+  @Scheduled(
+      fixedDelayString = "${security.jwt.revocation.sync-ms}",
+      initialDelayString = "${security.jwt.revocation.sync-ms}")
+  public void sync() {
+    LocalDateTime now = LocalDateTime.now();
+    // Overlap with the previous sync so that revocations committed late are not missed
+    refreshTokenRepository
+        .findSessionIdsRevokedSince(lastSync.minusSeconds(SYNC_OVERLAP_SECONDS))
+        .forEach(this::revoke);
+    lastSync = now;
+
+    Instant instant = Instant.now();
+    if (revokedSessions.values().removeIf(expiresAt -> expiresAt.isBefore(instant))) {
+      rebuildBloomFilter();
+    }
+  }
+
+  private synchronized void rebuildBloomFilter() {
+    BloomFilter rebuilt =
+        BloomFilter.create(
+            Math.max(expectedInsertions, revokedSessions.size() * 2), falsePositiveRate);
+    revokedSessions.keySet().forEach(rebuilt::put);
+    bloomFilter = rebuilt;
+  }
+}
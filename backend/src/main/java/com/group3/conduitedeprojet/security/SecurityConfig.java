@@ -1,7 +1,9 @@
 package com.group3.conduitedeprojet.security;
 
+import com.group3.conduitedeprojet.datasource.ReadYourWritesTracker;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,9 +29,16 @@ public class SecurityConfig {
 
   @Autowired private JwtFilter jwtFilter;
 
+  @Value("${security.password.bcrypt-strength}")
+  private int bcryptStrength;
+
+  /**
+   * Changing the strength is transparent for existing users: their hash is recomputed with the new
+   * cost on their next login.
+   */
   @Bean
   public PasswordEncoder passwordEncoder() {
-    return new BCryptPasswordEncoder();
+    return new BCryptPasswordEncoder(bcryptStrength);
   }
 
   @Bean
@@ -71,9 +80,10 @@ public class SecurityConfig {
     CorsConfiguration configuration = new CorsConfiguration();
     configuration.setAllowedOrigins(
         List.of("http://localhost:3000", "http://localhost:4200", "http://localhost:5173"));
-    configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+    configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
     configuration.setAllowedHeaders(List.of("*"));
     configuration.setAllowCredentials(true);
+    configuration.setExposedHeaders(List.of(ReadYourWritesTracker.HEADER));
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
     source.registerCorsConfiguration("/**", configuration);
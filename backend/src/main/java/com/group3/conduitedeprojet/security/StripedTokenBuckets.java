@@ -0,0 +1,150 @@
+package com.group3.conduitedeprojet.security;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by string, split over a fixed number of lock stripes so that threads working
+ * on different keys rarely contend. Each stripe owns a plain {@link HashMap} guarded by its lock;
+ * the cost of an acquisition does not depend on how many keys are tracked.
+ *
+ * <p>A bucket holds at most {@code capacity} tokens and regains {@code refillPerSecond} tokens per
+ * second. Buckets left untouched for longer than the idle timeout are full again, so {@link
+ * #evictIdle()} can drop them without changing the outcome of later calls.
+ */
+final class StripedTokenBuckets {
+
+  private final Stripe[] stripes;
+
+  private final int mask;
+
+  private final double capacity;
+
+  private final double refillPerNano;
+
+  private final long idleTimeoutNanos;
+
+  private final LongSupplier nanoClock;
+
+  StripedTokenBuckets(
+      int stripeCount,
+      double capacity,
+      double refillPerSecond,
+      long idleTimeoutMs,
+      LongSupplier nanoClock) {
+    int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+    this.stripes = new Stripe[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe();
+    }
+    this.mask = size - 1;
+    this.capacity = capacity;
+    this.refillPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+    // Never evict a bucket before it had the time to refill completely
+    long refillNanos = (long) Math.ceil(capacity / refillPerNano);
+    this.idleTimeoutNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs), refillNanos);
+    this.nanoClock = nanoClock;
+  }
+
+  /** Takes a token from the bucket of the key, returns {@code false} if it is empty. */
+  boolean tryAcquire(String key) {
+    Stripe stripe = stripeFor(key);
+    long now = nanoClock.getAsLong();
+    stripe.lock.lock();
+    try {
+      Bucket bucket = stripe.buckets.get(key);
+      if (bucket == null) {
+        bucket = new Bucket(capacity, now);
+        stripe.buckets.put(key, bucket);
+      } else {
+        bucket.refill(now);
+      }
+      if (bucket.tokens >= 1) {
+        bucket.tokens -= 1;
+        return true;
+      }
+      return false;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /** Seconds until the bucket of the key holds a token again, at least 1. */
+  long secondsUntilNextToken(String key) {
+    Stripe stripe = stripeFor(key);
+    stripe.lock.lock();
+    try {
+      Bucket bucket = stripe.buckets.get(key);
+      double missing = bucket == null ? 0 : 1 - bucket.tokens;
+      double seconds = missing / refillPerNano / TimeUnit.SECONDS.toNanos(1);
+      return Math.max(1, (long) Math.ceil(seconds));
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Removes the buckets that were not used for longer than the idle timeout, one stripe at a time.
+   *
+   * @return the number of removed buckets
+   */
+  int evictIdle() {
+    long now = nanoClock.getAsLong();
+    int evicted = 0;
+    for (Stripe stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        int before = stripe.buckets.size();
+        stripe.buckets.values().removeIf(bucket -> now - bucket.lastRefill >= idleTimeoutNanos);
+        evicted += before - stripe.buckets.size();
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return evicted;
+  }
+
+  int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      stripe.lock.lock();
+      try {
+        size += stripe.buckets.size();
+      } finally {
+        stripe.lock.unlock();
+      }
+    }
+    return size;
+  }
+
+  private Stripe stripeFor(String key) {
+    int hash = key.hashCode();
+    return stripes[(hash ^ (hash >>> 16)) & mask];
+  }
+
+  private static final class Stripe {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Bucket> buckets = new HashMap<>();
+  }
+
+  private final class Bucket {
+    private double tokens;
+    private long lastRefill;
+
+    private Bucket(double tokens, long now) {
+      this.tokens = tokens;
+      this.lastRefill = now;
+    }
+
+    private void refill(long now) {
+      long elapsed = now - lastRefill;
+      if (elapsed > 0) {
+        tokens = Math.min(capacity, tokens + elapsed * refillPerNano);
+        lastRefill = now;
+      }
+    }
+  }
+}
@@ -2,17 +2,17 @@ package com.group3.conduitedeprojet.services;
 
 import com.group3.conduitedeprojet.dto.AuthResponse;
 import com.group3.conduitedeprojet.dto.LoginRequest;
+import com.group3.conduitedeprojet.dto.RefreshTokenRequest;
 import com.group3.conduitedeprojet.dto.RegisterRequest;
 import com.group3.conduitedeprojet.exceptions.EmailAlreadyExistsException;
 import com.group3.conduitedeprojet.exceptions.InvalidCredentialsException;
-import com.group3.conduitedeprojet.exceptions.UserNotFoundException;
 import com.group3.conduitedeprojet.models.User;
 import com.group3.conduitedeprojet.repositories.UserRepository;
+import com.group3.conduitedeprojet.services.RefreshTokenService.IssuedRefreshToken;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /** Service responsible for handling user authentication (e.g register and login) */
 @Service
@@ -20,61 +20,111 @@ public class AuthService {
 
   @Autowired private UserRepository userRepository;
 
-  @Autowired private PasswordEncoder passwordEncoder;
+  @Autowired private PasswordHashingService passwordHashingService;
 
   @Autowired private JwtService jwtService;
 
-  @Autowired private AuthenticationManager authenticationManager;
+  @Autowired private UserCacheService userCacheService;
 
-  /** Registers a user and logs them in if register was successful. */
-  public AuthResponse register(RegisterRequest request) {
-    if (userRepository.findByEmail(request.getEmail()).isPresent()) {
-      throw new EmailAlreadyExistsException("Cet email est déjà utilisé");
-    }
+  @Autowired private RefreshTokenService refreshTokenService;
 
-    User user =
-        User.builder()
-            .email(request.getEmail())
-            .password(passwordEncoder.encode(request.getPassword()))
-            .name(request.getName())
-            .enabled(true)
-            .build();
+  @Autowired private TransactionTemplate transactionTemplate;
 
-    user = userRepository.save(user);
+  /** Hash checked when the email is unknown, so that the response time does not reveal it. */
+  private volatile String unknownUserPasswordHash;
 
-    String token = jwtService.generateToken(user);
+  /**
+   * Registers a user and logs them in if register was successful. The password is hashed before the
+   * transaction starts, so that no connection is held while hashing.
+   */
+  public AuthResponse register(RegisterRequest request) {
+    String passwordHash = passwordHashingService.encode(request.getPassword());
 
-    return AuthResponse.builder()
-        .id(user.getId())
-        .token(token)
-        .email(user.getEmail())
-        .name(user.getName())
-        .id(user.getId())
-        .build();
+    return buildAuthResponse(
+        transactionTemplate.execute(
+            status -> {
+              if (userRepository.findByEmail(request.getEmail()).isPresent()) {
+                throw new EmailAlreadyExistsException("Cet email est déjà utilisé");
+              }
+
+              User user =
+                  userRepository.save(
+                      User.builder()
+                          .email(request.getEmail())
+                          .password(passwordHash)
+                          .name(request.getName())
+                          .enabled(true)
+                          .build());
+              userCacheService.evict(user);
+
+              return refreshTokenService.startSession(user);
+            }));
   }
 
-  /** Logs in a user with valid credentials */
+  /**
+   * Logs in a user with valid credentials. The user is loaded once, the password is checked on the
+   * hashing pool and the stored hash is upgraded if it was computed with a lower BCrypt cost. The
+   * session is started in a second transaction, after the hashing.
+   */
   public AuthResponse login(LoginRequest request) {
-    try {
-      authenticationManager.authenticate(
-          new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword()));
-    } catch (Exception e) {
+    User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+    if (user == null) {
+      passwordHashingService.matches(request.getPassword(), getUnknownUserPasswordHash());
       throw new InvalidCredentialsException("Email ou mot de passe incorrect");
     }
 
-    User user =
-        userRepository
-            .findByEmail(request.getEmail())
-            .orElseThrow(() -> new UserNotFoundException("Utilisateur non trouvé"));
+    if (!passwordHashingService.matches(request.getPassword(), user.getPassword())
+        || !user.isEnabled()) {
+      throw new InvalidCredentialsException("Email ou mot de passe incorrect");
+    }
+
+    String upgradedHash =
+        passwordHashingService.needsRehash(user.getPassword())
+            ? passwordHashingService.encode(request.getPassword())
+            : null;
+
+    return buildAuthResponse(
+        transactionTemplate.execute(
+            status -> {
+              User loggedIn = user;
+              if (upgradedHash != null) {
+                user.setPassword(upgradedHash);
+                loggedIn = userRepository.save(user);
+                userCacheService.evict(loggedIn);
+              }
+              return refreshTokenService.startSession(loggedIn);
+            }));
+  }
+
+  /** Exchanges a refresh token for a new access token and the next refresh token */
+  public AuthResponse refresh(RefreshTokenRequest request) {
+    return buildAuthResponse(refreshTokenService.rotate(request.getRefreshToken()));
+  }
 
-    String token = jwtService.generateToken(user);
+  /** Closes the session of the given refresh token */
+  public void logout(RefreshTokenRequest request) {
+    refreshTokenService.logout(request.getRefreshToken());
+  }
+
+  private String getUnknownUserPasswordHash() {
+    if (unknownUserPasswordHash == null) {
+      unknownUserPasswordHash = passwordHashingService.encode("unknown-user-password");
+    }
+    return unknownUserPasswordHash;
+  }
+
+  private AuthResponse buildAuthResponse(IssuedRefreshToken refreshToken) {
+    User user = refreshToken.user();
+    String token =
+        jwtService.generateToken(
+            Map.of(JwtService.SESSION_ID_CLAIM, refreshToken.sessionId().toString()), user);
 
     return AuthResponse.builder()
         .id(user.getId())
         .token(token)
+        .refreshToken(refreshToken.token())
         .email(user.getEmail())
         .name(user.getName())
-        .id(user.getId())
         .build();
   }
 }
@@ -1,6 +1,5 @@
 package com.group3.conduitedeprojet.services;
 
-import com.group3.conduitedeprojet.repositories.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -10,11 +9,11 @@ import org.springframework.stereotype.Service;
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
-  @Autowired private UserRepository userRepository;
+  @Autowired private UserCacheService userCacheService;
 
   @Override
   public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-    return userRepository
+    return userCacheService
         .findByEmail(email)
         .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé: " + email));
   }
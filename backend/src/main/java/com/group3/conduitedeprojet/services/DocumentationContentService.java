@@ -0,0 +1,158 @@
+package com.group3.conduitedeprojet.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
+import com.group3.conduitedeprojet.exceptions.DocumentationNotFoundException;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository.DocumentationContent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Raw content of the documentation, gzipped for the clients accepting it. The gzipped bytes are
+ * cached by content hash, so a page is compressed once per version whatever the number of reads,
+ * and a cached page is served without reading its content from the database.
+ *
+ * <p>Hits, misses and evictions are published as {@code cache.*} metrics with the {@code
+ * documentation-content} cache name.
+ */
+@Service
+public class DocumentationContentService {
+
+  /** Below this size, compressing saves less than it costs. */
+  static final int MIN_COMPRESSED_LENGTH = 1024;
+
+  @Autowired private DocumentationRepository documentationRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Value("${app.cache.documentation-content.maximum-weight-bytes}")
+  private long maximumWeightBytes;
+
+  private Cache<String, byte[]> gzippedContents;
+
+  public enum Encoding {
+    IDENTITY,
+    GZIP
+  }
+
+  /**
+   * Bytes of the content in the given encoding.
+   *
+   * @param hash hex SHA-256 of the UTF-8 content, whatever the encoding
+   */
+  public record Content(String hash, Encoding encoding, byte[] bytes) {
+
+    /** Strong ETag of this representation, which differs from one encoding to the other. */
+    public String eTag() {
+      return "\"" + hash + (encoding == Encoding.GZIP ? "-gzip" : "") + "\"";
+    }
+  }
+
+  @PostConstruct
+  void init() {
+    gzippedContents =
+        CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((String hash, byte[] bytes) -> bytes.length)
+                .recordStats()
+                .build(),
+            "documentation-content");
+  }
+
+  /**
+   * @param gzip whether the client accepts a gzipped content, small pages are sent as they are
+   * @throws DocumentationNotFoundException when the documentation is not in the project
+   */
+  @ReadFromReplica
+  public Content getContent(UUID projectId, Long documentationId, boolean gzip) {
+    if (gzip) {
+      String hash =
+          documentationRepository
+              .findContentHash(documentationId, projectId)
+              .orElseThrow(() -> notFound(documentationId));
+      byte[] cached = gzippedContents.getIfPresent(hash);
+      if (cached != null) {
+        return new Content(hash, Encoding.GZIP, cached);
+      }
+    }
+
+    // Hash and content are read together, so that the bytes cached always match their key
+    DocumentationContent content =
+        documentationRepository
+            .findContent(documentationId, projectId)
+            .orElseThrow(() -> notFound(documentationId));
+    byte[] bytes =
+        (content.content() == null ? "" : content.content()).getBytes(StandardCharsets.UTF_8);
+    if (!gzip || bytes.length < MIN_COMPRESSED_LENGTH) {
+      return new Content(content.hash(), Encoding.IDENTITY, bytes);
+    }
+    return new Content(
+        content.hash(), Encoding.GZIP, gzippedContents.get(content.hash(), hash -> gzip(bytes)));
+  }
+
+  /**
+   * Whether an {@code Accept-Encoding} header allows gzip, either by name or through {@code *},
+   * with a non-zero quality.
+   */
+  public static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    Boolean wildcard = null;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parameters = coding.split(";");
+      String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+      boolean accepted = quality(parameters) > 0;
+      if (name.equals("gzip") || name.equals("x-gzip")) {
+        return accepted;
+      }
+      if (name.equals("*")) {
+        wildcard = accepted;
+      }
+    }
+    return Boolean.TRUE.equals(wildcard);
+  }
+
+  private static double quality(String[] parameters) {
+    for (int i = 1; i < parameters.length; i++) {
+      String parameter = parameters[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2));
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 3);
+    try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+      out.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return compressed.toByteArray();
+  }
+
+  private static DocumentationNotFoundException notFound(Long documentationId) {
+    return new DocumentationNotFoundException("Documentation " + documentationId + " not found");
+  }
+}
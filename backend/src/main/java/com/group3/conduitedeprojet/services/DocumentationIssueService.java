@@ -1,5 +1,6 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
 import com.group3.conduitedeprojet.dto.DocumentationIssueDto;
 import com.group3.conduitedeprojet.models.Documentation;
 import com.group3.conduitedeprojet.models.DocumentationIssue;
@@ -26,12 +27,14 @@ public class DocumentationIssueService {
   private static final DateTimeFormatter FORMATTER =
       DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
+  @ReadFromReplica
   public List<DocumentationIssueDto> getIssuesByDocumentation(Long documentationId) {
     return documentationIssueRepository.findByDocumentationId(documentationId).stream()
         .map(this::convertToDto)
         .collect(Collectors.toList());
   }
 
+  @ReadFromReplica
   public List<DocumentationIssueDto> getDocumentationsByIssue(Long issueId) {
     return documentationIssueRepository.findByIssueId(issueId).stream()
         .map(this::convertToDto)
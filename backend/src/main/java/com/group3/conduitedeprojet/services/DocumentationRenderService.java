@@ -0,0 +1,100 @@
+package com.group3.conduitedeprojet.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
+import com.group3.conduitedeprojet.exceptions.DocumentationNotFoundException;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository.DocumentationContent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Documentation rendered to sanitized HTML on the server, so that clients do not parse large pages
+ * themselves. The HTML is cached by content hash, bounded by its total size with least recently
+ * used pages evicted first: a warm read only looks up the hash of the page, without reading nor
+ * parsing its content.
+ *
+ * <p>Hits, misses and evictions are published as {@code cache.*} metrics with the {@code
+ * documentation-html} cache name.
+ */
+@Service
+public class DocumentationRenderService {
+
+  @Autowired private DocumentationRepository documentationRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Value("${app.cache.documentation-html.maximum-weight-bytes}")
+  private long maximumWeightBytes;
+
+  private Cache<String, byte[]> renderedPages;
+
+  /**
+   * UTF-8 HTML of a page.
+   *
+   * @param hash hex SHA-256 of the markdown it was rendered from
+   */
+  public record RenderedPage(String hash, byte[] html) {
+
+    public String eTag() {
+      return "\"" + hash + "-html\"";
+    }
+  }
+
+  @PostConstruct
+  void init() {
+    renderedPages =
+        CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((String hash, byte[] html) -> html.length)
+                .recordStats()
+                .build(),
+            "documentation-html");
+  }
+
+  /**
+   * @throws DocumentationNotFoundException when the documentation is not in the project
+   */
+  @ReadFromReplica
+  public RenderedPage getRenderedPage(UUID projectId, Long documentationId) {
+    String hash =
+        documentationRepository
+            .findContentHash(documentationId, projectId)
+            .orElseThrow(() -> notFound(documentationId));
+    byte[] cached = renderedPages.getIfPresent(hash);
+    if (cached != null) {
+      return new RenderedPage(hash, cached);
+    }
+
+    // Hash and content are read together, so that the HTML cached always matches its key
+    DocumentationContent content =
+        documentationRepository
+            .findContent(documentationId, projectId)
+            .orElseThrow(() -> notFound(documentationId));
+    byte[] html =
+        renderedPages.get(
+            content.hash(),
+            key ->
+                MarkdownRenderer.render(content.content() == null ? "" : content.content())
+                    .getBytes(StandardCharsets.UTF_8));
+    return new RenderedPage(content.hash(), html);
+  }
+
+  /** Drops the HTML of a content that was replaced, rather than waiting for it to be evicted. */
+  public void evict(String hash) {
+    renderedPages.invalidate(hash);
+  }
+
+  private static DocumentationNotFoundException notFound(Long documentationId) {
+    return new DocumentationNotFoundException("Documentation " + documentationId + " not found");
+  }
+}
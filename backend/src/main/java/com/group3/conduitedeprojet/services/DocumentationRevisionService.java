@@ -0,0 +1,177 @@
+package com.group3.conduitedeprojet.services;
+
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
+import com.group3.conduitedeprojet.dto.DocumentationDiffDto;
+import com.group3.conduitedeprojet.dto.DocumentationRevisionDto;
+import com.group3.conduitedeprojet.exceptions.DocumentationRevisionNotFoundException;
+import com.group3.conduitedeprojet.models.Documentation;
+import com.group3.conduitedeprojet.models.DocumentationRevision;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository;
+import com.group3.conduitedeprojet.repositories.DocumentationRevisionRepository;
+import com.group3.conduitedeprojet.repositories.DocumentationRevisionRepository.RevisionHead;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * History of the documentation. Each change stores a delta from the previous revision, and every
+ * {@code snapshot-interval} revisions a full copy, so reading a revision applies at most {@code
+ * snapshot-interval - 1} deltas to the snapshot before it.
+ */
+@Service
+public class DocumentationRevisionService {
+
+  @Value("${app.documentation.revisions.snapshot-interval}")
+  private int snapshotInterval;
+
+  @Autowired private DocumentationRevisionRepository documentationRevisionRepository;
+
+  @Autowired private DocumentationRepository documentationRepository;
+
+  /** Records a new documentation as its first revision. */
+  @Transactional
+  public void recordCreation(Documentation documentation) {
+    saveRevision(documentation, 1, documentation.getTitle(), contentOf(documentation), null);
+  }
+
+  /**
+   * Records the current title and content of the documentation as its next revision.
+   *
+   * @param previousTitle title before the change
+   * @param previousContent content before the change
+   */
+  @Transactional
+  public void recordUpdate(
+      Documentation documentation, String previousTitle, String previousContent) {
+    String base = previousContent == null ? "" : previousContent;
+    RevisionHead head =
+        documentationRevisionRepository.findHeadByDocumentationId(documentation.getId());
+    Integer latest = head.latest();
+    Integer latestSnapshot = head.latestSnapshot();
+    if (latest == null) {
+      // Written before the revisions existed, its previous state starts the history
+      saveRevision(documentation, 1, previousTitle, base, null);
+      latest = 1;
+      latestSnapshot = 1;
+    }
+
+    int revision = latest + 1;
+    boolean snapshot = revision - latestSnapshot >= snapshotInterval;
+    saveRevision(
+        documentation,
+        revision,
+        documentation.getTitle(),
+        contentOf(documentation),
+        snapshot ? null : base);
+  }
+
+  @ReadFromReplica
+  public List<DocumentationRevisionDto> getRevisions(UUID projectId, Long documentationId) {
+    checkDocumentation(projectId, documentationId);
+    return documentationRevisionRepository.findHeadersByDocumentationId(documentationId).stream()
+        .map(
+            header ->
+                DocumentationRevisionDto.builder()
+                    .revision(header.revision())
+                    .title(header.title())
+                    .contentLength(header.contentLength())
+                    .createdAt(header.createdAt())
+                    .build())
+        .toList();
+  }
+
+  @ReadFromReplica
+  public DocumentationRevisionDto getRevision(UUID projectId, Long documentationId, int revision) {
+    checkDocumentation(projectId, documentationId);
+    return loadRevision(documentationId, revision);
+  }
+
+  @ReadFromReplica
+  public DocumentationDiffDto diffRevisions(
+      UUID projectId, Long documentationId, int from, int to) {
+    checkDocumentation(projectId, documentationId);
+    DocumentationRevisionDto fromRevision = loadRevision(documentationId, from);
+    DocumentationRevisionDto toRevision = loadRevision(documentationId, to);
+    return DocumentationDiffDto.builder()
+        .from(from)
+        .to(to)
+        .fromTitle(fromRevision.getTitle())
+        .toTitle(toRevision.getTitle())
+        .diff(
+            LineDiff.unified(
+                "revision " + from,
+                "revision " + to,
+                LineDiff.lines(fromRevision.getContent()),
+                LineDiff.lines(toRevision.getContent())))
+        .build();
+  }
+
+  @Transactional
+  public void deleteRevisions(Long documentationId) {
+    documentationRevisionRepository.deleteByDocumentationId(documentationId);
+  }
+
+  /** Rebuilds a revision from the snapshot before it, read with the deltas in one query. */
+  private DocumentationRevisionDto loadRevision(Long documentationId, int revision) {
+    Integer snapshot =
+        revision < 1
+            ? null
+            : documentationRevisionRepository.findSnapshotRevision(documentationId, revision);
+    if (snapshot == null) {
+      throw new DocumentationRevisionNotFoundException("Revision " + revision + " not found");
+    }
+    List<DocumentationRevision> chain =
+        documentationRevisionRepository.findByDocumentationIdAndRevisionBetweenOrderByRevisionAsc(
+            documentationId, snapshot, revision);
+    DocumentationRevision last = chain.get(chain.size() - 1);
+    if (last.getRevision() != revision) {
+      throw new DocumentationRevisionNotFoundException("Revision " + revision + " not found");
+    }
+
+    String content = RevisionDeltas.fromSnapshot(chain.get(0).getData());
+    for (DocumentationRevision delta : chain.subList(1, chain.size())) {
+      content = RevisionDeltas.applyDelta(content, delta.getData());
+    }
+    return DocumentationRevisionDto.builder()
+        .revision(last.getRevision())
+        .title(last.getTitle())
+        .content(content)
+        .contentLength(last.getContentLength())
+        .createdAt(last.getCreatedAt())
+        .build();
+  }
+
+  /**
+   * @param base content of the previous revision to store a delta from, {@code null} to store a
+   *     snapshot
+   */
+  private void saveRevision(
+      Documentation documentation, int revision, String title, String content, String base) {
+    documentationRevisionRepository.save(
+        DocumentationRevision.builder()
+            .documentation(documentation)
+            .revision(revision)
+            .title(title)
+            .snapshot(base == null)
+            .data(
+                base == null
+                    ? RevisionDeltas.snapshot(content)
+                    : RevisionDeltas.delta(base, content))
+            .contentLength(content.length())
+            .build());
+  }
+
+  private void checkDocumentation(UUID projectId, Long documentationId) {
+    if (!documentationRepository.existsByIdAndProjectId(documentationId, projectId)) {
+      throw new DocumentationRevisionNotFoundException(
+          "Documentation " + documentationId + " not found");
+    }
+  }
+
+  private static String contentOf(Documentation documentation) {
+    return documentation.getContent() == null ? "" : documentation.getContent();
+  }
+}
@@ -1,15 +1,20 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
 import com.group3.conduitedeprojet.dto.DocumentationDto;
+import com.group3.conduitedeprojet.dto.DocumentationSummaryDto;
+import com.group3.conduitedeprojet.exceptions.DocumentationNotFoundException;
 import com.group3.conduitedeprojet.models.Documentation;
 import com.group3.conduitedeprojet.models.Project;
 import com.group3.conduitedeprojet.repositories.DocumentationRepository;
 import com.group3.conduitedeprojet.repositories.ProjectRepository;
+import java.security.Principal;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class DocumentationService {
@@ -18,12 +23,19 @@ public class DocumentationService {
 
   @Autowired private ProjectRepository projectRepository;
 
-  public List<DocumentationDto> getDocumentationByProject(UUID projectId) {
-    return documentationRepository.findByProjectId(projectId).stream()
-        .map(this::convertToDto)
-        .collect(Collectors.toList());
+  @Autowired private DocumentationRevisionService documentationRevisionService;
+
+  @Autowired private DocumentationRenderService documentationRenderService;
+
+  @Autowired private EntityLookupService entityLookupService;
+
+  /** Lists the documentations of a project without their content, see {@link #getDocumentation}. */
+  @ReadFromReplica
+  public List<DocumentationSummaryDto> getDocumentationByProject(UUID projectId) {
+    return documentationRepository.findSummariesByProjectId(projectId);
   }
 
+  @Transactional
   public DocumentationDto createDocumentation(UUID projectId, DocumentationDto dto) {
     Project project =
         projectRepository
@@ -38,33 +50,66 @@ public class DocumentationService {
             .build();
 
     Documentation savedDoc = documentationRepository.save(documentation);
-    return convertToDto(savedDoc);
+    documentationRevisionService.recordCreation(savedDoc);
+    return savedDoc.toDocumentationDto();
   }
 
-  public DocumentationDto updateDocumentation(Long id, DocumentationDto dto) {
-    Documentation documentation =
-        documentationRepository
-            .findById(id)
-            .orElseThrow(() -> new RuntimeException("Documentation not found"));
+  /**
+   * @throws DocumentationNotFoundException when the documentation is not in the project
+   */
+  @ReadFromReplica
+  public DocumentationDto getDocumentation(UUID projectId, Long id, Principal principal) {
+    return findInProject(projectId, id, principal).toDocumentationDto();
+  }
+
+  /**
+   * Replaces the title and content of the documentation, recording the change as a new revision.
+   *
+   * @param ifMatch {@code If-Match} header of the request, {@code null} for an unconditional update
+   * @throws DocumentationNotFoundException when the documentation is not in the project
+   */
+  @Transactional
+  public DocumentationDto updateDocumentation(
+      UUID projectId, Long id, DocumentationDto dto, String ifMatch, Principal principal) {
+    Documentation documentation = findInProject(projectId, id, principal);
+    EntityTags.checkIfMatch(ifMatch, EntityTags.of(documentation.toDocumentationDto()));
 
+    String previousTitle = documentation.getTitle();
+    String previousContent = documentation.getContent();
+    String previousHash = documentation.getContentHash();
     documentation.setTitle(dto.getTitle());
     documentation.setContent(dto.getContent());
 
-    Documentation updatedDoc = documentationRepository.save(documentation);
-    return convertToDto(updatedDoc);
+    // Flushed here so that the returned version is the new one
+    Documentation updatedDoc = documentationRepository.saveAndFlush(documentation);
+    if (!Objects.equals(previousTitle, updatedDoc.getTitle())
+        || !Objects.equals(previousContent, updatedDoc.getContent())) {
+      documentationRevisionService.recordUpdate(updatedDoc, previousTitle, previousContent);
+    }
+    // Rendered pages are keyed by content and never stale, this only frees the room early
+    if (!Objects.equals(previousHash, updatedDoc.getContentHash())) {
+      documentationRenderService.evict(previousHash);
+    }
+    return updatedDoc.toDocumentationDto();
   }
 
-  public void deleteDocumentation(Long id) {
-    documentationRepository.deleteById(id);
+  /**
+   * @throws DocumentationNotFoundException when the documentation is not in the project
+   */
+  @Transactional
+  public void deleteDocumentation(UUID projectId, Long id, Principal principal) {
+    Documentation documentation = findInProject(projectId, id, principal);
+    documentationRevisionService.deleteRevisions(id);
+    documentationRepository.delete(documentation);
   }
 
-  private DocumentationDto convertToDto(Documentation doc) {
-    return DocumentationDto.builder()
-        .id(doc.getId())
-        .title(doc.getTitle())
-        .content(doc.getContent())
-        .createdAt(doc.getCreatedAt())
-        .updatedAt(doc.getUpdatedAt())
-        .build();
+  /** The documentation of the project, for a member of the project only. */
+  private Documentation findInProject(UUID projectId, Long id, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+    return documentationRepository
+        .findByIdAndProjectId(id, projectId)
+        .orElseThrow(
+            () -> new DocumentationNotFoundException("Documentation " + id + " not found"));
   }
 }
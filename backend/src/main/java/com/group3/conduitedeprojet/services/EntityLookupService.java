@@ -14,9 +14,11 @@ import com.group3.conduitedeprojet.repositories.IssueRepository;
 import com.group3.conduitedeprojet.repositories.ProjectRepository;
 import com.group3.conduitedeprojet.repositories.TaskRepository;
 import com.group3.conduitedeprojet.repositories.TestRepository;
-import com.group3.conduitedeprojet.repositories.UserRepository;
+import com.group3.conduitedeprojet.security.AuthenticatedUser;
 import java.security.Principal;
-import java.util.Optional;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -24,58 +26,121 @@ import org.springframework.stereotype.Service;
 @Service
 public class EntityLookupService {
 
-  @Autowired private UserRepository userRepository;
+  @Autowired private UserCacheService userCacheService;
   @Autowired private ProjectRepository projectRepository;
   @Autowired private TaskRepository taskRepository;
   @Autowired private IssueRepository issueRepository;
   @Autowired private TestRepository testRepository;
+  @Autowired private ProjectMembershipIndex projectMembershipIndex;
+  @Autowired private TransactionEntityContext transactionEntityContext;
 
   public Project getProject(UUID projectId) {
-    Optional<Project> optionalProject = projectRepository.findById(projectId);
-    if (optionalProject.isEmpty()) {
-      throw new ProjectNotFoundException("Project with id " + projectId + " was not found");
-    }
-    return optionalProject.get();
+    return transactionEntityContext.getOrLoad(
+        Project.class,
+        projectId,
+        () ->
+            projectRepository
+                .findById(projectId)
+                .orElseThrow(
+                    () ->
+                        new ProjectNotFoundException(
+                            "Project with id " + projectId + " was not found")));
   }
 
   public Issue getIssue(Long issueId) {
-    Optional<Issue> optionalIssue = issueRepository.findById(issueId);
-    if (optionalIssue.isEmpty()) {
-      throw new IssueNotFoundException("Issue with id " + issueId + " was not found");
+    return transactionEntityContext.getOrLoad(
+        Issue.class,
+        issueId,
+        () ->
+            issueRepository
+                .findById(issueId)
+                .orElseThrow(
+                    () ->
+                        new IssueNotFoundException("Issue with id " + issueId + " was not found")));
+  }
+
+  /**
+   * Resolves several issues, loading the ones not yet known in this transaction with a single
+   * query.
+   *
+   * @throws IssueNotFoundException if one of the ids does not exist
+   */
+  public Set<Issue> getIssues(Collection<Long> issueIds) {
+    Set<Issue> issues = new HashSet<>();
+    Set<Long> missingIds = new HashSet<>();
+    for (Long issueId : new HashSet<>(issueIds)) {
+      Issue known = transactionEntityContext.getIfPresent(Issue.class, issueId);
+      if (known != null) {
+        issues.add(known);
+      } else {
+        missingIds.add(issueId);
+      }
     }
-    return optionalIssue.get();
+    transactionEntityContext.recordLookupsSaved(issues.size());
+
+    if (!missingIds.isEmpty()) {
+      Set<Long> notFoundIds = new HashSet<>(missingIds);
+      for (Issue issue : issueRepository.findAllById(missingIds)) {
+        transactionEntityContext.put(Issue.class, issue.getId(), issue);
+        issues.add(issue);
+        notFoundIds.remove(issue.getId());
+      }
+      if (!notFoundIds.isEmpty()) {
+        throw new IssueNotFoundException(
+            "Issue with id " + notFoundIds.iterator().next() + " was not found");
+      }
+    }
+    return issues;
   }
 
   public Task getTask(Long taskId) {
-    Optional<Task> optionalTask = taskRepository.findById(taskId);
-    if (optionalTask.isEmpty()) {
-      throw new TaskNotFoundException("Task with id " + taskId + " was not found");
-    }
-    return optionalTask.get();
+    return transactionEntityContext.getOrLoad(
+        Task.class,
+        taskId,
+        () ->
+            taskRepository
+                .findById(taskId)
+                .orElseThrow(
+                    () -> new TaskNotFoundException("Task with id " + taskId + " was not found")));
   }
 
   public User getUser(Long userId) {
-    Optional<User> optionalUser = userRepository.findById(userId);
-    if (optionalUser.isEmpty()) {
-      throw new UserNotFoundException("User with id " + userId + " was not found");
-    }
-    return optionalUser.get();
+    return transactionEntityContext.getOrLoad(
+        User.class,
+        userId,
+        () ->
+            userCacheService
+                .findById(userId)
+                .orElseThrow(
+                    () -> new UserNotFoundException("User with id " + userId + " was not found")));
   }
 
   public User getUserByEmail(String email) {
-    Optional<User> optionalUser = userRepository.findByEmail(email);
-    if (optionalUser.isEmpty()) {
-      throw new UserNotFoundException("User with email " + email + " was not found");
-    }
-    return optionalUser.get();
+    return transactionEntityContext.getOrLoad(
+        User.class,
+        email,
+        () ->
+            userCacheService
+                .findByEmail(email)
+                .orElseThrow(
+                    () ->
+                        new UserNotFoundException("User with email " + email + " was not found")));
   }
 
   public Test getTest(Long testId) {
-    Optional<Test> optionalTest = testRepository.findById(testId);
-    if (optionalTest.isEmpty()) {
-      throw new TaskNotFoundException("Test with id " + testId + " was not found");
-    }
-    return optionalTest.get();
+    return transactionEntityContext.getOrLoad(
+        Test.class,
+        testId,
+        () ->
+            testRepository
+                .findById(testId)
+                .orElseThrow(
+                    () -> new TaskNotFoundException("Test with id " + testId + " was not found")));
+  }
+
+  /** Forgets an entity resolved earlier in the transaction, to be called after deleting it. */
+  public void evict(Class<?> type, Object id) {
+    transactionEntityContext.evict(type, id);
   }
 
   public void checkPrincipalIsCreator(Project project, Principal principal) {
@@ -85,14 +150,16 @@ public class EntityLookupService {
   }
 
   public void checkPrincipalIsCreatorOrCollaborator(Project project, Principal principal) {
-    boolean principalIsCollaborator =
-        project.getCollaborators().stream()
-            .map(User::getEmail)
-            .anyMatch(collaboratorEmail -> collaboratorEmail.equals(principal.getName()));
-
     if (!project.getCreator().getUsername().equals(principal.getName())
-        && !principalIsCollaborator) {
+        && !projectMembershipIndex.isMember(project.getId(), getPrincipalId(principal))) {
       throw new NotAuthorizedException("Only a collaborator or creator can make change");
     }
   }
+
+  /** Id of the authenticated user, taken from the token claims when available. */
+  public Long getPrincipalId(Principal principal) {
+    return AuthenticatedUser.from(principal)
+        .map(AuthenticatedUser::id)
+        .orElseGet(() -> getUserByEmail(principal.getName()).getId());
+  }
 }
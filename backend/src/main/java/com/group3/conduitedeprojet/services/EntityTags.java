@@ -0,0 +1,106 @@
+package com.group3.conduitedeprojet.services;
+
+import com.group3.conduitedeprojet.dto.DocumentationDto;
+import com.group3.conduitedeprojet.dto.DocumentationSummaryDto;
+import com.group3.conduitedeprojet.dto.IssueDto;
+import com.group3.conduitedeprojet.dto.SprintDto;
+import com.group3.conduitedeprojet.dto.TaskDto;
+import com.group3.conduitedeprojet.dto.TestDto;
+import com.group3.conduitedeprojet.exceptions.PreconditionFailedException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Strong ETags of the versioned entities, derived from their version column so that they are known
+ * without serializing the response. Clients send them back in {@code If-None-Match} to revalidate a
+ * GET and in {@code If-Match} to make an update conditional.
+ */
+public final class EntityTags {
+
+  private EntityTags() {}
+
+  public static String of(IssueDto issue) {
+    return quote(String.valueOf(issue.getVersion()));
+  }
+
+  public static String of(TaskDto task) {
+    return quote(String.valueOf(task.getVersion()));
+  }
+
+  public static String of(DocumentationDto documentation) {
+    return quote(String.valueOf(documentation.getVersion()));
+  }
+
+  public static String of(DocumentationSummaryDto documentation) {
+    return quote(String.valueOf(documentation.getVersion()));
+  }
+
+  /** A test has no version: its code hashes are what an update changes. */
+  public static String of(TestDto test) {
+    return quote(test.getId() + "-" + digest(test.getProgramHash() + test.getTestHash()));
+  }
+
+  /**
+   * A sprint also shows the aggregates of its issues, which change without touching the sprint row:
+   * they are part of the tag along with the version.
+   */
+  public static String of(SprintDto sprint) {
+    long[] issueIds = sprint.getIssueIds().stream().mapToLong(Long::longValue).sorted().toArray();
+    String issues =
+        Arrays.toString(issueIds)
+            + sprint.getTotalStoryPoints()
+            + sprint.getIssueCountByStatus().values();
+    return quote(sprint.getVersion() + "-" + digest(issues));
+  }
+
+  /**
+   * Tag of a listing, which changes whenever an item is added, removed or updated. Each item counts
+   * with its id: a new entity starts at the version of the one it may replace.
+   */
+  public static <T> String ofAll(List<T> items, Function<T, ?> id, Function<T, String> tag) {
+    StringBuilder tags = new StringBuilder();
+    items.forEach(
+        item -> tags.append(id.apply(item)).append(':').append(tag.apply(item)).append(','));
+    return quote(items.size() + "-" + digest(tags.toString()));
+  }
+
+  /**
+   * Checks the {@code If-Match} header of an update against the current tag of the entity. A
+   * missing header leaves the update unconditional.
+   *
+   * @throws PreconditionFailedException when none of the listed tags is the current one
+   */
+  public static void checkIfMatch(String ifMatch, String currentTag) {
+    if (ifMatch == null || ifMatch.isBlank()) {
+      return;
+    }
+    for (String tag : ifMatch.split(",")) {
+      String candidate = tag.trim();
+      // If-Match uses the strong comparison: weak tags never match
+      if (candidate.equals("*") || candidate.equals(currentTag)) {
+        return;
+      }
+    }
+    throw new PreconditionFailedException(
+        "La ressource a été modifiée depuis sa lecture, la version actuelle est " + currentTag);
+  }
+
+  private static String quote(String value) {
+    return "\"" + value + "\"";
+  }
+
+  private static String digest(String value) {
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(hash, 0, 12);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
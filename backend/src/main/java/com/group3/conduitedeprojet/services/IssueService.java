@@ -1,28 +1,63 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
+import com.group3.conduitedeprojet.dto.BulkUpdateIssuesRequest;
+import com.group3.conduitedeprojet.dto.BulkUpdateIssuesResponse;
 import com.group3.conduitedeprojet.dto.CreateIssueRequest;
 import com.group3.conduitedeprojet.dto.IssueDto;
+import com.group3.conduitedeprojet.dto.IssueFilter;
+import com.group3.conduitedeprojet.dto.IssuePageDto;
+import com.group3.conduitedeprojet.dto.IssuePatch;
 import com.group3.conduitedeprojet.dto.UpdateIssueRequest;
+import com.group3.conduitedeprojet.exceptions.InvalidBulkUpdateException;
+import com.group3.conduitedeprojet.exceptions.InvalidCursorException;
 import com.group3.conduitedeprojet.exceptions.IssueNotFoundException;
-import com.group3.conduitedeprojet.exceptions.NotAuthorizedException;
+import com.group3.conduitedeprojet.exceptions.ReleaseNotFoundException;
+import com.group3.conduitedeprojet.exceptions.SprintNotFoundException;
 import com.group3.conduitedeprojet.models.Issue;
 import com.group3.conduitedeprojet.models.Project;
 import com.group3.conduitedeprojet.models.User;
 import com.group3.conduitedeprojet.repositories.IssueRepository;
+import com.group3.conduitedeprojet.repositories.IssueRepositoryCustom;
+import com.group3.conduitedeprojet.repositories.ReleaseRepository;
+import com.group3.conduitedeprojet.repositories.SprintRepository;
+import java.nio.charset.StandardCharsets;
 import java.security.Principal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class IssueService {
 
+  /** Largest page returned by {@link #getIssuePage}. */
+  public static final int MAX_PAGE_SIZE = 200;
+
+  /** Largest number of issues changed by {@link #updateIssues}. */
+  public static final int MAX_BULK_UPDATE_SIZE = 5000;
+
+  private static final String CURSOR_SEPARATOR = "|";
+
   @Autowired private IssueRepository issueRepository;
 
+  @Autowired private SprintRepository sprintRepository;
+
+  @Autowired private ReleaseRepository releaseRepository;
+
   @Autowired private EntityLookupService entityLookupService;
 
+  @Transactional
   public IssueDto createIssue(
       UUID projectId, CreateIssueRequest createIssueRequest, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
@@ -30,6 +65,30 @@ public class IssueService {
 
     User creator = entityLookupService.getUserByEmail(principal.getName());
 
+    Issue issue = buildIssue(createIssueRequest, project, creator);
+    return issueRepository.save(issue).toIssueDto();
+  }
+
+  /**
+   * Creates many issues in one transaction. Ids come from a pooled sequence, so Hibernate sends the
+   * inserts as JDBC batches instead of one round trip per issue.
+   */
+  @Transactional
+  public List<IssueDto> createIssues(
+      UUID projectId, List<CreateIssueRequest> createIssueRequests, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+
+    User creator = entityLookupService.getUserByEmail(principal.getName());
+
+    List<Issue> issues =
+        createIssueRequests.stream()
+            .map(createIssueRequest -> buildIssue(createIssueRequest, project, creator))
+            .toList();
+    return issueRepository.saveAll(issues).stream().map(Issue::toIssueDto).toList();
+  }
+
+  private Issue buildIssue(CreateIssueRequest createIssueRequest, Project project, User creator) {
     Issue.IssueBuilder issueBuilder =
         Issue.builder()
             .title(createIssueRequest.getTitle())
@@ -49,25 +108,68 @@ public class IssueService {
       issueBuilder.status(createIssueRequest.getStatus());
     }
 
-    Issue issue = issueBuilder.build();
-    return issueRepository.save(issue).toIssueDto();
+    return issueBuilder.build();
   }
 
+  @ReadFromReplica
   public List<IssueDto> getIssuesByProject(UUID projectId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
 
-    String userEmail = principal.getName();
-    boolean hasAccess =
-        project.getCreator().getEmail().equals(userEmail)
-            || project.getCollaborators().stream().anyMatch(u -> u.getEmail().equals(userEmail));
+    return issueRepository.findByProjectIdOrderByCreatedAtAscIdAsc(projectId).stream()
+        .map(Issue::toIssueDto)
+        .toList();
+  }
 
-    if (!hasAccess) {
-      throw new NotAuthorizedException("You don't have access to this project");
-    }
+  /**
+   * One page of the issues of a project, newest first. The cursor is opaque to clients, it encodes
+   * the sort key of the last issue returned so that the next page resumes right after it.
+   *
+   * @param cursor {@code nextCursor} of the previous page, {@code null} for the first page
+   * @param limit page size, clamped to {@link #MAX_PAGE_SIZE}
+   */
+  @ReadFromReplica
+  public IssuePageDto getIssuePage(
+      UUID projectId, IssueFilter filter, String cursor, int limit, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
 
-    return issueRepository.findByProjectId(projectId).stream().map(Issue::toIssueDto).toList();
+    int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    // One extra row tells whether another page follows
+    List<Issue> issues =
+        issueRepository.findPage(projectId, filter, decodeCursor(cursor), pageSize + 1);
+    boolean hasNext = issues.size() > pageSize;
+    List<Issue> page = hasNext ? issues.subList(0, pageSize) : issues;
+
+    return IssuePageDto.builder()
+        .items(page.stream().map(Issue::toIssueDto).toList())
+        .nextCursor(hasNext ? encodeCursor(page.get(page.size() - 1)) : null)
+        .build();
+  }
+
+  private static String encodeCursor(Issue issue) {
+    String key = issue.getCreatedAt().toString() + CURSOR_SEPARATOR + issue.getId();
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static IssueRepositoryCustom.Keyset decodeCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = key.indexOf(CURSOR_SEPARATOR);
+      return new IssueRepositoryCustom.Keyset(
+          LocalDateTime.parse(key.substring(0, separator)),
+          Long.parseLong(key.substring(separator + 1)));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+      throw new InvalidCursorException("Curseur de pagination invalide");
+    }
   }
 
+  @Transactional
   public void deleteIssue(UUID projectId, Long issueId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
@@ -79,10 +181,35 @@ public class IssueService {
     }
 
     issueRepository.delete(optionalIssue.get());
+    entityLookupService.evict(Issue.class, issueId);
   }
 
+  @ReadFromReplica
+  public IssueDto getIssue(UUID projectId, Long issueId, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+
+    return issueRepository
+        .findByIdAndProjectId(issueId, projectId)
+        .orElseThrow(
+            () ->
+                new IssueNotFoundException(
+                    "Issue with id " + issueId + " was not found in project " + projectId))
+        .toIssueDto();
+  }
+
+  /**
+   * Updates the fields set in the request.
+   *
+   * @param ifMatch {@code If-Match} header of the request, {@code null} for an unconditional update
+   */
+  @Transactional
   public IssueDto updateIssue(
-      UUID projectId, Long issueId, UpdateIssueRequest updateIssueRequest, Principal principal) {
+      UUID projectId,
+      Long issueId,
+      UpdateIssueRequest updateIssueRequest,
+      String ifMatch,
+      Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
 
@@ -93,6 +220,7 @@ public class IssueService {
     }
 
     Issue issue = optionalIssue.get();
+    EntityTags.checkIfMatch(ifMatch, EntityTags.of(issue.toIssueDto()));
 
     if (updateIssueRequest.getTitle() != null) {
       issue.setTitle(updateIssueRequest.getTitle());
@@ -115,6 +243,99 @@ public class IssueService {
       issue.setAssignee(user);
     }
 
-    return issueRepository.save(issue).toIssueDto();
+    // Flushed here so that the returned version is the new one
+    return issueRepository.saveAndFlush(issue).toIssueDto();
+  }
+
+  /**
+   * Applies the same changes to the listed issues, or to the ones matching the filter, in one
+   * transaction. The issues are locked and changed with a few set-based statements, whatever their
+   * number; listed issues that are not in the project are reported as not found.
+   */
+  @Transactional
+  public BulkUpdateIssuesResponse updateIssues(
+      UUID projectId, BulkUpdateIssuesRequest request, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+
+    IssuePatch patch = request.getPatch();
+    validateBulkUpdate(request, patch);
+    checkPatchReferences(projectId, patch);
+
+    Set<Long> requestedIds =
+        request.getIssueIds() != null ? new LinkedHashSet<>(request.getIssueIds()) : null;
+    // One extra row tells whether the filter matches too many issues
+    List<IssueRepositoryCustom.IssueVersion> locked =
+        requestedIds == null || !requestedIds.isEmpty()
+            ? issueRepository.lockForUpdate(
+                projectId, requestedIds, request.getFilter(), MAX_BULK_UPDATE_SIZE + 1)
+            : List.of();
+    if (locked.size() > MAX_BULK_UPDATE_SIZE) {
+      throw new InvalidBulkUpdateException(
+          "Le filtre sélectionne plus de " + MAX_BULK_UPDATE_SIZE + " issues");
+    }
+
+    List<Long> lockedIds = locked.stream().map(IssueRepositoryCustom.IssueVersion::id).toList();
+    if (!lockedIds.isEmpty()) {
+      issueRepository.applyPatch(lockedIds, patch);
+    }
+
+    Map<Long, Long> versionById =
+        locked.stream()
+            .collect(
+                Collectors.toMap(
+                    IssueRepositoryCustom.IssueVersion::id,
+                    IssueRepositoryCustom.IssueVersion::version));
+    List<BulkUpdateIssuesResponse.Result> results = new ArrayList<>();
+    for (Long issueId : requestedIds != null ? requestedIds : lockedIds) {
+      Long version = versionById.get(issueId);
+      results.add(
+          BulkUpdateIssuesResponse.Result.builder()
+              .issueId(issueId)
+              .outcome(
+                  version != null
+                      ? BulkUpdateIssuesResponse.Outcome.UPDATED
+                      : BulkUpdateIssuesResponse.Outcome.NOT_FOUND)
+              .version(version != null ? version + 1 : null)
+              .build());
+    }
+    return BulkUpdateIssuesResponse.builder().updated(locked.size()).results(results).build();
+  }
+
+  private static void validateBulkUpdate(BulkUpdateIssuesRequest request, IssuePatch patch) {
+    if ((request.getIssueIds() == null) == (request.getFilter() == null)) {
+      throw new InvalidBulkUpdateException(
+          "Les issues doivent être désignées soit par leurs identifiants, soit par un filtre");
+    }
+    if ((patch.isClearAssignee() && patch.getAssigneeId() != null)
+        || (patch.isClearSprint() && patch.getSprintId() != null)
+        || (patch.isClearRelease() && patch.getReleaseId() != null)) {
+      throw new InvalidBulkUpdateException("Un champ ne peut pas être à la fois modifié et vidé");
+    }
+    if (patch.getStatus() == null
+        && patch.getPriority() == null
+        && patch.getAssigneeId() == null
+        && !patch.isClearAssignee()
+        && patch.getSprintId() == null
+        && !patch.isClearSprint()
+        && patch.getReleaseId() == null
+        && !patch.isClearRelease()) {
+      throw new InvalidBulkUpdateException("Aucune modification à appliquer");
+    }
+  }
+
+  /** Checks once that the assignee exists and that the sprint and release are in the project. */
+  private void checkPatchReferences(UUID projectId, IssuePatch patch) {
+    if (patch.getAssigneeId() != null) {
+      entityLookupService.getUser(patch.getAssigneeId());
+    }
+    if (patch.getSprintId() != null
+        && sprintRepository.findByIdAndProjectId(patch.getSprintId(), projectId).isEmpty()) {
+      throw new SprintNotFoundException("Sprint not found");
+    }
+    if (patch.getReleaseId() != null
+        && !releaseRepository.existsByIdAndProjectId(patch.getReleaseId(), projectId)) {
+      throw new ReleaseNotFoundException("Release not found");
+    }
   }
 }
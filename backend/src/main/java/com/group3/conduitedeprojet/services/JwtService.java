@@ -1,9 +1,12 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.models.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
@@ -17,12 +20,43 @@ import org.springframework.stereotype.Service;
 @Service
 public class JwtService {
 
+  /** Claim holding the user id, used to build the principal without a database lookup. */
+  public static final String USER_ID_CLAIM = "uid";
+
+  /** Claim holding the display name of the user. */
+  public static final String NAME_CLAIM = "name";
+
+  /** Claim holding the login session, checked against the revoked sessions. */
+  public static final String SESSION_ID_CLAIM = "sid";
+
   @Value("${security.jwt.secret-key}")
   private String secretKey;
 
   @Value("${security.jwt.expiration-ms}")
   private long jwtExpirationMs;
 
+  private SecretKey signInKey;
+
+  private JwtParser jwtParser;
+
+  /** Decodes the signing key and builds the parser once, they are both thread-safe. */
+  @PostConstruct
+  void init() {
+    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+    signInKey = Keys.hmacShaKeyFor(keyBytes);
+    jwtParser = Jwts.parser().verifyWith(signInKey).build();
+  }
+
+  /**
+   * Verify the signature and expiration of a JWT token and return its claims
+   *
+   * @param token the JWT token
+   * @return the claims contained in the token
+   */
+  public Claims parseClaims(String token) {
+    return jwtParser.parseSignedClaims(token).getPayload();
+  }
+
   /**
    * Extract username from JWT token
    *
@@ -42,14 +76,10 @@ public class JwtService {
    * @return the extracted claim
    */
   public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-    final Claims claims = extractAllClaims(token);
+    final Claims claims = parseClaims(token);
     return claimsResolver.apply(claims);
   }
 
-  private Claims extractAllClaims(String token) {
-    return Jwts.parser().verifyWith(getSignInKey()).build().parseSignedClaims(token).getPayload();
-  }
-
   /**
    * Generate a JWT token for a user
    *
@@ -61,7 +91,12 @@ public class JwtService {
   }
 
   public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-    return buildToken(extraClaims, userDetails.getUsername(), jwtExpirationMs);
+    Map<String, Object> claims = new HashMap<>(extraClaims);
+    if (userDetails instanceof User user) {
+      claims.put(USER_ID_CLAIM, user.getId());
+      claims.put(NAME_CLAIM, user.getName());
+    }
+    return buildToken(claims, userDetails.getUsername(), jwtExpirationMs);
   }
 
   public long getExpirationTime() {
@@ -78,12 +113,7 @@ public class JwtService {
         .subject(username)
         .issuedAt(Date.from(now))
         .expiration(Date.from(expiration))
-        .signWith(getSignInKey())
+        .signWith(signInKey)
         .compact();
   }
-
-  private SecretKey getSignInKey() {
-    byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-    return Keys.hmacShaKeyFor(keyBytes);
-  }
 }
@@ -0,0 +1,209 @@
+package com.group3.conduitedeprojet.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Line based diff of two texts, with Myers' algorithm. Its cost grows with the number of changed
+ * lines rather than with the size of the texts: the common head and tail are skipped first, and
+ * past {@link #MAX_EDIT_DISTANCE} edits the remaining lines are reported as a single change.
+ */
+final class LineDiff {
+
+  static final int MAX_EDIT_DISTANCE = 2000;
+
+  private static final int CONTEXT_LINES = 3;
+
+  private LineDiff() {}
+
+  /** Lines {@code [aStart, aEnd)} of the old text are replaced by {@code [bStart, bEnd)}. */
+  record Change(int aStart, int aEnd, int bStart, int bEnd) {}
+
+  /** Splits a text in lines, each one keeping its line break. */
+  static List<String> lines(String text) {
+    List<String> lines = new ArrayList<>();
+    int start = 0;
+    while (start < text.length()) {
+      int end = text.indexOf('\n', start);
+      end = end < 0 ? text.length() : end + 1;
+      lines.add(text.substring(start, end));
+      start = end;
+    }
+    return lines;
+  }
+
+  /** Changes turning {@code a} into {@code b}, in order and never adjacent. */
+  static List<Change> diff(List<String> a, List<String> b) {
+    int head = 0;
+    while (head < a.size() && head < b.size() && a.get(head).equals(b.get(head))) {
+      head++;
+    }
+    int tail = 0;
+    while (tail < a.size() - head
+        && tail < b.size() - head
+        && a.get(a.size() - 1 - tail).equals(b.get(b.size() - 1 - tail))) {
+      tail++;
+    }
+    List<String> x = a.subList(head, a.size() - tail);
+    List<String> y = b.subList(head, b.size() - tail);
+
+    List<Change> changes = new ArrayList<>();
+    if (x.isEmpty() && y.isEmpty()) {
+      return changes;
+    }
+    int[] matches = x.isEmpty() || y.isEmpty() ? null : matchingLines(x, y);
+    if (matches == null) {
+      changes.add(new Change(head, head + x.size(), head, head + y.size()));
+      return changes;
+    }
+
+    // Gaps between the matching lines are the changes
+    int i = 0;
+    int j = 0;
+    for (int k = 0; k <= matches.length; k += 2) {
+      int nextI = k < matches.length ? matches[k] : x.size();
+      int nextJ = k < matches.length ? matches[k + 1] : y.size();
+      if (nextI > i || nextJ > j) {
+        changes.add(new Change(head + i, head + nextI, head + j, head + nextJ));
+      }
+      i = nextI + 1;
+      j = nextJ + 1;
+    }
+    return changes;
+  }
+
+  /**
+   * Unified diff of two texts, with three lines of context around the changes.
+   *
+   * @param from label of the old text
+   * @param to label of the new text
+   */
+  static String unified(String from, String to, List<String> a, List<String> b) {
+    List<Change> changes = diff(a, b);
+    StringBuilder diff = new StringBuilder();
+    if (changes.isEmpty()) {
+      return "";
+    }
+    diff.append("--- ").append(from).append('\n');
+    diff.append("+++ ").append(to).append('\n');
+
+    int first = 0;
+    while (first < changes.size()) {
+      // Changes closer than twice the context share a hunk
+      int last = first;
+      while (last + 1 < changes.size()
+          && changes.get(last + 1).aStart() - changes.get(last).aEnd() <= 2 * CONTEXT_LINES) {
+        last++;
+      }
+      Change start = changes.get(first);
+      Change end = changes.get(last);
+      int aStart = Math.max(0, start.aStart() - CONTEXT_LINES);
+      int aEnd = Math.min(a.size(), end.aEnd() + CONTEXT_LINES);
+      int bStart = start.bStart() - (start.aStart() - aStart);
+      int bEnd = end.bEnd() + (aEnd - end.aEnd());
+
+      diff.append("@@ -")
+          .append(range(aStart, aEnd))
+          .append(" +")
+          .append(range(bStart, bEnd))
+          .append(" @@\n");
+      int i = aStart;
+      for (Change change : changes.subList(first, last + 1)) {
+        appendLines(diff, ' ', a, i, change.aStart());
+        appendLines(diff, '-', a, change.aStart(), change.aEnd());
+        appendLines(diff, '+', b, change.bStart(), change.bEnd());
+        i = change.aEnd();
+      }
+      appendLines(diff, ' ', a, i, aEnd);
+      first = last + 1;
+    }
+    return diff.toString();
+  }
+
+  private static String range(int start, int end) {
+    // An empty range is numbered after the line it follows
+    return (end > start ? start + 1 : start) + "," + (end - start);
+  }
+
+  private static void appendLines(
+      StringBuilder diff, char prefix, List<String> lines, int start, int end) {
+    for (String line : lines.subList(start, end)) {
+      diff.append(prefix).append(line);
+      if (!line.endsWith("\n")) {
+        diff.append("\n\\ No newline at end of file\n");
+      }
+    }
+  }
+
+  /**
+   * Pairs of indexes {@code (i, j)} of the lines of {@code x} and {@code y} kept by a shortest edit
+   * script, flattened in increasing order, or {@code null} past {@link #MAX_EDIT_DISTANCE}.
+   */
+  private static int[] matchingLines(List<String> x, List<String> y) {
+    int n = x.size();
+    int m = y.size();
+    int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+    int offset = max + 1;
+    // v[offset + k] is the furthest i reached on diagonal k = i - j
+    int[] v = new int[2 * max + 3];
+    // trace.get(d) keeps the diagonals -d..d of v as they were before step d
+    List<int[]> trace = new ArrayList<>();
+
+    for (int d = 0; d <= max; d++) {
+      trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+      for (int k = -d; k <= d; k += 2) {
+        int i =
+            k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])
+                ? v[offset + k + 1]
+                : v[offset + k - 1] + 1;
+        int j = i - k;
+        while (i < n && j < m && x.get(i).equals(y.get(j))) {
+          i++;
+          j++;
+        }
+        v[offset + k] = i;
+        if (i >= n && j >= m) {
+          return backtrack(trace, n, m);
+        }
+      }
+    }
+    return null;
+  }
+
+  private static int[] backtrack(List<int[]> trace, int n, int m) {
+    List<int[]> pairs = new ArrayList<>();
+    int i = n;
+    int j = m;
+    for (int d = trace.size() - 1; d >= 0; d--) {
+      int k = i - j;
+      int previousI;
+      int previousJ;
+      if (d == 0) {
+        previousI = 0;
+        previousJ = 0;
+      } else {
+        int[] v = trace.get(d);
+        int previousK = k == -d || (k != d && v[k - 1 + d] < v[k + 1 + d]) ? k + 1 : k - 1;
+        previousI = v[previousK + d];
+        previousJ = previousI - previousK;
+      }
+      // The diagonal run ending at (i, j) is made of matching lines
+      while (i > previousI && j > previousJ && i - j == k) {
+        i--;
+        j--;
+        pairs.add(new int[] {i, j});
+      }
+      i = previousI;
+      j = previousJ;
+    }
+
+    int[] matches = new int[pairs.size() * 2];
+    for (int p = 0; p < pairs.size(); p++) {
+      int[] pair = pairs.get(pairs.size() - 1 - p);
+      matches[2 * p] = pair[0];
+      matches[2 * p + 1] = pair[1];
+    }
+    return matches;
+  }
+}
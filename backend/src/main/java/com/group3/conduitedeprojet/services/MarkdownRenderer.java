@@ -0,0 +1,726 @@
+package com.group3.conduitedeprojet.services;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders the markdown of the documentation to HTML, following what the frontend does with marked
+ * (GitHub flavoured, line breaks kept): headings, paragraphs, lists, task lists, block quotes, code
+ * blocks, tables, rules, emphasis, strikethrough, code spans, links and images.
+ *
+ * <p>The HTML is safe by construction: raw HTML of the markdown is escaped like any other text, and
+ * links and images only keep http, https, mailto and relative URLs.
+ */
+final class MarkdownRenderer {
+
+  private static final Pattern ATX_HEADING =
+      Pattern.compile("^ {0,3}(#{1,6})(?:[ \\t]+(.*?))?(?:[ \\t]+#+)?[ \\t]*$");
+  private static final Pattern SETEXT_UNDERLINE = Pattern.compile("^ {0,3}(=+|-+)[ \\t]*$");
+  private static final Pattern THEMATIC_BREAK =
+      Pattern.compile("^ {0,3}(?:(?:-[ \\t]*){3,}|(?:\\*[ \\t]*){3,}|(?:_[ \\t]*){3,})$");
+  private static final Pattern FENCE =
+      Pattern.compile("^( {0,3})(`{3,}|~{3,})[ \\t]*([^`]*?)[ \\t]*$");
+  private static final Pattern BLOCK_QUOTE = Pattern.compile("^ {0,3}> ?(.*)$");
+  private static final Pattern LIST_ITEM =
+      Pattern.compile("^( {0,3})([-*+]|\\d{1,9}[.)])(?:([ \\t]+)(.*))?$");
+  private static final Pattern TASK = Pattern.compile("^\\[([ xX])\\][ \\t]+(.*)$", Pattern.DOTALL);
+  private static final Pattern TABLE_DELIMITER =
+      Pattern.compile("^ {0,3}\\|?[ \\t]*:?-+:?[ \\t]*(?:\\|[ \\t]*:?-+:?[ \\t]*)*\\|?[ \\t]*$");
+  private static final Pattern LINK_TITLE = Pattern.compile("^(\\S*)\\s+\"(.*)\"$", Pattern.DOTALL);
+  private static final Pattern BARE_URL = Pattern.compile("(?:https?://|www\\.)[^\\s<]+");
+  private static final Pattern AUTOLINK_URL = Pattern.compile("(?i)https?://[^\\s<]+");
+  private static final Pattern AUTOLINK_EMAIL = Pattern.compile("[^\\s@<]+@[^\\s@<]+\\.[^\\s@<]+");
+
+  /** Longer link destinations are left as text, which keeps nested brackets linear. */
+  private static final int MAX_DESTINATION_LENGTH = 2048;
+
+  private static final Pattern SAFE_URL =
+      Pattern.compile("^(?:(?:https?|mailto):|[^:/?#]*(?:[/?#]|$))", Pattern.CASE_INSENSITIVE);
+
+  private MarkdownRenderer() {}
+
+  static String render(String markdown) {
+    StringBuilder html = new StringBuilder(markdown.length() + markdown.length() / 4);
+    renderBlocks(html, lines(markdown), false);
+    return html.toString();
+  }
+
+  private static List<String> lines(String markdown) {
+    List<String> lines = new ArrayList<>();
+    for (String line : markdown.replace("\r\n", "\n").replace('\r', '\n').split("\n", -1)) {
+      lines.add(line.replace("\t", "    "));
+    }
+    return lines;
+  }
+
+  // Blocks
+
+  /**
+   * @param tight whether the lines are the item of a tight list, whose paragraphs have no tags
+   */
+  private static void renderBlocks(StringBuilder html, List<String> lines, boolean tight) {
+    int i = 0;
+    while (i < lines.size()) {
+      String line = lines.get(i);
+      Matcher m;
+      if (line.isBlank()) {
+        i++;
+      } else if ((m = FENCE.matcher(line)).matches()) {
+        i = fencedCode(html, lines, i, m);
+      } else if ((m = ATX_HEADING.matcher(line)).matches()) {
+        heading(html, m.group(1).length(), m.group(2) == null ? "" : m.group(2));
+        i++;
+      } else if (THEMATIC_BREAK.matcher(line).matches()) {
+        html.append("<hr>\n");
+        i++;
+      } else if (BLOCK_QUOTE.matcher(line).matches()) {
+        i = blockQuote(html, lines, i);
+      } else if (LIST_ITEM.matcher(line).matches()) {
+        i = list(html, lines, i);
+      } else if (indent(line) >= 4) {
+        i = indentedCode(html, lines, i);
+      } else if (i + 1 < lines.size() && isTableStart(line, lines.get(i + 1))) {
+        i = table(html, lines, i);
+      } else {
+        i = paragraph(html, lines, i, tight);
+      }
+    }
+  }
+
+  private static int fencedCode(StringBuilder html, List<String> lines, int start, Matcher open) {
+    int fenceIndent = open.group(1).length();
+    String fence = open.group(2);
+    String language = open.group(3).split("[ \\t]", 2)[0];
+    html.append("<pre><code");
+    if (!language.isEmpty()) {
+      html.append(" class=\"language-");
+      escape(html, language);
+      html.append('"');
+    }
+    html.append('>');
+    int i = start + 1;
+    for (; i < lines.size(); i++) {
+      String line = lines.get(i);
+      String trimmed = line.strip();
+      if (indent(line) < 4
+          && trimmed.length() >= fence.length()
+          && trimmed.chars().allMatch(c -> c == fence.charAt(0))) {
+        i++;
+        break;
+      }
+      escape(html, line.substring(Math.min(fenceIndent, indent(line))));
+      html.append('\n');
+    }
+    html.append("</code></pre>\n");
+    return i;
+  }
+
+  private static int indentedCode(StringBuilder html, List<String> lines, int start) {
+    int end = start;
+    int i = start;
+    while (i < lines.size() && (lines.get(i).isBlank() || indent(lines.get(i)) >= 4)) {
+      if (!lines.get(i).isBlank()) {
+        end = i + 1;
+      }
+      i++;
+    }
+    html.append("<pre><code>");
+    for (String line : lines.subList(start, end)) {
+      escape(html, line.length() >= 4 ? line.substring(4) : "");
+      html.append('\n');
+    }
+    html.append("</code></pre>\n");
+    return end;
+  }
+
+  private static void heading(StringBuilder html, int level, String text) {
+    html.append("<h").append(level).append('>');
+    renderInline(html, text.strip());
+    html.append("</h").append(level).append(">\n");
+  }
+
+  private static int blockQuote(StringBuilder html, List<String> lines, int start) {
+    List<String> quoted = new ArrayList<>();
+    int i = start;
+    while (i < lines.size()) {
+      String line = lines.get(i);
+      Matcher m = BLOCK_QUOTE.matcher(line);
+      if (m.matches()) {
+        quoted.add(m.group(1));
+      } else if (!line.isBlank()
+          && !quoted.get(quoted.size() - 1).isBlank()
+          && !startsBlock(line)) {
+        // Lazy continuation of the quoted paragraph
+        quoted.add(line);
+      } else {
+        break;
+      }
+      i++;
+    }
+    html.append("<blockquote>\n");
+    renderBlocks(html, quoted, false);
+    html.append("</blockquote>\n");
+    return i;
+  }
+
+  private static int list(StringBuilder html, List<String> lines, int start) {
+    Matcher first = LIST_ITEM.matcher(lines.get(start));
+    first.matches();
+    boolean ordered = Character.isDigit(first.group(2).charAt(0));
+    char delimiter = first.group(2).charAt(first.group(2).length() - 1);
+
+    List<List<String>> items = new ArrayList<>();
+    boolean loose = false;
+    int i = start;
+    while (i < lines.size() && isItemOf(lines.get(i), ordered, delimiter)) {
+      Matcher m = LIST_ITEM.matcher(lines.get(i));
+      m.matches();
+      int contentIndent =
+          m.group(1).length()
+              + m.group(2).length()
+              + (m.group(3) == null || m.group(3).length() > 4 ? 1 : m.group(3).length());
+      List<String> item = new ArrayList<>();
+      item.add(m.group(4) == null ? "" : m.group(4));
+      i++;
+      while (i < lines.size()) {
+        String line = lines.get(i);
+        if (line.isBlank()) {
+          item.add("");
+        } else if (indent(line) >= contentIndent) {
+          item.add(line.substring(contentIndent));
+        } else if (!item.get(item.size() - 1).isBlank()
+            && !startsBlock(line)
+            && !LIST_ITEM.matcher(line).matches()) {
+          // Lazy continuation of the item paragraph
+          item.add(line.strip());
+        } else {
+          break;
+        }
+        i++;
+      }
+      // Blank lines between items, or between blocks of an item, make the list loose
+      int trailingBlanks = 0;
+      while (item.size() > 1 && item.get(item.size() - 1).isBlank()) {
+        item.remove(item.size() - 1);
+        trailingBlanks++;
+      }
+      boolean continues = i < lines.size() && isItemOf(lines.get(i), ordered, delimiter);
+      if (trailingBlanks > 0 && continues) {
+        loose = true;
+      }
+      if (item.stream().skip(1).anyMatch(String::isBlank)) {
+        loose = true;
+      }
+      items.add(item);
+      if (!continues) {
+        break;
+      }
+    }
+
+    String tag = ordered ? "ol" : "ul";
+    html.append('<').append(tag);
+    if (ordered) {
+      int number = Integer.parseInt(first.group(2).substring(0, first.group(2).length() - 1));
+      if (number != 1) {
+        html.append(" start=\"").append(number).append('"');
+      }
+    }
+    html.append(">\n");
+    for (List<String> item : items) {
+      listItem(html, item, loose);
+    }
+    html.append("</").append(tag).append(">\n");
+    return i;
+  }
+
+  /** Whether a line is an item of a list with the same kind of markers. */
+  private static boolean isItemOf(String line, boolean ordered, char delimiter) {
+    Matcher m = LIST_ITEM.matcher(line);
+    return m.matches()
+        && Character.isDigit(m.group(2).charAt(0)) == ordered
+        && m.group(2).charAt(m.group(2).length() - 1) == delimiter
+        && !THEMATIC_BREAK.matcher(line).matches();
+  }
+
+  private static void listItem(StringBuilder html, List<String> item, boolean loose) {
+    html.append("<li>");
+    Matcher task = TASK.matcher(item.get(0));
+    if (task.matches()) {
+      html.append("<input ");
+      if (!task.group(1).equals(" ")) {
+        html.append("checked=\"\" ");
+      }
+      html.append("disabled=\"\" type=\"checkbox\"> ");
+      item.set(0, task.group(2));
+    }
+    renderBlocks(html, item, !loose);
+    if (html.charAt(html.length() - 1) == '\n') {
+      html.setLength(html.length() - 1);
+    }
+    html.append("</li>\n");
+  }
+
+  private static boolean isTableStart(String header, String delimiter) {
+    return header.contains("|")
+        && TABLE_DELIMITER.matcher(delimiter).matches()
+        && cells(header).size() == cells(delimiter).size();
+  }
+
+  private static int table(StringBuilder html, List<String> lines, int start) {
+    List<String> header = cells(lines.get(start));
+    List<String> alignments = new ArrayList<>();
+    for (String cell : cells(lines.get(start + 1))) {
+      boolean left = cell.startsWith(":");
+      boolean right = cell.endsWith(":");
+      alignments.add(left && right ? "center" : right ? "right" : left ? "left" : null);
+    }
+
+    html.append("<table>\n<thead>\n");
+    tableRow(html, "th", header, alignments);
+    html.append("</thead>\n");
+    int i = start + 2;
+    if (i < lines.size() && !lines.get(i).isBlank() && !startsBlock(lines.get(i))) {
+      html.append("<tbody>");
+      while (i < lines.size() && !lines.get(i).isBlank() && !startsBlock(lines.get(i))) {
+        tableRow(html, "td", cells(lines.get(i)), alignments);
+        i++;
+      }
+      html.append("</tbody>");
+    }
+    html.append("</table>\n");
+    return i;
+  }
+
+  private static void tableRow(
+      StringBuilder html, String tag, List<String> cells, List<String> alignments) {
+    html.append("<tr>\n");
+    for (int c = 0; c < alignments.size(); c++) {
+      html.append('<').append(tag);
+      if (alignments.get(c) != null) {
+        html.append(" align=\"").append(alignments.get(c)).append('"');
+      }
+      html.append('>');
+      renderInline(html, c < cells.size() ? cells.get(c) : "");
+      html.append("</").append(tag).append(">\n");
+    }
+    html.append("</tr>\n");
+  }
+
+  /** Cells of a table row, split on the pipes that are not escaped. */
+  private static List<String> cells(String row) {
+    String trimmed = row.strip();
+    if (trimmed.startsWith("|")) {
+      trimmed = trimmed.substring(1);
+    }
+    if (trimmed.endsWith("|") && !trimmed.endsWith("\\|")) {
+      trimmed = trimmed.substring(0, trimmed.length() - 1);
+    }
+    List<String> cells = new ArrayList<>();
+    StringBuilder cell = new StringBuilder();
+    for (int i = 0; i < trimmed.length(); i++) {
+      char c = trimmed.charAt(i);
+      if (c == '\\' && i + 1 < trimmed.length() && trimmed.charAt(i + 1) == '|') {
+        cell.append('|');
+        i++;
+      } else if (c == '|') {
+        cells.add(cell.toString().strip());
+        cell.setLength(0);
+      } else {
+        cell.append(c);
+      }
+    }
+    cells.add(cell.toString().strip());
+    return cells;
+  }
+
+  private static int paragraph(StringBuilder html, List<String> lines, int start, boolean tight) {
+    StringBuilder text = new StringBuilder(lines.get(start).strip());
+    int i = start + 1;
+    while (i < lines.size()) {
+      String line = lines.get(i);
+      Matcher underline = SETEXT_UNDERLINE.matcher(line);
+      if (underline.matches()) {
+        heading(html, underline.group(1).charAt(0) == '=' ? 1 : 2, text.toString());
+        return i + 1;
+      }
+      if (line.isBlank() || startsBlock(line)) {
+        break;
+      }
+      text.append('\n').append(line.strip());
+      i++;
+    }
+    html.append(tight ? "" : "<p>");
+    renderInline(html, text.toString());
+    html.append(tight ? "\n" : "</p>\n");
+    return i;
+  }
+
+  /** Whether a line interrupts a paragraph. */
+  private static boolean startsBlock(String line) {
+    return FENCE.matcher(line).matches()
+        || ATX_HEADING.matcher(line).matches()
+        || THEMATIC_BREAK.matcher(line).matches()
+        || BLOCK_QUOTE.matcher(line).matches()
+        || startsList(line);
+  }
+
+  /**
+   * Only ordered lists starting at 1 interrupt a paragraph, not any sentence starting by a number.
+   */
+  private static boolean startsList(String line) {
+    Matcher m = LIST_ITEM.matcher(line);
+    return m.matches()
+        && (!Character.isDigit(m.group(2).charAt(0)) || m.group(2).matches("0*1[.)]"));
+  }
+
+  private static int indent(String line) {
+    int indent = 0;
+    while (indent < line.length() && line.charAt(indent) == ' ') {
+      indent++;
+    }
+    return indent;
+  }
+
+  // Inlines
+
+  private static void renderInline(StringBuilder html, String text) {
+    new Inlines(html, text, false).render();
+  }
+
+  /**
+   * Inline parser of a paragraph, heading or cell. Delimiters without a closing one are remembered
+   * and brackets are matched in a single pass, so that a page full of unmatched brackets, backticks
+   * or stars is still parsed in linear time.
+   */
+  private static final class Inlines {
+
+    private final StringBuilder html;
+
+    private final String text;
+
+    /** Whether the text is the label of a link, which cannot hold other links. */
+    private final boolean inLink;
+
+    /** Position of the bracket closing each opening one, -1 when unmatched, computed once. */
+    private int[] closingBrackets;
+
+    /** Position of the parenthesis closing each opening one, -1 when unmatched, computed once. */
+    private int[] closingParentheses;
+
+    /**
+     * By run length and end of the searched text, first position from which no backtick run of that
+     * length remains.
+     */
+    private final Map<String, Integer> noTicksFrom = new HashMap<>();
+
+    /**
+     * By marker, length and end of the searched text, first position from which no closing
+     * delimiter remains.
+     */
+    private final Map<String, Integer> noDelimiterFrom = new HashMap<>();
+
+    Inlines(StringBuilder html, String text, boolean inLink) {
+      this.html = html;
+      this.text = text;
+      this.inLink = inLink;
+    }
+
+    void render() {
+      render(0, text.length());
+    }
+
+    private void render(int from, int to) {
+      int i = from;
+      while (i < to) {
+        char c = text.charAt(i);
+        int next;
+        if (c == '\\' && i + 1 < to && isAsciiPunctuation(text.charAt(i + 1))) {
+          escape(html, text.charAt(i + 1));
+          i += 2;
+        } else if (c == '\n') {
+          // Line breaks are kept, like marked does with its breaks option
+          trimTrailingSpaces(html);
+          html.append("<br>");
+          i = skipSpaces(i + 1, to);
+        } else if (c == '`' && (next = codeSpan(i, to)) > i) {
+          i = next;
+        } else if (!inLink
+            && (c == '[' || (c == '!' && i + 1 < to && text.charAt(i + 1) == '['))
+            && (next = link(i, to)) > i) {
+          i = next;
+        } else if (!inLink && c == '<' && (next = autolink(i, to)) > i) {
+          i = next;
+        } else if (!inLink
+            && (c == 'h' || c == 'w')
+            && (i == 0 || !Character.isLetterOrDigit(text.charAt(i - 1)))
+            && (next = bareUrl(i, to)) > i) {
+          i = next;
+        } else if ((c == '*' || c == '_' || c == '~') && (next = emphasis(i, to)) > i) {
+          i = next;
+        } else {
+          escape(html, c);
+          i++;
+        }
+      }
+    }
+
+    private int codeSpan(int start, int to) {
+      int ticks = run(start, to, '`');
+      int from = start + ticks;
+      String key = ticks + ":" + to;
+      if (from < noTicksFrom.getOrDefault(key, Integer.MAX_VALUE)) {
+        int close = from;
+        while ((close = text.indexOf('`', close)) >= 0 && close < to) {
+          int closing = run(close, to, '`');
+          if (closing == ticks) {
+            String code = text.substring(from, close).replace('\n', ' ');
+            if (code.length() > 2
+                && code.startsWith(" ")
+                && code.endsWith(" ")
+                && !code.isBlank()) {
+              code = code.substring(1, code.length() - 1);
+            }
+            html.append("<code>");
+            escape(html, code);
+            html.append("</code>");
+            return close + ticks;
+          }
+          close += closing;
+        }
+        noTicksFrom.put(key, from);
+      }
+      // Unmatched backticks are literal
+      html.append("`".repeat(ticks));
+      return start + ticks;
+    }
+
+    private int link(int start, int to) {
+      boolean image = text.charAt(start) == '!';
+      int open = image ? start + 1 : start;
+      if (closingBrackets == null) {
+        closingBrackets = closing('[', ']');
+      }
+      int close = closingBrackets[open];
+      if (close < 0 || close + 1 >= to || text.charAt(close + 1) != '(') {
+        return start;
+      }
+      if (closingParentheses == null) {
+        closingParentheses = closing('(', ')');
+      }
+      int end = closingParentheses[close + 1];
+      if (end < 0 || end >= to || end - close > MAX_DESTINATION_LENGTH) {
+        return start;
+      }
+      String destination = text.substring(close + 2, end).strip();
+      String title = null;
+      Matcher titled = LINK_TITLE.matcher(destination);
+      if (titled.matches()) {
+        destination = titled.group(1);
+        title = titled.group(2);
+      }
+      if (destination.startsWith("<") && destination.endsWith(">")) {
+        destination = destination.substring(1, destination.length() - 1);
+      }
+
+      if (!SAFE_URL.matcher(destination).find()) {
+        // Unsafe links keep their text only
+        if (image) {
+          escape(html, text.substring(open + 1, close));
+        } else {
+          new Inlines(html, text.substring(open + 1, close), true).render();
+        }
+        return end + 1;
+      }
+      if (image) {
+        html.append("<img src=\"");
+        escape(html, destination);
+        html.append("\" alt=\"");
+        escape(html, text.substring(open + 1, close));
+        html.append('"');
+        appendTitle(title);
+        html.append('>');
+      } else {
+        html.append("<a href=\"");
+        escape(html, destination);
+        html.append('"');
+        appendTitle(title);
+        html.append('>');
+        new Inlines(html, text.substring(open + 1, close), true).render();
+        html.append("</a>");
+      }
+      return end + 1;
+    }
+
+    private void appendTitle(String title) {
+      if (title != null) {
+        html.append(" title=\"");
+        escape(html, title);
+        html.append('"');
+      }
+    }
+
+    /** Position of the delimiter closing each opening one, -1 when unmatched. */
+    private int[] closing(char open, char close) {
+      int[] closing = new int[text.length()];
+      Deque<Integer> opened = new ArrayDeque<>();
+      for (int i = 0; i < text.length(); i++) {
+        char c = text.charAt(i);
+        if (c == '\\') {
+          i++;
+        } else if (c == open) {
+          closing[i] = -1;
+          opened.push(i);
+        } else if (c == close && !opened.isEmpty()) {
+          closing[opened.pop()] = i;
+        }
+      }
+      return closing;
+    }
+
+    private int autolink(int start, int to) {
+      // Autolinks hold no spaces, so the search stops at the first one
+      int end = start + 1;
+      while (end < to && " \n<>".indexOf(text.charAt(end)) < 0) {
+        end++;
+      }
+      if (end >= to || text.charAt(end) != '>') {
+        return start;
+      }
+      String url = text.substring(start + 1, end);
+      if (AUTOLINK_URL.matcher(url).matches()) {
+        anchor(url, url);
+        return end + 1;
+      }
+      if (AUTOLINK_EMAIL.matcher(url).matches()) {
+        anchor("mailto:" + url, url);
+        return end + 1;
+      }
+      return start;
+    }
+
+    private int bareUrl(int start, int to) {
+      Matcher m = BARE_URL.matcher(text).region(start, to);
+      if (!m.lookingAt()) {
+        return start;
+      }
+      int end = m.end();
+      // Trailing punctuation ends the sentence rather than the URL
+      while (end > start && ".,:;!?*_~'\")".indexOf(text.charAt(end - 1)) >= 0) {
+        end--;
+      }
+      String url = text.substring(start, end);
+      anchor(url.startsWith("www.") ? "http://" + url : url, url);
+      return end;
+    }
+
+    private void anchor(String href, String label) {
+      html.append("<a href=\"");
+      escape(html, href);
+      html.append("\">");
+      escape(html, label);
+      html.append("</a>");
+    }
+
+    /** Strong ({@code **}, {@code __}), emphasis ({@code *}, {@code _}) or strikethrough. */
+    private int emphasis(int start, int to) {
+      char marker = text.charAt(start);
+      int run = run(start, to, marker);
+      // Underscores inside a word are literal
+      if (marker == '_' && start > 0 && Character.isLetterOrDigit(text.charAt(start - 1))) {
+        return start;
+      }
+      for (int length = Math.min(run, 2); length >= (marker == '~' ? 2 : 1); length--) {
+        int close = closingDelimiter(start + length, to, marker, length);
+        if (close >= 0) {
+          String tag = marker == '~' ? "del" : length == 2 ? "strong" : "em";
+          html.append('<').append(tag).append('>');
+          render(start + length, close);
+          html.append("</").append(tag).append('>');
+          return close + length;
+        }
+      }
+      return start;
+    }
+
+    /** Start of the delimiter closing a span opened just before {@code from}, or -1. */
+    private int closingDelimiter(int from, int to, char marker, int length) {
+      if (from >= to || Character.isWhitespace(text.charAt(from))) {
+        return -1;
+      }
+      String key = marker + ":" + length + ":" + to;
+      if (from >= noDelimiterFrom.getOrDefault(key, Integer.MAX_VALUE)) {
+        return -1;
+      }
+      int p = text.indexOf(marker, from + 1);
+      while (p >= 0 && p < to) {
+        int run = run(p, to, marker);
+        boolean closes =
+            run >= length
+                // A run of two belongs to a strong span inside an emphasis
+                && !(length == 1 && run == 2)
+                && text.charAt(p - 1) != '\\'
+                && !Character.isWhitespace(text.charAt(p - 1))
+                && (marker != '_'
+                    || p + run >= text.length()
+                    || !Character.isLetterOrDigit(text.charAt(p + run)));
+        if (closes) {
+          return p + run - length;
+        }
+        p = text.indexOf(marker, p + run);
+      }
+      noDelimiterFrom.put(key, from);
+      return -1;
+    }
+
+    private int run(int start, int to, char c) {
+      int end = start;
+      while (end < to && text.charAt(end) == c) {
+        end++;
+      }
+      return end - start;
+    }
+
+    private int skipSpaces(int start, int to) {
+      int i = start;
+      while (i < to && text.charAt(i) == ' ') {
+        i++;
+      }
+      return i;
+    }
+  }
+
+  private static void trimTrailingSpaces(StringBuilder html) {
+    int end = html.length();
+    while (end > 0 && html.charAt(end - 1) == ' ') {
+      end--;
+    }
+    html.setLength(end);
+  }
+
+  private static boolean isAsciiPunctuation(char c) {
+    return c < 128 && "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~".indexOf(c) >= 0;
+  }
+
+  private static void escape(StringBuilder html, String text) {
+    for (int i = 0; i < text.length(); i++) {
+      escape(html, text.charAt(i));
+    }
+  }
+
+  private static void escape(StringBuilder html, char c) {
+    switch (c) {
+      case '&' -> html.append("&amp;");
+      case '<' -> html.append("&lt;");
+      case '>' -> html.append("&gt;");
+      case '"' -> html.append("&quot;");
+      case '\'' -> html.append("&#39;");
+      default -> html.append(c);
+    }
+  }
+}
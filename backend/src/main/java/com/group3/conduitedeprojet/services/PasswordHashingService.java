@@ -0,0 +1,155 @@
+package com.group3.conduitedeprojet.services;
+
+import com.group3.conduitedeprojet.exceptions.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the BCrypt computations on a dedicated bounded pool so that a burst of logins cannot starve
+ * the request threads. When every worker is busy and the queue is full the call fails immediately
+ * with {@link PasswordHashingUnavailableException} (503) instead of piling up.
+ *
+ * <p>The time spent waiting in the queue and the time spent hashing are published separately as the
+ * {@code auth.password.queue} and {@code auth.password.hash} timers, tagged by operation.
+ */
+@Service
+public class PasswordHashingService {
+
+  /** Version and cost prefix of a BCrypt hash, e.g. {@code $2a$10$}. */
+  private static final Pattern BCRYPT_PREFIX = Pattern.compile("^\\$2[aby]?\\$(\\d{2})\\$");
+
+  @Autowired private PasswordEncoder passwordEncoder;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Value("${security.password.bcrypt-strength}")
+  private int bcryptStrength;
+
+  @Value("${security.password.hashing.threads}")
+  private int threads;
+
+  @Value("${security.password.hashing.queue-capacity}")
+  private int queueCapacity;
+
+  private ThreadPoolExecutor executor;
+
+  private Timer encodeQueueTimer;
+  private Timer encodeHashTimer;
+  private Timer matchesQueueTimer;
+  private Timer matchesHashTimer;
+
+  @PostConstruct
+  void init() {
+    AtomicInteger threadCount = new AtomicInteger();
+    executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+    encodeQueueTimer = timer("auth.password.queue", "encode");
+    encodeHashTimer = timer("auth.password.hash", "encode");
+    matchesQueueTimer = timer("auth.password.queue", "matches");
+    matchesHashTimer = timer("auth.password.hash", "matches");
+    Gauge.builder("auth.password.queue.depth", executor, pool -> pool.getQueue().size())
+        .description("Password hashing tasks waiting for a worker")
+        .register(meterRegistry);
+  }
+
+  private Timer timer(String name, String operation) {
+    return Timer.builder(name)
+        .tag("operation", operation)
+        .publishPercentileHistogram()
+        .publishPercentiles(0.5, 0.95, 0.99)
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  public String encode(String rawPassword) {
+    return submit(() -> passwordEncoder.encode(rawPassword), encodeQueueTimer, encodeHashTimer);
+  }
+
+  public boolean matches(String rawPassword, String encodedPassword) {
+    return submit(
+        () -> passwordEncoder.matches(rawPassword, encodedPassword),
+        matchesQueueTimer,
+        matchesHashTimer);
+  }
+
+  /**
+   * Tells whether a stored hash was computed with another cost than the configured one and should
+   * be replaced on the next successful login, so that lowering the strength applies too. Cheap,
+   * runs on the caller thread.
+   */
+  public boolean needsRehash(String encodedPassword) {
+    if (encodedPassword == null) {
+      return false;
+    }
+    Matcher matcher = BCRYPT_PREFIX.matcher(encodedPassword);
+    return matcher.find() && Integer.parseInt(matcher.group(1)) != bcryptStrength;
+  }
+
+  private <T> T submit(Supplier<T> task, Timer queueTimer, Timer hashTimer) {
+    long submittedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future =
+          executor.submit(
+              () -> {
+                long startedAt = System.nanoTime();
+                queueTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                  return task.get();
+                } finally {
+                  hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+              });
+    } catch (RejectedExecutionException e) {
+      throw new PasswordHashingUnavailableException(
+          "Trop de connexions simultanées, veuillez réessayer dans quelques instants");
+    }
+
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new PasswordHashingUnavailableException("Vérification du mot de passe interrompue");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+}
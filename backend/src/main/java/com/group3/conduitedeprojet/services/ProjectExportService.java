@@ -0,0 +1,171 @@
+package com.group3.conduitedeprojet.services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.group3.conduitedeprojet.models.Documentation;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.Task;
+import com.group3.conduitedeprojet.models.Test;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository;
+import com.group3.conduitedeprojet.repositories.IssueRepository;
+import com.group3.conduitedeprojet.repositories.TaskRepository;
+import com.group3.conduitedeprojet.repositories.TestRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Exports the issues, tasks, tests and documentation of a project as newline-delimited JSON, one
+ * {@code {"type": ..., "data": ...}} object per line.
+ *
+ * <p>Rows are read through a database cursor and written in chunks of {@link #CLEAR_EVERY} rows,
+ * clearing the persistence context after each, so memory does not grow with the size of the
+ * project. The code of the tests of a chunk is read in one lookup.
+ */
+@Service
+public class ProjectExportService {
+
+  /** Rows kept in the persistence context between two clears, matches the JDBC fetch size. */
+  static final int CLEAR_EVERY = 500;
+
+  @Autowired private EntityLookupService entityLookupService;
+
+  @Autowired private IssueRepository issueRepository;
+
+  @Autowired private TaskRepository taskRepository;
+
+  @Autowired private TestRepository testRepository;
+
+  @Autowired private DocumentationRepository documentationRepository;
+
+  @Autowired private TestCodeService testCodeService;
+
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @PersistenceContext private EntityManager entityManager;
+
+  /**
+   * Checks that the principal can read the project and returns the body writing the export. The
+   * body runs after the controller has returned, on an async request thread, in a transaction of
+   * its own.
+   */
+  @Transactional(readOnly = true)
+  public StreamingResponseBody exportProject(UUID projectId, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+
+    return outputStream -> writeProject(projectId, outputStream);
+  }
+
+  private void writeProject(UUID projectId, OutputStream outputStream) throws IOException {
+    // Stream results need an open transaction, the PostgreSQL driver only uses a cursor then
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setReadOnly(true);
+
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.setRootValueSeparator(null);
+      ObjectWriter writer =
+          objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+      transaction.executeWithoutResult(
+          status -> {
+            writeAll(
+                generator,
+                writer,
+                "issue",
+                issueRepository.streamByProjectId(projectId),
+                each(Issue::toIssueDto));
+            writeAll(
+                generator,
+                writer,
+                "task",
+                taskRepository.streamByProjectId(projectId),
+                each(Task::toTaskDto));
+            writeAll(
+                generator,
+                writer,
+                "test",
+                testRepository.streamByProjectId(projectId),
+                this::toTestDtos);
+            writeAll(
+                generator,
+                writer,
+                "documentation",
+                documentationRepository.streamByProjectId(projectId),
+                each(Documentation::toDocumentationDto));
+          });
+      generator.flush();
+    }
+  }
+
+  private <T> void writeAll(
+      JsonGenerator generator,
+      ObjectWriter writer,
+      String type,
+      Stream<T> rows,
+      Function<List<T>, List<?>> toDtos) {
+    try (rows) {
+      Iterator<T> iterator = rows.iterator();
+      List<T> chunk = new ArrayList<>(CLEAR_EVERY);
+      while (iterator.hasNext()) {
+        chunk.add(iterator.next());
+        if (chunk.size() == CLEAR_EVERY || !iterator.hasNext()) {
+          for (Object dto : toDtos.apply(chunk)) {
+            writer.writeValue(generator, new ExportLine(type, dto));
+            generator.writeRaw('\n');
+          }
+          chunk.clear();
+          entityManager.clear();
+          generator.flush();
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> Function<List<T>, List<?>> each(Function<T, Object> toDto) {
+    return rows -> rows.stream().map(toDto).toList();
+  }
+
+  /**
+   * Code shared between tests is read once, then served from the cache of the test code; the
+   * missing code of the chunk is read in a single query.
+   */
+  private List<?> toTestDtos(List<Test> tests) {
+    Set<String> hashes = new HashSet<>();
+    tests.forEach(
+        test -> {
+          hashes.add(test.getProgramHash());
+          hashes.add(test.getTestHash());
+        });
+    Map<String, String> codes = testCodeService.getCodes(hashes);
+    return tests.stream().map(test -> test.toTestDto(codes)).toList();
+  }
+
+  private record ExportLine(String type, Object data) {}
+}
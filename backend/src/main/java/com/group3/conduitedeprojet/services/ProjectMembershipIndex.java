@@ -0,0 +1,194 @@
+package com.group3.conduitedeprojet.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group3.conduitedeprojet.datasource.AfterCommit;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.ProjectRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * In-memory index of project membership (creator and collaborators), in both directions: project to
+ * member ids and user to project ids. Access checks are answered from the index without loading the
+ * collaborators; a project that is not indexed has its member ids loaded once, in a single query.
+ *
+ * <p>Entries hold immutable sets that are replaced on every change. {@link ProjectService} must
+ * call {@link #index(Project)} after creating a project or changing its collaborators, and stamp
+ * {@code membersChangedAt} on the latter. Changes made in a transaction are applied once it
+ * commits. Changes made by other instances are picked up from that stamp on every sync, so a
+ * removed collaborator keeps access at most one sync period there.
+ */
+@Service
+public class ProjectMembershipIndex {
+
+  private static final long SYNC_OVERLAP_SECONDS = 60;
+
+  @Autowired private ProjectRepository projectRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Value("${app.cache.project-members.maximum-size}")
+  private long maximumSize;
+
+  @Value("${app.cache.project-members.expire-after-write-ms}")
+  private long expireAfterWriteMs;
+
+  private Cache<UUID, Set<Long>> membersByProject;
+
+  private Cache<Long, Set<UUID>> projectsByUser;
+
+  private volatile LocalDateTime lastSync;
+
+  @PostConstruct
+  void init() {
+    membersByProject =
+        CaffeineCacheMetrics.monitor(meterRegistry, newCache(), "project-members-by-project");
+    projectsByUser =
+        CaffeineCacheMetrics.monitor(meterRegistry, newCache(), "project-members-by-user");
+    lastSync = LocalDateTime.now();
+  }
+
+  private <K, V> Cache<K, V> newCache() {
+    return Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+        .recordStats()
+        .build();
+  }
+
+  /** Tells whether the user is the creator or a collaborator of the project. */
+  public boolean isMember(UUID projectId, Long userId) {
+    return membersByProject.get(projectId, this::loadMembers).contains(userId);
+  }
+
+  /** Ids of the projects the user created or collaborates on. */
+  public Set<UUID> getProjectIds(Long userId) {
+    return projectsByUser.get(
+        userId, key -> Set.copyOf(projectRepository.findProjectIdsByMember(key)));
+  }
+
+  /** Replaces the members of the project with its current creator and collaborators. */
+  public void index(Project project) {
+    UUID projectId = project.getId();
+    Set<Long> members =
+        Stream.concat(Stream.of(project.getCreator()), project.getCollaborators().stream())
+            .map(User::getId)
+            .collect(Collectors.toUnmodifiableSet());
+    AfterCommit.run(() -> index(projectId, members));
+  }
+
+  /**
+   * Re-indexes the projects whose collaborators changed since the last sync, on this instance or
+   * another one.
+   */
+  @Scheduled(
+      fixedDelayString = "${app.cache.project-members.sync-ms}",
+      initialDelayString = "${app.cache.project-members.sync-ms}")
+  public void sync() {
+    LocalDateTime now = LocalDateTime.now();
+    // Overlap with the previous sync so that changes committed late are not missed
+    List<UUID> changed =
+        projectRepository.findIdsByMembersChangedSince(lastSync.minusSeconds(SYNC_OVERLAP_SECONDS));
+    lastSync = now;
+
+    Map<UUID, Set<Long>> membersOfChanged = new HashMap<>();
+    for (UUID projectId : changed) {
+      Set<Long> members = loadMembers(projectId);
+      membersOfChanged.put(projectId, members);
+      index(projectId, members);
+    }
+    // Users removed elsewhere are not among the previous members this instance knew of
+    projectsByUser
+        .asMap()
+        .forEach(
+            (userId, projectIds) ->
+                projectIds.stream()
+                    .filter(
+                        projectId ->
+                            membersOfChanged.containsKey(projectId)
+                                && !membersOfChanged.get(projectId).contains(userId))
+                    .toList()
+                    .forEach(projectId -> removeProject(userId, projectId)));
+  }
+
+  private Set<Long> loadMembers(UUID projectId) {
+    return Set.copyOf(projectRepository.findMemberIds(projectId));
+  }
+
+  private void index(UUID projectId, Set<Long> members) {
+    Set<Long> previous = membersByProject.asMap().put(projectId, members);
+
+    members.forEach(userId -> addProject(userId, projectId));
+    if (previous != null) {
+      previous.stream()
+          .filter(userId -> !members.contains(userId))
+          .forEach(userId -> removeProject(userId, projectId));
+    }
+  }
+
+  /**
+   * Removes the project from the projects of a user who left it. Needed on top of {@link
+   * #index(Project)} when the previous members of the project were not indexed.
+   */
+  public void removeMember(UUID projectId, Long userId) {
+    AfterCommit.run(
+        () -> {
+          membersByProject
+              .asMap()
+              .computeIfPresent(
+                  projectId,
+                  (key, members) ->
+                      members.stream()
+                          .filter(memberId -> !memberId.equals(userId))
+                          .collect(Collectors.toUnmodifiableSet()));
+          removeProject(userId, projectId);
+        });
+  }
+
+  private void addProject(Long userId, UUID projectId) {
+    projectsByUser
+        .asMap()
+        .computeIfPresent(
+            userId,
+            (key, projectIds) -> {
+              if (projectIds.contains(projectId)) {
+                return projectIds;
+              }
+              Set<UUID> updated = new HashSet<>(projectIds);
+              updated.add(projectId);
+              return Set.copyOf(updated);
+            });
+  }
+
+  private void removeProject(Long userId, UUID projectId) {
+    projectsByUser
+        .asMap()
+        .computeIfPresent(
+            userId,
+            (key, projectIds) -> {
+              if (!projectIds.contains(projectId)) {
+                return projectIds;
+              }
+              Set<UUID> updated = new HashSet<>(projectIds);
+              updated.remove(projectId);
+              return Set.copyOf(updated);
+            });
+  }
+}
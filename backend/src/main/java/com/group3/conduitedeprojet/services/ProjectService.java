@@ -1,30 +1,37 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
 import com.group3.conduitedeprojet.dto.*;
 import com.group3.conduitedeprojet.exceptions.UserNotFoundException;
 import com.group3.conduitedeprojet.models.Project;
 import com.group3.conduitedeprojet.models.User;
 import com.group3.conduitedeprojet.repositories.ProjectRepository;
-import com.group3.conduitedeprojet.repositories.UserRepository;
 import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ProjectService {
 
   @Autowired private ProjectRepository projectRepository;
 
-  @Autowired private UserRepository userRepository;
+  @Autowired private UserCacheService userCacheService;
 
   @Autowired private EntityLookupService entityLookupService;
 
+  @Autowired private ProjectMembershipIndex projectMembershipIndex;
+
+  @Transactional
   public Project createProject(CreateProjectRequest createProjectRequest) {
     User creator = entityLookupService.getUser(createProjectRequest.getUser().getId());
 
@@ -35,40 +42,48 @@ public class ProjectService {
             .creator(creator)
             .build();
 
-    Set<User> collaborators = new HashSet<>();
+    // Keyed by id since cached users may be distinct instances of the same row
+    Map<Long, User> collaborators = new HashMap<>();
 
     if (createProjectRequest.getCollaborateurs() != null
         && !createProjectRequest.getCollaborateurs().isEmpty()) {
 
       for (String email : createProjectRequest.getCollaborateurs()) {
-        Optional<User> collaborator = userRepository.findByEmail(email);
+        Optional<User> collaborator = userCacheService.findByEmail(email);
         if (collaborator.isPresent()) {
-          collaborators.add(collaborator.get());
+          collaborators.put(collaborator.get().getId(), collaborator.get());
         }
       }
     }
 
-    collaborators.add(creator);
-    project.setCollaborators(collaborators);
+    collaborators.put(creator.getId(), creator);
+    project.setCollaborators(new HashSet<>(collaborators.values()));
 
-    return projectRepository.save(project);
+    project = projectRepository.save(project);
+    projectMembershipIndex.index(project);
+    return project;
   }
 
+  @ReadFromReplica
   public List<ProjectDto> findProjectsByUser(String email) {
     User user = entityLookupService.getUserByEmail(email);
 
-    List<Project> projects = projectRepository.findAllByUserParticipation(user);
+    List<Project> projects =
+        projectRepository.findAllById(projectMembershipIndex.getProjectIds(user.getId()));
 
     return projects.stream().map(Project::toProjectDto).toList();
   }
 
+  @Transactional(readOnly = true)
   public List<UserDto> getProjectCollaborators(UUID projectId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+    projectMembershipIndex.index(project);
 
     return project.getCollaborators().stream().map(User::convertToUserDto).toList();
   }
 
+  @Transactional
   public List<UserDto> addCollaboratorsToProject(
       UUID projectId, AddCollaboratorsRequest addCollaboratorsRequest, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
@@ -78,7 +93,7 @@ public class ProjectService {
         addCollaboratorsRequest.getCollaborators().stream()
             .map(
                 collaboratorEmail -> {
-                  Optional<User> user = userRepository.findByEmail(collaboratorEmail);
+                  Optional<User> user = userCacheService.findByEmail(collaboratorEmail);
                   if (user.isEmpty()) {
                     throw new UserNotFoundException(
                         "User with email " + collaboratorEmail + " was not found");
@@ -87,24 +102,39 @@ public class ProjectService {
                 })
             .collect(Collectors.toSet());
 
-    project.getCollaborators().addAll(newCollaborators);
+    // Cached users are detached instances, so membership is compared by id
+    Set<Long> collaboratorIds =
+        project.getCollaborators().stream().map(User::getId).collect(Collectors.toSet());
+    newCollaborators.stream()
+        .filter(user -> !collaboratorIds.contains(user.getId()))
+        .forEach(project.getCollaborators()::add);
 
+    project.setMembersChangedAt(LocalDateTime.now());
     projectRepository.save(project);
+    projectMembershipIndex.index(project);
 
     return project.getCollaborators().stream().map(User::convertToUserDto).toList();
   }
 
+  @Transactional
   public List<UserDto> removeCollaboratorFromProject(
       UUID projectId, Long collaboratorId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreator(project, principal);
 
-    project.getCollaborators().remove(entityLookupService.getUser(collaboratorId));
+    User collaborator = entityLookupService.getUser(collaboratorId);
+    project.getCollaborators().removeIf(user -> user.getId().equals(collaborator.getId()));
+    project.setMembersChangedAt(LocalDateTime.now());
     projectRepository.save(project);
+    if (!project.getCreator().getId().equals(collaborator.getId())) {
+      projectMembershipIndex.removeMember(projectId, collaborator.getId());
+    }
+    projectMembershipIndex.index(project);
 
     return project.getCollaborators().stream().map(User::convertToUserDto).toList();
   }
 
+  @Transactional
   public ProjectDto updateProject(
       UUID projectId, UpdateProjectRequest updateProjectRequest, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
@@ -0,0 +1,156 @@
+package com.group3.conduitedeprojet.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group3.conduitedeprojet.exceptions.InvalidRefreshTokenException;
+import com.group3.conduitedeprojet.models.RefreshToken;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.RefreshTokenRepository;
+import com.group3.conduitedeprojet.security.RevokedSessionRegistry;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Issues and rotates refresh tokens. A login opens a session identified by a UUID, which is also
+ * carried by the access tokens of the session so that revoking the session invalidates them.
+ *
+ * <p>A token presented again shortly after its rotation, by concurrent requests of the same client,
+ * gets the token that replaced it instead of revoking the session. The replacements are kept in
+ * memory for that grace period only.
+ */
+@Service
+public class RefreshTokenService {
+
+  private static final int TOKEN_BYTES = 32;
+
+  @Autowired private RefreshTokenRepository refreshTokenRepository;
+
+  @Autowired private RevokedSessionRegistry revokedSessionRegistry;
+
+  @Value("${security.jwt.refresh-expiration-ms}")
+  private long refreshExpirationMs;
+
+  @Value("${security.jwt.refresh-reuse-grace-ms}")
+  private long reuseGraceMs;
+
+  private final SecureRandom secureRandom = new SecureRandom();
+
+  /** Hash of a token rotated during the grace period to the token that replaced it. */
+  private Cache<String, IssuedRefreshToken> replacements;
+
+  /** A refresh token that was just issued, the raw token is never stored. */
+  public record IssuedRefreshToken(UUID sessionId, String token, User user) {}
+
+  @PostConstruct
+  void init() {
+    replacements = Caffeine.newBuilder().expireAfterWrite(Duration.ofMillis(reuseGraceMs)).build();
+  }
+
+  @Transactional
+  public IssuedRefreshToken startSession(User user) {
+    return issue(user, UUID.randomUUID());
+  }
+
+  /** Consumes a refresh token and issues the next one of the same session. */
+  @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+  public IssuedRefreshToken rotate(String rawToken) {
+    LocalDateTime now = LocalDateTime.now();
+    String tokenHash = hash(rawToken);
+    RefreshToken refreshToken =
+        refreshTokenRepository
+            .findByTokenHash(tokenHash)
+            .orElseThrow(() -> new InvalidRefreshTokenException("Refresh token inconnu"));
+
+    if (refreshToken.getRevokedAt() != null || refreshToken.getExpiresAt().isBefore(now)) {
+      throw new InvalidRefreshTokenException("Refresh token expiré ou révoqué");
+    }
+
+    LocalDateTime usedAt = refreshToken.getUsedAt();
+    if (usedAt != null || refreshTokenRepository.markUsed(refreshToken.getId(), now) == 0) {
+      // Not set when a concurrent request consumed the token while this one was reading it
+      boolean justUsed =
+          usedAt == null || usedAt.isAfter(now.minus(Duration.ofMillis(reuseGraceMs)));
+      IssuedRefreshToken replacement = replacements.getIfPresent(tokenHash);
+      if (justUsed && replacement != null) {
+        return replacement;
+      }
+      if (!justUsed) {
+        // A consumed token was presented again, it leaked so the whole session is revoked
+        revokeSession(refreshToken.getSessionId());
+      }
+      // Otherwise rotated by a concurrent request served by another instance
+      throw new InvalidRefreshTokenException("Refresh token déjà utilisé");
+    }
+
+    IssuedRefreshToken next = issue(refreshToken.getUser(), refreshToken.getSessionId());
+    replacements.put(tokenHash, next);
+    return next;
+  }
+
+  @Transactional
+  public void logout(String rawToken) {
+    refreshTokenRepository
+        .findByTokenHash(hash(rawToken))
+        .ifPresent(refreshToken -> revokeSession(refreshToken.getSessionId()));
+  }
+
+  /**
+   * Revokes every session of a user, for instance after a password change.
+   *
+   * @param keptSessionId session left open, usually the one making the change, may be null
+   */
+  @Transactional
+  public void revokeAllSessions(User user, UUID keptSessionId) {
+    refreshTokenRepository.findActiveSessionIds(user.getId(), LocalDateTime.now()).stream()
+        .filter(sessionId -> !sessionId.equals(keptSessionId))
+        .forEach(this::revokeSession);
+  }
+
+  @Scheduled(cron = "${security.jwt.refresh-cleanup-cron:0 0 4 * * *}")
+  public void deleteExpiredTokens() {
+    refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now());
+  }
+
+  private void revokeSession(UUID sessionId) {
+    refreshTokenRepository.revokeSession(sessionId, LocalDateTime.now());
+    revokedSessionRegistry.revoke(sessionId);
+  }
+
+  private IssuedRefreshToken issue(User user, UUID sessionId) {
+    byte[] bytes = new byte[TOKEN_BYTES];
+    secureRandom.nextBytes(bytes);
+    String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+    refreshTokenRepository.save(
+        RefreshToken.builder()
+            .tokenHash(hash(rawToken))
+            .sessionId(sessionId)
+            .user(user)
+            .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshExpirationMs)))
+            .build());
+
+    return new IssuedRefreshToken(sessionId, rawToken, user);
+  }
+
+  private static String hash(String rawToken) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
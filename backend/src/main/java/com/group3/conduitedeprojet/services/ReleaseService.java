@@ -1,5 +1,6 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
 import com.group3.conduitedeprojet.dto.CreateReleaseRequest;
 import com.group3.conduitedeprojet.dto.ReleaseDto;
 import com.group3.conduitedeprojet.exceptions.IssueDoesntBelongToProjectException;
@@ -13,9 +14,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class ReleaseService {
@@ -24,6 +25,7 @@ public class ReleaseService {
 
   @Autowired private ReleaseRepository releaseRepository;
 
+  @Transactional
   public ReleaseDto createRelease(
       UUID projectId, CreateReleaseRequest createReleaseRequest, Principal principal) {
     User creator = entityLookupService.getUserByEmail(principal.getName());
@@ -44,12 +46,13 @@ public class ReleaseService {
     return releaseRepository.save(release).toReleaseDto();
   }
 
+  @ReadFromReplica
   public List<ReleaseDto> getReleases(UUID projectId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
 
-    return releaseRepository.findByProjectId(projectId).stream()
-        .map(Release::toReleaseDto)
+    return releaseRepository.findSummariesByProjectId(projectId).stream()
+        .map(ReleaseRepository.Summary::toReleaseDto)
         .toList();
   }
 
@@ -58,8 +61,7 @@ public class ReleaseService {
       return new HashSet<>();
     }
 
-    return new HashSet<>(issueIds)
-        .stream().map(issueId -> entityLookupService.getIssue(issueId)).collect(Collectors.toSet());
+    return entityLookupService.getIssues(issueIds);
   }
 
   private void checkIssuesBelongToProject(Set<Issue> issues, UUID projectId) {
@@ -0,0 +1,99 @@
+package com.group3.conduitedeprojet.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Encodings of the documentation revisions. A snapshot is the deflated content; a delta lists, for
+ * each change from the previous content, the lines to copy, the lines to drop and the lines to
+ * insert, the lines after the last change being copied. Only inserted lines are stored, so a delta
+ * grows with the edit and not with the document.
+ */
+final class RevisionDeltas {
+
+  private RevisionDeltas() {}
+
+  static byte[] snapshot(String content) {
+    return deflate(out -> out.write(content.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  static String fromSnapshot(byte[] data) {
+    try (InflaterInputStream in = new InflaterInputStream(new ByteArrayInputStream(data))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  static byte[] delta(String base, String target) {
+    List<String> baseLines = LineDiff.lines(base);
+    List<String> targetLines = LineDiff.lines(target);
+    List<LineDiff.Change> changes = LineDiff.diff(baseLines, targetLines);
+    return deflate(
+        out -> {
+          out.writeInt(changes.size());
+          int copied = 0;
+          for (LineDiff.Change change : changes) {
+            out.writeInt(change.aStart() - copied);
+            out.writeInt(change.aEnd() - change.aStart());
+            out.writeInt(change.bEnd() - change.bStart());
+            for (String line : targetLines.subList(change.bStart(), change.bEnd())) {
+              byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+              out.writeInt(bytes.length);
+              out.write(bytes);
+            }
+            copied = change.aEnd();
+          }
+        });
+  }
+
+  static String applyDelta(String base, byte[] delta) {
+    List<String> baseLines = LineDiff.lines(base);
+    StringBuilder target = new StringBuilder(base.length());
+    try (DataInputStream in =
+        new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(delta)))) {
+      int changes = in.readInt();
+      int position = 0;
+      for (int c = 0; c < changes; c++) {
+        int copy = in.readInt();
+        int drop = in.readInt();
+        int insert = in.readInt();
+        for (String line : baseLines.subList(position, position + copy)) {
+          target.append(line);
+        }
+        position += copy + drop;
+        for (int l = 0; l < insert; l++) {
+          target.append(new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8));
+        }
+      }
+      for (String line : baseLines.subList(position, baseLines.size())) {
+        target.append(line);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return target.toString();
+  }
+
+  private static byte[] deflate(Encoder encoder) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+      encoder.encode(out);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private interface Encoder {
+    void encode(DataOutputStream out) throws IOException;
+  }
+}
@@ -0,0 +1,90 @@
+package com.group3.conduitedeprojet.services;
+
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
+import com.group3.conduitedeprojet.dto.SearchHitDto;
+import com.group3.conduitedeprojet.dto.SearchPageDto;
+import com.group3.conduitedeprojet.exceptions.InvalidCursorException;
+import com.group3.conduitedeprojet.exceptions.InvalidSearchQueryException;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.repositories.SearchRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class SearchService {
+
+  /** Largest page returned by {@link #search}. */
+  public static final int MAX_PAGE_SIZE = 50;
+
+  /** Longest query accepted, longer ones are not typed by hand. */
+  public static final int MAX_QUERY_LENGTH = 200;
+
+  private static final String CURSOR_SEPARATOR = "|";
+
+  @Autowired private SearchRepository searchRepository;
+
+  @Autowired private EntityLookupService entityLookupService;
+
+  /**
+   * One page of the issues, tasks and documentation of a project matching the query, most relevant
+   * first. The cursor is opaque to clients, like the one of the issue pages.
+   *
+   * @param cursor {@code nextCursor} of the previous page, {@code null} for the first page
+   * @param limit page size, clamped to {@link #MAX_PAGE_SIZE}
+   */
+  @ReadFromReplica
+  public SearchPageDto search(
+      UUID projectId, String query, String cursor, int limit, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+
+    if (query == null || query.isBlank()) {
+      throw new InvalidSearchQueryException("La recherche ne peut pas être vide");
+    }
+    if (query.length() > MAX_QUERY_LENGTH) {
+      throw new InvalidSearchQueryException(
+          "La recherche ne peut pas dépasser " + MAX_QUERY_LENGTH + " caractères");
+    }
+
+    int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+    // One extra row tells whether another page follows
+    List<SearchHitDto> hits =
+        searchRepository.search(projectId, query, decodeCursor(cursor), pageSize + 1);
+    boolean hasNext = hits.size() > pageSize;
+    List<SearchHitDto> page = hasNext ? hits.subList(0, pageSize) : hits;
+
+    return SearchPageDto.builder()
+        .items(page)
+        .nextCursor(hasNext ? encodeCursor(page.get(page.size() - 1)) : null)
+        .build();
+  }
+
+  private static String encodeCursor(SearchHitDto hit) {
+    // Float.toString gives back the exact same float, so the last hit is not returned again
+    String key = hit.getRank() + CURSOR_SEPARATOR + hit.getType() + CURSOR_SEPARATOR + hit.getId();
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static SearchRepository.Keyset decodeCursor(String cursor) {
+    if (cursor == null || cursor.isBlank()) {
+      return null;
+    }
+    try {
+      String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] parts = key.split("\\" + CURSOR_SEPARATOR, -1);
+      return new SearchRepository.Keyset(
+          Float.parseFloat(parts[0]),
+          SearchHitDto.Type.valueOf(parts[1]),
+          Long.parseLong(parts[2]));
+    } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+      throw new InvalidCursorException("Curseur de pagination invalide");
+    }
+  }
+}
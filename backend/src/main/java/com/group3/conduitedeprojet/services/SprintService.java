@@ -1,9 +1,11 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
 import com.group3.conduitedeprojet.dto.CreateSprintRequest;
 import com.group3.conduitedeprojet.dto.IssueDto;
 import com.group3.conduitedeprojet.dto.SprintDto;
 import com.group3.conduitedeprojet.dto.UpdateSprintRequest;
+import com.group3.conduitedeprojet.exceptions.IssueNotFoundException;
 import com.group3.conduitedeprojet.exceptions.NotAuthorizedException;
 import com.group3.conduitedeprojet.exceptions.SprintNotFoundException;
 import com.group3.conduitedeprojet.models.Issue;
@@ -12,10 +14,13 @@ import com.group3.conduitedeprojet.models.Sprint;
 import com.group3.conduitedeprojet.repositories.IssueRepository;
 import com.group3.conduitedeprojet.repositories.SprintRepository;
 import java.security.Principal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class SprintService {
@@ -25,22 +30,30 @@ public class SprintService {
 
   @Autowired private EntityLookupService entityLookupService;
 
+  /**
+   * Moves the issues into the sprint with a single statement, which also checks that they belong to
+   * the project. The persistence context is cleared, {@link #reload} the sprint to use it.
+   */
   private void assignIssuesToSprint(UUID projectId, List<Long> issueIds, Sprint sprint) {
-    if (issueIds == null || issueIds.isEmpty()) {
-      return;
-    }
-
-    for (Long issueId : issueIds) {
-      Issue issue = entityLookupService.getIssue(issueId);
-      if (!issue.getProject().getId().equals(projectId)) {
-        throw new NotAuthorizedException("Issue does not belong to this project");
+    Set<Long> ids = new HashSet<>(issueIds);
+    int moved = issueRepository.moveToSprint(sprint, ids, projectId);
+    if (moved != ids.size()) {
+      // The transaction rolls back, telling missing issues from foreign ones is only needed here
+      if (issueRepository.countByIdIn(ids) != ids.size()) {
+        throw new IssueNotFoundException("Issue of the sprint was not found");
       }
-      issue.setSprint(sprint);
-      sprint.getIssues().add(issue);
-      issueRepository.save(issue);
+      throw new NotAuthorizedException("Issue does not belong to this project");
     }
   }
 
+  /** Reads the sprint again, with its issues, after a set-based update cleared the context. */
+  private Sprint reload(Sprint sprint) {
+    return sprintRepository
+        .findById(sprint.getId())
+        .orElseThrow(() -> new SprintNotFoundException("Sprint not found"));
+  }
+
+  @Transactional
   public SprintDto createSprint(
       UUID projectId, CreateSprintRequest createSprintRequest, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
@@ -56,18 +69,26 @@ public class SprintService {
 
     sprint = sprintRepository.save(sprint);
 
-    assignIssuesToSprint(projectId, createSprintRequest.getIssueIds(), sprint);
+    List<Long> issueIds = createSprintRequest.getIssueIds();
+    if (issueIds != null && !issueIds.isEmpty()) {
+      assignIssuesToSprint(projectId, issueIds, sprint);
+      sprint = reload(sprint);
+    }
 
     return sprint.toSprintDto();
   }
 
+  @ReadFromReplica
   public List<SprintDto> getSprintsByProject(UUID projectId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
 
-    return sprintRepository.findByProjectId(projectId).stream().map(Sprint::toSprintDto).toList();
+    return sprintRepository.findSummariesByProjectId(projectId).stream()
+        .map(SprintRepository.Summary::toSprintDto)
+        .toList();
   }
 
+  @ReadFromReplica
   public SprintDto getSprintById(UUID projectId, Long sprintId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
@@ -80,26 +101,31 @@ public class SprintService {
     return sprint.toSprintDto();
   }
 
+  @Transactional
   public void deleteSprint(UUID projectId, Long sprintId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
 
-    Sprint sprint =
-        sprintRepository
-            .findByIdAndProjectId(sprintId, projectId)
-            .orElseThrow(() -> new NotAuthorizedException("Sprint not found in this project"));
-
-    List<Issue> issuesInSprint = issueRepository.findBySprintId(sprintId);
-    for (Issue issue : issuesInSprint) {
-      issue.setSprint(null);
-      issueRepository.save(issue);
-    }
+    sprintRepository
+        .findByIdAndProjectId(sprintId, projectId)
+        .orElseThrow(() -> new NotAuthorizedException("Sprint not found in this project"));
 
-    sprintRepository.delete(sprint);
+    issueRepository.removeFromSprint(sprintId);
+    sprintRepository.deleteById(sprintId);
   }
 
+  /**
+   * Updates the fields set in the request, and the issues of the sprint when they are listed.
+   *
+   * @param ifMatch {@code If-Match} header of the request, {@code null} for an unconditional update
+   */
+  @Transactional
   public SprintDto updateSprint(
-      UUID projectId, Long sprintId, UpdateSprintRequest updateSprintRequest, Principal principal) {
+      UUID projectId,
+      Long sprintId,
+      UpdateSprintRequest updateSprintRequest,
+      String ifMatch,
+      Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
 
@@ -107,6 +133,10 @@ public class SprintService {
         sprintRepository
             .findByIdAndProjectId(sprintId, projectId)
             .orElseThrow(() -> new SprintNotFoundException("Sprint not found"));
+    if (ifMatch != null) {
+      // The tag needs the issues of the sprint, only read when it is checked
+      EntityTags.checkIfMatch(ifMatch, EntityTags.of(sprint.toSprintDto()));
+    }
 
     if (updateSprintRequest.getName() != null) {
       sprint.setName(updateSprintRequest.getName());
@@ -118,19 +148,22 @@ public class SprintService {
       sprint.setEndDate(updateSprintRequest.getEndDate());
     }
 
-    if (updateSprintRequest.getIssueIds() != null) {
-      for (Issue issue : sprint.getIssues()) {
-        issue.setSprint(null);
-        issueRepository.save(issue);
+    List<Long> issueIds = updateSprintRequest.getIssueIds();
+    if (issueIds != null) {
+      // Flushes the changes above, so the returned version is the new one
+      issueRepository.removeFromSprint(sprintId);
+      if (!issueIds.isEmpty()) {
+        assignIssuesToSprint(projectId, issueIds, sprint);
       }
-
-      assignIssuesToSprint(projectId, updateSprintRequest.getIssueIds(), sprint);
+      sprint = reload(sprint);
+    } else {
+      // Flushed here so that the returned version is the new one
+      sprintRepository.saveAndFlush(sprint);
     }
-
-    sprintRepository.save(sprint);
     return sprint.toSprintDto();
   }
 
+  @ReadFromReplica
   public List<IssueDto> getIssuesBySprint(UUID projectId, Long sprintId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
@@ -139,6 +172,8 @@ public class SprintService {
         .findByIdAndProjectId(sprintId, projectId)
         .orElseThrow(() -> new SprintNotFoundException("Sprint not found"));
 
-    return issueRepository.findBySprintId(sprintId).stream().map(Issue::toIssueDto).toList();
+    return issueRepository.findBySprintIdOrderByIdAsc(sprintId).stream()
+        .map(Issue::toIssueDto)
+        .toList();
   }
 }
@@ -1,5 +1,6 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
 import com.group3.conduitedeprojet.dto.CreateTaskRequest;
 import com.group3.conduitedeprojet.dto.TaskDto;
 import com.group3.conduitedeprojet.models.Issue;
@@ -12,6 +13,7 @@ import java.util.List;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class TaskService {
@@ -20,6 +22,7 @@ public class TaskService {
 
   @Autowired private EntityLookupService entityLookupService;
 
+  @Transactional
   public TaskDto createTask(
       UUID projectId, Long issueId, CreateTaskRequest createTaskRequest, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
@@ -51,6 +54,7 @@ public class TaskService {
     return task.toTaskDto();
   }
 
+  @ReadFromReplica
   public List<TaskDto> getTasksByIssue(UUID projectId, Long issueId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
@@ -60,16 +64,33 @@ public class TaskService {
     return tasks.stream().map(Task::toTaskDto).toList();
   }
 
+  @ReadFromReplica
+  public TaskDto getTask(UUID projectId, Long issueId, Long taskId, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+    entityLookupService.getIssue(issueId);
+
+    return entityLookupService.getTask(taskId).toTaskDto();
+  }
+
+  /**
+   * Updates the fields set in the request.
+   *
+   * @param ifMatch {@code If-Match} header of the request, {@code null} for an unconditional update
+   */
+  @Transactional
   public TaskDto updateTask(
       UUID projectId,
       Long issueId,
       Long taskId,
       CreateTaskRequest updateTaskRequest,
+      String ifMatch,
       Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
     entityLookupService.getIssue(issueId);
     Task task = entityLookupService.getTask(taskId);
+    EntityTags.checkIfMatch(ifMatch, EntityTags.of(task.toTaskDto()));
 
     if (updateTaskRequest.getTitle() != null && !updateTaskRequest.getTitle().trim().isEmpty()) {
       task.setTitle(updateTaskRequest.getTitle().trim());
@@ -91,10 +112,12 @@ public class TaskService {
       task.setAssignee(entityLookupService.getUser(updateTaskRequest.getAssigneeId()));
     }
 
-    taskRepository.save(task);
+    // Flushed here so that the returned version is the new one
+    taskRepository.saveAndFlush(task);
     return task.toTaskDto();
   }
 
+  @Transactional
   public void deleteTask(UUID projectId, Long issueId, Long taskId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
@@ -102,5 +125,6 @@ public class TaskService {
     Task task = entityLookupService.getTask(taskId);
 
     taskRepository.delete(task);
+    entityLookupService.evict(Task.class, taskId);
   }
 }
@@ -0,0 +1,164 @@
+package com.group3.conduitedeprojet.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group3.conduitedeprojet.models.CodeBlob;
+import com.group3.conduitedeprojet.repositories.CodeBlobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Content-addressed storage of the code of the tests: the same code, copied across tests and
+ * issues, is stored once under the hex SHA-256 of its UTF-8 bytes and deflated when that saves
+ * room. Tests reference the hashes; each reference is counted so that a scheduled sweep deletes the
+ * code nothing points to anymore.
+ *
+ * <p>Code never changes under a hash, so decoded code is cached by hash without invalidation,
+ * bounded by its total size. Hits, misses and evictions are published as {@code cache.*} metrics
+ * with the {@code test-code} cache name.
+ */
+@Service
+public class TestCodeService {
+
+  /** Below this size the deflate header and dictionary outweigh the savings. */
+  static final int MIN_COMPRESSED_LENGTH = 256;
+
+  @Autowired private CodeBlobRepository codeBlobRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Value("${app.cache.test-code.maximum-weight-bytes}")
+  private long maximumWeightBytes;
+
+  private Cache<String, String> codes;
+
+  @PostConstruct
+  void init() {
+    codes =
+        CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder()
+                .maximumWeight(maximumWeightBytes)
+                .weigher((String hash, String code) -> 2 * code.length())
+                .recordStats()
+                .build(),
+            "test-code");
+  }
+
+  /**
+   * Adds a reference to the code, storing it when no test uses it yet. Code already stored is
+   * neither compressed nor sent to the database again.
+   *
+   * @return the hash of the code
+   */
+  @Transactional
+  public String addReference(String code) {
+    byte[] bytes = code.getBytes(StandardCharsets.UTF_8);
+    String hash = hash(bytes);
+    if (codeBlobRepository.addReference(hash) == 0) {
+      byte[] deflated = bytes.length < MIN_COMPRESSED_LENGTH ? null : deflate(bytes);
+      boolean compressed = deflated != null && deflated.length < bytes.length;
+      codeBlobRepository.insertOrAddReference(
+          hash, compressed, compressed ? deflated : bytes, bytes.length);
+    }
+    codes.put(hash, code);
+    return hash;
+  }
+
+  /**
+   * Adds a reference to code already stored.
+   *
+   * @return false when no code is stored under the hash
+   */
+  @Transactional
+  public boolean addReferenceByHash(String hash) {
+    return codeBlobRepository.addReference(hash) == 1;
+  }
+
+  /** Drops a reference, the code stays stored until the next sweep. */
+  @Transactional
+  public void removeReference(String hash) {
+    codeBlobRepository.removeReference(hash);
+  }
+
+  /** Decoded code by hash, the hashes without stored code are left out. */
+  public Map<String, String> getCodes(Collection<String> hashes) {
+    Map<String, String> found = new HashMap<>(codes.getAllPresent(hashes));
+    Set<String> missing = new HashSet<>(hashes);
+    missing.removeAll(found.keySet());
+    if (!missing.isEmpty()) {
+      for (CodeBlob blob : codeBlobRepository.findByHashIn(missing)) {
+        String code = decode(blob);
+        codes.put(blob.getHash(), code);
+        found.put(blob.getHash(), code);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Deletes the code no test references anymore. A reference added meanwhile locks the blob, which
+   * is then checked again and kept.
+   */
+  @Scheduled(cron = "${app.test-code.cleanup-cron:0 30 4 * * *}")
+  @Transactional
+  public int deleteUnreferenced() {
+    return codeBlobRepository.deleteUnreferenced();
+  }
+
+  /** Hash the code is stored under. */
+  public static String hashOf(String code) {
+    return hash(code.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static String hash(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private static byte[] deflate(byte[] bytes) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+    try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+      deflater.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  private static String decode(CodeBlob blob) {
+    if (!blob.isCompressed()) {
+      return new String(blob.getData(), StandardCharsets.UTF_8);
+    }
+    try (InflaterInputStream in =
+        new InflaterInputStream(new ByteArrayInputStream(blob.getData()))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
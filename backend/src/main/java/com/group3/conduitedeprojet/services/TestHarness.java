@@ -0,0 +1,196 @@
+package com.group3.conduitedeprojet.services;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Server side copy of the browser test worker ({@code frontend/src/workers/test-worker.ts}): the
+ * same {@code test()} and assertion functions, the same loop instrumentation and the same output,
+ * so that a stored test passes or fails identically in both places.
+ *
+ * <p>The script reads its input from the bindings of the run and evaluates to the JSON of a {@code
+ * WorkerResponse}.
+ */
+final class TestHarness {
+
+  static final String PROGRAM = "program";
+  static final String TESTS = "tests";
+  static final String TIME_LIMIT_MILLIS = "timeLimitMillis";
+  static final String MAX_ITERATIONS = "maxIterations";
+  static final String TIMEOUT_MESSAGE = "timeoutMessage";
+
+  /** Loops that get a {@code checkTimeout()} call at the start of their body. */
+  private static final List<Pattern> LOOPS =
+      List.of(
+          Pattern.compile("while\\s*\\([^)]+\\)\\s*\\{"),
+          Pattern.compile("for\\s*\\([^)]*;[^)]*;[^)]*\\)\\s*\\{"),
+          Pattern.compile("for\\s*\\([^)]+of[^)]+\\)\\s*\\{"),
+          Pattern.compile("for\\s*\\([^)]+in[^)]+\\)\\s*\\{"),
+          Pattern.compile("do\\s*\\{"));
+
+  static final String SCRIPT =
+      """
+      (function () {
+        'use strict';
+        var deadline = Date.now() + timeLimitMillis;
+        var iterationCount = 0;
+        var timedOut = false;
+        var testResults = [];
+        var testCount = 0;
+        var passedCount = 0;
+        var failedCount = 0;
+
+        function checkTimeout() {
+          if (timedOut || Date.now() > deadline) {
+            timedOut = true;
+            throw new Error('Timeout');
+          }
+          iterationCount++;
+          if (iterationCount > maxIterations) {
+            throw new Error("Nombre maximum d'itérations atteint (boucle infinie probable)");
+          }
+        }
+
+        function messageOf(error) {
+          return error instanceof Error ? error.message : String(error);
+        }
+
+        function describe(arg) {
+          if (arg === null || arg === undefined) return String(arg);
+          if (typeof arg === 'object') {
+            try {
+              return JSON.stringify(arg, null, 2);
+            } catch (e) {
+              return String(arg);
+            }
+          }
+          return String(arg);
+        }
+
+        var console = {
+          log: function () {
+            testResults.push({
+              type: 'log',
+              message: Array.prototype.map.call(arguments, describe).join(' ')
+            });
+          }
+        };
+
+        function test(description, testFn) {
+          testCount++;
+          try {
+            testFn();
+            passedCount++;
+            testResults.push({ type: 'pass', message: '✅ Test ' + testCount + ': ' + description });
+          } catch (error) {
+            failedCount++;
+            testResults.push({
+              type: 'fail',
+              message: '❌ Test ' + testCount + ': ' + description,
+              error: messageOf(error)
+            });
+          }
+        }
+
+        function assert(condition, message) {
+          if (!condition) {
+            throw new Error(message || 'Assertion failed');
+          }
+        }
+
+        function assertEquals(actual, expected, message) {
+          if (actual !== expected) {
+            throw new Error(message || 'Expected ' + JSON.stringify(expected) + ' but got ' + JSON.stringify(actual));
+          }
+        }
+
+        function assertNotEquals(actual, expected, message) {
+          if (actual === expected) {
+            throw new Error(message || 'Expected values to be different, but both are ' + JSON.stringify(actual));
+          }
+        }
+
+        function assertTrue(condition, message) {
+          if (condition !== true) {
+            throw new Error(message || 'Expected true but got ' + condition);
+          }
+        }
+
+        function assertFalse(condition, message) {
+          if (condition !== false) {
+            throw new Error(message || 'Expected false but got ' + condition);
+          }
+        }
+
+        try {
+          // The trailing parameters shadow the host globals some engines define
+          var execute = new Function(
+            'console', 'checkTimeout', 'test', 'assert', 'assertEquals', 'assertNotEquals',
+            'assertTrue', 'assertFalse',
+            'Java', 'Packages', 'java', 'javax', 'Polyglot', 'load', 'loadWithNewGlobal', 'exit', 'quit',
+            "'use strict';\\n" + program + '\\n\\n' + tests);
+          execute(console, checkTimeout, test, assert, assertEquals, assertNotEquals, assertTrue,
+            assertFalse);
+        } catch (error) {
+          return JSON.stringify({
+            success: false,
+            error: timedOut ? timeoutMessage : messageOf(error),
+            stack: error instanceof Error ? error.stack : undefined
+          });
+        }
+        if (timedOut) {
+          return JSON.stringify({ success: false, error: timeoutMessage, stack: '' });
+        }
+
+        var outputLines = [];
+        testResults.forEach(function (result) {
+          if (result.type === 'log') {
+            outputLines.push('ℹ️  ' + result.message);
+            return;
+          }
+          outputLines.push(result.message);
+          if (result.error) {
+            outputLines.push('   ↳ ' + result.error);
+          }
+        });
+        if (testCount > 0) {
+          outputLines.push('', '━━━━━━━━━━━━━━━━━━━━━━━━━━━━━',
+            '📊 Résumé: ' + passedCount + ' réussi(s), ' + failedCount + ' échoué(s) sur ' + testCount + ' test(s)');
+          if (failedCount === 0) {
+            outputLines.push('✨ Tous les tests sont passés avec succès !');
+          }
+        }
+
+        return JSON.stringify({
+          success: true,
+          output: outputLines.length > 0
+            ? outputLines.join('\\n')
+            : '✅ Code exécuté avec succès !\\n\\nUtilisez test() pour exécuter des tests.',
+          testCount: testCount,
+          passedCount: passedCount,
+          failedCount: failedCount
+        });
+      })();
+      """;
+
+  private TestHarness() {}
+
+  /** Adds a {@code checkTimeout()} call at the start of every loop body, as the worker does. */
+  static String instrument(String code) {
+    String instrumented = code == null ? "" : code;
+    for (Pattern loop : LOOPS) {
+      instrumented =
+          loop.matcher(instrumented)
+              .replaceAll(match -> Matcher.quoteReplacement(match.group() + "\ncheckTimeout();"));
+    }
+    return instrumented;
+  }
+
+  static String timeoutMessage(long timeLimitMillis) {
+    long seconds = Math.max(1, Math.round(timeLimitMillis / 1000.0));
+    return "Timeout: Execution was interrupted after "
+        + seconds
+        + " seconds (infinite loop detected?)";
+  }
+}
@@ -0,0 +1,361 @@
+package com.group3.conduitedeprojet.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group3.conduitedeprojet.dto.TestRunReportDto;
+import com.group3.conduitedeprojet.dto.TestRunReportDto.Result;
+import com.group3.conduitedeprojet.exceptions.TestRunnerUnavailableException;
+import com.group3.conduitedeprojet.repositories.TestRepository.RunnableTest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.PolyglotException;
+import org.graalvm.polyglot.ResourceLimits;
+import org.graalvm.polyglot.Source;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs stored tests on the server with the {@link TestHarness} of the browser test worker, in
+ * GraalJS contexts without any access to the host.
+ *
+ * <p>The contexts share one engine, warmed up at startup, which keeps the parsed harness across
+ * runs; each run gets a fresh context so that nothing leaks from one test to the next. The workers
+ * are a bounded pool: a request runs at most one test per worker at a time, and when the queue is
+ * full it fails immediately with {@link TestRunnerUnavailableException} (503).
+ *
+ * <p>A run stops itself at the time limit or after too many loop iterations, as in the browser, and
+ * the context stops it after too many statements, which also catches the loops the harness does not
+ * instrument. A watchdog backs this up by cancelling the context of a run past the time limit or
+ * over its CPU time budget.
+ *
+ * <p>Runs are published as the {@code test.runner.run} timer, tagged by outcome, and the waiting
+ * runs as the {@code test.runner.queue.depth} gauge.
+ */
+@Service
+public class TestRunnerService {
+
+  /** Time left to a run to stop by itself after its limit, before the watchdog steps in. */
+  private static final long GRACE_MILLIS = 1000;
+
+  private static final long WATCHDOG_PERIOD_MILLIS = 50;
+
+  private static final String WARM_UP_TEST =
+      "test('warm-up', function () { assertEquals(1, 1); });";
+
+  @Autowired private ObjectMapper objectMapper;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Value("${app.test-runner.workers}")
+  private int workers;
+
+  @Value("${app.test-runner.queue-capacity}")
+  private int queueCapacity;
+
+  @Value("${app.test-runner.time-limit-ms}")
+  private long timeLimitMillis;
+
+  @Value("${app.test-runner.cpu-time-limit-ms}")
+  private long cpuTimeLimitMillis;
+
+  @Value("${app.test-runner.max-iterations}")
+  private long maxIterations;
+
+  @Value("${app.test-runner.max-statements}")
+  private long maxStatements;
+
+  private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+  private final Map<Thread, ActiveRun> activeRuns = new ConcurrentHashMap<>();
+
+  private ThreadPoolExecutor executor;
+
+  private ScheduledExecutorService watchdog;
+
+  private Engine engine;
+
+  private Source harness;
+
+  private ResourceLimits limits;
+
+  private record ActiveRun(
+      Thread thread,
+      Context context,
+      RunnableTest test,
+      CompletableFuture<Result> result,
+      long startedAt,
+      long startCpuTime,
+      AtomicBoolean finished) {}
+
+  @PostConstruct
+  void init() {
+    AtomicInteger threadCount = new AtomicInteger();
+    executor =
+        new ThreadPoolExecutor(
+            workers,
+            workers,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+              Thread thread = new Thread(runnable, "test-runner-" + threadCount.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    watchdog =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "test-runner-watchdog");
+              thread.setDaemon(true);
+              return thread;
+            });
+    watchdog.scheduleAtFixedRate(
+        this::checkActiveRuns,
+        WATCHDOG_PERIOD_MILLIS,
+        WATCHDOG_PERIOD_MILLIS,
+        TimeUnit.MILLISECONDS);
+    if (threads.isThreadCpuTimeSupported()) {
+      threads.setThreadCpuTimeEnabled(true);
+    }
+
+    // Without a JVMCI compiler the engine interprets, which is enough for tests of a few seconds
+    engine = Engine.newBuilder("js").option("engine.WarnInterpreterOnly", "false").build();
+    harness = Source.newBuilder("js", TestHarness.SCRIPT, "harness.js").cached(true).buildLiteral();
+    limits = ResourceLimits.newBuilder().statementLimit(maxStatements, null).build();
+    warmUp();
+
+    Gauge.builder("test.runner.queue.depth", executor, pool -> pool.getQueue().size())
+        .description("Test runs waiting for a worker")
+        .register(meterRegistry);
+  }
+
+  /** Runs the harness once so that the first request does not pay for parsing it. */
+  private void warmUp() {
+    try (Context context = newContext()) {
+      evaluate(context, "", WARM_UP_TEST);
+    } catch (PolyglotException e) {
+      throw new IllegalStateException("The test harness does not run", e);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    watchdog.shutdownNow();
+    executor.shutdownNow();
+    activeRuns.values().forEach(run -> run.context().close(true));
+    engine.close(true);
+  }
+
+  /**
+   * Runs the tests in parallel, at most one per worker at a time, and sums up their results.
+   *
+   * @throws TestRunnerUnavailableException when the runner is saturated
+   */
+  public TestRunReportDto run(List<RunnableTest> tests) {
+    Semaphore slots = new Semaphore(workers);
+    List<CompletableFuture<Result>> results = new ArrayList<>(tests.size());
+    try {
+      for (RunnableTest test : tests) {
+        slots.acquire();
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        result.whenComplete((completed, error) -> slots.release());
+        results.add(result);
+        executor.execute(() -> execute(test, result));
+      }
+    } catch (RejectedExecutionException e) {
+      cancel(results);
+      throw new TestRunnerUnavailableException(
+          "Trop de tests en cours d'exécution, veuillez réessayer dans quelques instants");
+    } catch (InterruptedException e) {
+      cancel(results);
+      Thread.currentThread().interrupt();
+      throw new TestRunnerUnavailableException("Exécution des tests interrompue");
+    }
+
+    return report(results.stream().map(CompletableFuture::join).toList());
+  }
+
+  /** Keeps the runs of a failed request that are still queued from starting. */
+  private static void cancel(List<CompletableFuture<Result>> results) {
+    results.forEach(result -> result.cancel(false));
+  }
+
+  private void execute(RunnableTest test, CompletableFuture<Result> result) {
+    if (result.isDone()) {
+      return;
+    }
+    Thread thread = Thread.currentThread();
+    Context context = newContext();
+    ActiveRun run =
+        new ActiveRun(
+            thread,
+            context,
+            test,
+            result,
+            System.nanoTime(),
+            threads.getCurrentThreadCpuTime(),
+            new AtomicBoolean());
+    activeRuns.put(thread, run);
+    try {
+      String response =
+          evaluate(
+              context,
+              TestHarness.instrument(test.programCode()),
+              TestHarness.instrument(test.testCode()));
+      Result parsed = objectMapper.readValue(response, Result.class);
+      parsed.setTestId(test.id());
+      parsed.setIssueId(test.issueId());
+      complete(run, parsed, parsed.isSuccess() ? "success" : "error");
+    } catch (PolyglotException e) {
+      if (e.isResourceExhausted()) {
+        complete(
+            run,
+            timedOut(
+                test,
+                "Timeout: Execution was stopped after "
+                    + maxStatements
+                    + " statements (infinite loop detected?)"),
+            "timeout");
+      } else if (e.isCancelled()) {
+        // Cancelled by the watchdog, which already reported the run
+        complete(run, timedOut(test, TestHarness.timeoutMessage(timeLimitMillis)), "timeout");
+      } else {
+        complete(run, failure(test, e.getMessage()), "error");
+      }
+    } catch (JsonProcessingException | RuntimeException e) {
+      complete(run, failure(test, e.getMessage()), "error");
+    } finally {
+      activeRuns.remove(thread, run);
+      context.close(true);
+    }
+  }
+
+  private Context newContext() {
+    return Context.newBuilder("js").engine(engine).resourceLimits(limits).build();
+  }
+
+  private String evaluate(Context context, String program, String tests) {
+    org.graalvm.polyglot.Value bindings = context.getBindings("js");
+    bindings.putMember(TestHarness.PROGRAM, program);
+    bindings.putMember(TestHarness.TESTS, tests);
+    bindings.putMember(TestHarness.TIME_LIMIT_MILLIS, timeLimitMillis);
+    bindings.putMember(TestHarness.MAX_ITERATIONS, maxIterations);
+    bindings.putMember(TestHarness.TIMEOUT_MESSAGE, TestHarness.timeoutMessage(timeLimitMillis));
+    return context.eval(harness).asString();
+  }
+
+  /** Cancels the runs past their time limit or over their CPU time budget. */
+  private void checkActiveRuns() {
+    long now = System.nanoTime();
+    for (ActiveRun run : activeRuns.values()) {
+      long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - run.startedAt());
+      long cpuTime = threads.getThreadCpuTime(run.thread().threadId());
+      long cpuMillis =
+          cpuTime < 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(cpuTime - run.startCpuTime());
+      if (elapsedMillis > timeLimitMillis + GRACE_MILLIS) {
+        abandon(run, TestHarness.timeoutMessage(timeLimitMillis));
+      } else if (cpuMillis > cpuTimeLimitMillis) {
+        abandon(
+            run,
+            "Timeout: Execution was interrupted after "
+                + cpuMillis
+                + " ms of CPU time (infinite loop detected?)");
+      }
+    }
+  }
+
+  /** Reports the run as timed out and cancels its context, which frees the worker. */
+  private void abandon(ActiveRun run, String message) {
+    if (complete(run, timedOut(run.test(), message), "timeout")) {
+      activeRuns.remove(run.thread(), run);
+      run.context().close(true);
+    }
+  }
+
+  /** Completes the run once, either from its worker or from the watchdog. */
+  private boolean complete(ActiveRun run, Result result, String outcome) {
+    if (!run.finished().compareAndSet(false, true)) {
+      return false;
+    }
+    Timer.builder("test.runner.run")
+        .tag("outcome", outcome)
+        .register(meterRegistry)
+        .record(System.nanoTime() - run.startedAt(), TimeUnit.NANOSECONDS);
+    run.result().complete(result);
+    return true;
+  }
+
+  private static Result failure(RunnableTest test, String error) {
+    return Result.builder()
+        .testId(test.id())
+        .issueId(test.issueId())
+        .success(false)
+        .error(error)
+        .build();
+  }
+
+  private static Result timedOut(RunnableTest test, String message) {
+    Result result = failure(test, message);
+    result.setStack("");
+    return result;
+  }
+
+  private static TestRunReportDto report(List<Result> results) {
+    int testCount = 0;
+    int passedCount = 0;
+    int failedCount = 0;
+    int incomplete = 0;
+    for (Result result : results) {
+      if (!result.isSuccess()) {
+        incomplete++;
+        continue;
+      }
+      testCount += result.getTestCount() == null ? 0 : result.getTestCount();
+      passedCount += result.getPassedCount() == null ? 0 : result.getPassedCount();
+      failedCount += result.getFailedCount() == null ? 0 : result.getFailedCount();
+    }
+
+    return TestRunReportDto.builder()
+        .success(incomplete == 0)
+        .output(
+            "📊 Résumé: "
+                + passedCount
+                + " réussi(s), "
+                + failedCount
+                + " échoué(s) sur "
+                + testCount
+                + " test(s)")
+        .error(
+            incomplete == 0
+                ? null
+                : incomplete + " of " + results.size() + " test runs did not complete")
+        .testCount(testCount)
+        .passedCount(passedCount)
+        .failedCount(failedCount)
+        .results(results)
+        .build();
+  }
+}
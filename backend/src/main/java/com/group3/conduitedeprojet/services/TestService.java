@@ -1,18 +1,32 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
 import com.group3.conduitedeprojet.dto.CreateTestRequest;
 import com.group3.conduitedeprojet.dto.TestDto;
 import com.group3.conduitedeprojet.dto.UpdateTestRequest;
+import com.group3.conduitedeprojet.exceptions.IssueNotFoundException;
+import com.group3.conduitedeprojet.exceptions.ReleaseNotFoundException;
+import com.group3.conduitedeprojet.exceptions.SprintNotFoundException;
+import com.group3.conduitedeprojet.exceptions.TestCodeNotFoundException;
 import com.group3.conduitedeprojet.models.Issue;
 import com.group3.conduitedeprojet.models.Project;
 import com.group3.conduitedeprojet.models.Test;
 import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.IssueRepository;
+import com.group3.conduitedeprojet.repositories.ReleaseRepository;
+import com.group3.conduitedeprojet.repositories.SprintRepository;
 import com.group3.conduitedeprojet.repositories.TestRepository;
+import com.group3.conduitedeprojet.repositories.TestRepository.RunnableTest;
+import com.group3.conduitedeprojet.repositories.TestRepository.TestCodeRef;
 import java.security.Principal;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class TestService {
@@ -21,6 +35,15 @@ public class TestService {
 
   @Autowired private TestRepository testRepository;
 
+  @Autowired private IssueRepository issueRepository;
+
+  @Autowired private SprintRepository sprintRepository;
+
+  @Autowired private ReleaseRepository releaseRepository;
+
+  @Autowired private TestCodeService testCodeService;
+
+  @Transactional
   public TestDto createTest(
       UUID projectId, Long issueId, CreateTestRequest createTestRequest, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
@@ -32,23 +55,53 @@ public class TestService {
         Test.builder()
             .creator(creator)
             .issue(issue)
-            .programCode(createTestRequest.getProgramCode())
-            .testCode(createTestRequest.getTestCode())
+            .programHash(
+                addReference(
+                    projectId,
+                    createTestRequest.getProgramCode(),
+                    createTestRequest.getProgramHash()))
+            .testHash(
+                addReference(
+                    projectId, createTestRequest.getTestCode(), createTestRequest.getTestHash()))
             .build();
 
     test = testRepository.save(test);
 
-    return test.toTestDto();
+    return toTestDto(test);
   }
 
-  public List<TestDto> getTestsForIssue(UUID projectId, Long issueId, Principal principal) {
+  /**
+   * @param includeCode false to only list the hashes of the code, which the client then fetches
+   *     once per distinct hash and caches
+   */
+  @ReadFromReplica
+  public List<TestDto> getTestsForIssue(
+      UUID projectId, Long issueId, boolean includeCode, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
     entityLookupService.getIssue(issueId);
 
-    return testRepository.findByIssueId(issueId).stream().map(Test::toTestDto).toList();
+    List<Test> tests = testRepository.findByIssueId(issueId);
+    Map<String, String> codes = includeCode ? getCodes(tests) : Map.of();
+    return tests.stream().map(test -> test.toTestDto(codes)).toList();
   }
 
+  /** Code stored under the hash, when a test of the project uses it. */
+  @ReadFromReplica
+  public String getCode(UUID projectId, String hash, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+    String code =
+        testRepository.existsByProjectIdAndCodeHash(projectId, hash)
+            ? testCodeService.getCodes(List.of(hash)).get(hash)
+            : null;
+    if (code == null) {
+      throw new TestCodeNotFoundException("No test of the project has the code " + hash);
+    }
+    return code;
+  }
+
+  @Transactional
   public TestDto updateTest(
       UUID projectId,
       Long issueId,
@@ -60,17 +113,128 @@ public class TestService {
     entityLookupService.getIssue(issueId);
     Test test = entityLookupService.getTest(testId);
 
-    test.setProgramCode(updateTestRequest.getProgramCode());
-    test.setTestCode(updateTestRequest.getTestCode());
+    test.setProgramHash(
+        replaceReference(
+            projectId,
+            test.getProgramHash(),
+            updateTestRequest.getProgramCode(),
+            updateTestRequest.getProgramHash()));
+    test.setTestHash(
+        replaceReference(
+            projectId,
+            test.getTestHash(),
+            updateTestRequest.getTestCode(),
+            updateTestRequest.getTestHash()));
 
-    return testRepository.save(test).toTestDto();
+    return toTestDto(testRepository.save(test));
   }
 
+  @Transactional
   public void deleteTest(UUID projectId, Long issueId, Long testId, Principal principal) {
     Project project = entityLookupService.getProject(projectId);
     entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
     entityLookupService.getIssue(issueId);
     Test test = entityLookupService.getTest(testId);
     testRepository.delete(test);
+    testCodeService.removeReference(test.getProgramHash());
+    testCodeService.removeReference(test.getTestHash());
+    entityLookupService.evict(Test.class, testId);
+  }
+
+  /** Tests of the issue to run, read apart so that no transaction stays open while they run. */
+  @ReadFromReplica
+  public List<RunnableTest> getRunnableTestsForIssue(
+      UUID projectId, Long issueId, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+    issueRepository
+        .findByIdAndProjectId(issueId, projectId)
+        .orElseThrow(() -> new IssueNotFoundException("Issue not found"));
+
+    return toRunnableTests(testRepository.findRunnableByIssueId(issueId, projectId));
+  }
+
+  @ReadFromReplica
+  public List<RunnableTest> getRunnableTestsForSprint(
+      UUID projectId, Long sprintId, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+    sprintRepository
+        .findByIdAndProjectId(sprintId, projectId)
+        .orElseThrow(() -> new SprintNotFoundException("Sprint not found"));
+
+    return toRunnableTests(testRepository.findRunnableBySprintId(sprintId, projectId));
+  }
+
+  @ReadFromReplica
+  public List<RunnableTest> getRunnableTestsForRelease(
+      UUID projectId, Long releaseId, Principal principal) {
+    Project project = entityLookupService.getProject(projectId);
+    entityLookupService.checkPrincipalIsCreatorOrCollaborator(project, principal);
+    if (!releaseRepository.existsByIdAndProjectId(releaseId, projectId)) {
+      throw new ReleaseNotFoundException("Release not found");
+    }
+
+    return toRunnableTests(testRepository.findRunnableByReleaseId(releaseId, projectId));
+  }
+
+  /**
+   * Hash of the code the request sets, adding a reference to it: the code itself when sent, or else
+   * code already used in the project, sent by hash.
+   */
+  private String addReference(UUID projectId, String code, String hash) {
+    if (code != null || hash == null) {
+      return testCodeService.addReference(code == null ? "" : code);
+    }
+    if (!testRepository.existsByProjectIdAndCodeHash(projectId, hash)
+        || !testCodeService.addReferenceByHash(hash)) {
+      throw new TestCodeNotFoundException("No test of the project has the code " + hash);
+    }
+    return hash;
+  }
+
+  /** Like {@link #addReference}, but keeps the current code when unchanged or not sent. */
+  private String replaceReference(UUID projectId, String currentHash, String code, String hash) {
+    String newHash = code != null ? TestCodeService.hashOf(code) : hash;
+    if (newHash == null || newHash.equals(currentHash)) {
+      return currentHash;
+    }
+    newHash = addReference(projectId, code, hash);
+    testCodeService.removeReference(currentHash);
+    return newHash;
+  }
+
+  private TestDto toTestDto(Test test) {
+    return test.toTestDto(
+        testCodeService.getCodes(List.of(test.getProgramHash(), test.getTestHash())));
+  }
+
+  private Map<String, String> getCodes(List<Test> tests) {
+    Set<String> hashes = new HashSet<>();
+    tests.forEach(
+        test -> {
+          hashes.add(test.getProgramHash());
+          hashes.add(test.getTestHash());
+        });
+    return testCodeService.getCodes(hashes);
+  }
+
+  private List<RunnableTest> toRunnableTests(List<TestCodeRef> refs) {
+    Set<String> hashes = new HashSet<>();
+    refs.forEach(
+        ref -> {
+          hashes.add(ref.programHash());
+          hashes.add(ref.testHash());
+        });
+    Map<String, String> codes = testCodeService.getCodes(hashes);
+    return refs.stream()
+        .map(
+            ref ->
+                new RunnableTest(
+                    ref.id(),
+                    ref.issueId(),
+                    codes.get(ref.programHash()),
+                    codes.get(ref.testHash())))
+        .toList();
   }
 }
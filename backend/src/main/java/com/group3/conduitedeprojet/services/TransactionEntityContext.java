@@ -0,0 +1,145 @@
+package com.group3.conduitedeprojet.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Identity map scoped to the current transaction, so that {@link EntityLookupService} fetches an
+ * entity at most once per transaction. Outside of a transaction every lookup goes to the loader.
+ *
+ * <p>The map ends with its transaction: the entities it holds are only managed, and only current,
+ * in the transaction that loaded them, and a request may run several transactions.
+ *
+ * <p>The number of lookups answered from the map is recorded per transaction in the {@code
+ * entity.lookups.saved} summary when the transaction completes.
+ */
+@Component
+public class TransactionEntityContext {
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  private DistributionSummary lookupsSavedSummary;
+
+  @PostConstruct
+  void init() {
+    lookupsSavedSummary =
+        DistributionSummary.builder("entity.lookups.saved")
+            .description("Entity lookups answered from the transaction context, per transaction")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Returns the entity already resolved in this transaction, or loads and remembers it. Loaders
+   * that throw are not remembered.
+   */
+  public <T> T getOrLoad(Class<T> type, Object id, Supplier<T> loader) {
+    Entities entities = currentEntities();
+    if (entities == null) {
+      return loader.get();
+    }
+
+    EntityKey key = new EntityKey(type, id);
+    Object known = entities.byKey.get(key);
+    if (known != null) {
+      entities.lookupsSaved++;
+      return type.cast(known);
+    }
+
+    T entity = loader.get();
+    entities.byKey.put(key, entity);
+    return entity;
+  }
+
+  /** Returns the entity if it was already resolved in this transaction, without counting a hit. */
+  public <T> T getIfPresent(Class<T> type, Object id) {
+    Entities entities = currentEntities();
+    return entities == null ? null : type.cast(entities.byKey.get(new EntityKey(type, id)));
+  }
+
+  /** Remembers an entity loaded by other means, for example in a batch. */
+  public <T> void put(Class<T> type, Object id, T entity) {
+    Entities entities = currentEntities();
+    if (entities != null) {
+      entities.byKey.put(new EntityKey(type, id), entity);
+    }
+  }
+
+  /** Records lookups answered from the map outside of {@link #getOrLoad}. */
+  void recordLookupsSaved(int count) {
+    Entities entities = currentEntities();
+    if (entities != null) {
+      entities.lookupsSaved += count;
+    }
+  }
+
+  /** Forgets an entity, to be called after deleting it. */
+  public void evict(Class<?> type, Object id) {
+    Entities entities = currentEntities();
+    if (entities != null) {
+      entities.byKey.remove(new EntityKey(type, id));
+    }
+  }
+
+  /** Number of lookups answered from the map so far in the current transaction. */
+  public int getLookupsSaved() {
+    Entities entities = currentEntities();
+    return entities == null ? 0 : entities.lookupsSaved;
+  }
+
+  private Entities currentEntities() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return null;
+    }
+
+    Entities entities = (Entities) TransactionSynchronizationManager.getResource(this);
+    if (entities == null) {
+      Entities created = new Entities();
+      TransactionSynchronizationManager.bindResource(this, created);
+      TransactionSynchronizationManager.registerSynchronization(new Scope(created));
+      entities = created;
+    }
+    return entities;
+  }
+
+  /** Binds the map to its transaction only, including while an inner one suspends it. */
+  private final class Scope implements TransactionSynchronization {
+
+    private final Entities entities;
+
+    Scope(Entities entities) {
+      this.entities = entities;
+    }
+
+    @Override
+    public void suspend() {
+      TransactionSynchronizationManager.unbindResource(TransactionEntityContext.this);
+    }
+
+    @Override
+    public void resume() {
+      TransactionSynchronizationManager.bindResource(TransactionEntityContext.this, entities);
+    }
+
+    @Override
+    public void afterCompletion(int status) {
+      TransactionSynchronizationManager.unbindResourceIfPossible(TransactionEntityContext.this);
+      lookupsSavedSummary.record(entities.lookupsSaved);
+    }
+  }
+
+  private record EntityKey(Class<?> type, Object id) {}
+
+  /** Transactions are not shared between threads, no synchronization needed. */
+  private static final class Entities {
+    private final Map<EntityKey, Object> byKey = new HashMap<>();
+    private int lookupsSaved;
+  }
+}
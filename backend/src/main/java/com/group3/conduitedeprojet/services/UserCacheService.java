@@ -0,0 +1,107 @@
+package com.group3.conduitedeprojet.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.group3.conduitedeprojet.datasource.AfterCommit;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded in-memory cache of users, indexed by email and by id, in front of {@link UserRepository}.
+ * Missing users are never cached so that a freshly registered email is visible immediately. Every
+ * mutation of a user must call {@link #evict(User)}, inside the transaction making it if any.
+ *
+ * <p>Hits, misses and evictions are published as {@code cache.*} metrics with the {@code
+ * users-by-email} and {@code users-by-id} cache names.
+ */
+@Service
+public class UserCacheService {
+
+  @Autowired private UserRepository userRepository;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @Value("${app.cache.users.maximum-size}")
+  private long maximumSize;
+
+  @Value("${app.cache.users.expire-after-write-ms}")
+  private long expireAfterWriteMs;
+
+  private Cache<String, User> usersByEmail;
+
+  private Cache<Long, User> usersById;
+
+  @PostConstruct
+  void init() {
+    usersByEmail = CaffeineCacheMetrics.monitor(meterRegistry, newCache(), "users-by-email");
+    usersById = CaffeineCacheMetrics.monitor(meterRegistry, newCache(), "users-by-id");
+  }
+
+  private <K> Cache<K, User> newCache() {
+    return Caffeine.newBuilder()
+        .maximumSize(maximumSize)
+        .expireAfterWrite(Duration.ofMillis(expireAfterWriteMs))
+        .recordStats()
+        .build();
+  }
+
+  public Optional<User> findByEmail(String email) {
+    return Optional.ofNullable(
+        usersByEmail.get(
+            email,
+            key -> {
+              User user = userRepository.findByEmail(key).orElse(null);
+              if (user != null) {
+                usersById.put(user.getId(), user);
+              }
+              return user;
+            }));
+  }
+
+  public Optional<User> findById(Long id) {
+    return Optional.ofNullable(
+        usersById.get(
+            id,
+            key -> {
+              User user = userRepository.findById(key).orElse(null);
+              if (user != null) {
+                usersByEmail.put(user.getEmail(), user);
+              }
+              return user;
+            }));
+  }
+
+  /**
+   * Removes the user from both indexes, to be called after any change to the user. Inside a
+   * transaction the entries are removed again after the commit, in case a concurrent request
+   * reloaded the previous version in between.
+   */
+  public void evict(User user) {
+    Long id = user.getId();
+    String email = user.getEmail();
+    invalidate(id, email);
+    AfterCommit.run(() -> invalidate(id, email));
+  }
+
+  public void evict(String email) {
+    User cached = usersByEmail.getIfPresent(email);
+    if (cached != null) {
+      evict(cached);
+    }
+    usersByEmail.invalidate(email);
+    AfterCommit.run(() -> usersByEmail.invalidate(email));
+  }
+
+  private void invalidate(Long id, String email) {
+    usersById.invalidate(id);
+    usersByEmail.invalidate(email);
+  }
+}
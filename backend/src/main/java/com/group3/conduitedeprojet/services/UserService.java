@@ -1,5 +1,6 @@
 package com.group3.conduitedeprojet.services;
 
+import com.group3.conduitedeprojet.datasource.ReadFromReplica;
 import com.group3.conduitedeprojet.dto.ChangeUserRequest;
 import com.group3.conduitedeprojet.dto.UserDto;
 import com.group3.conduitedeprojet.exceptions.InvalidCredentialsException;
@@ -8,10 +9,12 @@ import com.group3.conduitedeprojet.models.User;
 import com.group3.conduitedeprojet.repositories.UserRepository;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.RequestParam;
 
 @Service
@@ -19,14 +22,22 @@ public class UserService {
 
   @Autowired UserRepository userRepository;
 
-  @Autowired PasswordEncoder passwordEncoder;
+  @Autowired PasswordHashingService passwordHashingService;
 
+  @Autowired UserCacheService userCacheService;
+
+  @Autowired RefreshTokenService refreshTokenService;
+
+  @Autowired TransactionTemplate transactionTemplate;
+
+  @ReadFromReplica
   public List<UserDto> findAllUsers() {
     return userRepository.findAll().stream().map(User::toUserDto).collect(Collectors.toList());
   }
 
+  @ReadFromReplica
   public UserDto findUser(@RequestParam Long id) {
-    Optional<User> user = userRepository.findById(id);
+    Optional<User> user = userCacheService.findById(id);
     if (user.isPresent()) {
       return user.get().toUserDto();
     } else {
@@ -34,6 +45,7 @@ public class UserService {
     }
   }
 
+  @Transactional
   public UserDto updateUser(ChangeUserRequest changeUserRequest) {
     User existing =
         userRepository
@@ -43,20 +55,34 @@ public class UserService {
     existing.setName(changeUserRequest.getName());
 
     userRepository.save(existing);
+    userCacheService.evict(existing);
     return existing.toUserDto();
   }
 
-  public void changePassword(String email, String currentPassword, String newPassword) {
+  /**
+   * Changes the password of a user and revokes all the other sessions of the user. The hashes are
+   * computed between two short transactions, no connection is held while hashing.
+   *
+   * @param currentSessionId session making the change, kept open, may be null
+   */
+  public void changePassword(
+      String email, String currentPassword, String newPassword, UUID currentSessionId) {
     User user =
         userRepository
             .findByEmail(email)
             .orElseThrow(() -> new UserNotFoundException("User not found"));
 
-    if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+    if (!passwordHashingService.matches(currentPassword, user.getPassword())) {
       throw new InvalidCredentialsException("Mot de passe actuel incorrect");
     }
 
-    user.setPassword(passwordEncoder.encode(newPassword));
-    userRepository.save(user);
+    String passwordHash = passwordHashingService.encode(newPassword);
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          user.setPassword(passwordHash);
+          userRepository.save(user);
+          userCacheService.evict(user);
+          refreshTokenService.revokeAllSessions(user, currentSessionId);
+        });
   }
 }
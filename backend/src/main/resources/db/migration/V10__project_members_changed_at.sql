@@ -0,0 +1,5 @@
+-- Last change of the collaborators of a project, polled by every instance to refresh its in-memory
+-- membership index.
+ALTER TABLE project ADD COLUMN IF NOT EXISTS members_changed_at timestamp(6);
+
+CREATE INDEX IF NOT EXISTS idx_project_members_changed_at ON project (members_changed_at);
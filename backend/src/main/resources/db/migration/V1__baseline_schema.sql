@@ -0,0 +1,158 @@
+-- Schema as previously produced by Hibernate (ddl-auto: update). Databases created before the
+-- migrations existed are baselined at this version and skip this script.
+
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE issues_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE tasks_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE sprints_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE release_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE tests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE documentation_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE documentation_issues_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE refresh_tokens_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE users (
+    id bigint NOT NULL,
+    email varchar(255) NOT NULL UNIQUE,
+    name varchar(255) NOT NULL,
+    password varchar(255) NOT NULL,
+    enabled boolean DEFAULT true,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE project (
+    id uuid NOT NULL,
+    name varchar(255) NOT NULL,
+    description varchar(255),
+    creator_id bigint NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_project_creator FOREIGN KEY (creator_id) REFERENCES users
+);
+
+CREATE TABLE project_user (
+    user_id bigint NOT NULL,
+    project_id uuid NOT NULL,
+    PRIMARY KEY (user_id, project_id),
+    CONSTRAINT fk_project_user_user FOREIGN KEY (user_id) REFERENCES users,
+    CONSTRAINT fk_project_user_project FOREIGN KEY (project_id) REFERENCES project
+);
+
+CREATE TABLE sprints (
+    id bigint NOT NULL,
+    name varchar(255) NOT NULL,
+    start_date timestamp(6) NOT NULL,
+    end_date timestamp(6) NOT NULL,
+    project_id uuid NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_sprint_project FOREIGN KEY (project_id) REFERENCES project
+);
+
+CREATE TABLE release (
+    id bigint NOT NULL,
+    major integer,
+    minor integer,
+    patch integer,
+    release_notes text,
+    project_id uuid NOT NULL,
+    creator_id bigint NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_release_project FOREIGN KEY (project_id) REFERENCES project,
+    CONSTRAINT fk_project_creator FOREIGN KEY (creator_id) REFERENCES users
+);
+
+CREATE TABLE issues (
+    id bigint NOT NULL,
+    title varchar(255) NOT NULL,
+    description text,
+    priority smallint NOT NULL CHECK (priority BETWEEN 0 AND 2),
+    status smallint NOT NULL CHECK (status BETWEEN 0 AND 2),
+    story_points integer NOT NULL,
+    project_id uuid NOT NULL,
+    creator_id bigint NOT NULL,
+    assignee_id bigint,
+    sprint_id bigint,
+    release_id bigint,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_issue_project FOREIGN KEY (project_id) REFERENCES project,
+    CONSTRAINT fk_project_creator FOREIGN KEY (creator_id) REFERENCES users,
+    CONSTRAINT fk_assignee FOREIGN KEY (assignee_id) REFERENCES users,
+    CONSTRAINT fk_issue_sprint FOREIGN KEY (sprint_id) REFERENCES sprints,
+    CONSTRAINT fk_issue_release FOREIGN KEY (release_id) REFERENCES release
+);
+
+CREATE TABLE release_issues (
+    release_id bigint NOT NULL,
+    issues_id bigint NOT NULL UNIQUE,
+    PRIMARY KEY (issues_id, release_id),
+    CONSTRAINT fk_release_issues_release FOREIGN KEY (release_id) REFERENCES release,
+    CONSTRAINT fk_release_issues_issue FOREIGN KEY (issues_id) REFERENCES issues
+);
+
+CREATE TABLE tasks (
+    id bigint NOT NULL,
+    title varchar(255) NOT NULL,
+    description text,
+    definition_of_done text,
+    status smallint NOT NULL CHECK (status BETWEEN 0 AND 2),
+    project_id uuid NOT NULL,
+    issue_id bigint NOT NULL,
+    creator_id bigint NOT NULL,
+    assignee_id bigint,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_task_project FOREIGN KEY (project_id) REFERENCES project,
+    CONSTRAINT fk_task_issue FOREIGN KEY (issue_id) REFERENCES issues,
+    CONSTRAINT fk_project_creator FOREIGN KEY (creator_id) REFERENCES users,
+    CONSTRAINT fk_assignee FOREIGN KEY (assignee_id) REFERENCES users
+);
+
+CREATE TABLE tests (
+    id bigint NOT NULL,
+    issue_id bigint NOT NULL,
+    creator_id bigint NOT NULL,
+    program_code text NOT NULL,
+    test_code text NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_test_issue FOREIGN KEY (issue_id) REFERENCES issues,
+    CONSTRAINT fk_project_creator FOREIGN KEY (creator_id) REFERENCES users
+);
+
+CREATE TABLE documentation (
+    id bigint NOT NULL,
+    title varchar(255) NOT NULL,
+    content text,
+    project_id uuid NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_documentation_project FOREIGN KEY (project_id) REFERENCES project
+);
+
+CREATE TABLE documentation_issues (
+    id bigint NOT NULL,
+    documentation_id bigint NOT NULL,
+    issue_id bigint NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (documentation_id, issue_id),
+    CONSTRAINT fk_documentation_issue_documentation FOREIGN KEY (documentation_id) REFERENCES documentation,
+    CONSTRAINT fk_documentation_issue_issue FOREIGN KEY (issue_id) REFERENCES issues
+);
+
+CREATE TABLE refresh_tokens (
+    id bigint NOT NULL,
+    token_hash varchar(64) NOT NULL UNIQUE,
+    session_id uuid NOT NULL,
+    user_id bigint NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    used_at timestamp(6),
+    revoked_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users
+);
@@ -0,0 +1,38 @@
+-- Ids used to come from identity columns. Create the pooled id sequences on databases baselined
+-- from the Hibernate-managed schema, then move every sequence past the ids already assigned so
+-- that the generators never hand out an existing id. No-op on a database created by V1.
+
+-- Databases baselined from the Hibernate-managed schema skip V1, and those created before
+-- refresh tokens existed lack their table.
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id bigint NOT NULL,
+    token_hash varchar(64) NOT NULL UNIQUE,
+    session_id uuid NOT NULL,
+    user_id bigint NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    expires_at timestamp(6) NOT NULL,
+    used_at timestamp(6),
+    revoked_at timestamp(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_refresh_token_user FOREIGN KEY (user_id) REFERENCES users
+);
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS issues_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tasks_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sprints_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS release_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS tests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS documentation_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS documentation_issues_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS refresh_tokens_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users)));
+SELECT setval('issues_seq', GREATEST((SELECT last_value FROM issues_seq), (SELECT COALESCE(MAX(id), 0) FROM issues)));
+SELECT setval('tasks_seq', GREATEST((SELECT last_value FROM tasks_seq), (SELECT COALESCE(MAX(id), 0) FROM tasks)));
+SELECT setval('sprints_seq', GREATEST((SELECT last_value FROM sprints_seq), (SELECT COALESCE(MAX(id), 0) FROM sprints)));
+SELECT setval('release_seq', GREATEST((SELECT last_value FROM release_seq), (SELECT COALESCE(MAX(id), 0) FROM release)));
+SELECT setval('tests_seq', GREATEST((SELECT last_value FROM tests_seq), (SELECT COALESCE(MAX(id), 0) FROM tests)));
+SELECT setval('documentation_seq', GREATEST((SELECT last_value FROM documentation_seq), (SELECT COALESCE(MAX(id), 0) FROM documentation)));
+SELECT setval('documentation_issues_seq', GREATEST((SELECT last_value FROM documentation_issues_seq), (SELECT COALESCE(MAX(id), 0) FROM documentation_issues)));
+SELECT setval('refresh_tokens_seq', GREATEST((SELECT last_value FROM refresh_tokens_seq), (SELECT COALESCE(MAX(id), 0) FROM refresh_tokens)));
@@ -0,0 +1,18 @@
+-- Indexes for the foreign keys the listing and membership queries filter on. PostgreSQL does not
+-- index the referencing side of a foreign key by itself.
+-- project_user.user_id gets its own index: the column order of the primary key Hibernate created
+-- on older databases is not guaranteed.
+-- documentation_issues.documentation_id leads the (documentation_id, issue_id) unique constraint.
+CREATE INDEX IF NOT EXISTS idx_issues_project_id ON issues (project_id);
+CREATE INDEX IF NOT EXISTS idx_issues_sprint_id ON issues (sprint_id);
+CREATE INDEX IF NOT EXISTS idx_tasks_issue_id ON tasks (issue_id);
+CREATE INDEX IF NOT EXISTS idx_tests_issue_id ON tests (issue_id);
+CREATE INDEX IF NOT EXISTS idx_documentation_project_id ON documentation (project_id);
+CREATE INDEX IF NOT EXISTS idx_documentation_issues_issue_id ON documentation_issues (issue_id);
+CREATE INDEX IF NOT EXISTS idx_project_user_user_id ON project_user (user_id);
+CREATE INDEX IF NOT EXISTS idx_project_user_project_id ON project_user (project_id);
+CREATE INDEX IF NOT EXISTS idx_project_creator_id ON project (creator_id);
+CREATE INDEX IF NOT EXISTS idx_sprints_project_id ON sprints (project_id);
+CREATE INDEX IF NOT EXISTS idx_release_project_id ON release (project_id);
+CREATE INDEX IF NOT EXISTS idx_release_issues_release_id ON release_issues (release_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user_id ON refresh_tokens (user_id);
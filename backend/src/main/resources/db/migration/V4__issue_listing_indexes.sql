@@ -0,0 +1,14 @@
+-- Keyset pagination of the issues of a project: one index per filter of the listing, each ending
+-- with the (created_at, id) sort key so that a page is a range scan whatever its depth.
+CREATE INDEX IF NOT EXISTS idx_issues_project_created ON issues (project_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_issues_project_status_created ON issues (project_id, status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_issues_project_priority_created ON issues (project_id, priority, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_issues_project_assignee_created ON issues (project_id, assignee_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_issues_project_sprint_created ON issues (project_id, sprint_id, created_at DESC, id DESC);
+
+-- Covered by idx_issues_project_created.
+DROP INDEX IF EXISTS idx_issues_project_id;
+
+-- The release filter reads the issues of a release from the join table alone.
+CREATE INDEX IF NOT EXISTS idx_release_issues_release_issue ON release_issues (release_id, issues_id);
+DROP INDEX IF EXISTS idx_release_issues_release_id;
@@ -0,0 +1,6 @@
+-- Version of the entities edited concurrently from the board, checked on every update so that a
+-- stale write fails instead of silently overwriting the latest one. It is also their ETag.
+ALTER TABLE issues ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE sprints ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
+ALTER TABLE documentation ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
@@ -0,0 +1,29 @@
+-- Full-text search of a project. Each searchable table gets a tsvector kept up to date by
+-- PostgreSQL itself, titles weighted above the other fields, and a GIN index to find the matches.
+-- Texts mix French, English and code identifiers, so they are not stemmed in any language: the
+-- 'simple' configuration only lowercases words. Queries must use the same configuration.
+
+ALTER TABLE issues ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(definition_of_done, '')), 'C')
+    ) STORED;
+
+ALTER TABLE documentation ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(content, '')), 'B')
+    ) STORED;
+
+-- The project is checked on the rows found: adding project_id to the indexes (btree_gin) makes
+-- every lookup in a large project intersect the term with all the rows of the project.
+CREATE INDEX IF NOT EXISTS idx_issues_search ON issues USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_tasks_search ON tasks USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_documentation_search ON documentation USING gin (search_vector);
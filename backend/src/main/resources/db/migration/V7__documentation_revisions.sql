@@ -0,0 +1,22 @@
+-- History of the documentation. A revision holds either a full snapshot of the content or a
+-- delta from the previous revision, both deflated by the application; a snapshot is written every
+-- app.documentation.revisions.snapshot-interval revisions to bound the deltas applied on a read.
+
+CREATE SEQUENCE IF NOT EXISTS documentation_revisions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS documentation_revisions (
+    id bigint NOT NULL,
+    documentation_id bigint NOT NULL,
+    revision integer NOT NULL,
+    title varchar(255) NOT NULL,
+    snapshot boolean NOT NULL,
+    data bytea NOT NULL,
+    content_length integer NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (id),
+    UNIQUE (documentation_id, revision),
+    CONSTRAINT fk_documentation_revision_documentation FOREIGN KEY (documentation_id) REFERENCES documentation
+);
+
+-- The data is already compressed, PostgreSQL would only spend time trying again
+ALTER TABLE documentation_revisions ALTER COLUMN data SET STORAGE EXTERNAL;
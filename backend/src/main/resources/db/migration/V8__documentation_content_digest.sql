@@ -0,0 +1,14 @@
+-- Size in bytes and SHA-256 of the UTF-8 content of each documentation, kept up to date by the
+-- application. Listings show them without reading the content, and the hash keys the cache of
+-- compressed content.
+
+ALTER TABLE documentation ADD COLUMN IF NOT EXISTS content_length integer;
+ALTER TABLE documentation ADD COLUMN IF NOT EXISTS content_hash varchar(64);
+
+UPDATE documentation
+SET content_length = octet_length(coalesce(content, '')),
+    content_hash = encode(sha256(convert_to(coalesce(content, ''), 'UTF8')), 'hex')
+WHERE content_hash IS NULL;
+
+ALTER TABLE documentation ALTER COLUMN content_length SET NOT NULL;
+ALTER TABLE documentation ALTER COLUMN content_hash SET NOT NULL;
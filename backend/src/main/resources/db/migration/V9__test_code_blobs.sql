@@ -0,0 +1,43 @@
+-- Code of the tests, stored once per distinct content. A blob is keyed by the hex SHA-256 of the
+-- UTF-8 code and deflated by the application when that saves room. ref_count counts the test
+-- columns pointing to the blob; blobs no longer referenced are deleted by a scheduled sweep.
+
+CREATE TABLE IF NOT EXISTS code_blobs (
+    hash varchar(64) NOT NULL,
+    compressed boolean NOT NULL,
+    data bytea NOT NULL,
+    code_length integer NOT NULL,
+    ref_count integer NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    PRIMARY KEY (hash)
+);
+
+-- Compressed blobs would not shrink again, the others are small
+ALTER TABLE code_blobs ALTER COLUMN data SET STORAGE EXTERNAL;
+
+ALTER TABLE tests ADD COLUMN IF NOT EXISTS program_hash varchar(64);
+ALTER TABLE tests ADD COLUMN IF NOT EXISTS test_hash varchar(64);
+
+UPDATE tests
+SET program_hash = encode(sha256(convert_to(program_code, 'UTF8')), 'hex'),
+    test_hash = encode(sha256(convert_to(test_code, 'UTF8')), 'hex');
+
+-- Existing code is moved as is, the application deflates the code it stores from now on
+INSERT INTO code_blobs (hash, compressed, data, code_length, ref_count, created_at)
+SELECT hash, false, convert_to(code, 'UTF8'), octet_length(convert_to(code, 'UTF8')), count(*), now()
+FROM (
+    SELECT program_hash AS hash, program_code AS code FROM tests
+    UNION ALL
+    SELECT test_hash, test_code FROM tests
+) AS codes
+GROUP BY hash, code;
+
+ALTER TABLE tests ALTER COLUMN program_hash SET NOT NULL;
+ALTER TABLE tests ALTER COLUMN test_hash SET NOT NULL;
+ALTER TABLE tests ADD CONSTRAINT fk_test_program_blob FOREIGN KEY (program_hash) REFERENCES code_blobs;
+ALTER TABLE tests ADD CONSTRAINT fk_test_test_blob FOREIGN KEY (test_hash) REFERENCES code_blobs;
+CREATE INDEX IF NOT EXISTS idx_tests_program_hash ON tests (program_hash);
+CREATE INDEX IF NOT EXISTS idx_tests_test_hash ON tests (test_hash);
+
+ALTER TABLE tests DROP COLUMN program_code;
+ALTER TABLE tests DROP COLUMN test_code;
@@ -0,0 +1,87 @@
+package com.group3.conduitedeprojet.benchmarks;
+
+import com.group3.conduitedeprojet.security.AuthRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Throughput of the auth rate limiter as the number of tracked client IPs grows, from 8 threads.
+ * The throughput should stay flat: a lock stripe only holds a fraction of the keys and a lookup is
+ * a hash map access.
+ *
+ * <p>Traffic goes to the same number of active keys whatever {@code keyCount}, spread over the
+ * whole key space, so that the comparison is not skewed by the CPU cache footprint of the working
+ * set. The buckets never run dry, the measured path is the one of an accepted attempt.
+ *
+ * <p>Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjdk.jmh.Main AuthRateLimiterBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class AuthRateLimiterBenchmark {
+
+  private static final int ACTIVE_KEYS = 1000;
+
+  @Param({"1000", "100000"})
+  private int keyCount;
+
+  private AuthRateLimiter authRateLimiter;
+
+  private String[] activeKeys;
+
+  @Setup
+  public void setUp() {
+    authRateLimiter = new AuthRateLimiter();
+    ReflectionTestUtils.setField(authRateLimiter, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(authRateLimiter, "ipCapacity", Integer.MAX_VALUE);
+    ReflectionTestUtils.setField(authRateLimiter, "ipRefillPerMinute", Integer.MAX_VALUE);
+    ReflectionTestUtils.setField(authRateLimiter, "emailCapacity", Integer.MAX_VALUE);
+    ReflectionTestUtils.setField(authRateLimiter, "emailRefillPerMinute", Integer.MAX_VALUE);
+    ReflectionTestUtils.setField(authRateLimiter, "idleEvictionMs", 600_000L);
+    ReflectionTestUtils.invokeMethod(authRateLimiter, "init");
+
+    String[] keys = new String[keyCount];
+    for (int i = 0; i < keyCount; i++) {
+      keys[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+      authRateLimiter.checkAttempt(keys[i], null);
+    }
+    activeKeys = new String[ACTIVE_KEYS];
+    for (int i = 0; i < ACTIVE_KEYS; i++) {
+      activeKeys[i] = keys[(int) ((long) i * keyCount / ACTIVE_KEYS)];
+    }
+  }
+
+  /** Position of a thread in the active keys, threads start apart from each other. */
+  @State(Scope.Thread)
+  public static class Cursor {
+    private int next = (int) (Thread.currentThread().threadId() * 127 % ACTIVE_KEYS);
+
+    String nextKey(String[] keys) {
+      next = (next + 1) % keys.length;
+      return keys[next];
+    }
+  }
+
+  @Benchmark
+  public void checkAttempt(Cursor cursor) {
+    authRateLimiter.checkAttempt(cursor.nextKey(activeKeys), null);
+  }
+}
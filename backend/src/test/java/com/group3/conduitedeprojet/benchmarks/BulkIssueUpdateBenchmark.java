@@ -0,0 +1,141 @@
+package com.group3.conduitedeprojet.benchmarks;
+
+import com.group3.conduitedeprojet.ConduitedeprojetApplication;
+import com.group3.conduitedeprojet.dto.BulkUpdateIssuesRequest;
+import com.group3.conduitedeprojet.dto.BulkUpdateIssuesResponse;
+import com.group3.conduitedeprojet.dto.CreateIssueRequest;
+import com.group3.conduitedeprojet.dto.CreateProjectRequest;
+import com.group3.conduitedeprojet.dto.IssueDto;
+import com.group3.conduitedeprojet.dto.IssuePatch;
+import com.group3.conduitedeprojet.dto.UpdateIssueRequest;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import com.group3.conduitedeprojet.services.IssueService;
+import com.group3.conduitedeprojet.services.ProjectService;
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Time to change the status and priority of every issue of a project, with one {@link
+ * IssueService#updateIssue} call per issue or with a single {@link IssueService#updateIssues} call.
+ *
+ * <p>Needs a running PostgreSQL database, configured through the usual {@code POSTGRES_URL}, {@code
+ * POSTGRES_USER} and {@code POSTGRES_PASSWORD} variables. Rows are left in the database.
+ *
+ * <p>Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjdk.jmh.Main BulkIssueUpdateBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BulkIssueUpdateBenchmark {
+
+  @Param({"100", "1000"})
+  private int issues;
+
+  private ConfigurableApplicationContext context;
+
+  private IssueService issueService;
+
+  private UUID projectId;
+
+  private Principal principal;
+
+  private List<Long> issueIds;
+
+  private int round;
+
+  @Setup
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(ConduitedeprojetApplication.class)
+            .run(
+                "--server.port=0",
+                "--security.jwt.secret-key=5St66hi6E8M7oRbgHLpZT/VZgErpyKQXZMhUtAfHr6Y=",
+                "--logging.level.root=WARN");
+    issueService = context.getBean(IssueService.class);
+
+    String email = "bench-" + UUID.randomUUID() + "@example.com";
+    User user =
+        context
+            .getBean(UserRepository.class)
+            .save(User.builder().email(email).password("x").name("Bench").enabled(true).build());
+    principal = () -> email;
+
+    CreateProjectRequest createProjectRequest =
+        CreateProjectRequest.builder().name("Bulk update benchmark").user(user.toUserDto()).build();
+    Project project = context.getBean(ProjectService.class).createProject(createProjectRequest);
+    projectId = project.getId();
+
+    List<CreateIssueRequest> requests =
+        IntStream.range(0, issues)
+            .mapToObj(
+                i ->
+                    CreateIssueRequest.builder()
+                        .title("Issue " + i)
+                        .priority(Issue.Priority.MEDIUM)
+                        .storyPoints(i % 13)
+                        .status(Issue.Status.TODO)
+                        .build())
+            .toList();
+    issueIds =
+        issueService.createIssues(projectId, requests, principal).stream()
+            .map(IssueDto::getId)
+            .toList();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int updateOneByOne() {
+    Issue.Status status = nextStatus();
+    for (Long issueId : issueIds) {
+      UpdateIssueRequest request = new UpdateIssueRequest();
+      request.setStatus(status);
+      request.setPriority(Issue.Priority.HIGH);
+      issueService.updateIssue(projectId, issueId, request, null, principal);
+    }
+    return issueIds.size();
+  }
+
+  @Benchmark
+  public BulkUpdateIssuesResponse updateInBulk() {
+    BulkUpdateIssuesRequest request =
+        BulkUpdateIssuesRequest.builder()
+            .issueIds(issueIds)
+            .patch(IssuePatch.builder().status(nextStatus()).priority(Issue.Priority.HIGH).build())
+            .build();
+    return issueService.updateIssues(projectId, request, principal);
+  }
+
+  /** Changes the status at every call, so that each update writes the rows. */
+  private Issue.Status nextStatus() {
+    Issue.Status[] statuses = Issue.Status.values();
+    return statuses[round++ % statuses.length];
+  }
+}
@@ -0,0 +1,118 @@
+package com.group3.conduitedeprojet.benchmarks;
+
+import com.group3.conduitedeprojet.ConduitedeprojetApplication;
+import com.group3.conduitedeprojet.dto.CreateIssueRequest;
+import com.group3.conduitedeprojet.dto.CreateProjectRequest;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import com.group3.conduitedeprojet.services.IssueService;
+import com.group3.conduitedeprojet.services.ProjectService;
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Issue insertion rate, in rows per second, through {@link IssueService}: one {@code createIssue}
+ * call per row against a single {@code createIssues} call for the whole list.
+ *
+ * <p>Needs a running PostgreSQL database, configured through the usual {@code POSTGRES_URL}, {@code
+ * POSTGRES_USER} and {@code POSTGRES_PASSWORD} variables. Rows are left in the database.
+ *
+ * <p>Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjdk.jmh.Main IssueInsertBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class IssueInsertBenchmark {
+
+  private static final int ROWS = 1000;
+
+  private ConfigurableApplicationContext context;
+
+  private IssueService issueService;
+
+  private UUID projectId;
+
+  private Principal principal;
+
+  private List<CreateIssueRequest> requests;
+
+  @Setup
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(ConduitedeprojetApplication.class)
+            .run(
+                "--server.port=0",
+                "--security.jwt.secret-key=5St66hi6E8M7oRbgHLpZT/VZgErpyKQXZMhUtAfHr6Y=",
+                "--logging.level.root=WARN");
+    issueService = context.getBean(IssueService.class);
+
+    String email = "bench-" + UUID.randomUUID() + "@example.com";
+    User user =
+        context
+            .getBean(UserRepository.class)
+            .save(User.builder().email(email).password("x").name("Bench").enabled(true).build());
+    principal = () -> email;
+
+    CreateProjectRequest createProjectRequest =
+        CreateProjectRequest.builder().name("Insert benchmark").user(user.toUserDto()).build();
+    Project project = context.getBean(ProjectService.class).createProject(createProjectRequest);
+    projectId = project.getId();
+
+    requests =
+        IntStream.range(0, ROWS)
+            .mapToObj(
+                i ->
+                    CreateIssueRequest.builder()
+                        .title("Issue " + i)
+                        .description("Inserted by the benchmark")
+                        .priority(Issue.Priority.MEDIUM)
+                        .storyPoints(i % 13)
+                        .status(Issue.Status.TODO)
+                        .build())
+            .toList();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public Object oneInsertPerRow() {
+    Object last = null;
+    for (CreateIssueRequest request : requests) {
+      last = issueService.createIssue(projectId, request, principal);
+    }
+    return last;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(ROWS)
+  public Object batchedInsert() {
+    return issueService.createIssues(projectId, requests, principal);
+  }
+}
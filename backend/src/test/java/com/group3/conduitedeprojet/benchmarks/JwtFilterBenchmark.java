@@ -0,0 +1,113 @@
+package com.group3.conduitedeprojet.benchmarks;
+
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.security.JwtFilter;
+import com.group3.conduitedeprojet.services.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Per-request cost of the JWT authentication filter.
+ *
+ * <p>{@code legacyFilter} reproduces the previous pipeline (key and parser rebuilt on every call,
+ * token parsed twice, user loaded through the {@link UserDetailsService}), {@code jwtFilter} runs
+ * the current {@link JwtFilter}. The user lookup is stubbed in memory, so the database round trip
+ * the legacy path used to pay comes on top of the measured difference.
+ *
+ * <p>Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjdk.jmh.Main JwtFilterBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+  private static final String SECRET_KEY = "5St66hi6E8M7oRbgHLpZT/VZgErpyKQXZMhUtAfHr6Y=";
+
+  private static final FilterChain NOOP_CHAIN = (request, response) -> {};
+
+  private final User user =
+      User.builder().id(1L).email("bench@example.com").password("x").name("Bench").build();
+
+  private final UserDetailsService userDetailsService = username -> user;
+
+  private JwtFilter jwtFilter;
+
+  private String authorizationHeader;
+
+  @Setup
+  public void setUp() {
+    JwtService jwtService = new JwtService();
+    ReflectionTestUtils.setField(jwtService, "secretKey", SECRET_KEY);
+    ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 3_600_000L);
+    ReflectionTestUtils.invokeMethod(jwtService, "init");
+
+    jwtFilter = new JwtFilter();
+    ReflectionTestUtils.setField(jwtFilter, "jwtService", jwtService);
+    ReflectionTestUtils.setField(jwtFilter, "userDetailsService", userDetailsService);
+
+    authorizationHeader = "Bearer " + jwtService.generateToken(user);
+  }
+
+  @Benchmark
+  public Object jwtFilter() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects");
+    request.addHeader("Authorization", authorizationHeader);
+    jwtFilter.doFilter(request, new MockHttpServletResponse(), NOOP_CHAIN);
+    return clearAuthentication();
+  }
+
+  @Benchmark
+  public Object legacyFilter() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects");
+    request.addHeader("Authorization", authorizationHeader);
+    String jwt = request.getHeader("Authorization").substring(7);
+    String username = legacyParse(jwt).getSubject();
+    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+    if (legacyParse(jwt).getSubject().equals(userDetails.getUsername())) {
+      SecurityContextHolder.getContext()
+          .setAuthentication(
+              new UsernamePasswordAuthenticationToken(
+                  userDetails, null, userDetails.getAuthorities()));
+    }
+    return clearAuthentication();
+  }
+
+  private static Claims legacyParse(String token) {
+    return Jwts.parser()
+        .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY)))
+        .build()
+        .parseSignedClaims(token)
+        .getPayload();
+  }
+
+  private static Object clearAuthentication() {
+    Object authentication = SecurityContextHolder.getContext().getAuthentication();
+    SecurityContextHolder.clearContext();
+    return authentication;
+  }
+}
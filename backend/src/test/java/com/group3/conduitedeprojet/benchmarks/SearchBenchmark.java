@@ -0,0 +1,128 @@
+package com.group3.conduitedeprojet.benchmarks;
+
+import com.group3.conduitedeprojet.ConduitedeprojetApplication;
+import com.group3.conduitedeprojet.dto.CreateProjectRequest;
+import com.group3.conduitedeprojet.dto.SearchPageDto;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import com.group3.conduitedeprojet.services.ProjectService;
+import com.group3.conduitedeprojet.services.SearchService;
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Time to get the first page of a search in a project of a million issues, through {@link
+ * SearchService}. Each issue title holds a term shared by 0.1% of the issues and a topic shared by
+ * 5% of them, so the queries cover a selective term, a frequent one and a phrase.
+ *
+ * <p>Needs a running PostgreSQL database, configured through the usual {@code POSTGRES_URL}, {@code
+ * POSTGRES_USER} and {@code POSTGRES_PASSWORD} variables. The dataset is inserted by the first run,
+ * in about a minute, and kept for the following ones.
+ *
+ * <p>Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjdk.jmh.Main SearchBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+  private static final int ISSUES = 1_000_000;
+
+  private static final String PROJECT_NAME = "Search benchmark " + ISSUES;
+
+  private static final String EMAIL = "search-bench@example.com";
+
+  @Param({"term42", "topic7", "\"topic7 term47\""})
+  private String query;
+
+  private ConfigurableApplicationContext context;
+
+  private SearchService searchService;
+
+  private UUID projectId;
+
+  private Principal principal;
+
+  @Setup
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(ConduitedeprojetApplication.class)
+            .run(
+                "--server.port=0",
+                "--security.jwt.secret-key=5St66hi6E8M7oRbgHLpZT/VZgErpyKQXZMhUtAfHr6Y=",
+                "--logging.level.root=WARN");
+    searchService = context.getBean(SearchService.class);
+    principal = () -> EMAIL;
+
+    JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+    List<UUID> existing =
+        jdbcTemplate.queryForList(
+            "SELECT id FROM project WHERE name = ?", UUID.class, PROJECT_NAME);
+    projectId = existing.isEmpty() ? createDataset(jdbcTemplate) : existing.get(0);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public SearchPageDto firstPage() {
+    return searchService.search(projectId, query, null, 20, principal);
+  }
+
+  private UUID createDataset(JdbcTemplate jdbcTemplate) {
+    UserRepository userRepository = context.getBean(UserRepository.class);
+    User user =
+        userRepository
+            .findByEmail(EMAIL)
+            .orElseGet(
+                () ->
+                    userRepository.save(
+                        User.builder()
+                            .email(EMAIL)
+                            .password("x")
+                            .name("Bench")
+                            .enabled(true)
+                            .build()));
+    Project project =
+        context
+            .getBean(ProjectService.class)
+            .createProject(
+                CreateProjectRequest.builder().name(PROJECT_NAME).user(user.toUserDto()).build());
+
+    jdbcTemplate.update(
+        "INSERT INTO issues (id, title, description, priority, status, story_points, project_id,"
+            + " creator_id, created_at)"
+            + " SELECT nextval('issues_seq'), 'Issue ' || n || ' term' || (n % 1000)"
+            + " || ' topic' || (n % 20), 'Description of issue ' || n || ' in area' || (n % 50)"
+            + " || ' with detail' || (n % 10007), n % 3, n % 3, n % 13, ?, ?,"
+            + " now() - n * interval '1 second'"
+            + " FROM generate_series(1, ?) AS n",
+        project.getId(), user.getId(), ISSUES);
+    jdbcTemplate.execute("ANALYZE issues");
+    return project.getId();
+  }
+}
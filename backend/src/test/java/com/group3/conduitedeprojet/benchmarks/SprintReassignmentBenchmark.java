@@ -0,0 +1,180 @@
+package com.group3.conduitedeprojet.benchmarks;
+
+import com.group3.conduitedeprojet.ConduitedeprojetApplication;
+import com.group3.conduitedeprojet.dto.CreateIssueRequest;
+import com.group3.conduitedeprojet.dto.CreateProjectRequest;
+import com.group3.conduitedeprojet.dto.CreateSprintRequest;
+import com.group3.conduitedeprojet.dto.IssueDto;
+import com.group3.conduitedeprojet.dto.SprintDto;
+import com.group3.conduitedeprojet.dto.UpdateSprintRequest;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import com.group3.conduitedeprojet.services.IssueService;
+import com.group3.conduitedeprojet.services.ProjectService;
+import com.group3.conduitedeprojet.services.SprintService;
+import jakarta.persistence.EntityManagerFactory;
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Time to move every issue of a sprint and to create then delete a sprint through {@link
+ * SprintService}, for a small and a large sprint. The {@code statementsPerCall} counter reports the
+ * SQL statements of one call, it does not grow with the number of issues.
+ *
+ * <p>Needs a running PostgreSQL database, configured through the usual {@code POSTGRES_URL}, {@code
+ * POSTGRES_USER} and {@code POSTGRES_PASSWORD} variables. Rows are left in the database.
+ *
+ * <p>Run with {@code mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * "-Dexec.args=-cp %classpath org.openjdk.jmh.Main SprintReassignmentBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class SprintReassignmentBenchmark {
+
+  @Param({"10", "500"})
+  private int issues;
+
+  private ConfigurableApplicationContext context;
+
+  private SprintService sprintService;
+
+  private Statistics statistics;
+
+  private UUID projectId;
+
+  private Principal principal;
+
+  private List<Long> issueIds;
+
+  private Long sprintId;
+
+  /** SQL statements run by the calls of the current iteration. */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Statements {
+
+    private long statements;
+
+    private long calls;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      statements = 0;
+      calls = 0;
+    }
+
+    public double statementsPerCall() {
+      return calls == 0 ? 0 : (double) statements / calls;
+    }
+  }
+
+  @Setup
+  public void setUp() {
+    context =
+        new SpringApplicationBuilder(ConduitedeprojetApplication.class)
+            .run(
+                "--server.port=0",
+                "--security.jwt.secret-key=5St66hi6E8M7oRbgHLpZT/VZgErpyKQXZMhUtAfHr6Y=",
+                "--logging.level.root=WARN");
+    sprintService = context.getBean(SprintService.class);
+    statistics =
+        context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+
+    String email = "bench-" + UUID.randomUUID() + "@example.com";
+    User user =
+        context
+            .getBean(UserRepository.class)
+            .save(User.builder().email(email).password("x").name("Bench").enabled(true).build());
+    principal = () -> email;
+
+    CreateProjectRequest createProjectRequest =
+        CreateProjectRequest.builder().name("Sprint benchmark").user(user.toUserDto()).build();
+    Project project = context.getBean(ProjectService.class).createProject(createProjectRequest);
+    projectId = project.getId();
+
+    List<CreateIssueRequest> requests =
+        IntStream.range(0, issues)
+            .mapToObj(
+                i ->
+                    CreateIssueRequest.builder()
+                        .title("Issue " + i)
+                        .priority(Issue.Priority.MEDIUM)
+                        .storyPoints(i % 13)
+                        .status(Issue.Status.TODO)
+                        .build())
+            .toList();
+    issueIds =
+        context.getBean(IssueService.class).createIssues(projectId, requests, principal).stream()
+            .map(IssueDto::getId)
+            .toList();
+    sprintId = sprintService.createSprint(projectId, sprintRequest(), principal).getId();
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public SprintDto reassignIssues(Statements counter) {
+    UpdateSprintRequest request = new UpdateSprintRequest();
+    request.setIssueIds(issueIds);
+
+    long before = statistics.getPrepareStatementCount();
+    SprintDto sprint = sprintService.updateSprint(projectId, sprintId, request, null, principal);
+    record(counter, before);
+    return sprint;
+  }
+
+  @Benchmark
+  public Long createAndDeleteSprint(Statements counter) {
+    long before = statistics.getPrepareStatementCount();
+    Long created = sprintService.createSprint(projectId, sprintRequest(), principal).getId();
+    sprintService.deleteSprint(projectId, created, principal);
+    record(counter, before);
+    return created;
+  }
+
+  private void record(Statements counter, long before) {
+    counter.statements += statistics.getPrepareStatementCount() - before;
+    counter.calls++;
+  }
+
+  private CreateSprintRequest sprintRequest() {
+    CreateSprintRequest request = new CreateSprintRequest();
+    request.setName("Benchmark sprint");
+    request.setStartDate(LocalDateTime.now());
+    request.setEndDate(LocalDateTime.now().plusDays(14));
+    request.setIssueIds(issueIds);
+    return request;
+  }
+}
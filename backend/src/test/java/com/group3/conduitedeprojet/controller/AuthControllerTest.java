@@ -1,14 +1,33 @@
 package com.group3.conduitedeprojet.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.dto.RefreshTokenRequest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MvcResult;
 
 public class AuthControllerTest extends IntegrationTestWithDatabase {
 
+  @Autowired JdbcTemplate jdbcTemplate;
+
   @Test
   public void testRegisterShouldReturnAuthResponse() throws Exception {
     var req =
@@ -84,4 +103,150 @@ public class AuthControllerTest extends IntegrationTestWithDatabase {
         .andExpect(status().isUnauthorized())
         .andExpect(jsonPath("$.error").value("INVALID_CREDENTIALS"));
   }
+
+  @Test
+  public void testRefreshTokenRotation() throws Exception {
+    var registered = register("dave@example.com", "password123", "Dave");
+
+    var refreshReq = new RefreshTokenRequest(registered.getRefreshToken());
+    var mvcRes =
+        mockMvc
+            .perform(
+                post("/api/auth/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(refreshReq)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.email").value("dave@example.com"))
+            .andExpect(jsonPath("$.token").isNotEmpty())
+            .andExpect(jsonPath("$.refreshToken").isNotEmpty())
+            .andReturn();
+    var refreshed =
+        objectMapper.readValue(mvcRes.getResponse().getContentAsString(), AuthResponse.class);
+
+    mockMvc
+        .perform(get("/api/projects").header("Authorization", "Bearer " + refreshed.getToken()))
+        .andExpect(status().isOk());
+
+    // Presented again right after its rotation, as by concurrent requests, it gets the same token
+    mockMvc
+        .perform(
+            post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshReq)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.refreshToken").value(refreshed.getRefreshToken()));
+
+    mockMvc
+        .perform(get("/api/projects").header("Authorization", "Bearer " + refreshed.getToken()))
+        .andExpect(status().isOk());
+
+    // Presenting a consumed refresh token again after the grace period revokes the whole session
+    jdbcTemplate.update(
+        "UPDATE refresh_tokens SET used_at = used_at - interval '1 hour'"
+            + " WHERE user_id = ? AND used_at IS NOT NULL",
+        registered.getId());
+    mockMvc
+        .perform(
+            post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(refreshReq)))
+        .andExpect(status().isUnauthorized())
+        .andExpect(jsonPath("$.error").value("INVALID_REFRESH_TOKEN"));
+
+    mockMvc
+        .perform(get("/api/projects").header("Authorization", "Bearer " + refreshed.getToken()))
+        .andExpect(status().isUnauthorized());
+
+    mockMvc
+        .perform(
+            post("/api/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        new RefreshTokenRequest(refreshed.getRefreshToken()))))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  public void testConcurrentRefreshesShareTheRotation() throws Exception {
+    var registered = register("dana@example.com", "password123", "Dana");
+    String body =
+        objectMapper.writeValueAsString(new RefreshTokenRequest(registered.getRefreshToken()));
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<MvcResult>> refreshes = new ArrayList<>();
+    try {
+      for (int i = 0; i < 4; i++) {
+        refreshes.add(
+            executor.submit(
+                () ->
+                    mockMvc
+                        .perform(
+                            post("/api/auth/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andReturn()));
+      }
+      Set<String> refreshTokens = new HashSet<>();
+      for (Future<MvcResult> refresh : refreshes) {
+        MockHttpServletResponse response = refresh.get(30, TimeUnit.SECONDS).getResponse();
+        assertEquals(200, response.getStatus(), response.getContentAsString());
+        refreshTokens.add(
+            objectMapper
+                .readValue(response.getContentAsString(), AuthResponse.class)
+                .getRefreshToken());
+      }
+      assertEquals(1, refreshTokens.size());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    mockMvc
+        .perform(get("/api/projects").header("Authorization", "Bearer " + registered.getToken()))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  public void testLogoutRevokesAccessToken() throws Exception {
+    var registered = register("erin@example.com", "password123", "Erin");
+
+    mockMvc
+        .perform(
+            post("/api/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        new RefreshTokenRequest(registered.getRefreshToken()))))
+        .andExpect(status().isNoContent());
+
+    mockMvc
+        .perform(get("/api/projects").header("Authorization", "Bearer " + registered.getToken()))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  public void testRepeatedLoginAttemptsAreThrottled() throws Exception {
+    register("frank@example.com", "password123", "Frank");
+
+    var badLogin =
+        new com.group3.conduitedeprojet.dto.LoginRequest("frank@example.com", "wrongpassword");
+    // The registration used one of the attempts allowed for this email
+    for (int i = 0; i < 4; i++) {
+      mockMvc
+          .perform(
+              post("/api/auth/login")
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(objectMapper.writeValueAsString(badLogin)))
+          .andExpect(status().isUnauthorized());
+    }
+
+    mockMvc
+        .perform(
+            post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(badLogin)))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().exists("Retry-After"))
+        .andExpect(jsonPath("$.error").value("TOO_MANY_REQUESTS"));
+  }
 }
@@ -0,0 +1,102 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * Migrates a database created by Hibernate from the baseline entities, the way existing deployments
+ * are upgraded: baselined at V1, which they skip.
+ */
+public class BaselineMigrationTest extends IntegrationTestWithDatabase {
+
+  private static final String DATABASE = "baseline_check";
+
+  @BeforeEach
+  void setUp() throws Exception {
+    String schema =
+        new ClassPathResource("schema/baseline_hibernate.sql")
+            .getContentAsString(StandardCharsets.UTF_8);
+    // A database of its own, so that no table of the application schema can stand in
+    try (Connection connection = connect(postgres.getJdbcUrl());
+        Statement statement = connection.createStatement()) {
+      statement.execute("DROP DATABASE IF EXISTS " + DATABASE);
+      statement.execute("CREATE DATABASE " + DATABASE);
+    }
+    try (Connection connection = connect(url());
+        Statement statement = connection.createStatement()) {
+      statement.execute(schema);
+      statement.execute(
+          "INSERT INTO users (email, name, password)"
+              + " SELECT 'user' || g || '@example.com', 'User', 'hash'"
+              + " FROM generate_series(1, 120) g");
+      statement.execute(
+          "INSERT INTO project (id, name, creator_id, created_at)"
+              + " VALUES (gen_random_uuid(), 'Project', 1, now())");
+      statement.execute("INSERT INTO project_user (user_id, project_id) SELECT 2, id FROM project");
+      statement.execute(
+          "INSERT INTO issues (title, priority, status, story_points, project_id, creator_id,"
+              + " created_at) SELECT 'Issue', 0, 0, 1, id, 1, now() FROM project");
+    }
+  }
+
+  @AfterEach
+  void dropDatabase() throws Exception {
+    try (Connection connection = connect(postgres.getJdbcUrl());
+        Statement statement = connection.createStatement()) {
+      statement.execute("DROP DATABASE IF EXISTS " + DATABASE);
+    }
+  }
+
+  @Test
+  void baselined_database_runs_the_remaining_migrations() throws Exception {
+    Flyway flyway =
+        Flyway.configure()
+            .dataSource(url(), postgres.getUsername(), postgres.getPassword())
+            .baselineOnMigrate(true)
+            .baselineVersion("1")
+            .load();
+
+    MigrateResult result = flyway.migrate();
+
+    assertTrue(result.success);
+    assertEquals(0, flyway.info().pending().length);
+    try (Connection connection = connect(url());
+        Statement statement = connection.createStatement()) {
+      assertTrue(queryLong(statement, "SELECT nextval('users_seq')") > 120);
+      assertTrue(queryLong(statement, "SELECT nextval('refresh_tokens_seq')") > 0);
+      assertEquals(0, queryLong(statement, "SELECT count(*) FROM refresh_tokens"));
+      assertEquals(
+          1,
+          queryLong(
+              statement,
+              "SELECT count(*) FROM pg_indexes WHERE indexname = 'idx_project_user_user_id'"));
+    }
+  }
+
+  private static long queryLong(Statement statement, String sql) throws Exception {
+    try (ResultSet rs = statement.executeQuery(sql)) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private static String url() {
+    return postgres.getJdbcUrl().replace("/conduitedeprojet_db", "/" + DATABASE);
+  }
+
+  private static Connection connect(String url) throws Exception {
+    return DriverManager.getConnection(url, postgres.getUsername(), postgres.getPassword());
+  }
+}
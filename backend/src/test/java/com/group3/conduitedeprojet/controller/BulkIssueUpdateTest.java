@@ -0,0 +1,279 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.IssueRepository;
+import com.group3.conduitedeprojet.repositories.ProjectRepository;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Checks the bulk update of issues, and that its cost does not grow with the number of issues. */
+public class BulkIssueUpdateTest extends IntegrationTestWithDatabase {
+
+  @Autowired EntityManagerFactory entityManagerFactory;
+
+  @Autowired UserRepository userRepository;
+
+  @Autowired ProjectRepository projectRepository;
+
+  @Autowired IssueRepository issueRepository;
+
+  private String token;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    AuthResponse auth =
+        register("bulk-" + UUID.randomUUID() + "@example.com", "password123", "Triager");
+    token = auth.getToken();
+    user = userRepository.findById(auth.getId()).orElseThrow();
+  }
+
+  @Test
+  void listed_issues_are_updated_and_unknown_ones_reported() throws Exception {
+    Fixture fixture = createFixture(3);
+    Fixture other = createFixture(1);
+    Long foreignId = other.issueIds().get(0);
+    List<Long> issueIds = List.of(fixture.issueIds().get(1), foreignId, fixture.issueIds().get(0));
+
+    bulkUpdate(
+            fixture,
+            Map.of(
+                "issueIds",
+                issueIds,
+                "patch",
+                Map.of("status", "CLOSED", "priority", "HIGH", "assigneeId", user.getId())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updated").value(2))
+        .andExpect(jsonPath("$.results[0].issueId").value(issueIds.get(0)))
+        .andExpect(jsonPath("$.results[0].outcome").value("UPDATED"))
+        .andExpect(jsonPath("$.results[0].version").value(1))
+        .andExpect(jsonPath("$.results[1].issueId").value(foreignId))
+        .andExpect(jsonPath("$.results[1].outcome").value("NOT_FOUND"))
+        .andExpect(jsonPath("$.results[2].outcome").value("UPDATED"));
+
+    Issue updated = issueRepository.findById(fixture.issueIds().get(0)).orElseThrow();
+    assertEquals(Issue.Status.CLOSED, updated.getStatus());
+    assertEquals(Issue.Priority.HIGH, updated.getPriority());
+    assertEquals(1L, updated.getVersion());
+    assertEquals(
+        Issue.Status.TODO,
+        issueRepository.findById(fixture.issueIds().get(2)).orElseThrow().getStatus());
+    assertEquals(Issue.Status.TODO, issueRepository.findById(foreignId).orElseThrow().getStatus());
+  }
+
+  @Test
+  void filtered_issues_are_moved_to_a_sprint_and_a_release() throws Exception {
+    Fixture fixture = createFixture(4);
+    String projectUrl = "/api/projects/" + fixture.projectId();
+    Long sprintId =
+        Long.valueOf(
+            postForId(
+                projectUrl + "/sprints",
+                Map.of(
+                    "name",
+                    "Sprint",
+                    "startDate",
+                    "2025-01-01T00:00:00",
+                    "endDate",
+                    "2025-01-15T00:00:00")));
+    Long releaseId =
+        Long.valueOf(
+            postForId(
+                projectUrl + "/releases",
+                Map.of(
+                    "version",
+                    Map.of("major", 1, "minor", 0, "patch", 0),
+                    "issueIds",
+                    List.of(fixture.issueIds().get(0)))));
+
+    bulkUpdate(
+            fixture,
+            Map.of(
+                "filter",
+                Map.of("status", "TODO"),
+                "patch",
+                Map.of("sprintId", sprintId, "releaseId", releaseId)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updated").value(4))
+        .andExpect(jsonPath("$.results[0].issueId").value(fixture.issueIds().get(0)));
+
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/sprints/" + sprintId)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.issueIds.length()").value(4));
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/releases")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].issueIds.length()").value(4));
+
+    bulkUpdate(
+            fixture,
+            Map.of(
+                "issueIds",
+                fixture.issueIds(),
+                "patch",
+                Map.of("clearSprint", true, "clearRelease", true)))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/releases")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].issueIds.length()").value(0));
+    assertEquals(0, issueRepository.findBySprintIdOrderByIdAsc(sprintId).size());
+  }
+
+  @Test
+  void invalid_requests_change_nothing() throws Exception {
+    Fixture fixture = createFixture(2);
+    Fixture other = createFixture(1);
+    String otherProjectUrl = "/api/projects/" + other.projectId();
+    Long foreignSprintId =
+        Long.valueOf(
+            postForId(
+                otherProjectUrl + "/sprints",
+                Map.of(
+                    "name",
+                    "Sprint",
+                    "startDate",
+                    "2025-01-01T00:00:00",
+                    "endDate",
+                    "2025-01-15T00:00:00")));
+
+    bulkUpdate(fixture, Map.of("patch", Map.of("status", "CLOSED")))
+        .andExpect(status().isBadRequest());
+    bulkUpdate(
+            fixture,
+            Map.of(
+                "issueIds",
+                fixture.issueIds(),
+                "patch",
+                Map.of("sprintId", foreignSprintId, "clearSprint", true)))
+        .andExpect(status().isBadRequest());
+    bulkUpdate(fixture, Map.of("issueIds", fixture.issueIds(), "patch", Map.of()))
+        .andExpect(status().isBadRequest());
+    bulkUpdate(
+            fixture,
+            Map.of("issueIds", fixture.issueIds(), "patch", Map.of("sprintId", foreignSprintId)))
+        .andExpect(status().isNotFound());
+    bulkUpdate(fixture, Map.of("issueIds", fixture.issueIds(), "patch", Map.of("releaseId", -1L)))
+        .andExpect(status().isNotFound());
+
+    for (Long issueId : fixture.issueIds()) {
+      assertEquals(0L, issueRepository.findById(issueId).orElseThrow().getVersion());
+    }
+  }
+
+  @Test
+  void bulk_update_runs_a_constant_number_of_statements() throws Exception {
+    Fixture small = createFixture(2);
+    Fixture large = createFixture(60);
+
+    assertEquals(countStatements(small), countStatements(large));
+    assertEquals(
+        60,
+        issueRepository.findByProjectIdOrderByCreatedAtAscIdAsc(large.projectId()).stream()
+            .filter(issue -> issue.getStatus() == Issue.Status.IN_PROGRESS)
+            .count());
+  }
+
+  private long countStatements(Fixture fixture) throws Exception {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+    // Fills the caches in front of the database before measuring
+    mockMvc
+        .perform(authenticated(get("/api/projects/" + fixture.projectId() + "/issues")))
+        .andExpect(status().isOk());
+    statistics.clear();
+    bulkUpdate(
+            fixture,
+            Map.of(
+                "issueIds",
+                fixture.issueIds(),
+                "patch",
+                Map.of("status", "IN_PROGRESS", "clearAssignee", true)))
+        .andExpect(status().isOk());
+    return statistics.getPrepareStatementCount();
+  }
+
+  private ResultActions bulkUpdate(Fixture fixture, Object body) throws Exception {
+    return mockMvc.perform(
+        authenticated(patch("/api/projects/" + fixture.projectId() + "/issues/bulk"))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(body)));
+  }
+
+  /** Creates a project with {@code size} issues to do. */
+  private Fixture createFixture(int size) throws Exception {
+    var projectBody =
+        Map.of(
+            "name",
+            "Project " + size,
+            "description",
+            "desc",
+            "user",
+            Map.of("id", user.getId(), "email", user.getEmail()));
+    UUID projectId = UUID.fromString(postForId("/api/projects", projectBody));
+    Project project = projectRepository.findById(projectId).orElseThrow();
+
+    List<Long> issueIds =
+        issueRepository
+            .saveAll(
+                IntStream.range(0, size)
+                    .mapToObj(
+                        i ->
+                            Issue.builder()
+                                .title("Issue " + i)
+                                .priority(Issue.Priority.MEDIUM)
+                                .storyPoints(1)
+                                .project(project)
+                                .creator(user)
+                                .build())
+                    .toList())
+            .stream()
+            .map(Issue::getId)
+            .toList();
+    return new Fixture(projectId, issueIds);
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + token);
+  }
+
+  private record Fixture(UUID projectId, List<Long> issueIds) {}
+}
@@ -0,0 +1,225 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Checks the ETags of the versioned entities, on conditional GETs and conditional updates. */
+public class ConditionalRequestTest extends IntegrationTestWithDatabase {
+
+  private AuthResponse owner;
+
+  private String projectUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    owner = register("etag-" + UUID.randomUUID() + "@example.com", "password123", "Owner");
+    var projectBody =
+        Map.of(
+            "name",
+            "Versioned project",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail()));
+    projectUrl = "/api/projects/" + postForId("/api/projects", projectBody);
+  }
+
+  @Test
+  void unchanged_issue_is_not_sent_again() throws Exception {
+    String issueUrl = projectUrl + "/issues/" + postForId(projectUrl + "/issues", issueBody());
+
+    String etag = etag(authenticated(get(issueUrl)));
+    assertEquals("\"0\"", etag);
+    mockMvc
+        .perform(authenticated(get(issueUrl)).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    String updated = etag(update(issueUrl, Map.of("title", "Renamed"), null));
+    assertEquals("\"1\"", updated);
+    mockMvc
+        .perform(authenticated(get(issueUrl)).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, updated))
+        .andExpect(jsonPath("$.title").value("Renamed"))
+        .andExpect(jsonPath("$.version").value(1));
+  }
+
+  @Test
+  void stale_issue_update_is_rejected() throws Exception {
+    String issueUrl = projectUrl + "/issues/" + postForId(projectUrl + "/issues", issueBody());
+    String etag = etag(authenticated(get(issueUrl)));
+
+    mockMvc.perform(update(issueUrl, Map.of("title", "First"), etag)).andExpect(status().isOk());
+    mockMvc
+        .perform(update(issueUrl, Map.of("title", "Second"), etag))
+        .andExpect(status().isPreconditionFailed())
+        .andExpect(jsonPath("$.error").value("PRECONDITION_FAILED"));
+
+    mockMvc
+        .perform(authenticated(get(issueUrl)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("First"));
+  }
+
+  @Test
+  void issue_listing_is_revalidated() throws Exception {
+    postForId(projectUrl + "/issues", issueBody());
+    String issuesUrl = projectUrl + "/issues";
+    String etag = etag(authenticated(get(issuesUrl)));
+
+    mockMvc
+        .perform(authenticated(get(issuesUrl)).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    postForId(issuesUrl, issueBody());
+    mockMvc
+        .perform(authenticated(get(issuesUrl)).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2));
+  }
+
+  @Test
+  void issue_listing_changes_when_an_issue_is_replaced() throws Exception {
+    String issuesUrl = projectUrl + "/issues";
+    String deletedId = postForId(issuesUrl, issueBody());
+    String etag = etag(authenticated(get(issuesUrl)));
+
+    mockMvc
+        .perform(authenticated(delete(issuesUrl + "/" + deletedId)))
+        .andExpect(status().is2xxSuccessful());
+    String createdId = postForId(issuesUrl, issueBody());
+
+    // Same count, and the new issue starts at the version of the deleted one
+    mockMvc
+        .perform(authenticated(get(issuesUrl)).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(Long.parseLong(createdId)));
+  }
+
+  @Test
+  void sprint_etag_follows_its_issues() throws Exception {
+    String issueId = postForId(projectUrl + "/issues", issueBody());
+    var sprintBody =
+        Map.of(
+            "name",
+            "Sprint",
+            "startDate",
+            "2025-01-01T00:00:00",
+            "endDate",
+            "2025-01-15T00:00:00",
+            "issueIds",
+            List.of(Long.valueOf(issueId)));
+    String sprintUrl = projectUrl + "/sprints/" + postForId(projectUrl + "/sprints", sprintBody);
+
+    String etag = etag(authenticated(get(sprintUrl)));
+    mockMvc
+        .perform(authenticated(get(sprintUrl)).header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified());
+
+    mockMvc
+        .perform(update(projectUrl + "/issues/" + issueId, Map.of("status", "CLOSED"), null))
+        .andExpect(status().isOk());
+    String closed = etag(authenticated(get(sprintUrl)));
+    assertNotEquals(etag, closed);
+
+    mockMvc
+        .perform(update(sprintUrl, Map.of("issueIds", List.of()), etag))
+        .andExpect(status().isPreconditionFailed());
+    String emptied = etag(update(sprintUrl, Map.of("issueIds", List.of()), closed));
+    assertEquals(emptied, etag(authenticated(get(sprintUrl))));
+  }
+
+  @Test
+  void task_and_documentation_updates_are_conditional() throws Exception {
+    String issueId = postForId(projectUrl + "/issues", issueBody());
+    String taskUrl =
+        projectUrl
+            + "/issues/"
+            + issueId
+            + "/tasks/"
+            + postForId(projectUrl + "/issues/" + issueId + "/tasks", Map.of("title", "Task"));
+    String taskTag = etag(authenticated(get(taskUrl)));
+    mockMvc
+        .perform(update(taskUrl, Map.of("title", "Renamed task"), taskTag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    mockMvc
+        .perform(update(taskUrl, Map.of("title", "Stale task"), taskTag))
+        .andExpect(status().isPreconditionFailed());
+
+    String docUrl =
+        projectUrl
+            + "/docs/"
+            + postForId(projectUrl + "/docs", Map.of("title", "Doc", "content", "Content"));
+    String docTag = etag(authenticated(get(docUrl)));
+    mockMvc
+        .perform(update(docUrl, Map.of("title", "Doc", "content", "Edited"), docTag))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+    mockMvc
+        .perform(update(docUrl, Map.of("title", "Doc", "content", "Stale"), docTag))
+        .andExpect(status().isPreconditionFailed());
+    mockMvc
+        .perform(authenticated(get(docUrl)).header(HttpHeaders.IF_NONE_MATCH, "\"1\""))
+        .andExpect(status().isNotModified());
+  }
+
+  private String etag(MockHttpServletRequestBuilder request) throws Exception {
+    return mockMvc
+        .perform(request)
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getHeader(HttpHeaders.ETAG);
+  }
+
+  private MockHttpServletRequestBuilder update(String url, Object body, String ifMatch)
+      throws Exception {
+    MockHttpServletRequestBuilder request =
+        authenticated(put(url))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(body));
+    return ifMatch != null ? request.header(HttpHeaders.IF_MATCH, ifMatch) : request;
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + owner.getToken());
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private static Map<String, Object> issueBody() {
+    return Map.of("title", "Issue", "storyPoints", 3, "priority", "LOW", "status", "TODO");
+  }
+}
@@ -0,0 +1,121 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Checks that each request checks out a single connection, for the whole of its transaction. */
+public class ConnectionCheckoutTest extends IntegrationTestWithDatabase {
+
+  @Autowired MeterRegistry meterRegistry;
+
+  private AuthResponse owner;
+
+  private String projectUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    owner = register("checkout-" + UUID.randomUUID() + "@example.com", "password123", "Owner");
+    var projectBody =
+        Map.of(
+            "name",
+            "Checkout project",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail()));
+    projectUrl = "/api/projects/" + postForId("/api/projects", projectBody);
+  }
+
+  @Test
+  void reads_check_out_one_connection() throws Exception {
+    String issueId = postForId(projectUrl + "/issues", issueBody("Issue"));
+
+    assertSingleCheckout(authenticated(get(projectUrl + "/issues")));
+    assertSingleCheckout(authenticated(get(projectUrl + "/issues/page")));
+    assertSingleCheckout(authenticated(get(projectUrl + "/sprints")));
+    assertSingleCheckout(authenticated(get(projectUrl + "/releases")));
+    assertSingleCheckout(authenticated(get(projectUrl + "/issues/" + issueId + "/tasks")));
+    assertSingleCheckout(authenticated(get("/api/users/" + owner.getId())));
+  }
+
+  @Test
+  void writes_check_out_one_connection() throws Exception {
+    assertSingleCheckout(
+        authenticated(post(projectUrl + "/issues"))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(issueBody("Created"))));
+
+    String issueId = postForId(projectUrl + "/issues", issueBody("Updated"));
+    assertSingleCheckout(
+        authenticated(put(projectUrl + "/issues/" + issueId))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(Map.of("title", "Renamed"))));
+    assertSingleCheckout(authenticated(delete(projectUrl + "/issues/" + issueId)));
+
+    assertSingleCheckout(
+        authenticated(post(projectUrl + "/sprints"))
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(
+                objectMapper.writeValueAsString(
+                    Map.of(
+                        "name",
+                        "Sprint",
+                        "startDate",
+                        "2025-01-01T00:00:00",
+                        "endDate",
+                        "2025-01-15T00:00:00"))));
+  }
+
+  private void assertSingleCheckout(RequestBuilder request) throws Exception {
+    long count = summary().map(DistributionSummary::count).orElse(0L);
+    double total = summary().map(DistributionSummary::totalAmount).orElse(0.0);
+
+    mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+
+    assertEquals(count + 1, summary().orElseThrow().count());
+    assertEquals(total + 1, summary().orElseThrow().totalAmount());
+  }
+
+  private Optional<DistributionSummary> summary() {
+    return Optional.ofNullable(meterRegistry.find("db.connection.checkouts").summary());
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + owner.getToken());
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private static Map<String, Object> issueBody(String title) {
+    return Map.of("title", title, "storyPoints", 1, "priority", "LOW", "status", "TODO");
+  }
+}
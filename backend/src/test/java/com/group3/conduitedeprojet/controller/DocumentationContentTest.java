@@ -0,0 +1,247 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Checks the summary listing of the documentation and the ranged, gzipped content endpoint. */
+public class DocumentationContentTest extends IntegrationTestWithDatabase {
+
+  private AuthResponse owner;
+
+  private String projectUrl;
+
+  private String page;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    owner = register("content-" + UUID.randomUUID() + "@example.com", "password123", "Reader");
+    projectUrl = "/api/projects/" + createProject();
+    StringBuilder builder = new StringBuilder("# Guide é\n");
+    for (int i = 0; i < 300; i++) {
+      builder.append("Paragraphe ").append(i).append(" du guide\n");
+    }
+    page = builder.toString();
+  }
+
+  @Test
+  void listing_has_the_size_and_hash_but_not_the_content() throws Exception {
+    postForId(projectUrl + "/docs", doc("Guide", page));
+
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/docs")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].title").value("Guide"))
+        .andExpect(jsonPath("$[0].size").value(page.getBytes(StandardCharsets.UTF_8).length))
+        .andExpect(jsonPath("$[0].contentHash").value(sha256(page)))
+        .andExpect(jsonPath("$[0].updatedAt").exists())
+        .andExpect(jsonPath("$[0].content").doesNotExist());
+  }
+
+  @Test
+  void content_is_gzipped_when_accepted() throws Exception {
+    String docUrl = projectUrl + "/docs/" + postForId(projectUrl + "/docs", doc("Guide", page));
+
+    for (int i = 0; i < 3; i++) {
+      MockHttpServletResponse response =
+          mockMvc
+              .perform(
+                  authenticated(get(docUrl + "/content"))
+                      .header("Accept-Encoding", "br, gzip;q=0.8"))
+              .andExpect(status().isOk())
+              .andExpect(header().string("Content-Encoding", "gzip"))
+              .andExpect(header().string("ETag", "\"" + sha256(page) + "-gzip\""))
+              .andExpect(header().stringValues("Vary", hasItem("Accept-Encoding")))
+              .andReturn()
+              .getResponse();
+      assertEquals(page, gunzip(response.getContentAsByteArray()));
+    }
+
+    // A new version has its own hash
+    update(docUrl, doc("Guide", page + "Fin\n"));
+    MockHttpServletResponse response =
+        mockMvc
+            .perform(authenticated(get(docUrl + "/content")).header("Accept-Encoding", "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"" + sha256(page + "Fin\n") + "-gzip\""))
+            .andReturn()
+            .getResponse();
+    assertEquals(page + "Fin\n", gunzip(response.getContentAsByteArray()));
+  }
+
+  @Test
+  void content_is_sent_as_is_when_gzip_is_refused_or_not_worth_it() throws Exception {
+    String docUrl = projectUrl + "/docs/" + postForId(projectUrl + "/docs", doc("Guide", page));
+    String shortUrl = projectUrl + "/docs/" + postForId(projectUrl + "/docs", doc("Court", "# é"));
+
+    mockMvc
+        .perform(authenticated(get(docUrl + "/content")).header("Accept-Encoding", "*, gzip;q=0"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Content-Encoding"))
+        .andExpect(header().string("ETag", "\"" + sha256(page) + "\""))
+        .andExpect(header().string("Content-Type", "text/markdown;charset=UTF-8"));
+    byte[] bytes =
+        mockMvc
+            .perform(authenticated(get(shortUrl + "/content")).header("Accept-Encoding", "gzip"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("Content-Encoding"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    assertArrayEquals("# é".getBytes(StandardCharsets.UTF_8), bytes);
+  }
+
+  @Test
+  void a_range_of_the_content_is_served() throws Exception {
+    String docUrl = projectUrl + "/docs/" + postForId(projectUrl + "/docs", doc("Guide", page));
+    byte[] bytes = page.getBytes(StandardCharsets.UTF_8);
+    String eTag = "\"" + sha256(page) + "\"";
+
+    byte[] part =
+        mockMvc
+            .perform(
+                authenticated(get(docUrl + "/content"))
+                    .header("Range", "bytes=100-199")
+                    .header("Accept-Encoding", "gzip"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string("Content-Range", "bytes 100-199/" + bytes.length))
+            .andExpect(header().doesNotExist("Content-Encoding"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    assertArrayEquals(Arrays.copyOfRange(bytes, 100, 200), part);
+
+    mockMvc
+        .perform(
+            authenticated(get(docUrl + "/content"))
+                .header("Range", "bytes=-10")
+                .header("If-Range", eTag))
+        .andExpect(status().isPartialContent())
+        .andExpect(
+            header()
+                .string(
+                    "Content-Range",
+                    "bytes "
+                        + (bytes.length - 10)
+                        + "-"
+                        + (bytes.length - 1)
+                        + "/"
+                        + bytes.length));
+    // The content changed since the ETag, the whole content is sent
+    mockMvc
+        .perform(
+            authenticated(get(docUrl + "/content"))
+                .header("Range", "bytes=0-9")
+                .header("If-Range", "\"stale\""))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Content-Range"));
+    mockMvc
+        .perform(
+            authenticated(get(docUrl + "/content")).header("Range", "bytes=" + bytes.length + "-"))
+        .andExpect(status().isRequestedRangeNotSatisfiable())
+        .andExpect(header().string("Content-Range", "bytes */" + bytes.length));
+  }
+
+  @Test
+  void unchanged_content_is_not_sent_again() throws Exception {
+    String docUrl = projectUrl + "/docs/" + postForId(projectUrl + "/docs", doc("Guide", page));
+
+    mockMvc
+        .perform(
+            authenticated(get(docUrl + "/content"))
+                .header("Accept-Encoding", "gzip")
+                .header("If-None-Match", "\"" + sha256(page) + "-gzip\""))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void content_belongs_to_the_documentation_project() throws Exception {
+    String docId = postForId(projectUrl + "/docs", doc("Privé", page));
+    String otherProjectUrl = "/api/projects/" + createProject();
+
+    for (String encoding : new String[] {"gzip", "identity"}) {
+      mockMvc
+          .perform(
+              authenticated(get(otherProjectUrl + "/docs/" + docId + "/content"))
+                  .header("Accept-Encoding", encoding))
+          .andExpect(status().isNotFound())
+          .andExpect(jsonPath("$.error").value("DOCUMENTATION_NOT_FOUND"));
+    }
+  }
+
+  private static String gunzip(byte[] bytes) throws Exception {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+
+  private static String sha256(String content) throws Exception {
+    return HexFormat.of()
+        .formatHex(
+            MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private String createProject() throws Exception {
+    return postForId(
+        "/api/projects",
+        Map.of(
+            "name",
+            "Content project",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail())));
+  }
+
+  private static Map<String, Object> doc(String title, String content) {
+    return Map.of("title", title, "content", content);
+  }
+
+  private void update(String docUrl, Object body) throws Exception {
+    mockMvc
+        .perform(
+            authenticated(put(docUrl))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+        .andExpect(status().isOk());
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + owner.getToken());
+  }
+}
@@ -3,6 +3,7 @@ package com.group3.conduitedeprojet.controller;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.group3.conduitedeprojet.dto.AuthResponse;
 import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
@@ -220,4 +221,79 @@ public class DocumentationControllerTest extends IntegrationTestWithDatabase {
         .andExpect(jsonPath("$").isArray())
         .andExpect(jsonPath("$.length()").value(0));
   }
+
+  @Test
+  void documentation_is_only_reachable_through_its_own_project() throws Exception {
+    var owner = register("docscope@example.com", "password123", "DocScope");
+    var other = register("docscope-other@example.com", "password123", "DocScopeOther");
+    String projectId = createProject(owner);
+    String otherProjectId = createProject(other);
+
+    var docResponse =
+        mockMvc
+            .perform(
+                post("/api/projects/" + projectId + "/docs")
+                    .header("Authorization", "Bearer " + owner.getToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(
+                        objectMapper.writeValueAsString(
+                            Map.of("title", "Private", "content", "Secret"))))
+            .andExpect(status().isOk())
+            .andReturn();
+    String docId =
+        objectMapper.readTree(docResponse.getResponse().getContentAsString()).get("id").asText();
+
+    // Through a project of their own, the documentation of another project is not found
+    String foreignUrl = "/api/projects/" + otherProjectId + "/docs/" + docId;
+    mockMvc
+        .perform(get(foreignUrl).header("Authorization", "Bearer " + other.getToken()))
+        .andExpect(status().isNotFound());
+    mockMvc
+        .perform(
+            put(foreignUrl)
+                .header("Authorization", "Bearer " + other.getToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(Map.of("title", "Taken", "content", "Over"))))
+        .andExpect(status().isNotFound());
+    mockMvc
+        .perform(delete(foreignUrl).header("Authorization", "Bearer " + other.getToken()))
+        .andExpect(status().isNotFound());
+
+    // Through its own project, only its members can reach it
+    String docUrl = "/api/projects/" + projectId + "/docs/" + docId;
+    mockMvc
+        .perform(get(docUrl).header("Authorization", "Bearer " + other.getToken()))
+        .andExpect(status().isForbidden());
+    mockMvc
+        .perform(
+            get("/api/projects/" + projectId + "/docs/-1")
+                .header("Authorization", "Bearer " + owner.getToken()))
+        .andExpect(status().isNotFound());
+    mockMvc
+        .perform(get(docUrl).header("Authorization", "Bearer " + owner.getToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.content").value("Secret"));
+  }
+
+  private String createProject(AuthResponse user) throws Exception {
+    var projectBody =
+        Map.of(
+            "name", "Scoped project",
+            "description", "Test project",
+            "user", Map.of("id", user.getId(), "email", user.getEmail()));
+    var projectResponse =
+        mockMvc
+            .perform(
+                post("/api/projects")
+                    .header("Authorization", "Bearer " + user.getToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(projectBody)))
+            .andExpect(status().isOk())
+            .andReturn();
+    return objectMapper
+        .readTree(projectResponse.getResponse().getContentAsString())
+        .get("id")
+        .asText();
+  }
 }
@@ -0,0 +1,119 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Checks the documentation rendered to HTML on the server. */
+public class DocumentationRenderTest extends IntegrationTestWithDatabase {
+
+  private AuthResponse owner;
+
+  private String projectUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    owner = register("render-" + UUID.randomUUID() + "@example.com", "password123", "Reader");
+    projectUrl = "/api/projects/" + createProject();
+  }
+
+  @Test
+  void documentation_is_rendered_to_sanitized_html() throws Exception {
+    String docUrl =
+        projectUrl
+            + "/docs/"
+            + postForId(
+                projectUrl + "/docs",
+                doc("Guide", "# Guide é\n\n- un\n- deux\n\n<script>alert(1)</script>"));
+
+    String eTag =
+        mockMvc
+            .perform(authenticated(get(docUrl + "/html")))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Content-Type", "text/html;charset=UTF-8"))
+            .andExpect(
+                content()
+                    .string(
+                        "<h1>Guide é</h1>\n<ul>\n<li>un</li>\n<li>deux</li>\n</ul>\n"
+                            + "<p>&lt;script&gt;alert(1)&lt;/script&gt;</p>\n"))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+
+    mockMvc
+        .perform(authenticated(get(docUrl + "/html")).header("If-None-Match", eTag))
+        .andExpect(status().isNotModified());
+
+    // An update is rendered again, under a new ETag
+    mockMvc
+        .perform(
+            authenticated(put(docUrl))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(doc("Guide", "**Nouveau**"))))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(authenticated(get(docUrl + "/html")).header("If-None-Match", eTag))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", not(eTag)))
+        .andExpect(content().string(containsString("<strong>Nouveau</strong>")));
+  }
+
+  @Test
+  void rendering_belongs_to_the_documentation_project() throws Exception {
+    String docId = postForId(projectUrl + "/docs", doc("Privé", "contenu"));
+    String otherProjectUrl = "/api/projects/" + createProject();
+
+    mockMvc
+        .perform(authenticated(get(otherProjectUrl + "/docs/" + docId + "/html")))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.error").value("DOCUMENTATION_NOT_FOUND"));
+  }
+
+  private String createProject() throws Exception {
+    return postForId(
+        "/api/projects",
+        Map.of(
+            "name",
+            "Render project",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail())));
+  }
+
+  private static Map<String, Object> doc(String title, String content) {
+    return Map.of("title", title, "content", content);
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + owner.getToken());
+  }
+}
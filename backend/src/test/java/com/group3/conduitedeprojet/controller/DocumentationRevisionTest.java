@@ -0,0 +1,176 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.models.DocumentationRevision;
+import com.group3.conduitedeprojet.repositories.DocumentationRevisionRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Checks the revisions recorded for the documentation, read back from snapshots and deltas. */
+public class DocumentationRevisionTest extends IntegrationTestWithDatabase {
+
+  @Autowired DocumentationRevisionRepository documentationRevisionRepository;
+
+  private AuthResponse owner;
+
+  private String projectUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    owner = register("revisions-" + UUID.randomUUID() + "@example.com", "password123", "Writer");
+    projectUrl = "/api/projects/" + createProject();
+  }
+
+  @Test
+  void every_revision_is_read_back() throws Exception {
+    StringBuilder page = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      page.append("Paragraphe ").append(i).append(" du guide\n");
+    }
+    List<String> contents = new ArrayList<>();
+    contents.add(page.toString());
+    String docUrl =
+        projectUrl + "/docs/" + postForId(projectUrl + "/docs", doc("Guide", page.toString()));
+
+    // Crosses the snapshot taken every 20 revisions
+    for (int i = 1; i < 45; i++) {
+      int line = page.indexOf("Paragraphe " + (i * 4) + " ");
+      page.insert(line, "Ajout " + i + "\n");
+      contents.add(page.toString());
+      update(docUrl, doc("Guide v" + i, page.toString()));
+    }
+
+    mockMvc
+        .perform(authenticated(get(docUrl + "/revisions")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(45))
+        .andExpect(jsonPath("$[0].revision").value(45))
+        .andExpect(jsonPath("$[0].title").value("Guide v44"))
+        .andExpect(jsonPath("$[0].content").doesNotExist())
+        .andExpect(jsonPath("$[44].revision").value(1));
+
+    for (int revision : new int[] {1, 2, 20, 21, 22, 40, 41, 45}) {
+      mockMvc
+          .perform(authenticated(get(docUrl + "/revisions/" + revision)))
+          .andExpect(status().isOk())
+          .andExpect(jsonPath("$.revision").value(revision))
+          .andExpect(jsonPath("$.content").value(contents.get(revision - 1)));
+    }
+
+    Long docId = Long.valueOf(docUrl.substring(docUrl.lastIndexOf('/') + 1));
+    List<DocumentationRevision> stored =
+        documentationRevisionRepository.findByDocumentationIdAndRevisionBetweenOrderByRevisionAsc(
+            docId, 1, 45);
+    assertEquals(
+        List.of(1, 21, 41),
+        stored.stream()
+            .filter(DocumentationRevision::isSnapshot)
+            .map(DocumentationRevision::getRevision)
+            .toList());
+    // A delta holds the added line, not the page
+    assertTrue(stored.get(1).getData().length < stored.get(0).getData().length / 10);
+  }
+
+  @Test
+  void two_revisions_are_compared() throws Exception {
+    String docUrl =
+        projectUrl + "/docs/" + postForId(projectUrl + "/docs", doc("Notes", "un\ndeux\ntrois\n"));
+    update(docUrl, doc("Notes", "un\n2\ntrois\n"));
+    // Nothing changed, no revision
+    update(docUrl, doc("Notes", "un\n2\ntrois\n"));
+
+    mockMvc
+        .perform(authenticated(get(docUrl + "/revisions/diff").param("from", "1").param("to", "2")))
+        .andExpect(status().isOk())
+        .andExpect(
+            jsonPath("$.diff")
+                .value(
+                    "--- revision 1\n+++ revision 2\n@@ -1,3 +1,3 @@\n un\n-deux\n+2\n trois\n"));
+    mockMvc
+        .perform(authenticated(get(docUrl + "/revisions/3")))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.error").value("DOCUMENTATION_REVISION_NOT_FOUND"));
+    mockMvc.perform(authenticated(get(docUrl + "/revisions/0"))).andExpect(status().isNotFound());
+  }
+
+  @Test
+  void revisions_belong_to_the_documentation_project() throws Exception {
+    String docId = postForId(projectUrl + "/docs", doc("Privé", "contenu"));
+    String otherProjectUrl = "/api/projects/" + createProject();
+
+    mockMvc
+        .perform(authenticated(get(otherProjectUrl + "/docs/" + docId + "/revisions/1")))
+        .andExpect(status().isNotFound());
+
+    mockMvc
+        .perform(authenticated(delete(projectUrl + "/docs/" + docId)))
+        .andExpect(status().isNoContent());
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/docs/" + docId + "/revisions")))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.message", containsString("revision")));
+    assertEquals(
+        0,
+        documentationRevisionRepository.findHeadersByDocumentationId(Long.valueOf(docId)).size());
+  }
+
+  private String createProject() throws Exception {
+    return postForId(
+        "/api/projects",
+        Map.of(
+            "name",
+            "Revisions project",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail())));
+  }
+
+  private static Map<String, Object> doc(String title, String content) {
+    return Map.of("title", title, "content", content);
+  }
+
+  private void update(String docUrl, Object body) throws Exception {
+    mockMvc
+        .perform(
+            authenticated(put(docUrl))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+        .andExpect(status().isOk());
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + owner.getToken());
+  }
+}
@@ -38,6 +38,8 @@ public abstract class IntegrationTestWithDatabase {
     registry.add("spring.datasource.password", postgres::getPassword);
     registry.add("security.jwt.secret-key", () -> "5St66hi6E8M7oRbgHLpZT/VZgErpyKQXZMhUtAfHr6Y=");
     registry.add("security.jwt.expiration-ms", () -> "3600000");
+    // Every test registers its users from the same address
+    registry.add("security.rate-limit.ip.capacity", () -> "100000");
   }
 
   @Autowired MockMvc mockMvc;
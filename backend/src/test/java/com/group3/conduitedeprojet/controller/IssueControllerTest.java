@@ -1,12 +1,20 @@
 package com.group3.conduitedeprojet.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
@@ -507,4 +515,216 @@ public class IssueControllerTest extends IntegrationTestWithDatabase {
                 .header("Authorization", "Bearer " + attacker.getToken()))
         .andExpect(status().isForbidden());
   }
+
+  @Test
+  void createIssuesInBulk_success_creates_all_issues() throws Exception {
+    var owner = register("bulkowner@example.com", "password123", "BulkOwner");
+
+    var createBody =
+        Map.of(
+            "name",
+            "Project For Bulk Issues",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail()));
+
+    var createRes =
+        mockMvc
+            .perform(
+                post("/api/projects")
+                    .header("Authorization", "Bearer " + owner.getToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(createBody)))
+            .andExpect(status().isOk())
+            .andReturn();
+
+    @SuppressWarnings("unchecked")
+    Map<String, Object> createdMap =
+        objectMapper.readValue(createRes.getResponse().getContentAsString(), Map.class);
+    String projectId = (String) createdMap.get("id");
+
+    var issues =
+        IntStream.range(0, 120)
+            .mapToObj(
+                i ->
+                    Map.of(
+                        "title",
+                        "Bulk issue " + i,
+                        "storyPoints",
+                        i % 8,
+                        "priority",
+                        "LOW",
+                        "assigneeId",
+                        owner.getId()))
+            .toList();
+
+    mockMvc
+        .perform(
+            post("/api/projects/" + projectId + "/issues/bulk")
+                .header("Authorization", "Bearer " + owner.getToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("issues", issues))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(120))
+        .andExpect(jsonPath("$[0].title").value("Bulk issue 0"))
+        .andExpect(jsonPath("$[119].title").value("Bulk issue 119"))
+        .andExpect(jsonPath("$[119].status").value("TODO"))
+        .andExpect(jsonPath("$[119].assigneeId").value(owner.getId()));
+
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.get("/api/projects/" + projectId + "/issues")
+                .header("Authorization", "Bearer " + owner.getToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(120));
+  }
+
+  @Test
+  void createIssuesInBulk_empty_list_returns_bad_request() throws Exception {
+    var owner = register("bulkempty@example.com", "password123", "BulkEmpty");
+
+    mockMvc
+        .perform(
+            post("/api/projects/00000000-0000-0000-0000-000000000000/issues/bulk")
+                .header("Authorization", "Bearer " + owner.getToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("issues", List.of()))))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getIssuePage_walks_every_issue_once_newest_first() throws Exception {
+    var owner = register("pageowner@example.com", "password123", "PageOwner");
+    String projectId = createProjectWithIssues(owner, 25);
+
+    List<Long> ids = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      var request =
+          MockMvcRequestBuilders.get("/api/projects/" + projectId + "/issues/page")
+              .param("limit", "10")
+              .header("Authorization", "Bearer " + owner.getToken());
+      if (cursor != null) {
+        request.param("cursor", cursor);
+      }
+      JsonNode page =
+          objectMapper.readTree(
+              mockMvc
+                  .perform(request)
+                  .andExpect(status().isOk())
+                  .andReturn()
+                  .getResponse()
+                  .getContentAsString());
+      page.get("items").forEach(item -> ids.add(item.get("id").asLong()));
+      cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+      pages++;
+    } while (cursor != null);
+
+    assertEquals(3, pages);
+    assertEquals(25, ids.size());
+    assertEquals(25, new HashSet<>(ids).size());
+    // Bulk-created issues share their creation instant, the id breaks the tie
+    List<Long> sorted = new ArrayList<>(ids);
+    sorted.sort(Comparator.reverseOrder());
+    assertEquals(sorted, ids);
+  }
+
+  @Test
+  void getIssuePage_applies_filters() throws Exception {
+    var owner = register("pagefilter@example.com", "password123", "PageFilter");
+    String projectId = createProjectWithIssues(owner, 12);
+
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.get("/api/projects/" + projectId + "/issues/page")
+                .param("priority", "HIGH")
+                .param("status", "IN_PROGRESS")
+                .header("Authorization", "Bearer " + owner.getToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(2))
+        .andExpect(jsonPath("$.items[0].priority").value("HIGH"))
+        .andExpect(jsonPath("$.items[0].status").value("IN_PROGRESS"))
+        .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.get("/api/projects/" + projectId + "/issues/page")
+                .param("assigneeId", owner.getId().toString())
+                .header("Authorization", "Bearer " + owner.getToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(12));
+  }
+
+  @Test
+  void getIssuePage_invalid_parameters_return_bad_request() throws Exception {
+    var owner = register("pageinvalid@example.com", "password123", "PageInvalid");
+    String projectId = createProjectWithIssues(owner, 1);
+
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.get("/api/projects/" + projectId + "/issues/page")
+                .param("cursor", "not-a-cursor")
+                .header("Authorization", "Bearer " + owner.getToken()))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("INVALID_CURSOR"));
+
+    mockMvc
+        .perform(
+            MockMvcRequestBuilders.get("/api/projects/" + projectId + "/issues/page")
+                .param("status", "UNKNOWN")
+                .header("Authorization", "Bearer " + owner.getToken()))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("VALIDATION_ERROR"));
+  }
+
+  /** Priorities cycle LOW, MEDIUM, HIGH and statuses TODO, IN_PROGRESS over the issues. */
+  private String createProjectWithIssues(AuthResponse owner, int count) throws Exception {
+    var createBody =
+        Map.of(
+            "name",
+            "Project For Pages",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail()));
+    String projectContent =
+        mockMvc
+            .perform(
+                post("/api/projects")
+                    .header("Authorization", "Bearer " + owner.getToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(createBody)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String projectId = objectMapper.readTree(projectContent).get("id").asText();
+
+    var issues =
+        IntStream.range(0, count)
+            .mapToObj(
+                i ->
+                    Map.of(
+                        "title",
+                        "Paged issue " + i,
+                        "storyPoints",
+                        1,
+                        "priority",
+                        List.of("LOW", "MEDIUM", "HIGH").get(i % 3),
+                        "status",
+                        List.of("TODO", "IN_PROGRESS").get(i % 2),
+                        "assigneeId",
+                        owner.getId()))
+            .toList();
+    mockMvc
+        .perform(
+            post("/api/projects/" + projectId + "/issues/bulk")
+                .header("Authorization", "Bearer " + owner.getToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("issues", issues))))
+        .andExpect(status().isOk());
+    return projectId;
+  }
 }
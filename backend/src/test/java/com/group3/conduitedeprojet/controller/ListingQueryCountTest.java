@@ -0,0 +1,202 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.Release;
+import com.group3.conduitedeprojet.models.Sprint;
+import com.group3.conduitedeprojet.models.Task;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.IssueRepository;
+import com.group3.conduitedeprojet.repositories.ProjectRepository;
+import com.group3.conduitedeprojet.repositories.ReleaseRepository;
+import com.group3.conduitedeprojet.repositories.SprintRepository;
+import com.group3.conduitedeprojet.repositories.TaskRepository;
+import com.group3.conduitedeprojet.repositories.TestRepository;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import com.group3.conduitedeprojet.services.TestCodeService;
+import jakarta.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+/**
+ * Checks that the listing endpoints run the same number of SQL statements whatever the number of
+ * rows they return.
+ */
+public class ListingQueryCountTest extends IntegrationTestWithDatabase {
+
+  @Autowired EntityManagerFactory entityManagerFactory;
+
+  @Autowired UserRepository userRepository;
+
+  @Autowired ProjectRepository projectRepository;
+
+  @Autowired IssueRepository issueRepository;
+
+  @Autowired SprintRepository sprintRepository;
+
+  @Autowired ReleaseRepository releaseRepository;
+
+  @Autowired TaskRepository taskRepository;
+
+  @Autowired TestRepository testRepository;
+
+  @Autowired TestCodeService testCodeService;
+
+  private Statistics statistics;
+
+  private String token;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+
+    AuthResponse auth =
+        register("listing-" + UUID.randomUUID() + "@example.com", "password123", "Lister");
+    token = auth.getToken();
+    user = userRepository.findById(auth.getId()).orElseThrow();
+  }
+
+  @Test
+  void listing_endpoints_run_a_constant_number_of_statements() throws Exception {
+    Fixture small = createFixture(2);
+    Fixture large = createFixture(12);
+
+    assertConstantStatements("/issues", small, large, 2, 12);
+    assertConstantStatements("/sprints", small, large, 1, 1);
+    assertConstantStatements("/sprints/{sprint}/issues", small, large, 2, 12);
+    assertConstantStatements("/releases", small, large, 2, 12);
+    assertConstantStatements("/issues/{issue}/tasks", small, large, 2, 12);
+    assertConstantStatements("/issues/{issue}/tests", small, large, 2, 12);
+  }
+
+  private void assertConstantStatements(
+      String path, Fixture small, Fixture large, int smallSize, int largeSize) throws Exception {
+    long smallCount = countStatements(small.url(path), smallSize);
+    long largeCount = countStatements(large.url(path), largeSize);
+
+    assertEquals(smallCount, largeCount, "statements for " + path);
+  }
+
+  private long countStatements(String url, int expectedSize) throws Exception {
+    // First call fills the caches in front of the database, the second one is measured
+    perform(url, expectedSize);
+    statistics.clear();
+    perform(url, expectedSize);
+    return statistics.getPrepareStatementCount();
+  }
+
+  private void perform(String url, int expectedSize) throws Exception {
+    mockMvc
+        .perform(get(url).header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(expectedSize));
+  }
+
+  /** Creates a project where every listing returns {@code size} rows. */
+  private Fixture createFixture(int size) throws Exception {
+    var projectBody =
+        Map.of(
+            "name",
+            "Project " + size,
+            "description",
+            "desc",
+            "user",
+            Map.of("id", user.getId(), "email", user.getEmail()));
+    String content =
+        mockMvc
+            .perform(
+                post("/api/projects")
+                    .header("Authorization", "Bearer " + token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(projectBody)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    UUID projectId = UUID.fromString(objectMapper.readTree(content).get("id").asText());
+    Project project = projectRepository.findById(projectId).orElseThrow();
+
+    Sprint sprint =
+        sprintRepository.save(
+            Sprint.builder()
+                .name("Sprint")
+                .startDate(LocalDateTime.now())
+                .endDate(LocalDateTime.now().plusDays(14))
+                .project(project)
+                .build());
+
+    List<Issue> issues =
+        issueRepository.saveAll(
+            IntStream.range(0, size)
+                .mapToObj(
+                    i ->
+                        Issue.builder()
+                            .title("Issue " + i)
+                            .priority(Issue.Priority.MEDIUM)
+                            .storyPoints(1)
+                            .project(project)
+                            .creator(user)
+                            .assignee(user)
+                            .sprint(sprint)
+                            .build())
+                .toList());
+    Issue issue = issues.get(0);
+
+    for (int i = 0; i < size; i++) {
+      releaseRepository.save(
+          Release.builder()
+              .version(new Release.Version(1, i, 0))
+              .project(project)
+              .creator(user)
+              .issues(new HashSet<>(List.of(issues.get(i))))
+              .build());
+      taskRepository.save(
+          Task.builder()
+              .title("Task " + i)
+              .status(Task.Status.TODO)
+              .project(project)
+              .issue(issue)
+              .creator(user)
+              .assignee(user)
+              .build());
+      testRepository.save(
+          com.group3.conduitedeprojet.models.Test.builder()
+              .programHash(testCodeService.addReference("function f() {}"))
+              .testHash(testCodeService.addReference("f();"))
+              .issue(issue)
+              .creator(user)
+              .build());
+    }
+
+    return new Fixture(projectId, sprint.getId(), issue.getId());
+  }
+
+  private record Fixture(UUID projectId, Long sprintId, Long issueId) {
+
+    String url(String path) {
+      return "/api/projects/"
+          + projectId
+          + path.replace("{sprint}", sprintId.toString()).replace("{issue}", issueId.toString());
+    }
+  }
+}
@@ -1,12 +1,18 @@
 package com.group3.conduitedeprojet.controller;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group3.conduitedeprojet.dto.AuthResponse;
 import com.group3.conduitedeprojet.dto.UserDto;
 import java.util.Arrays;
 import java.util.List;
@@ -459,4 +465,123 @@ public class ProjectControllerTest extends IntegrationTestWithDatabase {
         .andExpect(jsonPath("$.length()").value(2))
         .andExpect(jsonPath("$[0].email").isNotEmpty());
   }
+
+  @Test
+  void exportProject_requires_auth() throws Exception {
+    var owner = register("exportauth@example.com", "password123", "ExportAuth");
+    String projectId = createProject(owner, "Export Auth");
+
+    mockMvc
+        .perform(get("/api/projects/" + projectId + "/export"))
+        .andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void exportProject_non_member_forbidden() throws Exception {
+    var owner = register("exportowner2@example.com", "password123", "ExportOwner2");
+    var other = register("exportother@example.com", "password123", "ExportOther");
+    String projectId = createProject(owner, "Export Private");
+
+    mockMvc
+        .perform(
+            get("/api/projects/" + projectId + "/export")
+                .header("Authorization", "Bearer " + other.getToken()))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void exportProject_success_streams_one_line_per_entity() throws Exception {
+    var owner = register("exportowner@example.com", "password123", "ExportOwner");
+    String projectId = createProject(owner, "Export Project");
+
+    for (int i = 1; i <= 2; i++) {
+      var issueBody =
+          Map.of("title", "Issue " + i, "storyPoints", i, "priority", "LOW", "status", "TODO");
+      var issueRes =
+          mockMvc
+              .perform(
+                  post("/api/projects/" + projectId + "/issues")
+                      .header("Authorization", "Bearer " + owner.getToken())
+                      .contentType(MediaType.APPLICATION_JSON)
+                      .content(objectMapper.writeValueAsString(issueBody)))
+              .andExpect(status().isOk())
+              .andReturn();
+      long issueId =
+          objectMapper.readTree(issueRes.getResponse().getContentAsString()).get("id").asLong();
+
+      mockMvc
+          .perform(
+              post("/api/projects/" + projectId + "/issues/" + issueId + "/tasks")
+                  .header("Authorization", "Bearer " + owner.getToken())
+                  .contentType(MediaType.APPLICATION_JSON)
+                  .content(objectMapper.writeValueAsString(Map.of("title", "Task " + i))))
+          .andExpect(status().isOk());
+    }
+
+    mockMvc
+        .perform(
+            post("/api/projects/" + projectId + "/docs")
+                .header("Authorization", "Bearer " + owner.getToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(Map.of("title", "Doc", "content", "# Doc"))))
+        .andExpect(status().isOk());
+
+    var started =
+        mockMvc
+            .perform(
+                get("/api/projects/" + projectId + "/export")
+                    .header("Authorization", "Bearer " + owner.getToken()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+    String body =
+        mockMvc
+            .perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andExpect(
+                header()
+                    .string(
+                        "Content-Disposition",
+                        "attachment; filename=\"project-" + projectId + ".ndjson\""))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    List<JsonNode> lines =
+        body.lines()
+            .map(line -> Assertions.assertDoesNotThrow(() -> objectMapper.readTree(line)))
+            .toList();
+    Assertions.assertEquals(
+        List.of("issue", "issue", "task", "task", "documentation"),
+        lines.stream().map(line -> line.get("type").asText()).toList());
+    Assertions.assertEquals("Issue 1", lines.get(0).get("data").get("title").asText());
+    Assertions.assertEquals("Task 2", lines.get(3).get("data").get("title").asText());
+    Assertions.assertEquals("Doc", lines.get(4).get("data").get("title").asText());
+  }
+
+  private String createProject(AuthResponse owner, String name) throws Exception {
+    var createBody =
+        Map.of(
+            "name",
+            name,
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail()));
+
+    String createdJson =
+        mockMvc
+            .perform(
+                post("/api/projects")
+                    .header("Authorization", "Bearer " + owner.getToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(createBody)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(createdJson).get("id").asText();
+  }
 }
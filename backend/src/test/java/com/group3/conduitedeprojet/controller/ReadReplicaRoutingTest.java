@@ -0,0 +1,247 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group3.conduitedeprojet.datasource.ReadYourWritesTracker;
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.dto.RegisterRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs the application against a primary and a streaming replica, and checks that listings are read
+ * from the replica while clients still see their own writes, with the position of their last write
+ * as only state.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMockMvc
+@Testcontainers
+public class ReadReplicaRoutingTest {
+
+  static Network network = Network.newNetwork();
+
+  @Container
+  static PostgreSQLContainer<?> primary =
+      new PostgreSQLContainer<>("postgres:17-alpine")
+          .withNetwork(network)
+          .withNetworkAliases("primary")
+          .withDatabaseName("conduitedeprojet_db")
+          .withUsername("admin")
+          .withPassword("admin")
+          .withCopyToContainer(
+              Transferable.of(
+                  "echo 'host replication all all scram-sha-256' >> \"$PGDATA/pg_hba.conf\""),
+              "/docker-entrypoint-initdb.d/replication.sh");
+
+  @Container
+  static GenericContainer<?> replica =
+      new GenericContainer<>("postgres:17-alpine")
+          .withNetwork(network)
+          .dependsOn(primary)
+          .withExposedPorts(5432)
+          .withEnv("PGPASSWORD", "admin")
+          .withCreateContainerCmdModifier(cmd -> cmd.withUser("postgres"))
+          .withCommand(
+              "sh",
+              "-c",
+              "pg_basebackup -h primary -U admin -D /tmp/replica -R -X stream"
+                  + " && chmod 700 /tmp/replica"
+                  + " && exec postgres -D /tmp/replica -c listen_addresses='*'")
+          .waitingFor(Wait.forLogMessage(".*ready to accept read-only connections.*\\s", 1));
+
+  @DynamicPropertySource
+  static void registerPgProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", primary::getJdbcUrl);
+    registry.add("spring.datasource.username", primary::getUsername);
+    registry.add("spring.datasource.password", primary::getPassword);
+    registry.add("app.datasource.replicas", ReadReplicaRoutingTest::replicaJdbcUrl);
+    registry.add("security.jwt.secret-key", () -> "5St66hi6E8M7oRbgHLpZT/VZgErpyKQXZMhUtAfHr6Y=");
+    registry.add("security.jwt.expiration-ms", () -> "3600000");
+    registry.add("security.rate-limit.ip.capacity", () -> "100000");
+  }
+
+  static String replicaJdbcUrl() {
+    return "jdbc:postgresql://"
+        + replica.getHost()
+        + ":"
+        + replica.getMappedPort(5432)
+        + "/conduitedeprojet_db";
+  }
+
+  @Autowired MockMvc mockMvc;
+
+  @Autowired ObjectMapper objectMapper;
+
+  @Autowired MeterRegistry meterRegistry;
+
+  @Test
+  void listings_are_read_from_the_replica_once_it_has_caught_up() throws Exception {
+    var owner = register("replica-owner@example.com", "password123", "Owner");
+    String projectId = createProject(owner, List.of());
+
+    await()
+        .atMost(Duration.ofSeconds(10))
+        .untilAsserted(
+            () -> {
+              double before = routed("replica-1", "read");
+              listIssues(owner, projectId);
+              assertEquals(before + 1, routed("replica-1", "read"));
+            });
+  }
+
+  @Test
+  void writes_are_visible_to_their_author_while_the_replica_lags() throws Exception {
+    var owner = register("lag-owner@example.com", "password123", "Owner");
+    var collaborator = register("lag-collab@example.com", "password123", "Collab");
+    String projectId = createProject(owner, List.of(collaborator.getEmail()));
+    await()
+        .atMost(Duration.ofSeconds(10))
+        .untilAsserted(() -> assertEquals(0, listIssues(collaborator, projectId)));
+
+    setReplayPaused(true);
+    try {
+      double acquired = primaryCheckouts();
+      String lsn = createIssue(owner, projectId);
+      // The position is read on the connection of the write
+      assertEquals(acquired + 1, primaryCheckouts());
+      assertNotNull(lsn);
+
+      double lagging = routed("primary", "lagging");
+      assertEquals(1, listIssues(owner, projectId, lsn));
+      assertEquals(lagging + 1, routed("primary", "lagging"));
+
+      // Without the position, as for the collaborator who did not write anything, the paused
+      // replica serves a stale list
+      assertEquals(0, listIssues(owner, projectId, null));
+      assertEquals(0, listIssues(collaborator, projectId));
+    } finally {
+      setReplayPaused(false);
+    }
+
+    await()
+        .atMost(Duration.ofSeconds(10))
+        .untilAsserted(() -> assertEquals(1, listIssues(collaborator, projectId)));
+    assertTrue(routed("primary", "write") > 0);
+  }
+
+  private double routed(String target, String reason) {
+    Counter counter =
+        meterRegistry.find("datasource.routing").tags("target", target, "reason", reason).counter();
+    return counter != null ? counter.count() : 0;
+  }
+
+  private double primaryCheckouts() {
+    return meterRegistry.get("hikaricp.connections.acquire").tag("pool", "primary").timer().count();
+  }
+
+  private void setReplayPaused(boolean paused) throws Exception {
+    try (Connection connection = DriverManager.getConnection(replicaJdbcUrl(), "admin", "admin");
+        Statement statement = connection.createStatement()) {
+      statement.execute(paused ? "SELECT pg_wal_replay_pause()" : "SELECT pg_wal_replay_resume()");
+    }
+  }
+
+  private int listIssues(AuthResponse user, String projectId) throws Exception {
+    return listIssues(user, projectId, null);
+  }
+
+  private int listIssues(AuthResponse user, String projectId, String lsn) throws Exception {
+    MockHttpServletRequestBuilder request =
+        get("/api/projects/" + projectId + "/issues")
+            .header("Authorization", "Bearer " + user.getToken());
+    if (lsn != null) {
+      request.header(ReadYourWritesTracker.HEADER, lsn);
+    }
+    String json =
+        mockMvc
+            .perform(request)
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).size();
+  }
+
+  private String createIssue(AuthResponse user, String projectId) throws Exception {
+    var issueBody = Map.of("title", "Issue", "storyPoints", 1, "priority", "LOW", "status", "TODO");
+    return mockMvc
+        .perform(
+            post("/api/projects/" + projectId + "/issues")
+                .header("Authorization", "Bearer " + user.getToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(issueBody)))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getHeader(ReadYourWritesTracker.HEADER);
+  }
+
+  private String createProject(AuthResponse owner, List<String> collaborators) throws Exception {
+    var createBody =
+        Map.of(
+            "name",
+            "Replicated project",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail()),
+            "collaborateurs",
+            collaborators);
+    String json =
+        mockMvc
+            .perform(
+                post("/api/projects")
+                    .header("Authorization", "Bearer " + owner.getToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(createBody)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private AuthResponse register(String email, String password, String name) throws Exception {
+    var req = new RegisterRequest(email, password, name);
+    String json =
+        mockMvc
+            .perform(
+                post("/api/auth/register")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(req)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readValue(json, AuthResponse.class);
+  }
+}
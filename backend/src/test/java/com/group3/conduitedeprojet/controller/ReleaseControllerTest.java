@@ -151,4 +151,75 @@ public class ReleaseControllerTest extends IntegrationTestWithDatabase {
         .andExpect(jsonPath("$[0].creatorId").isNumber())
         .andExpect(jsonPath("$[0].projectId").value(projectId));
   }
+
+  @Test
+  void getReleases_returns_issue_aggregates() throws Exception {
+    AuthResponse auth = register("releaseaggregates@example.com", "password123", "ReleaseAgg");
+
+    var projectBody =
+        Map.of(
+            "name",
+            "Project For Release Aggregates",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", auth.getId(), "email", auth.getEmail()));
+    String projectContent =
+        mockMvc
+            .perform(
+                post("/api/projects")
+                    .header("Authorization", "Bearer " + auth.getToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(projectBody)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    String projectId = objectMapper.readTree(projectContent).get("id").asText();
+
+    var issueBody =
+        Map.of("title", "Shipped issue", "storyPoints", 3, "priority", "HIGH", "status", "CLOSED");
+    String issueContent =
+        mockMvc
+            .perform(
+                post("/api/projects/" + projectId + "/issues")
+                    .header("Authorization", "Bearer " + auth.getToken())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(issueBody)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    long issueId = objectMapper.readTree(issueContent).get("id").asLong();
+
+    var releaseBody =
+        Map.of(
+            "version",
+            Map.of("major", 1, "minor", 2, "patch", 3),
+            "releaseNotes",
+            "Aggregated release",
+            "issueIds",
+            List.of(issueId));
+    mockMvc
+        .perform(
+            post("/api/projects/" + projectId + "/releases")
+                .header("Authorization", "Bearer " + auth.getToken())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(releaseBody)))
+        .andExpect(status().isOk());
+
+    mockMvc
+        .perform(
+            get("/api/projects/" + projectId + "/releases")
+                .header("Authorization", "Bearer " + auth.getToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1))
+        .andExpect(jsonPath("$[0].version.major").value(1))
+        .andExpect(jsonPath("$[0].version.minor").value(2))
+        .andExpect(jsonPath("$[0].version.patch").value(3))
+        .andExpect(jsonPath("$[0].issueIds[0]").value(issueId))
+        .andExpect(jsonPath("$[0].totalStoryPoints").value(3))
+        .andExpect(jsonPath("$[0].issueCountByStatus.CLOSED").value(1))
+        .andExpect(jsonPath("$[0].issueCountByStatus.TODO").value(0));
+  }
 }
@@ -0,0 +1,223 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.repositories.SearchRepository;
+import com.group3.conduitedeprojet.services.SearchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+public class SearchControllerTest extends IntegrationTestWithDatabase {
+
+  private AuthResponse owner;
+
+  private String projectUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    owner = register("search-" + UUID.randomUUID() + "@example.com", "password123", "Owner");
+    projectUrl = "/api/projects/" + createProject();
+  }
+
+  @Test
+  void search_returns_ranked_and_highlighted_hits_of_every_kind() throws Exception {
+    String issueId =
+        postForId(projectUrl + "/issues", issue("Export du planning", "Rien à signaler"));
+    postForId(projectUrl + "/issues", issue("Tableau de bord", "Le planning <b>hebdo</b> glisse"));
+    postForId(
+        projectUrl + "/issues/" + issueId + "/tasks",
+        Map.of(
+            "title",
+            "Générer le fichier",
+            "description",
+            "CSV",
+            "definitionOfDone",
+            "Le planning est exporté"));
+    postForId(
+        projectUrl + "/docs", Map.of("title", "Guide", "content", "Comment lire le planning"));
+    postForId(projectUrl + "/issues", issue("Sans rapport", "Autre chose"));
+
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/search").param("q", "PLANNING")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(4))
+        .andExpect(jsonPath("$.nextCursor").value(nullValue()))
+        // The title weighs more than the other fields
+        .andExpect(jsonPath("$.items[0].type").value("ISSUE"))
+        .andExpect(jsonPath("$.items[0].id").value(Long.valueOf(issueId)))
+        .andExpect(jsonPath("$.items[0].highlightedTitle").value("Export du <mark>planning</mark>"))
+        .andExpect(jsonPath("$.items[?(@.type == 'TASK')].issueId").value(Integer.valueOf(issueId)))
+        .andExpect(jsonPath("$.items[?(@.type == 'DOCUMENTATION')].title").value("Guide"))
+        // Markup of the text is escaped, only the highlight is left
+        .andExpect(
+            jsonPath("$.items[?(@.title == 'Tableau de bord')].snippet")
+                .value("<mark>planning</mark> &lt;b&gt;hebdo&lt;/b&gt; glisse"));
+
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/search").param("q", "planning -export")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(3))
+        .andExpect(jsonPath("$.items[*].title", not(hasItem("Export du planning"))));
+  }
+
+  @Test
+  void pages_follow_each_other_without_gaps_or_duplicates() throws Exception {
+    Set<String> created = new HashSet<>();
+    for (int i = 0; i < 7; i++) {
+      created.add(postForId(projectUrl + "/issues", issue("Migration " + i, "base")));
+    }
+
+    List<String> seen = searchAllPages("migration", 3);
+
+    assertEquals(7, seen.size());
+    assertEquals(created, new HashSet<>(seen));
+  }
+
+  @Test
+  void matches_past_the_cap_are_left_out_the_same_way_on_every_request() throws Exception {
+    List<Map<String, Object>> issues = new ArrayList<>();
+    for (int i = 0; i <= SearchRepository.MAX_RANKED_MATCHES; i++) {
+      issues.add(issue("Frequent " + i, "base"));
+    }
+    JsonNode created =
+        objectMapper.readTree(
+            mockMvc
+                .perform(
+                    authenticated(post(projectUrl + "/issues/bulk"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("issues", issues))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString());
+    String oldest = created.get(0).get("id").asText();
+
+    List<String> seen = searchAllPages("frequent", SearchService.MAX_PAGE_SIZE);
+
+    // The most recent matches are kept, and the pages neither skip nor repeat a hit
+    assertEquals(SearchRepository.MAX_RANKED_MATCHES, seen.size());
+    assertEquals(seen.size(), new HashSet<>(seen).size());
+    assertFalse(seen.contains(oldest));
+    assertEquals(seen, searchAllPages("frequent", SearchService.MAX_PAGE_SIZE));
+  }
+
+  @Test
+  void search_is_limited_to_the_project() throws Exception {
+    String otherProjectUrl = "/api/projects/" + createProject();
+    postForId(otherProjectUrl + "/issues", issue("Confidentiel", "ailleurs"));
+
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/search").param("q", "confidentiel")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(0));
+
+    var outsider = register("outsider-" + UUID.randomUUID() + "@example.com", "password123", "O");
+    mockMvc
+        .perform(
+            get(otherProjectUrl + "/search")
+                .param("q", "confidentiel")
+                .header("Authorization", "Bearer " + outsider.getToken()))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void invalid_queries_are_rejected() throws Exception {
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/search").param("q", "  ")))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("INVALID_SEARCH_QUERY"));
+    mockMvc.perform(authenticated(get(projectUrl + "/search"))).andExpect(status().isBadRequest());
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/search").param("q", "x".repeat(201))))
+        .andExpect(status().isBadRequest());
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/search").param("q", "a").param("cursor", "nope")))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("INVALID_CURSOR"));
+    mockMvc
+        .perform(get(projectUrl + "/search").param("q", "a"))
+        .andExpect(status().isUnauthorized());
+  }
+
+  /** Ids of the hits of every page of the search, following the cursors. */
+  private List<String> searchAllPages(String query, int limit) throws Exception {
+    List<String> seen = new ArrayList<>();
+    String cursor = null;
+    do {
+      MockHttpServletRequestBuilder request =
+          get(projectUrl + "/search").param("q", query).param("limit", String.valueOf(limit));
+      if (cursor != null) {
+        request.param("cursor", cursor);
+      }
+      JsonNode page =
+          objectMapper.readTree(
+              mockMvc
+                  .perform(authenticated(request))
+                  .andExpect(status().isOk())
+                  .andReturn()
+                  .getResponse()
+                  .getContentAsString());
+      page.get("items").forEach(hit -> seen.add(hit.get("id").asText()));
+      cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+    } while (cursor != null);
+    return seen;
+  }
+
+  private String createProject() throws Exception {
+    return postForId(
+        "/api/projects",
+        Map.of(
+            "name",
+            "Search project",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail())));
+  }
+
+  private static Map<String, Object> issue(String title, String description) {
+    Map<String, Object> issue = new HashMap<>();
+    issue.put("title", title);
+    issue.put("description", description);
+    issue.put("priority", "MEDIUM");
+    issue.put("storyPoints", 1);
+    return issue;
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + owner.getToken());
+  }
+}
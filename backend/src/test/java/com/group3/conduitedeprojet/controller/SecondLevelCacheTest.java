@@ -0,0 +1,201 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.config.SecondLevelCacheConfig;
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.services.ProjectMembershipIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Checks that projects and sprints are served by the second-level cache and kept up to date. */
+public class SecondLevelCacheTest extends IntegrationTestWithDatabase {
+
+  @Autowired MeterRegistry meterRegistry;
+
+  @Autowired JdbcTemplate jdbcTemplate;
+
+  @Autowired ProjectMembershipIndex projectMembershipIndex;
+
+  private AuthResponse owner;
+
+  private String projectUrl;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    owner = register("l2-" + UUID.randomUUID() + "@example.com", "password123", "Owner");
+    var projectBody =
+        Map.of(
+            "name",
+            "Cached project",
+            "description",
+            "desc",
+            "user",
+            Map.of("id", owner.getId(), "email", owner.getEmail()));
+    projectUrl = "/api/projects/" + postForId("/api/projects", projectBody);
+  }
+
+  @Test
+  void repeated_lookups_hit_the_cache() throws Exception {
+    String sprintUrl = projectUrl + "/sprints/" + postForId(projectUrl + "/sprints", sprintBody());
+    mockMvc.perform(authenticated(get(sprintUrl))).andExpect(status().isOk());
+
+    double projectHits = hits(SecondLevelCacheConfig.PROJECT_REGION);
+    double queryHits = hits(SecondLevelCacheConfig.SPRINT_QUERY_REGION);
+
+    mockMvc.perform(authenticated(get(sprintUrl))).andExpect(status().isOk());
+
+    assertTrue(hits(SecondLevelCacheConfig.PROJECT_REGION) > projectHits);
+    assertTrue(hits(SecondLevelCacheConfig.SPRINT_QUERY_REGION) > queryHits);
+    assertTrue(
+        meterRegistry
+                .get("cache.hit.ratio")
+                .tag("cache", SecondLevelCacheConfig.PROJECT_REGION)
+                .gauge()
+                .value()
+            > 0);
+  }
+
+  @Test
+  void collaborator_changes_are_visible_through_the_cache() throws Exception {
+    var collaborator =
+        register("l2-collab-" + UUID.randomUUID() + "@example.com", "password123", "Collab");
+    String collaboratorsUrl = projectUrl + "/collaborators";
+    mockMvc
+        .perform(authenticated(get(collaboratorsUrl)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+
+    mockMvc
+        .perform(
+            authenticated(post(collaboratorsUrl))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        Map.of("collaborators", List.of(collaborator.getEmail())))))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(authenticated(get(collaboratorsUrl)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2));
+
+    mockMvc
+        .perform(authenticated(delete(collaboratorsUrl + "/" + collaborator.getId())))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(authenticated(get(collaboratorsUrl)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+
+    mockMvc
+        .perform(
+            authenticated(put(projectUrl))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("name", "Renamed project"))))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(authenticated(get("/api/projects")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("Renamed project"));
+  }
+
+  @Test
+  void collaborator_removed_by_another_instance_loses_access() throws Exception {
+    var collaborator =
+        register("l2-gone-" + UUID.randomUUID() + "@example.com", "password123", "Gone");
+    String collaboratorsUrl = projectUrl + "/collaborators";
+    mockMvc
+        .perform(
+            authenticated(post(collaboratorsUrl))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    objectMapper.writeValueAsString(
+                        Map.of("collaborators", List.of(collaborator.getEmail())))))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(authenticated(get(collaboratorsUrl)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2));
+
+    // Removed by another instance, which leaves the caches of this one untouched
+    UUID projectId = UUID.fromString(projectUrl.substring(projectUrl.lastIndexOf('/') + 1));
+    jdbcTemplate.update(
+        "DELETE FROM project_user WHERE project_id = ? AND user_id = ?",
+        projectId,
+        collaborator.getId());
+    jdbcTemplate.update("UPDATE project SET members_changed_at = now() WHERE id = ?", projectId);
+    projectMembershipIndex.sync();
+
+    mockMvc
+        .perform(authenticated(get(collaboratorsUrl)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+    mockMvc
+        .perform(get(collaboratorsUrl).header("Authorization", "Bearer " + collaborator.getToken()))
+        .andExpect(status().isForbidden());
+  }
+
+  @Test
+  void sprint_changes_are_visible_through_the_cache() throws Exception {
+    String sprintUrl = projectUrl + "/sprints/" + postForId(projectUrl + "/sprints", sprintBody());
+    mockMvc.perform(authenticated(get(sprintUrl))).andExpect(status().isOk());
+
+    mockMvc
+        .perform(
+            authenticated(put(sprintUrl))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("name", "Renamed sprint"))))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(authenticated(get(sprintUrl)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.name").value("Renamed sprint"));
+
+    mockMvc.perform(authenticated(delete(sprintUrl))).andExpect(status().isNoContent());
+    mockMvc.perform(authenticated(get(sprintUrl))).andExpect(status().isForbidden());
+  }
+
+  private double hits(String region) {
+    FunctionCounter counter =
+        meterRegistry.find("cache.gets").tags("cache", region, "result", "hit").functionCounter();
+    return counter != null ? counter.count() : 0;
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + owner.getToken());
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private static Map<String, Object> sprintBody() {
+    return Map.of(
+        "name", "Sprint", "startDate", "2025-01-01T00:00:00", "endDate", "2025-01-15T00:00:00");
+  }
+}
@@ -178,6 +178,33 @@ class SprintControllerTest extends IntegrationTestWithDatabase {
         .andExpect(jsonPath("$[2].name").value("Sprint 3"));
   }
 
+  @Test
+  void getSprintsByProject_returns_issue_aggregates() throws Exception {
+    var owner = register("sprintaggregates@example.com", "password123", "SprintAggregates");
+    String projectId = createProject(owner);
+    Long issueId1 = createIssue(projectId, owner.getToken(), "Issue 1");
+    Long issueId2 = createIssue(projectId, owner.getToken(), "Issue 2");
+    createSprintWithIssues(projectId, owner.getToken(), "Full Sprint", List.of(issueId1, issueId2));
+    createSprint(projectId, owner.getToken(), "Empty Sprint");
+
+    mockMvc
+        .perform(
+            get("/api/projects/" + projectId + "/sprints")
+                .header("Authorization", "Bearer " + owner.getToken()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].issueIds.length()").value(2))
+        .andExpect(jsonPath("$[0].issueIds[0]").value(issueId1.intValue()))
+        .andExpect(jsonPath("$[0].issueIds[1]").value(issueId2.intValue()))
+        .andExpect(jsonPath("$[0].totalStoryPoints").value(10))
+        .andExpect(jsonPath("$[0].issueCountByStatus.TODO").value(2))
+        .andExpect(jsonPath("$[0].issueCountByStatus.IN_PROGRESS").value(0))
+        .andExpect(jsonPath("$[0].issueCountByStatus.CLOSED").value(0))
+        .andExpect(jsonPath("$[1].issueIds.length()").value(0))
+        .andExpect(jsonPath("$[1].totalStoryPoints").value(0))
+        .andExpect(jsonPath("$[1].issueCountByStatus.TODO").value(0));
+  }
+
   @Test
   void getSprintsByProject_empty_returns_empty_list() throws Exception {
     var owner = register("sprintempty@example.com", "password123", "SprintEmpty");
@@ -0,0 +1,191 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.IssueRepository;
+import com.group3.conduitedeprojet.repositories.ProjectRepository;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Checks that moving the issues of a sprint and deleting it run the same number of SQL statements
+ * whatever the number of issues.
+ */
+public class SprintStatementCountTest extends IntegrationTestWithDatabase {
+
+  @Autowired EntityManagerFactory entityManagerFactory;
+
+  @Autowired UserRepository userRepository;
+
+  @Autowired ProjectRepository projectRepository;
+
+  @Autowired IssueRepository issueRepository;
+
+  private Statistics statistics;
+
+  private String token;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+
+    AuthResponse auth =
+        register("sprint-sql-" + UUID.randomUUID() + "@example.com", "password123", "Planner");
+    token = auth.getToken();
+    user = userRepository.findById(auth.getId()).orElseThrow();
+  }
+
+  @Test
+  void sprint_writes_run_a_constant_number_of_statements() throws Exception {
+    Fixture small = createFixture(2);
+    Fixture large = createFixture(40);
+
+    assertEquals(
+        countStatements(reassign(small), small),
+        countStatements(reassign(large), large),
+        "statements to reassign the issues");
+    assertEquals(
+        countStatements(authenticated(delete(small.sprintUrl())), small),
+        countStatements(authenticated(delete(large.sprintUrl())), large),
+        "statements to delete the sprint");
+
+    assertEquals(0, issueRepository.findBySprintIdOrderByIdAsc(large.sprintId()).size());
+    assertEquals(
+        40, issueRepository.findByProjectIdOrderByCreatedAtAscIdAsc(large.projectId()).size());
+  }
+
+  @Test
+  void issues_of_another_project_are_rejected() throws Exception {
+    Fixture fixture = createFixture(2);
+    Fixture other = createFixture(1);
+    var body = Map.of("issueIds", List.of(fixture.issueIds().get(0), other.issueIds().get(0)));
+
+    mockMvc
+        .perform(
+            authenticated(put(fixture.sprintUrl()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(body)))
+        .andExpect(status().isForbidden());
+    mockMvc
+        .perform(
+            authenticated(put(fixture.sprintUrl()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("issueIds", List.of(-1L)))))
+        .andExpect(status().isNotFound());
+
+    // Nothing was moved by the rejected requests
+    mockMvc
+        .perform(authenticated(get(fixture.sprintUrl())))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.issueIds.length()").value(2));
+  }
+
+  private long countStatements(RequestBuilder request, Fixture fixture) throws Exception {
+    // Fills the caches in front of the database before measuring
+    mockMvc.perform(authenticated(get(fixture.sprintUrl()))).andExpect(status().isOk());
+    statistics.clear();
+    mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+    return statistics.getPrepareStatementCount();
+  }
+
+  private RequestBuilder reassign(Fixture fixture) throws Exception {
+    return authenticated(put(fixture.sprintUrl()))
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(Map.of("issueIds", fixture.issueIds())));
+  }
+
+  /** Creates a project with {@code size} issues, all of them in one sprint. */
+  private Fixture createFixture(int size) throws Exception {
+    var projectBody =
+        Map.of(
+            "name",
+            "Project " + size,
+            "description",
+            "desc",
+            "user",
+            Map.of("id", user.getId(), "email", user.getEmail()));
+    UUID projectId = UUID.fromString(postForId("/api/projects", projectBody));
+    Project project = projectRepository.findById(projectId).orElseThrow();
+
+    List<Long> issueIds =
+        issueRepository
+            .saveAll(
+                IntStream.range(0, size)
+                    .mapToObj(
+                        i ->
+                            Issue.builder()
+                                .title("Issue " + i)
+                                .priority(Issue.Priority.MEDIUM)
+                                .storyPoints(1)
+                                .project(project)
+                                .creator(user)
+                                .build())
+                    .toList())
+            .stream()
+            .map(Issue::getId)
+            .toList();
+
+    var sprintBody =
+        Map.of(
+            "name",
+            "Sprint",
+            "startDate",
+            "2025-01-01T00:00:00",
+            "endDate",
+            "2025-01-15T00:00:00",
+            "issueIds",
+            issueIds);
+    Long sprintId = Long.valueOf(postForId("/api/projects/" + projectId + "/sprints", sprintBody));
+    return new Fixture(projectId, sprintId, issueIds);
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + token);
+  }
+
+  private record Fixture(UUID projectId, Long sprintId, List<Long> issueIds) {
+
+    String sprintUrl() {
+      return "/api/projects/" + projectId + "/sprints/" + sprintId;
+    }
+  }
+}
@@ -0,0 +1,334 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.models.CodeBlob;
+import com.group3.conduitedeprojet.repositories.CodeBlobRepository;
+import com.group3.conduitedeprojet.services.TestCodeService;
+import jakarta.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Test code is stored once per distinct content, counted, swept and served by hash. */
+public class TestCodeStorageTest extends IntegrationTestWithDatabase {
+
+  private static final String FIXTURE =
+      "function fibonacci(n) { return n < 2 ? n : fibonacci(n - 1) + fibonacci(n - 2); }\n"
+          .repeat(20);
+
+  @Autowired CodeBlobRepository codeBlobRepository;
+
+  @Autowired TestCodeService testCodeService;
+
+  @Autowired EntityManagerFactory entityManagerFactory;
+
+  private String token;
+
+  private AuthResponse auth;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    auth = register("code-" + UUID.randomUUID() + "@example.com", "password123", "Coder");
+    token = auth.getToken();
+  }
+
+  @Test
+  void copied_code_is_stored_once_and_counted() throws Exception {
+    String projectUrl = "/api/projects/" + createProject();
+    Long firstIssue = createIssue(projectUrl);
+    Long secondIssue = createIssue(projectUrl);
+    String uniqueTests = "test('unique " + UUID.randomUUID() + "', () => {});";
+
+    JsonNode first =
+        createTest(projectUrl, firstIssue, Map.of("programCode", FIXTURE, "testCode", "f();"));
+    JsonNode second =
+        createTest(
+            projectUrl, secondIssue, Map.of("programCode", FIXTURE, "testCode", uniqueTests));
+
+    String fixtureHash = first.get("programHash").asText();
+    assertEquals(TestCodeService.hashOf(FIXTURE), fixtureHash);
+    assertEquals(fixtureHash, second.get("programHash").asText());
+    assertEquals(FIXTURE, second.get("programCode").asText());
+    CodeBlob fixture = codeBlobRepository.findById(fixtureHash).orElseThrow();
+    assertTrue(fixture.isCompressed());
+    assertTrue(fixture.getData().length < FIXTURE.length() / 10);
+    assertEquals(FIXTURE.length(), fixture.getCodeLength());
+    int fixtureReferences = fixture.getRefCount();
+    CodeBlob unique = codeBlobRepository.findById(second.get("testHash").asText()).orElseThrow();
+    assertFalse(unique.isCompressed());
+    assertEquals(1, unique.getRefCount());
+
+    // Unchanged code is sent by hash only
+    JsonNode third =
+        createTest(projectUrl, secondIssue, Map.of("programHash", fixtureHash, "testCode", "g();"));
+    assertEquals(FIXTURE, third.get("programCode").asText());
+    assertEquals(fixtureReferences + 1, refCount(fixtureHash));
+
+    long thirdId = third.get("id").asLong();
+    mockMvc
+        .perform(
+            authenticated(put(projectUrl + "/issues/" + secondIssue + "/tests/" + thirdId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("programCode", FIXTURE))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.testCode").value("g();"));
+    assertEquals(fixtureReferences + 1, refCount(fixtureHash));
+
+    mockMvc
+        .perform(
+            authenticated(put(projectUrl + "/issues/" + secondIssue + "/tests/" + thirdId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("programCode", uniqueTests))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.programHash").value(unique.getHash()));
+    assertEquals(fixtureReferences, refCount(fixtureHash));
+    assertEquals(2, refCount(unique.getHash()));
+
+    mockMvc
+        .perform(authenticated(delete(projectUrl + "/issues/" + secondIssue + "/tests/" + thirdId)))
+        .andExpect(status().isNoContent());
+    mockMvc
+        .perform(
+            authenticated(
+                delete(
+                    projectUrl + "/issues/" + secondIssue + "/tests/" + second.get("id").asLong())))
+        .andExpect(status().isNoContent());
+    assertEquals(0, refCount(unique.getHash()));
+
+    testCodeService.deleteUnreferenced();
+
+    assertFalse(codeBlobRepository.existsById(unique.getHash()));
+    assertEquals(fixtureReferences - 1, refCount(fixtureHash));
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/issues/" + firstIssue + "/tests")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].programCode").value(FIXTURE));
+  }
+
+  @Test
+  void code_is_only_referenced_by_hash_within_the_project() throws Exception {
+    String projectUrl = "/api/projects/" + createProject();
+    Long issueId = createIssue(projectUrl);
+    String code = "test('secret " + UUID.randomUUID() + "', () => {});";
+    String hash =
+        createTest(projectUrl, issueId, Map.of("programCode", "", "testCode", code))
+            .get("testHash")
+            .asText();
+
+    String otherProjectUrl = "/api/projects/" + createProject();
+    Long otherIssueId = createIssue(otherProjectUrl);
+
+    mockMvc
+        .perform(
+            authenticated(post(otherProjectUrl + "/issues/" + otherIssueId + "/tests"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("testHash", hash))))
+        .andExpect(status().isNotFound())
+        .andExpect(jsonPath("$.error").value("TEST_CODE_NOT_FOUND"));
+    mockMvc
+        .perform(authenticated(get(otherProjectUrl + "/test-code/" + hash)))
+        .andExpect(status().isNotFound());
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/test-code/" + "0".repeat(64))))
+        .andExpect(status().isNotFound());
+    assertEquals(1, refCount(hash));
+
+    mockMvc
+        .perform(authenticated(get(projectUrl + "/test-code/" + hash)))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"" + hash + "\""))
+        .andExpect(header().string("Cache-Control", "max-age=31536000, private, immutable"))
+        .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN))
+        .andExpect(content().string(code));
+    mockMvc
+        .perform(
+            authenticated(get(projectUrl + "/test-code/" + hash))
+                .header("If-None-Match", "\"" + hash + "\""))
+        .andExpect(status().isNotModified());
+    mockMvc.perform(get(projectUrl + "/test-code/" + hash)).andExpect(status().isUnauthorized());
+  }
+
+  @Test
+  void test_listing_is_revalidated_by_the_hashes_of_its_code() throws Exception {
+    String projectUrl = "/api/projects/" + createProject();
+    Long issueId = createIssue(projectUrl);
+    String testsUrl = projectUrl + "/issues/" + issueId + "/tests";
+    long testId =
+        createTest(projectUrl, issueId, Map.of("programCode", FIXTURE, "testCode", "f();"))
+            .get("id")
+            .asLong();
+
+    String eTag =
+        mockMvc
+            .perform(authenticated(get(testsUrl)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+    mockMvc
+        .perform(authenticated(get(testsUrl)).header("If-None-Match", eTag))
+        .andExpect(status().isNotModified());
+
+    String hashesOnly =
+        mockMvc
+            .perform(authenticated(get(testsUrl).param("includeCode", "false")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].programHash").value(TestCodeService.hashOf(FIXTURE)))
+            .andExpect(jsonPath("$[0].programCode").doesNotExist())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+    assertNotEquals(eTag, hashesOnly);
+
+    Map<String, Object> update = new HashMap<>();
+    update.put("testCode", "g();");
+    mockMvc
+        .perform(
+            authenticated(put(testsUrl + "/" + testId))
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isOk());
+    mockMvc
+        .perform(authenticated(get(testsUrl)).header("If-None-Match", eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].testCode").value("g();"));
+  }
+
+  @Test
+  void project_export_reads_the_code_of_its_tests_in_one_query() throws Exception {
+    String projectId = createProject();
+    String projectUrl = "/api/projects/" + projectId;
+    Long issueId = createIssue(projectUrl);
+    List<String> codes = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      String code = "test('export " + i + " " + UUID.randomUUID() + "', () => {});";
+      codes.add(code);
+      createTest(projectUrl, issueId, Map.of("programCode", FIXTURE, "testCode", code));
+    }
+    // Cold cache: every code is read from code_blobs
+    ((Cache<?, ?>) ReflectionTestUtils.getField(testCodeService, "codes")).invalidateAll();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.setStatisticsEnabled(true);
+    statistics.clear();
+
+    String body;
+    try {
+      var started =
+          mockMvc
+              .perform(authenticated(get(projectUrl + "/export")))
+              .andExpect(request().asyncStarted())
+              .andReturn();
+      body =
+          mockMvc
+              .perform(asyncDispatch(started))
+              .andExpect(status().isOk())
+              .andReturn()
+              .getResponse()
+              .getContentAsString();
+    } finally {
+      statistics.setStatisticsEnabled(false);
+    }
+
+    long codeQueries =
+        Arrays.stream(statistics.getQueries())
+            .filter(query -> query.contains("from code_blobs"))
+            .mapToLong(query -> statistics.getQueryStatistics(query).getExecutionCount())
+            .sum();
+    assertEquals(1, codeQueries);
+    List<String> exported =
+        body.lines()
+            .map(line -> assertDoesNotThrow(() -> objectMapper.readTree(line)))
+            .filter(line -> line.get("type").asText().equals("test"))
+            .map(line -> line.get("data").get("testCode").asText())
+            .toList();
+    assertEquals(codes, exported);
+  }
+
+  private int refCount(String hash) {
+    return codeBlobRepository.findById(hash).orElseThrow().getRefCount();
+  }
+
+  private String createProject() throws Exception {
+    return postJson(
+            "/api/projects",
+            Map.of(
+                "name",
+                "Code project",
+                "description",
+                "desc",
+                "user",
+                Map.of("id", auth.getId(), "email", auth.getEmail())))
+        .get("id")
+        .asText();
+  }
+
+  private Long createIssue(String projectUrl) throws Exception {
+    return postJson(
+            projectUrl + "/issues",
+            Map.of(
+                "title",
+                "Issue",
+                "description",
+                "desc",
+                "storyPoints",
+                1,
+                "priority",
+                "MEDIUM",
+                "status",
+                "TODO"))
+        .get("id")
+        .asLong();
+  }
+
+  private JsonNode createTest(String projectUrl, Long issueId, Map<String, String> body)
+      throws Exception {
+    return postJson(projectUrl + "/issues/" + issueId + "/tests", body);
+  }
+
+  private JsonNode postJson(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json);
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + token);
+  }
+}
@@ -0,0 +1,214 @@
+package com.group3.conduitedeprojet.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.group3.conduitedeprojet.dto.AuthResponse;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.Sprint;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.IssueRepository;
+import com.group3.conduitedeprojet.repositories.ProjectRepository;
+import com.group3.conduitedeprojet.repositories.SprintRepository;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/** Runs the stored tests of an issue, a sprint and a release. */
+public class TestRunTest extends IntegrationTestWithDatabase {
+
+  private static final String PROGRAM = "function add(a, b) { return a + b; }";
+
+  private static final String PASS = "test('adds', function () { assertEquals(add(1, 2), 3); });\n";
+
+  private static final String FAIL =
+      "test('fails', function () { assertEquals(add(1, 1), 3); });\n";
+
+  @Autowired UserRepository userRepository;
+
+  @Autowired ProjectRepository projectRepository;
+
+  @Autowired IssueRepository issueRepository;
+
+  @Autowired SprintRepository sprintRepository;
+
+  private String token;
+
+  private User user;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    AuthResponse auth =
+        register("runner-" + UUID.randomUUID() + "@example.com", "password123", "Tester");
+    token = auth.getToken();
+    user = userRepository.findById(auth.getId()).orElseThrow();
+  }
+
+  @Test
+  void tests_of_an_issue_a_sprint_and_a_release_are_run() throws Exception {
+    UUID projectId = createProject();
+    String projectUrl = "/api/projects/" + projectId;
+    Long sprintId = createSprint(projectUrl);
+    Sprint sprint = sprintRepository.findById(sprintId).orElseThrow();
+    Long planned = createIssue(projectId, sprint);
+    Long shipped = createIssue(projectId, sprint);
+    Long backlog = createIssue(projectId, null);
+    Long releaseId =
+        Long.valueOf(
+            postForId(
+                projectUrl + "/releases",
+                Map.of(
+                    "version",
+                    Map.of("major", 1, "minor", 0, "patch", 0),
+                    "issueIds",
+                    List.of(shipped, backlog))));
+
+    Long first = createTest(projectUrl, planned, PROGRAM, PASS + PASS);
+    createTest(projectUrl, planned, "", "add(1, 2);\n" + PASS);
+    createTest(projectUrl, shipped, PROGRAM, PASS + FAIL);
+    createTest(projectUrl, backlog, PROGRAM, FAIL);
+
+    mockMvc
+        .perform(authenticated(post(projectUrl + "/issues/" + planned + "/tests/run")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.success").value(false))
+        .andExpect(jsonPath("$.error").value("1 of 2 test runs did not complete"))
+        .andExpect(jsonPath("$.testCount").value(2))
+        .andExpect(jsonPath("$.passedCount").value(2))
+        .andExpect(jsonPath("$.failedCount").value(0))
+        .andExpect(jsonPath("$.results[0].testId").value(first))
+        .andExpect(jsonPath("$.results[0].issueId").value(planned))
+        .andExpect(
+            jsonPath("$.results[0].output")
+                .value(
+                    "✅ Test 1: adds\n✅ Test 2: adds\n\n━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n"
+                        + "📊 Résumé: 2 réussi(s), 0 échoué(s) sur 2 test(s)\n"
+                        + "✨ Tous les tests sont passés avec succès !"))
+        .andExpect(jsonPath("$.results[1].success").value(false))
+        .andExpect(jsonPath("$.results[1].error").value("add is not defined"));
+
+    mockMvc
+        .perform(authenticated(post(projectUrl + "/sprints/" + sprintId + "/tests/run")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.results.length()").value(3))
+        .andExpect(jsonPath("$.testCount").value(4))
+        .andExpect(jsonPath("$.passedCount").value(3))
+        .andExpect(jsonPath("$.failedCount").value(1));
+
+    mockMvc
+        .perform(authenticated(post(projectUrl + "/releases/" + releaseId + "/tests/run")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.success").value(true))
+        .andExpect(jsonPath("$.results.length()").value(2))
+        .andExpect(jsonPath("$.results[0].issueId").value(shipped))
+        .andExpect(jsonPath("$.results[1].issueId").value(backlog))
+        .andExpect(jsonPath("$.testCount").value(3))
+        .andExpect(jsonPath("$.passedCount").value(1))
+        .andExpect(jsonPath("$.failedCount").value(2))
+        .andExpect(jsonPath("$.output").value("📊 Résumé: 1 réussi(s), 2 échoué(s) sur 3 test(s)"));
+  }
+
+  @Test
+  void runs_are_scoped_to_the_project() throws Exception {
+    UUID projectId = createProject();
+    String projectUrl = "/api/projects/" + projectId;
+    Long sprintId = createSprint(projectUrl);
+    Long issueId = createIssue(projectId, null);
+    String otherProjectUrl = "/api/projects/" + createProject();
+
+    mockMvc
+        .perform(authenticated(post(otherProjectUrl + "/sprints/" + sprintId + "/tests/run")))
+        .andExpect(status().isNotFound());
+    mockMvc
+        .perform(authenticated(post(otherProjectUrl + "/issues/" + issueId + "/tests/run")))
+        .andExpect(status().isNotFound());
+    mockMvc
+        .perform(authenticated(post(projectUrl + "/releases/-1/tests/run")))
+        .andExpect(status().isNotFound());
+    mockMvc
+        .perform(post(projectUrl + "/issues/" + issueId + "/tests/run"))
+        .andExpect(status().isUnauthorized());
+
+    mockMvc
+        .perform(authenticated(post(projectUrl + "/issues/" + issueId + "/tests/run")))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.success").value(true))
+        .andExpect(jsonPath("$.testCount").value(0))
+        .andExpect(jsonPath("$.results.length()").value(0));
+  }
+
+  private UUID createProject() throws Exception {
+    return UUID.fromString(
+        postForId(
+            "/api/projects",
+            Map.of(
+                "name",
+                "Runner project",
+                "description",
+                "desc",
+                "user",
+                Map.of("id", user.getId(), "email", user.getEmail()))));
+  }
+
+  private Long createSprint(String projectUrl) throws Exception {
+    return Long.valueOf(
+        postForId(
+            projectUrl + "/sprints",
+            Map.of(
+                "name",
+                "Sprint",
+                "startDate",
+                "2025-01-01T00:00:00",
+                "endDate",
+                "2025-01-15T00:00:00")));
+  }
+
+  private Long createIssue(UUID projectId, Sprint sprint) {
+    Project project = projectRepository.findById(projectId).orElseThrow();
+    return issueRepository
+        .save(
+            Issue.builder()
+                .title("Issue")
+                .priority(Issue.Priority.MEDIUM)
+                .storyPoints(1)
+                .project(project)
+                .creator(user)
+                .sprint(sprint)
+                .build())
+        .getId();
+  }
+
+  private Long createTest(String projectUrl, Long issueId, String programCode, String testCode)
+      throws Exception {
+    return Long.valueOf(
+        postForId(
+            projectUrl + "/issues/" + issueId + "/tests",
+            Map.of("programCode", programCode, "testCode", testCode)));
+  }
+
+  private String postForId(String url, Object body) throws Exception {
+    String json =
+        mockMvc
+            .perform(
+                authenticated(post(url))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(body)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    return objectMapper.readTree(json).get("id").asText();
+  }
+
+  private MockHttpServletRequestBuilder authenticated(MockHttpServletRequestBuilder request) {
+    return request.header("Authorization", "Bearer " + token);
+  }
+}
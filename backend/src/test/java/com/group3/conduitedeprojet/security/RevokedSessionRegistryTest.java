@@ -0,0 +1,81 @@
+package com.group3.conduitedeprojet.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.group3.conduitedeprojet.repositories.RefreshTokenRepository;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class RevokedSessionRegistryTest {
+
+  private RefreshTokenRepository refreshTokenRepository;
+
+  private RevokedSessionRegistry registry;
+
+  @BeforeEach
+  public void setUp() {
+    refreshTokenRepository = mock(RefreshTokenRepository.class);
+    when(refreshTokenRepository.findSessionIdsRevokedSince(any())).thenReturn(List.of());
+
+    registry = new RevokedSessionRegistry();
+    ReflectionTestUtils.setField(registry, "refreshTokenRepository", refreshTokenRepository);
+    ReflectionTestUtils.setField(registry, "accessTokenExpirationMs", 60000L);
+    ReflectionTestUtils.setField(registry, "expectedInsertions", 1000);
+    ReflectionTestUtils.setField(registry, "falsePositiveRate", 0.01);
+    registry.init();
+  }
+
+  @Test
+  public void testRevokedSessionIsDetected() {
+    UUID revoked = UUID.randomUUID();
+
+    registry.revoke(revoked);
+
+    assertTrue(registry.isRevoked(revoked));
+    assertFalse(registry.isRevoked(UUID.randomUUID()));
+  }
+
+  @Test
+  public void testSyncLoadsRevocationsFromDatabase() {
+    UUID revokedElsewhere = UUID.randomUUID();
+    when(refreshTokenRepository.findSessionIdsRevokedSince(any()))
+        .thenReturn(List.of(revokedElsewhere));
+
+    registry.sync();
+
+    assertTrue(registry.isRevoked(revokedElsewhere));
+  }
+
+  @Test
+  public void testExpiredRevocationsArePruned() {
+    ReflectionTestUtils.setField(registry, "accessTokenExpirationMs", -1L);
+    UUID revoked = UUID.randomUUID();
+    registry.revoke(revoked);
+
+    registry.sync();
+
+    assertFalse(registry.isRevoked(revoked));
+  }
+
+  @Test
+  public void testBloomFilterFalsePositiveRate() {
+    BloomFilter bloomFilter = BloomFilter.create(10000, 0.01);
+    for (int i = 0; i < 10000; i++) {
+      bloomFilter.put(UUID.randomUUID());
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 100000; i++) {
+      if (bloomFilter.mightContain(UUID.randomUUID())) {
+        falsePositives++;
+      }
+    }
+
+    assertTrue(falsePositives < 2000, "false positives: " + falsePositives);
+  }
+}
@@ -0,0 +1,98 @@
+package com.group3.conduitedeprojet.security;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+public class StripedTokenBucketsTest {
+
+  private static final int KEY_COUNT = 100_000;
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void testBucketEmptiesThenRefills() {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(4, 3, 1, 60000, clock::get);
+
+    assertTrue(buckets.tryAcquire("alice"));
+    assertTrue(buckets.tryAcquire("alice"));
+    assertTrue(buckets.tryAcquire("alice"));
+    assertFalse(buckets.tryAcquire("alice"));
+    assertTrue(buckets.tryAcquire("bob"));
+    assertEquals(1, buckets.secondsUntilNextToken("alice"));
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+    assertTrue(buckets.tryAcquire("alice"));
+    assertFalse(buckets.tryAcquire("alice"));
+  }
+
+  @Test
+  public void testIdleBucketsAreEvicted() {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(4, 2, 1, 10000, clock::get);
+    buckets.tryAcquire("alice");
+    buckets.tryAcquire("bob");
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(5));
+    buckets.tryAcquire("bob");
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(6));
+
+    assertEquals(1, buckets.evictIdle());
+    assertEquals(1, buckets.size());
+  }
+
+  @Test
+  public void testConcurrentAcquisitionsNeverExceedCapacity() throws Exception {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(16, 100, 0.001, 60000, clock::get);
+    AtomicInteger granted = new AtomicInteger();
+    int threads = 8;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> futures = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                for (int i = 0; i < 1000; i++) {
+                  if (buckets.tryAcquire("shared")) {
+                    granted.incrementAndGet();
+                  }
+                }
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    assertEquals(100, granted.get());
+  }
+
+  /** Throughput with many keys is measured by {@code AuthRateLimiterBenchmark}. */
+  @Test
+  public void testManyKeysAreTrackedIndependently() {
+    StripedTokenBuckets buckets = new StripedTokenBuckets(64, 1, 1, 60000, clock::get);
+    String[] keys = new String[KEY_COUNT];
+    for (int i = 0; i < KEY_COUNT; i++) {
+      keys[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xff) + "." + (i & 0xff);
+      assertTrue(buckets.tryAcquire(keys[i]));
+    }
+
+    assertEquals(KEY_COUNT, buckets.size());
+    for (String key : keys) {
+      assertFalse(buckets.tryAcquire(key), key);
+    }
+  }
+}
@@ -6,34 +6,39 @@ import static org.mockito.Mockito.*;
 
 import com.group3.conduitedeprojet.dto.AuthResponse;
 import com.group3.conduitedeprojet.dto.LoginRequest;
+import com.group3.conduitedeprojet.dto.RefreshTokenRequest;
 import com.group3.conduitedeprojet.dto.RegisterRequest;
 import com.group3.conduitedeprojet.exceptions.EmailAlreadyExistsException;
 import com.group3.conduitedeprojet.exceptions.InvalidCredentialsException;
-import com.group3.conduitedeprojet.exceptions.UserNotFoundException;
 import com.group3.conduitedeprojet.models.User;
 import com.group3.conduitedeprojet.repositories.UserRepository;
+import com.group3.conduitedeprojet.services.RefreshTokenService.IssuedRefreshToken;
+import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 public class AuthServiceTest {
 
   @Mock private UserRepository userRepository;
 
-  @Mock private PasswordEncoder passwordEncoder;
+  @Mock private PasswordHashingService passwordHashingService;
 
   @Mock private JwtService jwtService;
 
-  @Mock private AuthenticationManager authenticationManager;
+  @Mock private UserCacheService userCacheService;
+
+  @Mock private RefreshTokenService refreshTokenService;
+
+  @Mock private TransactionTemplate transactionTemplate;
 
   @InjectMocks private AuthService authService;
 
@@ -41,6 +46,8 @@ public class AuthServiceTest {
   private LoginRequest loginRequest;
   private User testUser;
 
+  private final UUID sessionId = UUID.randomUUID();
+
   @BeforeEach
   public void setUp() {
     registerRequest = new RegisterRequest();
@@ -60,14 +67,24 @@ public class AuthServiceTest {
             .name("John Doe")
             .enabled(true)
             .build();
+
+    lenient()
+        .when(refreshTokenService.startSession(any(User.class)))
+        .thenAnswer(
+            invocation ->
+                new IssuedRefreshToken(sessionId, "refresh_token", invocation.getArgument(0)));
+    lenient()
+        .when(transactionTemplate.execute(any()))
+        .thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
   }
 
   @Test
   public void testRegisterSuccess() {
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
-    when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+    when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
     when(userRepository.save(any(User.class))).thenReturn(testUser);
-    when(jwtService.generateToken(any())).thenReturn("jwt_token_123");
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token_123");
 
     AuthResponse response = authService.register(registerRequest);
 
@@ -76,7 +93,8 @@ public class AuthServiceTest {
     assertEquals("John Doe", response.getName());
     assertEquals("jwt_token_123", response.getToken());
     verify(userRepository, times(1)).save(any(User.class));
-    verify(passwordEncoder, times(1)).encode("password123");
+    verify(passwordHashingService, times(1)).encode("password123");
+    verify(userCacheService, times(1)).evict(testUser);
   }
 
   @Test
@@ -95,34 +113,33 @@ public class AuthServiceTest {
   @Test
   public void testRegisterPasswordIsEncoded() {
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
-    when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+    when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
     when(userRepository.save(any(User.class))).thenReturn(testUser);
-    when(jwtService.generateToken(any())).thenReturn("jwt_token");
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token");
 
     authService.register(registerRequest);
 
-    verify(passwordEncoder, times(1)).encode("password123");
+    verify(passwordHashingService, times(1)).encode("password123");
   }
 
   @Test
   public void testRegisterTokenGenerated() {
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
-    when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+    when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
     when(userRepository.save(any(User.class))).thenReturn(testUser);
-    when(jwtService.generateToken(any())).thenReturn("jwt_token");
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token");
 
     AuthResponse response = authService.register(registerRequest);
 
     assertNotNull(response.getToken());
-    verify(jwtService, times(1)).generateToken(any());
+    verify(jwtService, times(1)).generateToken(anyMap(), any());
   }
 
   @Test
   public void testLoginSuccess() {
-    when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-        .thenReturn(new UsernamePasswordAuthenticationToken("test@example.com", "password123"));
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-    when(jwtService.generateToken(any())).thenReturn("jwt_token_456");
+    when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(true);
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token_456");
 
     AuthResponse response = authService.login(loginRequest);
 
@@ -134,8 +151,8 @@ public class AuthServiceTest {
 
   @Test
   public void testLoginInvalidCredentials() {
-    when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-        .thenThrow(new BadCredentialsException("Invalid credentials"));
+    when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+    when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(false);
 
     assertThrows(
         InvalidCredentialsException.class,
@@ -143,26 +160,29 @@ public class AuthServiceTest {
           authService.login(loginRequest);
         });
 
-    verify(userRepository, never()).findByEmail(anyString());
+    verify(refreshTokenService, never()).startSession(any(User.class));
   }
 
   @Test
   public void testLoginUserNotFound() {
-    when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-        .thenReturn(new UsernamePasswordAuthenticationToken("test@example.com", "password123"));
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
+    when(passwordHashingService.encode(anyString())).thenReturn("dummyHash");
 
     assertThrows(
-        UserNotFoundException.class,
+        InvalidCredentialsException.class,
         () -> {
           authService.login(loginRequest);
         });
+
+    // A hash is still checked so that unknown emails cannot be told apart by timing
+    verify(passwordHashingService, times(1)).matches("password123", "dummyHash");
   }
 
   @Test
-  public void testLoginWrongPassword() {
-    when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-        .thenThrow(new BadCredentialsException("Bad credentials"));
+  public void testLoginDisabledUser() {
+    testUser.setEnabled(false);
+    when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+    when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(true);
 
     assertThrows(
         InvalidCredentialsException.class,
@@ -171,12 +191,39 @@ public class AuthServiceTest {
         });
   }
 
+  @Test
+  public void testLoginLoadsUserOnce() {
+    when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+    when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(true);
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token");
+
+    authService.login(loginRequest);
+
+    verify(userRepository, times(1)).findByEmail("test@example.com");
+    verify(userRepository, never()).save(any(User.class));
+  }
+
+  @Test
+  public void testLoginRehashesPasswordWithWeakerCost() {
+    when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+    when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(true);
+    when(passwordHashingService.needsRehash("encodedPassword")).thenReturn(true);
+    when(passwordHashingService.encode("password123")).thenReturn("strongerHash");
+    when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token");
+
+    authService.login(loginRequest);
+
+    verify(userRepository).save(argThat(user -> user.getPassword().equals("strongerHash")));
+    verify(userCacheService).evict(testUser);
+  }
+
   @Test
   public void testRegisterUserEnabledByDefault() {
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
-    when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+    when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
     when(userRepository.save(any(User.class))).thenReturn(testUser);
-    when(jwtService.generateToken(any())).thenReturn("jwt_token");
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token");
 
     authService.register(registerRequest);
 
@@ -186,9 +233,9 @@ public class AuthServiceTest {
   @Test
   public void testMultipleRegistersSameUserFails() {
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
-    when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+    when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
     when(userRepository.save(any(User.class))).thenReturn(testUser);
-    when(jwtService.generateToken(any())).thenReturn("jwt_token");
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token");
 
     authService.register(registerRequest);
 
@@ -204,19 +251,44 @@ public class AuthServiceTest {
   @Test
   public void testLoginAfterRegister() {
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.empty());
-    when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+    when(passwordHashingService.encode("password123")).thenReturn("encodedPassword");
     when(userRepository.save(any(User.class))).thenReturn(testUser);
-    when(jwtService.generateToken(any())).thenReturn("jwt_token_123");
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token_123");
 
     AuthResponse registerResponse = authService.register(registerRequest);
     assertNotNull(registerResponse.getToken());
 
-    when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
-        .thenReturn(new UsernamePasswordAuthenticationToken("test@example.com", "password123"));
     when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
-    when(jwtService.generateToken(any())).thenReturn("jwt_token_456");
+    when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(true);
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token_456");
 
     AuthResponse loginResponse = authService.login(loginRequest);
     assertNotNull(loginResponse.getToken());
   }
+
+  @Test
+  public void testLoginStartsSession() {
+    when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+    when(passwordHashingService.matches("password123", "encodedPassword")).thenReturn(true);
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token");
+
+    AuthResponse response = authService.login(loginRequest);
+
+    assertEquals("refresh_token", response.getRefreshToken());
+    verify(jwtService)
+        .generateToken(Map.of(JwtService.SESSION_ID_CLAIM, sessionId.toString()), testUser);
+  }
+
+  @Test
+  public void testRefreshRotatesToken() {
+    when(refreshTokenService.rotate("old_refresh_token"))
+        .thenReturn(new IssuedRefreshToken(sessionId, "new_refresh_token", testUser));
+    when(jwtService.generateToken(anyMap(), any())).thenReturn("jwt_token_789");
+
+    AuthResponse response = authService.refresh(new RefreshTokenRequest("old_refresh_token"));
+
+    assertEquals("jwt_token_789", response.getToken());
+    assertEquals("new_refresh_token", response.getRefreshToken());
+    assertEquals("test@example.com", response.getEmail());
+  }
 }
@@ -0,0 +1,122 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.group3.conduitedeprojet.exceptions.DocumentationNotFoundException;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository.DocumentationContent;
+import com.group3.conduitedeprojet.services.DocumentationContentService.Content;
+import com.group3.conduitedeprojet.services.DocumentationContentService.Encoding;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class DocumentationContentServiceTest {
+
+  private static final UUID PROJECT_ID = UUID.randomUUID();
+
+  private DocumentationRepository documentationRepository;
+
+  private MeterRegistry meterRegistry;
+
+  private DocumentationContentService documentationContentService;
+
+  private String page;
+
+  @BeforeEach
+  public void setUp() {
+    documentationRepository = mock(DocumentationRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+
+    documentationContentService = new DocumentationContentService();
+    ReflectionTestUtils.setField(
+        documentationContentService, "documentationRepository", documentationRepository);
+    ReflectionTestUtils.setField(documentationContentService, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(documentationContentService, "maximumWeightBytes", 1_000_000L);
+    documentationContentService.init();
+
+    page = "Une ligne du guide\n".repeat(200);
+  }
+
+  @Test
+  public void testContentIsGzippedOncePerHash() throws IOException {
+    when(documentationRepository.findContentHash(1L, PROJECT_ID)).thenReturn(Optional.of("h1"));
+    when(documentationRepository.findContent(1L, PROJECT_ID))
+        .thenReturn(Optional.of(new DocumentationContent("h1", page)));
+
+    Content first = documentationContentService.getContent(PROJECT_ID, 1L, true);
+    Content second = documentationContentService.getContent(PROJECT_ID, 1L, true);
+
+    assertEquals(Encoding.GZIP, first.encoding());
+    assertEquals("\"h1-gzip\"", first.eTag());
+    assertEquals(page, gunzip(second.bytes()));
+    assertSame(first.bytes(), second.bytes());
+    // The cached page is served without reading its content
+    verify(documentationRepository, times(1)).findContent(1L, PROJECT_ID);
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("cache.gets")
+            .tag("cache", "documentation-content")
+            .tag("result", "hit")
+            .functionCounter()
+            .count());
+  }
+
+  @Test
+  public void testSmallOrRefusedContentIsNotGzipped() {
+    when(documentationRepository.findContentHash(1L, PROJECT_ID)).thenReturn(Optional.of("h1"));
+    when(documentationRepository.findContent(1L, PROJECT_ID))
+        .thenReturn(Optional.of(new DocumentationContent("h1", "# Court")));
+    when(documentationRepository.findContent(2L, PROJECT_ID))
+        .thenReturn(Optional.of(new DocumentationContent("h2", page)));
+
+    Content small = documentationContentService.getContent(PROJECT_ID, 1L, true);
+    Content refused = documentationContentService.getContent(PROJECT_ID, 2L, false);
+
+    assertEquals(Encoding.IDENTITY, small.encoding());
+    assertEquals("\"h1\"", small.eTag());
+    assertArrayEquals(page.getBytes(StandardCharsets.UTF_8), refused.bytes());
+    verify(documentationRepository, never()).findContentHash(2L, PROJECT_ID);
+  }
+
+  @Test
+  public void testMissingDocumentationIsNotFound() {
+    when(documentationRepository.findContentHash(1L, PROJECT_ID)).thenReturn(Optional.empty());
+    when(documentationRepository.findContent(1L, PROJECT_ID)).thenReturn(Optional.empty());
+
+    assertThrows(
+        DocumentationNotFoundException.class,
+        () -> documentationContentService.getContent(PROJECT_ID, 1L, true));
+    assertThrows(
+        DocumentationNotFoundException.class,
+        () -> documentationContentService.getContent(PROJECT_ID, 1L, false));
+  }
+
+  @Test
+  public void testAcceptEncodingQualities() {
+    assertTrue(DocumentationContentService.acceptsGzip("gzip, deflate, br"));
+    assertTrue(DocumentationContentService.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+    assertTrue(DocumentationContentService.acceptsGzip("*"));
+    assertFalse(DocumentationContentService.acceptsGzip(null));
+    assertFalse(DocumentationContentService.acceptsGzip("identity"));
+    assertFalse(DocumentationContentService.acceptsGzip("gzip;q=0"));
+    assertFalse(DocumentationContentService.acceptsGzip("*, gzip;q=0"));
+    assertFalse(DocumentationContentService.acceptsGzip("*;q=0"));
+  }
+
+  private static String gunzip(byte[] bytes) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
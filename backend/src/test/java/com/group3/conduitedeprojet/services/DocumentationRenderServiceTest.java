@@ -0,0 +1,87 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.group3.conduitedeprojet.exceptions.DocumentationNotFoundException;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository;
+import com.group3.conduitedeprojet.repositories.DocumentationRepository.DocumentationContent;
+import com.group3.conduitedeprojet.services.DocumentationRenderService.RenderedPage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class DocumentationRenderServiceTest {
+
+  private static final UUID PROJECT_ID = UUID.randomUUID();
+
+  private DocumentationRepository documentationRepository;
+
+  private MeterRegistry meterRegistry;
+
+  private DocumentationRenderService documentationRenderService;
+
+  @BeforeEach
+  public void setUp() {
+    documentationRepository = mock(DocumentationRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+
+    documentationRenderService = new DocumentationRenderService();
+    ReflectionTestUtils.setField(
+        documentationRenderService, "documentationRepository", documentationRepository);
+    ReflectionTestUtils.setField(documentationRenderService, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(documentationRenderService, "maximumWeightBytes", 1_000_000L);
+    documentationRenderService.init();
+  }
+
+  @Test
+  public void testWarmReadDoesNotLoadTheContent() {
+    when(documentationRepository.findContentHash(1L, PROJECT_ID)).thenReturn(Optional.of("h1"));
+    when(documentationRepository.findContent(1L, PROJECT_ID))
+        .thenReturn(Optional.of(new DocumentationContent("h1", "# Guide")));
+
+    RenderedPage cold = documentationRenderService.getRenderedPage(PROJECT_ID, 1L);
+    RenderedPage warm = documentationRenderService.getRenderedPage(PROJECT_ID, 1L);
+
+    assertEquals("<h1>Guide</h1>\n", new String(warm.html(), StandardCharsets.UTF_8));
+    assertEquals("\"h1-html\"", warm.eTag());
+    assertSame(cold.html(), warm.html());
+    verify(documentationRepository, times(1)).findContent(1L, PROJECT_ID);
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("cache.gets")
+            .tag("cache", "documentation-html")
+            .tag("result", "hit")
+            .functionCounter()
+            .count());
+  }
+
+  @Test
+  public void testEvictForcesRendering() {
+    when(documentationRepository.findContentHash(1L, PROJECT_ID)).thenReturn(Optional.of("h1"));
+    when(documentationRepository.findContent(1L, PROJECT_ID))
+        .thenReturn(Optional.of(new DocumentationContent("h1", "texte")));
+
+    documentationRenderService.getRenderedPage(PROJECT_ID, 1L);
+    documentationRenderService.evict("h1");
+    documentationRenderService.getRenderedPage(PROJECT_ID, 1L);
+
+    verify(documentationRepository, times(2)).findContent(1L, PROJECT_ID);
+  }
+
+  @Test
+  public void testMissingDocumentationIsNotFound() {
+    when(documentationRepository.findContentHash(1L, PROJECT_ID)).thenReturn(Optional.empty());
+
+    assertThrows(
+        DocumentationNotFoundException.class,
+        () -> documentationRenderService.getRenderedPage(PROJECT_ID, 1L));
+    verify(documentationRepository, never()).findContent(any(), any());
+  }
+}
@@ -0,0 +1,189 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.group3.conduitedeprojet.exceptions.IssueNotFoundException;
+import com.group3.conduitedeprojet.exceptions.ProjectNotFoundException;
+import com.group3.conduitedeprojet.models.Issue;
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.repositories.IssueRepository;
+import com.group3.conduitedeprojet.repositories.ProjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+public class EntityLookupServiceTest {
+
+  private ProjectRepository projectRepository;
+
+  private IssueRepository issueRepository;
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private TransactionEntityContext transactionEntityContext;
+
+  private EntityLookupService entityLookupService;
+
+  private Project project;
+
+  @BeforeEach
+  public void setUp() {
+    projectRepository = mock(ProjectRepository.class);
+    issueRepository = mock(IssueRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+
+    transactionEntityContext = new TransactionEntityContext();
+    ReflectionTestUtils.setField(transactionEntityContext, "meterRegistry", meterRegistry);
+    transactionEntityContext.init();
+
+    entityLookupService = new EntityLookupService();
+    ReflectionTestUtils.setField(entityLookupService, "projectRepository", projectRepository);
+    ReflectionTestUtils.setField(entityLookupService, "issueRepository", issueRepository);
+    ReflectionTestUtils.setField(
+        entityLookupService, "transactionEntityContext", transactionEntityContext);
+
+    TransactionSynchronizationManager.initSynchronization();
+
+    project = Project.builder().id(UUID.randomUUID()).name("Project").build();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      completeTransaction();
+    }
+  }
+
+  /** Completes the transaction the way the transaction manager does. */
+  private static void completeTransaction() {
+    List<TransactionSynchronization> synchronizations =
+        TransactionSynchronizationManager.getSynchronizations();
+    TransactionSynchronizationManager.clearSynchronization();
+    TransactionSynchronizationUtils.invokeAfterCompletion(
+        synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+  }
+
+  private Issue issue(long id) {
+    return Issue.builder().id(id).title("Issue " + id).project(project).build();
+  }
+
+  @Test
+  public void testEntityIsLoadedOncePerTransaction() {
+    when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+
+    Project first = entityLookupService.getProject(project.getId());
+    Project second = entityLookupService.getProject(project.getId());
+
+    assertSame(first, second);
+    verify(projectRepository, times(1)).findById(project.getId());
+    assertEquals(1, transactionEntityContext.getLookupsSaved());
+  }
+
+  @Test
+  public void testLookupsSavedAreRecordedWhenTransactionCompletes() {
+    when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+    for (int i = 0; i < 3; i++) {
+      entityLookupService.getProject(project.getId());
+    }
+
+    completeTransaction();
+
+    var summary = meterRegistry.get("entity.lookups.saved").summary();
+    assertEquals(1, summary.count());
+    assertEquals(2, summary.totalAmount());
+  }
+
+  @Test
+  public void testEachTransactionHasItsOwnContext() {
+    when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+    entityLookupService.getProject(project.getId());
+
+    // A later transaction of the same request does not get the entities of the previous one
+    completeTransaction();
+    TransactionSynchronizationManager.initSynchronization();
+    entityLookupService.getProject(project.getId());
+
+    verify(projectRepository, times(2)).findById(project.getId());
+    completeTransaction();
+    assertFalse(TransactionSynchronizationManager.hasResource(transactionEntityContext));
+  }
+
+  @Test
+  public void testSuspendedTransactionKeepsItsContext() {
+    when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+    entityLookupService.getProject(project.getId());
+
+    // An inner transaction, as with REQUIRES_NEW, loads its own entities
+    List<TransactionSynchronization> outer =
+        TransactionSynchronizationManager.getSynchronizations();
+    outer.forEach(TransactionSynchronization::suspend);
+    TransactionSynchronizationManager.clearSynchronization();
+    TransactionSynchronizationManager.initSynchronization();
+    entityLookupService.getProject(project.getId());
+    completeTransaction();
+    TransactionSynchronizationManager.initSynchronization();
+    outer.forEach(TransactionSynchronizationManager::registerSynchronization);
+    outer.forEach(TransactionSynchronization::resume);
+
+    entityLookupService.getProject(project.getId());
+
+    verify(projectRepository, times(2)).findById(project.getId());
+    assertEquals(1, transactionEntityContext.getLookupsSaved());
+  }
+
+  @Test
+  public void testLookupsOutsideOfATransactionAreNotRemembered() {
+    completeTransaction();
+    when(projectRepository.findById(project.getId())).thenReturn(Optional.of(project));
+
+    entityLookupService.getProject(project.getId());
+    entityLookupService.getProject(project.getId());
+
+    verify(projectRepository, times(2)).findById(project.getId());
+  }
+
+  @Test
+  public void testMissingEntityIsNotRemembered() {
+    UUID projectId = UUID.randomUUID();
+    when(projectRepository.findById(projectId)).thenReturn(Optional.empty());
+
+    assertThrows(ProjectNotFoundException.class, () -> entityLookupService.getProject(projectId));
+    assertThrows(ProjectNotFoundException.class, () -> entityLookupService.getProject(projectId));
+    verify(projectRepository, times(2)).findById(projectId);
+  }
+
+  @Test
+  public void testGetIssuesLoadsOnlyUnknownIssuesInOneQuery() {
+    when(issueRepository.findById(1L)).thenReturn(Optional.of(issue(1)));
+    when(issueRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(issue(2), issue(3)));
+    entityLookupService.getIssue(1L);
+
+    Set<Issue> issues = entityLookupService.getIssues(List.of(1L, 2L, 3L, 3L));
+
+    assertEquals(3, issues.size());
+    verify(issueRepository, times(1)).findAllById(Set.of(2L, 3L));
+    assertSame(
+        issues.stream().filter(issue -> issue.getId() == 2L).findFirst().get(),
+        entityLookupService.getIssue(2L));
+    verify(issueRepository, never()).findById(2L);
+  }
+
+  @Test
+  public void testGetIssuesFailsOnUnknownId() {
+    when(issueRepository.findAllById(any())).thenReturn(List.of(issue(1)));
+
+    assertThrows(
+        IssueNotFoundException.class, () -> entityLookupService.getIssues(List.of(1L, 99L)));
+  }
+}
@@ -0,0 +1,108 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.group3.conduitedeprojet.dto.IssueDto;
+import com.group3.conduitedeprojet.dto.SprintDto;
+import com.group3.conduitedeprojet.dto.TestDto;
+import com.group3.conduitedeprojet.exceptions.PreconditionFailedException;
+import com.group3.conduitedeprojet.models.Issue;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class EntityTagsTest {
+
+  @Test
+  public void testTagIsTheQuotedVersion() {
+    assertEquals("\"3\"", EntityTags.of(IssueDto.builder().id(1L).version(3L).build()));
+  }
+
+  @Test
+  public void testSprintTagFollowsItsIssues() {
+    String tag = EntityTags.of(sprint(List.of(2L, 1L), 5));
+
+    assertEquals(tag, EntityTags.of(sprint(List.of(1L, 2L), 5)));
+    assertNotEquals(tag, EntityTags.of(sprint(List.of(1L, 2L), 8)));
+    assertNotEquals(tag, EntityTags.of(sprint(List.of(1L), 5)));
+  }
+
+  @Test
+  public void testListingTagFollowsItsItems() {
+    List<IssueDto> issues =
+        List.of(
+            IssueDto.builder().id(1L).version(0L).build(),
+            IssueDto.builder().id(2L).version(4L).build());
+    String tag = EntityTags.ofAll(issues, IssueDto::getId, EntityTags::of);
+
+    assertEquals(tag, EntityTags.ofAll(List.copyOf(issues), IssueDto::getId, EntityTags::of));
+    assertNotEquals(tag, EntityTags.ofAll(issues.subList(0, 1), IssueDto::getId, EntityTags::of));
+    assertNotEquals(
+        tag,
+        EntityTags.ofAll(
+            List.of(issues.get(0), IssueDto.builder().id(2L).version(5L).build()),
+            IssueDto::getId,
+            EntityTags::of));
+  }
+
+  @Test
+  public void testListingTagChangesWhenAnItemIsReplaced() {
+    IssueDto kept = IssueDto.builder().id(2L).version(0L).build();
+    String tag =
+        EntityTags.ofAll(
+            List.of(IssueDto.builder().id(1L).version(0L).build(), kept),
+            IssueDto::getId,
+            EntityTags::of);
+
+    // Issue 1 deleted and issue 3 created: same count, same versions
+    assertNotEquals(
+        tag,
+        EntityTags.ofAll(
+            List.of(kept, IssueDto.builder().id(3L).version(0L).build()),
+            IssueDto::getId,
+            EntityTags::of));
+    assertNotEquals(
+        EntityTags.ofAll(List.of(sprint(1L, List.of(4L), 5)), SprintDto::getId, EntityTags::of),
+        EntityTags.ofAll(List.of(sprint(2L, List.of(4L), 5)), SprintDto::getId, EntityTags::of));
+  }
+
+  @Test
+  public void testTestTagFollowsItsCode() {
+    String tag = EntityTags.of(test(1L, "a", "b"));
+
+    assertEquals(tag, EntityTags.of(test(1L, "a", "b")));
+    assertNotEquals(tag, EntityTags.of(test(1L, "a", "c")));
+    assertNotEquals(tag, EntityTags.of(test(2L, "a", "b")));
+  }
+
+  @Test
+  public void testIfMatch() {
+    assertDoesNotThrow(() -> EntityTags.checkIfMatch(null, "\"2\""));
+    assertDoesNotThrow(() -> EntityTags.checkIfMatch("\"2\"", "\"2\""));
+    assertDoesNotThrow(() -> EntityTags.checkIfMatch("\"1\", \"2\"", "\"2\""));
+    assertDoesNotThrow(() -> EntityTags.checkIfMatch("*", "\"2\""));
+
+    assertThrows(
+        PreconditionFailedException.class, () -> EntityTags.checkIfMatch("\"1\"", "\"2\""));
+    assertThrows(
+        PreconditionFailedException.class, () -> EntityTags.checkIfMatch("W/\"2\"", "\"2\""));
+  }
+
+  private static TestDto test(long id, String programHash, String testHash) {
+    return TestDto.builder().id(id).programHash(programHash).testHash(testHash).build();
+  }
+
+  private static SprintDto sprint(List<Long> issueIds, long totalStoryPoints) {
+    return sprint(1L, issueIds, totalStoryPoints);
+  }
+
+  private static SprintDto sprint(long id, List<Long> issueIds, long totalStoryPoints) {
+    return SprintDto.builder()
+        .id(id)
+        .version(0L)
+        .issueIds(issueIds)
+        .totalStoryPoints(totalStoryPoints)
+        .issueCountByStatus(Map.of(Issue.Status.TODO, (long) issueIds.size()))
+        .build();
+  }
+}
@@ -0,0 +1,63 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.security.AuthenticatedUser;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class JwtServiceTest {
+
+  private JwtService jwtService;
+
+  private User testUser;
+
+  @BeforeEach
+  public void setUp() {
+    jwtService = new JwtService();
+    ReflectionTestUtils.setField(
+        jwtService, "secretKey", "5St66hi6E8M7oRbgHLpZT/VZgErpyKQXZMhUtAfHr6Y=");
+    ReflectionTestUtils.setField(jwtService, "jwtExpirationMs", 3600000L);
+    jwtService.init();
+
+    testUser =
+        User.builder()
+            .id(42L)
+            .email("test@example.com")
+            .password("encodedPassword")
+            .name("John Doe")
+            .enabled(true)
+            .build();
+  }
+
+  @Test
+  public void testGeneratedTokenCarriesUserClaims() {
+    Claims claims = jwtService.parseClaims(jwtService.generateToken(testUser));
+
+    AuthenticatedUser principal = AuthenticatedUser.fromClaims(claims);
+
+    assertNotNull(principal);
+    assertEquals(42L, principal.id());
+    assertEquals("test@example.com", principal.getName());
+    assertEquals("John Doe", principal.name());
+  }
+
+  @Test
+  public void testExtractUsername() {
+    String token = jwtService.generateToken(testUser);
+
+    assertEquals("test@example.com", jwtService.extractUsername(token));
+  }
+
+  @Test
+  public void testTamperedTokenIsRejected() {
+    String token = jwtService.generateToken(testUser);
+    String tampered = token.substring(0, token.length() - 2) + "xx";
+
+    assertThrows(SignatureException.class, () -> jwtService.parseClaims(tampered));
+  }
+}
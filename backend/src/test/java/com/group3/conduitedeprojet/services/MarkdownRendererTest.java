@@ -0,0 +1,109 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+public class MarkdownRendererTest {
+
+  @Test
+  void headings_paragraphs_and_line_breaks() {
+    assertEquals(
+        "<h1>API</h1>\n<h2>Endpoints</h2>\n<p>Première ligne<br>seconde ligne</p>\n<h2>Titre</h2>\n",
+        MarkdownRenderer.render(
+            "# API\n\n## Endpoints ##\n\nPremière ligne  \nseconde ligne\n\nTitre\n---\n"));
+  }
+
+  @Test
+  void emphasis_code_and_strikethrough() {
+    assertEquals(
+        "<p><strong>gras</strong>, <em>italique <strong>et gras</strong></em>, <del>barré</del>,"
+            + " <code>a &lt; b</code>, snake_case_name, 2 * 3 * 4</p>\n",
+        MarkdownRenderer.render(
+            "**gras**, *italique **et gras***, ~~barré~~, `a < b`, snake_case_name, 2 * 3 * 4"));
+    assertEquals("<p>*pas* de <em>mise</em></p>\n", MarkdownRenderer.render("\\*pas\\* de _mise_"));
+  }
+
+  @Test
+  void lists_tight_loose_nested_and_tasks() {
+    assertEquals(
+        "<ul>\n<li>GET /api/docs</li>\n<li>POST /api/docs\n<ol>\n<li>un</li>\n<li>deux</li>\n</ol></li>\n</ul>\n"
+            + "<ol start=\"3\">\n<li>trois</li>\n</ol>\n",
+        MarkdownRenderer.render(
+            "- GET /api/docs\n- POST /api/docs\n  1. un\n  2. deux\n\n3. trois\n"));
+    assertEquals(
+        "<ul>\n<li><p>un</p></li>\n<li><p>deux</p></li>\n</ul>\n",
+        MarkdownRenderer.render("* un\n\n* deux\n"));
+    assertEquals(
+        "<ul>\n<li><input checked=\"\" disabled=\"\" type=\"checkbox\"> fait</li>\n"
+            + "<li><input disabled=\"\" type=\"checkbox\"> à faire</li>\n</ul>\n",
+        MarkdownRenderer.render("- [x] fait\n- [ ] à faire"));
+    assertEquals("<ul>\n<li></li>\n<li>x</li>\n</ul>\n", MarkdownRenderer.render("-\n- x"));
+    // Only a list starting at 1 interrupts a paragraph
+    assertEquals(
+        "<p>En<br>2024. tout allait bien</p>\n",
+        MarkdownRenderer.render("En\n2024. tout allait bien"));
+  }
+
+  @Test
+  void code_blocks_quotes_rules_and_tables() {
+    assertEquals(
+        "<pre><code class=\"language-java\">if (a &lt; b) {\n  run();\n}\n</code></pre>\n"
+            + "<blockquote>\n<p>cité<br>suite</p>\n</blockquote>\n<hr>\n"
+            + "<pre><code>indenté\n</code></pre>\n",
+        MarkdownRenderer.render(
+            "```java\nif (a < b) {\n  run();\n}\n```\n> cité\nsuite\n\n***\n\n    indenté\n"));
+    assertEquals(
+        "<table>\n<thead>\n<tr>\n<th>Nom</th>\n<th align=\"right\">Taille</th>\n</tr>\n</thead>\n"
+            + "<tbody><tr>\n<td><code>a|b</code></td>\n<td align=\"right\">3</td>\n</tr>\n"
+            + "</tbody></table>\n",
+        MarkdownRenderer.render("| Nom | Taille |\n|-----|-------:|\n| `a\\|b` | 3 |\n"));
+  }
+
+  @Test
+  void links_and_images() {
+    assertEquals(
+        "<p><a href=\"https://example.com/a?b=1&amp;c=2\" title=\"Exemple\">le <em>site</em></a>"
+            + " <img src=\"images/schema.png\" alt=\"schéma\"> "
+            + "<a href=\"https://conduite.dev\">https://conduite.dev</a>. "
+            + "<a href=\"https://fr.wikipedia.org/wiki/Java_(langage)\">Java</a> "
+            + "<a href=\"mailto:equipe@example.com\">equipe@example.com</a></p>\n",
+        MarkdownRenderer.render(
+            "[le *site*](https://example.com/a?b=1&c=2 \"Exemple\") ![schéma](images/schema.png)"
+                + " https://conduite.dev. [Java](https://fr.wikipedia.org/wiki/Java_(langage))"
+                + " <equipe@example.com>"));
+  }
+
+  @Test
+  void raw_html_and_unsafe_urls_are_neutralized() {
+    String html =
+        MarkdownRenderer.render(
+            "<script>alert(1)</script>\n\n"
+                + "[clic](javascript:alert(1)) ![x](JAVASCRIPT:alert(1)) [y](data:text/html,evil)\n"
+                + "<img src=x onerror=alert(1)> [z](\"onmouseover=\"alert(1))");
+
+    assertFalse(html.contains("<script"), html);
+    assertFalse(html.contains("<img src=x"), html);
+    assertFalse(html.toLowerCase().contains("href=\"javascript"), html);
+    assertFalse(html.toLowerCase().contains("src=\"javascript"), html);
+    assertFalse(html.contains("href=\"data:"), html);
+    assertFalse(html.contains("\"onmouseover"), html);
+    assertTrue(html.startsWith("<p>&lt;script&gt;alert(1)&lt;/script&gt;</p>\n<p>clic x y"), html);
+  }
+
+  @Test
+  void unmatched_delimiters_do_not_make_rendering_quadratic() {
+    String page =
+        "Paragraphe avec *emphase* et `code` et [lien](https://example.com)\n\n".repeat(5000);
+    String unmatched =
+        "*a _b [c ~~d <e (f ".repeat(20_000) + "`".repeat(20_000) + " `g".repeat(20_000);
+
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(5),
+        () -> {
+          assertEquals(5000, MarkdownRenderer.render(page).split("<p>").length - 1);
+          assertTrue(MarkdownRenderer.render(unmatched).startsWith("<p>*a _b [c ~~d &lt;e (f"));
+        });
+  }
+}
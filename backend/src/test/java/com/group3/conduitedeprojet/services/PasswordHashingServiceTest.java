@@ -0,0 +1,128 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.group3.conduitedeprojet.exceptions.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PasswordHashingServiceTest {
+
+  private final CountDownLatch release = new CountDownLatch(1);
+
+  private final CountDownLatch started = new CountDownLatch(1);
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private PasswordHashingService passwordHashingService;
+
+  @BeforeEach
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    release.countDown();
+    passwordHashingService.shutdown();
+  }
+
+  private void createService(PasswordEncoder passwordEncoder, int threads, int queueCapacity) {
+    createService(passwordEncoder, 10, threads, queueCapacity);
+  }
+
+  private void createService(
+      PasswordEncoder passwordEncoder, int bcryptStrength, int threads, int queueCapacity) {
+    passwordHashingService = new PasswordHashingService();
+    ReflectionTestUtils.setField(passwordHashingService, "passwordEncoder", passwordEncoder);
+    ReflectionTestUtils.setField(passwordHashingService, "bcryptStrength", bcryptStrength);
+    ReflectionTestUtils.setField(passwordHashingService, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(passwordHashingService, "threads", threads);
+    ReflectionTestUtils.setField(passwordHashingService, "queueCapacity", queueCapacity);
+    passwordHashingService.init();
+  }
+
+  @Test
+  public void testEncodeAndMatches() {
+    createService(new BCryptPasswordEncoder(4), 2, 4);
+
+    String hash = passwordHashingService.encode("password123");
+
+    assertTrue(passwordHashingService.matches("password123", hash));
+    assertFalse(passwordHashingService.matches("wrong", hash));
+    assertEquals(
+        1, meterRegistry.get("auth.password.hash").tag("operation", "encode").timer().count());
+    assertEquals(
+        2, meterRegistry.get("auth.password.queue").tag("operation", "matches").timer().count());
+  }
+
+  @Test
+  public void testSaturatedPoolFailsFast() throws Exception {
+    createService(new BlockingPasswordEncoder(), 1, 1);
+
+    CompletableFuture<String> running =
+        CompletableFuture.supplyAsync(() -> passwordHashingService.encode("first"));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    CompletableFuture<String> queued =
+        CompletableFuture.supplyAsync(() -> passwordHashingService.encode("second"));
+    while (meterRegistry.get("auth.password.queue.depth").gauge().value() < 1) {
+      Thread.sleep(10);
+    }
+
+    assertThrows(
+        PasswordHashingUnavailableException.class, () -> passwordHashingService.encode("third"));
+
+    release.countDown();
+    assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+    assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testNeedsRehashWhenCostIncreased() {
+    String weakHash = new BCryptPasswordEncoder(4).encode("password123");
+    createService(new BCryptPasswordEncoder(5), 5, 1, 1);
+
+    assertTrue(passwordHashingService.needsRehash(weakHash));
+    assertFalse(passwordHashingService.needsRehash(passwordHashingService.encode("password123")));
+  }
+
+  @Test
+  public void testNeedsRehashWhenCostDecreased() {
+    String strongHash = new BCryptPasswordEncoder(6).encode("password123");
+    createService(new BCryptPasswordEncoder(4), 4, 1, 1);
+
+    assertTrue(passwordHashingService.needsRehash(strongHash));
+    assertTrue(
+        passwordHashingService.needsRehash(strongHash.replaceFirst("^\\$2a\\$", "\\$2b\\$")));
+    assertFalse(passwordHashingService.needsRehash(passwordHashingService.encode("password123")));
+    assertFalse(passwordHashingService.needsRehash("hashed:password123"));
+  }
+
+  /** Encoder that blocks until the test releases it, to keep the worker busy. */
+  private class BlockingPasswordEncoder implements PasswordEncoder {
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+      started.countDown();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "hashed:" + rawPassword;
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+      return encodedPassword.equals(encode(rawPassword));
+    }
+  }
+}
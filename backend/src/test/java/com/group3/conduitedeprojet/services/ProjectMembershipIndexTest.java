@@ -0,0 +1,110 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.group3.conduitedeprojet.models.Project;
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.ProjectRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ProjectMembershipIndexTest {
+
+  private ProjectRepository projectRepository;
+
+  private ProjectMembershipIndex projectMembershipIndex;
+
+  private User creator;
+
+  private User collaborator;
+
+  private Project project;
+
+  @BeforeEach
+  public void setUp() {
+    projectRepository = mock(ProjectRepository.class);
+
+    projectMembershipIndex = new ProjectMembershipIndex();
+    ReflectionTestUtils.setField(projectMembershipIndex, "projectRepository", projectRepository);
+    ReflectionTestUtils.setField(
+        projectMembershipIndex, "meterRegistry", new SimpleMeterRegistry());
+    ReflectionTestUtils.setField(projectMembershipIndex, "maximumSize", 100L);
+    ReflectionTestUtils.setField(projectMembershipIndex, "expireAfterWriteMs", 60000L);
+    projectMembershipIndex.init();
+
+    creator = User.builder().id(1L).email("creator@example.com").name("Creator").build();
+    collaborator = User.builder().id(2L).email("collab@example.com").name("Collab").build();
+    project =
+        Project.builder()
+            .id(UUID.randomUUID())
+            .name("Project")
+            .creator(creator)
+            .collaborators(new HashSet<>(Set.of(creator, collaborator)))
+            .build();
+  }
+
+  @Test
+  public void testIndexedProjectAnswersWithoutQuery() {
+    projectMembershipIndex.index(project);
+
+    assertTrue(projectMembershipIndex.isMember(project.getId(), 1L));
+    assertTrue(projectMembershipIndex.isMember(project.getId(), 2L));
+    assertFalse(projectMembershipIndex.isMember(project.getId(), 3L));
+    verify(projectRepository, never()).findMemberIds(any());
+  }
+
+  @Test
+  public void testMissLoadsTheMembersOnce() {
+    UUID projectId = UUID.randomUUID();
+    when(projectRepository.findMemberIds(projectId)).thenReturn(List.of(1L, 2L));
+
+    assertTrue(projectMembershipIndex.isMember(projectId, 2L));
+    assertFalse(projectMembershipIndex.isMember(projectId, 3L));
+    assertTrue(projectMembershipIndex.isMember(projectId, 1L));
+    verify(projectRepository, times(1)).findMemberIds(projectId);
+  }
+
+  @Test
+  public void testSyncPicksUpChangesMadeElsewhere() {
+    projectMembershipIndex.index(project);
+    when(projectRepository.findProjectIdsByMember(2L)).thenReturn(List.of(project.getId()));
+    assertEquals(Set.of(project.getId()), projectMembershipIndex.getProjectIds(2L));
+
+    // Another instance removed the collaborator
+    when(projectRepository.findIdsByMembersChangedSince(any()))
+        .thenReturn(List.of(project.getId()));
+    when(projectRepository.findMemberIds(project.getId())).thenReturn(List.of(1L));
+    projectMembershipIndex.sync();
+
+    assertFalse(projectMembershipIndex.isMember(project.getId(), 2L));
+    assertTrue(projectMembershipIndex.isMember(project.getId(), 1L));
+    assertEquals(Set.of(), projectMembershipIndex.getProjectIds(2L));
+  }
+
+  @Test
+  public void testReverseIndexFollowsChanges() {
+    UUID otherProjectId = UUID.randomUUID();
+    when(projectRepository.findProjectIdsByMember(2L)).thenReturn(List.of(otherProjectId));
+
+    assertEquals(Set.of(otherProjectId), projectMembershipIndex.getProjectIds(2L));
+
+    projectMembershipIndex.index(project);
+    assertEquals(Set.of(otherProjectId, project.getId()), projectMembershipIndex.getProjectIds(2L));
+
+    project.getCollaborators().remove(collaborator);
+    projectMembershipIndex.removeMember(project.getId(), 2L);
+    projectMembershipIndex.index(project);
+
+    assertEquals(Set.of(otherProjectId), projectMembershipIndex.getProjectIds(2L));
+    assertFalse(projectMembershipIndex.isMember(project.getId(), 2L));
+    verify(projectRepository, times(1)).findProjectIdsByMember(2L);
+  }
+}
@@ -0,0 +1,155 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+public class RevisionDeltasTest {
+
+  @Test
+  void diff_finds_a_shortest_edit_script() {
+    Random random = new Random(42);
+    for (int round = 0; round < 500; round++) {
+      List<String> a = randomLines(random, random.nextInt(30));
+      List<String> b = randomLines(random, random.nextInt(30));
+
+      List<LineDiff.Change> changes = LineDiff.diff(a, b);
+
+      int edits = 0;
+      for (LineDiff.Change change : changes) {
+        edits += (change.aEnd() - change.aStart()) + (change.bEnd() - change.bStart());
+      }
+      assertEquals(a.size() + b.size() - 2 * longestCommonSubsequence(a, b), edits);
+      assertEquals(String.join("", b), apply(a, b, changes));
+    }
+  }
+
+  @Test
+  void diff_of_a_single_line_edit_is_a_single_change() {
+    List<String> a = LineDiff.lines("one\ntwo\nthree\nfour\n");
+    List<String> b = LineDiff.lines("one\n2\nthree\nfour\n");
+
+    assertEquals(List.of(new LineDiff.Change(1, 2, 1, 2)), LineDiff.diff(a, b));
+    assertEquals(List.of(), LineDiff.diff(a, a));
+  }
+
+  @Test
+  void unified_diff_shows_the_changes_with_their_context() {
+    List<String> a = LineDiff.lines("1\n2\n3\n4\n5\n6\n7\n8\n9\n10\n11\n12\n13\n14\n15");
+    List<String> b = LineDiff.lines("1\n2\n3\n4\nfive\n6\n7\n8\n9\n10\n11\n12\n13\n14\n15\n16");
+
+    assertEquals(
+        "--- r1\n"
+            + "+++ r2\n"
+            + "@@ -2,7 +2,7 @@\n"
+            + " 2\n"
+            + " 3\n"
+            + " 4\n"
+            + "-5\n"
+            + "+five\n"
+            + " 6\n"
+            + " 7\n"
+            + " 8\n"
+            + "@@ -12,4 +12,5 @@\n"
+            + " 12\n"
+            + " 13\n"
+            + " 14\n"
+            + "-15\n"
+            + "\\ No newline at end of file\n"
+            + "+15\n"
+            + "+16\n"
+            + "\\ No newline at end of file\n",
+        LineDiff.unified("r1", "r2", a, b));
+    assertEquals("", LineDiff.unified("r1", "r2", a, a));
+  }
+
+  @Test
+  void deltas_rebuild_the_target() {
+    Random random = new Random(7);
+    String content = "";
+    for (int round = 0; round < 200; round++) {
+      List<String> lines = LineDiff.lines(content);
+      List<String> edited = new ArrayList<>(lines);
+      int position = edited.isEmpty() ? 0 : random.nextInt(edited.size());
+      if (!edited.isEmpty() && random.nextBoolean()) {
+        edited.remove(position);
+      }
+      edited.addAll(position, randomLines(random, random.nextInt(3)));
+      String target = String.join("", edited) + (random.nextInt(10) == 0 ? "é sans fin" : "");
+
+      assertEquals(
+          target, RevisionDeltas.applyDelta(content, RevisionDeltas.delta(content, target)));
+      content = target;
+    }
+    assertEquals(content, RevisionDeltas.fromSnapshot(RevisionDeltas.snapshot(content)));
+  }
+
+  @Test
+  void delta_size_follows_the_edit_and_not_the_document() {
+    StringBuilder document = new StringBuilder();
+    Random random = new Random(1);
+    for (int i = 0; i < 20_000; i++) {
+      document.append("Line ").append(i).append(' ').append(random.nextLong()).append('\n');
+    }
+    String base = document.toString();
+    String edited = base.replace("Line 10000 ", "Ligne 10000 ");
+
+    byte[] delta = RevisionDeltas.delta(base, edited);
+
+    assertTrue(delta.length < 100, "delta of " + delta.length + " bytes");
+    assertTrue(RevisionDeltas.snapshot(base).length > 100 * delta.length);
+    assertEquals(edited, RevisionDeltas.applyDelta(base, delta));
+  }
+
+  @Test
+  void diff_beyond_the_edit_distance_bound_is_a_single_change() {
+    Random random = new Random(3);
+    List<String> a = randomLines(random, 3000);
+    List<String> b = new ArrayList<>();
+    for (String line : a) {
+      b.add("changed " + line);
+    }
+
+    assertEquals(List.of(new LineDiff.Change(0, 3000, 0, 3000)), LineDiff.diff(a, b));
+  }
+
+  private static String apply(List<String> a, List<String> b, List<LineDiff.Change> changes) {
+    StringBuilder result = new StringBuilder();
+    int i = 0;
+    for (LineDiff.Change change : changes) {
+      assertEquals(
+          a.subList(i, change.aStart()),
+          b.subList(change.bStart() - (change.aStart() - i), change.bStart()));
+      a.subList(i, change.aStart()).forEach(result::append);
+      b.subList(change.bStart(), change.bEnd()).forEach(result::append);
+      i = change.aEnd();
+    }
+    a.subList(i, a.size()).forEach(result::append);
+    return result.toString();
+  }
+
+  private static int longestCommonSubsequence(List<String> a, List<String> b) {
+    int[][] lengths = new int[a.size() + 1][b.size() + 1];
+    for (int i = a.size() - 1; i >= 0; i--) {
+      for (int j = b.size() - 1; j >= 0; j--) {
+        lengths[i][j] =
+            a.get(i).equals(b.get(j))
+                ? lengths[i + 1][j + 1] + 1
+                : Math.max(lengths[i + 1][j], lengths[i][j + 1]);
+      }
+    }
+    return lengths[0][0];
+  }
+
+  /** Lines drawn from a small alphabet, so that texts share many of them. */
+  private static List<String> randomLines(Random random, int count) {
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      lines.add((char) ('a' + random.nextInt(5)) + "\n");
+    }
+    return lines;
+  }
+}
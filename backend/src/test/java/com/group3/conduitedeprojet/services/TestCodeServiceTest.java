@@ -0,0 +1,114 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.group3.conduitedeprojet.models.CodeBlob;
+import com.group3.conduitedeprojet.repositories.CodeBlobRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TestCodeServiceTest {
+
+  private CodeBlobRepository codeBlobRepository;
+
+  private MeterRegistry meterRegistry;
+
+  private TestCodeService testCodeService;
+
+  private String fixture;
+
+  @BeforeEach
+  public void setUp() {
+    codeBlobRepository = mock(CodeBlobRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+
+    testCodeService = new TestCodeService();
+    ReflectionTestUtils.setField(testCodeService, "codeBlobRepository", codeBlobRepository);
+    ReflectionTestUtils.setField(testCodeService, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(testCodeService, "maximumWeightBytes", 1_000_000L);
+    testCodeService.init();
+
+    fixture = "function add(a, b) { return a + b; }\n".repeat(50);
+  }
+
+  @Test
+  public void testNewCodeIsDeflatedAndStored() {
+    when(codeBlobRepository.addReference(anyString())).thenReturn(0);
+
+    String hash = testCodeService.addReference(fixture);
+
+    assertEquals(TestCodeService.hashOf(fixture), hash);
+    assertEquals(64, hash.length());
+    ArgumentCaptor<byte[]> data = ArgumentCaptor.forClass(byte[].class);
+    verify(codeBlobRepository)
+        .insertOrAddReference(
+            eq(hash),
+            eq(true),
+            data.capture(),
+            eq(fixture.getBytes(StandardCharsets.UTF_8).length));
+    assertTrue(data.getValue().length < fixture.length() / 10);
+
+    // Read back from the stored bytes, not from the cache
+    CodeBlob blob = CodeBlob.builder().hash(hash).compressed(true).data(data.getValue()).build();
+    testCodeService.init();
+    when(codeBlobRepository.findByHashIn(Set.of(hash))).thenReturn(List.of(blob));
+    assertEquals(Map.of(hash, fixture), testCodeService.getCodes(List.of(hash)));
+  }
+
+  @Test
+  public void testSmallCodeIsStoredAsIs() {
+    when(codeBlobRepository.addReference(anyString())).thenReturn(0);
+
+    String hash = testCodeService.addReference("f();");
+
+    verify(codeBlobRepository)
+        .insertOrAddReference(hash, false, "f();".getBytes(StandardCharsets.UTF_8), 4);
+  }
+
+  @Test
+  public void testStoredCodeOnlyGetsAReference() {
+    when(codeBlobRepository.addReference(TestCodeService.hashOf(fixture))).thenReturn(1);
+
+    testCodeService.addReference(fixture);
+
+    verify(codeBlobRepository, never())
+        .insertOrAddReference(anyString(), anyBoolean(), any(), anyInt());
+  }
+
+  @Test
+  public void testCodeIsReadOncePerHash() {
+    String hash = TestCodeService.hashOf("f();");
+    CodeBlob blob =
+        CodeBlob.builder()
+            .hash(hash)
+            .compressed(false)
+            .data("f();".getBytes(StandardCharsets.UTF_8))
+            .build();
+    when(codeBlobRepository.findByHashIn(Set.of(hash, "missing"))).thenReturn(List.of(blob));
+    when(codeBlobRepository.findByHashIn(Set.of("missing"))).thenReturn(List.of());
+
+    assertEquals(Map.of(hash, "f();"), testCodeService.getCodes(List.of(hash, "missing")));
+    assertEquals(Map.of(hash, "f();"), testCodeService.getCodes(List.of(hash, "missing")));
+
+    verify(codeBlobRepository).findByHashIn(Set.of(hash, "missing"));
+    verify(codeBlobRepository).findByHashIn(Set.of("missing"));
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("cache.gets")
+            .tag("cache", "test-code")
+            .tag("result", "hit")
+            .functionCounter()
+            .count());
+  }
+}
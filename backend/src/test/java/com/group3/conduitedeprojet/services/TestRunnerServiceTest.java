@@ -0,0 +1,224 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.group3.conduitedeprojet.dto.TestRunReportDto;
+import com.group3.conduitedeprojet.exceptions.TestRunnerUnavailableException;
+import com.group3.conduitedeprojet.repositories.TestRepository.RunnableTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TestRunnerServiceTest {
+
+  private static final String PASSING = "test('one', function () { assertEquals(add(1, 2), 3); });";
+
+  private SimpleMeterRegistry meterRegistry;
+
+  private TestRunnerService testRunnerService;
+
+  @BeforeEach
+  public void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (testRunnerService != null) {
+      testRunnerService.shutdown();
+    }
+  }
+
+  private void createService(
+      int workers,
+      int queueCapacity,
+      long timeLimitMillis,
+      long cpuLimitMillis,
+      long maxStatements) {
+    testRunnerService = new TestRunnerService();
+    ReflectionTestUtils.setField(testRunnerService, "objectMapper", new ObjectMapper());
+    ReflectionTestUtils.setField(testRunnerService, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(testRunnerService, "workers", workers);
+    ReflectionTestUtils.setField(testRunnerService, "queueCapacity", queueCapacity);
+    ReflectionTestUtils.setField(testRunnerService, "timeLimitMillis", timeLimitMillis);
+    ReflectionTestUtils.setField(testRunnerService, "cpuTimeLimitMillis", cpuLimitMillis);
+    ReflectionTestUtils.setField(testRunnerService, "maxIterations", 1_000_000L);
+    ReflectionTestUtils.setField(testRunnerService, "maxStatements", maxStatements);
+    testRunnerService.init();
+  }
+
+  private static RunnableTest test(long id, String program, String tests) {
+    return new RunnableTest(id, 100 + id, program, tests);
+  }
+
+  private static RunnableTest test(long id, String tests) {
+    return test(id, "function add(a, b) { return a + b; }", tests);
+  }
+
+  @Test
+  public void testHarnessRunsTheTestsAndResultsAreSummedUp() {
+    createService(2, 8, 5000, 5000, 10_000_000);
+
+    TestRunReportDto report =
+        testRunnerService.run(
+            List.of(
+                test(1, PASSING + "\ntest('two', function () { assert(add(0, 0) === 0); });"),
+                test(
+                    2,
+                    PASSING
+                        + "\ntest('three', function () { assertEquals(add(1, 1), 3); });"
+                        + "\nconsole.log('sum', add(2, 2));"),
+                test(3, "", "undefinedFunction();"),
+                test(4, "test('four', function () { assertTrue(add(1, 1) === 3); });"),
+                test(5, "")));
+
+    assertFalse(report.isSuccess());
+    assertEquals("1 of 5 test runs did not complete", report.getError());
+    assertEquals(5, report.getTestCount());
+    assertEquals(3, report.getPassedCount());
+    assertEquals(2, report.getFailedCount());
+    assertEquals("📊 Résumé: 3 réussi(s), 2 échoué(s) sur 5 test(s)", report.getOutput());
+    assertEquals(
+        List.of(1L, 2L, 3L, 4L, 5L),
+        report.getResults().stream().map(TestRunReportDto.Result::getTestId).toList());
+    assertEquals(
+        "✅ Test 1: one\n❌ Test 2: three\n   ↳ Expected 3 but got 2\nℹ️  sum 4\n\n"
+            + "━━━━━━━━━━━━━━━━━━━━━━━━━━━━━\n"
+            + "📊 Résumé: 1 réussi(s), 1 échoué(s) sur 2 test(s)",
+        report.getResults().get(1).getOutput());
+    TestRunReportDto.Result failed = report.getResults().get(2);
+    assertEquals(103L, failed.getIssueId());
+    assertFalse(failed.isSuccess());
+    assertEquals("undefinedFunction is not defined", failed.getError());
+    assertTrue(report.getResults().get(4).getOutput().startsWith("✅ Code exécuté avec succès !"));
+    assertEquals(4, meterRegistry.get("test.runner.run").tag("outcome", "success").timer().count());
+    assertEquals(1, meterRegistry.get("test.runner.run").tag("outcome", "error").timer().count());
+  }
+
+  @Test
+  public void testRunsDoNotShareStateNorReachTheHost() {
+    createService(1, 8, 5000, 5000, 10_000_000);
+
+    TestRunReportDto report =
+        testRunnerService.run(
+            List.of(
+                test(1, "", "globalThis.leaked = 1; test('set', function () {});"),
+                test(
+                    2,
+                    "",
+                    "test('isolated', function () { assertEquals(typeof leaked, 'undefined'); });"
+                        + "test('host', function () {"
+                        + " assertEquals(typeof Java, 'undefined');"
+                        + " assertEquals(typeof globalThis.Polyglot, 'undefined'); });")));
+
+    assertTrue(report.isSuccess(), report.getResults().toString());
+    assertEquals(3, report.getPassedCount());
+  }
+
+  @Test
+  public void testLoopsWithoutBracesAreStoppedByTheStatementLimit() {
+    createService(2, 8, 60_000, 60_000, 1_000_000);
+
+    long startedAt = System.nanoTime();
+    TestRunReportDto report =
+        testRunnerService.run(
+            List.of(
+                test(1, "", "while (true);"),
+                test(2, "", "for (;;) ;"),
+                test(3, "function spin() { spin(); }", "spin();"),
+                test(4, PASSING)));
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) < 30_000);
+    assertEquals(1, report.getPassedCount());
+    assertEquals(
+        "Timeout: Execution was stopped after 1000000 statements (infinite loop detected?)",
+        report.getResults().get(0).getError());
+    assertEquals(report.getResults().get(0).getError(), report.getResults().get(1).getError());
+    // The stack overflow is a guest error, reported by the harness
+    assertFalse(report.getResults().get(2).isSuccess());
+    assertEquals(2, meterRegistry.get("test.runner.run").tag("outcome", "timeout").timer().count());
+  }
+
+  @Test
+  public void testRunawayRunsAreCancelledAndWorkersReused() {
+    createService(2, 8, 200, 60_000, Long.MAX_VALUE);
+
+    long startedAt = System.nanoTime();
+    TestRunReportDto report =
+        testRunnerService.run(
+            LongStream.rangeClosed(1, 3).mapToObj(id -> test(id, "", "for (;;);")).toList());
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) < 10_000);
+    assertEquals(
+        "Timeout: Execution was interrupted after 1 seconds (infinite loop detected?)",
+        report.getResults().get(0).getError());
+    assertEquals(3, report.getResults().stream().filter(result -> !result.isSuccess()).count());
+    assertEquals(3, meterRegistry.get("test.runner.run").tag("outcome", "timeout").timer().count());
+
+    // The cancelled contexts do not hold their workers
+    assertEquals(
+        2, testRunnerService.run(List.of(test(4, PASSING), test(5, PASSING))).getPassedCount());
+  }
+
+  @Test
+  public void testCpuTimeBudgetStopsARunBeforeItsTimeLimit() {
+    createService(1, 8, 60_000, 200, Long.MAX_VALUE);
+
+    TestRunReportDto.Result result =
+        testRunnerService.run(List.of(test(1, "", "while (true) ;"))).getResults().get(0);
+
+    assertTrue(result.getError().contains("ms of CPU time"), result.getError());
+  }
+
+  @Test
+  public void testSaturatedRunnerFailsFast() throws Exception {
+    createService(1, 1, 2000, 60_000, Long.MAX_VALUE);
+
+    CompletableFuture<TestRunReportDto> running =
+        CompletableFuture.supplyAsync(
+            () -> testRunnerService.run(List.of(test(1, "", "while (true);"))));
+    ThreadPoolExecutor executor =
+        (ThreadPoolExecutor) ReflectionTestUtils.getField(testRunnerService, "executor");
+    while (executor.getActiveCount() < 1) {
+      Thread.sleep(10);
+    }
+    CompletableFuture<TestRunReportDto> queued =
+        CompletableFuture.supplyAsync(() -> testRunnerService.run(List.of(test(2, PASSING))));
+    while (meterRegistry.get("test.runner.queue.depth").gauge().value() < 1) {
+      Thread.sleep(10);
+    }
+
+    assertThrows(
+        TestRunnerUnavailableException.class,
+        () -> testRunnerService.run(List.of(test(3, PASSING))));
+
+    assertFalse(running.get(5, TimeUnit.SECONDS).isSuccess());
+    assertEquals(1, queued.get(5, TimeUnit.SECONDS).getPassedCount());
+  }
+
+  @Test
+  public void testLoopsAreInstrumentedAsInTheBrowser() {
+    assertEquals(
+        "while (i < 3) {\ncheckTimeout(); i++; }\n"
+            + "for (let j = 0; j < 2; j++) {\ncheckTimeout(); }\n"
+            + "for (const x of xs) {\ncheckTimeout(); }\n"
+            + "do {\ncheckTimeout(); } while (false);",
+        TestHarness.instrument(
+            "while (i < 3) { i++; }\n"
+                + "for (let j = 0; j < 2; j++) { }\n"
+                + "for (const x of xs) { }\n"
+                + "do { } while (false);"));
+    assertEquals("", TestHarness.instrument(null));
+    assertEquals(
+        "Timeout: Execution was interrupted after 5 seconds (infinite loop detected?)",
+        TestHarness.timeoutMessage(5000));
+  }
+}
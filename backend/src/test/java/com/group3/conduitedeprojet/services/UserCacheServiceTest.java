@@ -0,0 +1,90 @@
+package com.group3.conduitedeprojet.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.group3.conduitedeprojet.models.User;
+import com.group3.conduitedeprojet.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class UserCacheServiceTest {
+
+  private UserRepository userRepository;
+
+  private MeterRegistry meterRegistry;
+
+  private UserCacheService userCacheService;
+
+  private User testUser;
+
+  @BeforeEach
+  public void setUp() {
+    userRepository = mock(UserRepository.class);
+    meterRegistry = new SimpleMeterRegistry();
+
+    userCacheService = new UserCacheService();
+    ReflectionTestUtils.setField(userCacheService, "userRepository", userRepository);
+    ReflectionTestUtils.setField(userCacheService, "meterRegistry", meterRegistry);
+    ReflectionTestUtils.setField(userCacheService, "maximumSize", 100L);
+    ReflectionTestUtils.setField(userCacheService, "expireAfterWriteMs", 60000L);
+    userCacheService.init();
+
+    testUser =
+        User.builder()
+            .id(1L)
+            .email("test@example.com")
+            .password("encodedPassword")
+            .name("John Doe")
+            .enabled(true)
+            .build();
+  }
+
+  @Test
+  public void testRepeatedLookupsHitTheCache() {
+    when(userRepository.findByEmail("test@example.com")).thenReturn(Optional.of(testUser));
+
+    userCacheService.findByEmail("test@example.com");
+    userCacheService.findByEmail("test@example.com");
+    Optional<User> byId = userCacheService.findById(1L);
+
+    assertSame(testUser, byId.orElseThrow());
+    verify(userRepository, times(1)).findByEmail("test@example.com");
+    verify(userRepository, never()).findById(anyLong());
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("cache.gets")
+            .tag("cache", "users-by-email")
+            .tag("result", "hit")
+            .functionCounter()
+            .count());
+  }
+
+  @Test
+  public void testMissingUserIsNotCached() {
+    when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.empty());
+
+    assertTrue(userCacheService.findByEmail("new@example.com").isEmpty());
+    assertTrue(userCacheService.findByEmail("new@example.com").isEmpty());
+
+    verify(userRepository, times(2)).findByEmail("new@example.com");
+  }
+
+  @Test
+  public void testEvictForcesReload() {
+    when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+    userCacheService.findById(1L);
+    userCacheService.evict(testUser);
+    userCacheService.findById(1L);
+    userCacheService.findByEmail("test@example.com");
+
+    verify(userRepository, times(2)).findById(1L);
+    verify(userRepository, never()).findByEmail(anyString());
+  }
+}
@@ -1,5 +1,5 @@
 import { describe, it, expect, vi, beforeEach } from 'vitest'
-import { mount } from '@vue/test-utils'
+import { flushPromises, mount } from '@vue/test-utils'
 import { nextTick } from 'vue'
 import DocumentationList from '../../documentation/DocumentationList.vue'
 import documentationService from '../../../services/documentationService'
@@ -24,6 +24,8 @@ vi.mock('vue-router', () => ({
 vi.mock('../../../services/documentationService', () => ({
   default: {
     getDocumentationByProject: vi.fn(),
+    getDocumentationContent: vi.fn(),
+    getRenderedDocumentation: vi.fn(),
     createDocumentation: vi.fn(),
     updateDocumentation: vi.fn(),
     deleteDocumentation: vi.fn()
@@ -34,15 +36,19 @@ describe('DocumentationList', () => {
   const mockDocs = [
     {
       id: 1,
+      version: 0,
       title: 'Getting Started',
-      content: '# Welcome\n\nThis is the documentation.',
+      size: 38,
+      contentHash: 'a1',
       createdAt: '2024-01-01T10:00:00Z',
       updatedAt: '2024-01-01T10:00:00Z'
     },
     {
       id: 2,
+      version: 0,
       title: 'API Documentation',
-      content: '# API\n\nEndpoints and usage.',
+      size: 28,
+      contentHash: 'b2',
       createdAt: '2024-01-02T10:00:00Z',
       updatedAt: '2024-01-02T10:00:00Z'
     }
@@ -51,6 +57,12 @@ describe('DocumentationList', () => {
   beforeEach(() => {
     vi.clearAllMocks()
     vi.mocked(documentationService.getDocumentationByProject).mockResolvedValue(mockDocs)
+    vi.mocked(documentationService.getDocumentationContent).mockResolvedValue(
+      '# Welcome\n\nThis is the documentation.'
+    )
+    vi.mocked(documentationService.getRenderedDocumentation).mockResolvedValue(
+      '<h1>Welcome</h1>\n<p>This is the documentation.</p>\n'
+    )
   })
 
   it('devrait afficher le titre de la page', () => {
@@ -96,13 +108,19 @@ describe('DocumentationList', () => {
   it('devrait créer un nouveau document', async () => {
     const newDoc = {
       id: 3,
+      version: 0,
       title: 'New Doc',
-      content: 'New content',
+      size: 11,
+      contentHash: 'c3',
       createdAt: '2024-01-03T10:00:00Z',
       updatedAt: '2024-01-03T10:00:00Z'
     }
 
-    vi.mocked(documentationService.createDocumentation).mockResolvedValue(newDoc)
+    vi.mocked(documentationService.createDocumentation).mockResolvedValue({
+      id: 3,
+      title: 'New Doc',
+      content: 'New content'
+    })
     vi.mocked(documentationService.getDocumentationByProject).mockResolvedValue([...mockDocs, newDoc])
 
     const wrapper = mount(DocumentationList)
@@ -125,16 +143,12 @@ describe('DocumentationList', () => {
 
   it('devrait mettre à jour un document existant', async () => {
     const updatedDoc = {
-      ...mockDocs[0],
+      id: 1,
       title: 'Updated Title',
       content: 'Updated content'
     }
 
     vi.mocked(documentationService.updateDocumentation).mockResolvedValue(updatedDoc)
-    const secondDoc = mockDocs[1]
-    if (secondDoc) {
-      vi.mocked(documentationService.getDocumentationByProject).mockResolvedValue([updatedDoc, secondDoc])
-    }
 
     const wrapper = mount(DocumentationList)
     await nextTick()
@@ -143,8 +157,10 @@ describe('DocumentationList', () => {
     // Simuler l'édition d'un document
     const card = wrapper.findComponent({ name: 'DocumentationCard' })
     await card.vm.$emit('edit')
-    await nextTick()
+    await flushPromises()
 
+    // Le contenu est chargé à l'ouverture
+    expect(documentationService.getDocumentationContent).toHaveBeenCalledWith('test-project-id', 1)
     // Vérifier que l'éditeur est affiché
     expect(wrapper.find('.editor-container').exists()).toBe(true)
     expect(wrapper.text()).toContain('Modifier')
@@ -223,11 +239,14 @@ describe('DocumentationList', () => {
     // Simuler le clic sur view
     const card = wrapper.findComponent({ name: 'DocumentationCard' })
     await card.vm.$emit('view')
-    await nextTick()
+    await flushPromises()
 
-    // Vérifier que le modal de visualisation est affiché
+    // Vérifier que le modal de visualisation affiche le HTML rendu par le serveur
     const viewModal = wrapper.findComponent({ name: 'DocumentationViewModal' })
     expect(viewModal.exists()).toBe(true)
+    expect(documentationService.getRenderedDocumentation).toHaveBeenCalledWith('test-project-id', 1)
+    expect(documentationService.getDocumentationContent).not.toHaveBeenCalled()
+    expect(viewModal.props('html')).toBe('<h1>Welcome</h1>\n<p>This is the documentation.</p>\n')
   })
 
   it('devrait fermer le modal de visualisation', async () => {
@@ -238,7 +257,7 @@ describe('DocumentationList', () => {
     // Ouvrir le modal
     const card = wrapper.findComponent({ name: 'DocumentationCard' })
     await card.vm.$emit('view')
-    await nextTick()
+    await flushPromises()
 
     // Fermer le modal
     const viewModal = wrapper.findComponent({ name: 'DocumentationViewModal' })
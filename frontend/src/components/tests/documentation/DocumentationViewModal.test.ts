@@ -40,6 +40,16 @@ describe('DocumentationViewModal', () => {
     expect(content.html()).toContain('API')
   })
 
+  it('devrait afficher le HTML rendu par le serveur', () => {
+    const wrapper = mount(DocumentationViewModal, {
+      props: { doc: { id: 1, title: 'API Documentation' }, html: '<h2>Rendu serveur</h2>' }
+    })
+
+    const content = wrapper.find('.markdown-content')
+    expect(content.html()).toContain('<h2>Rendu serveur</h2>')
+    expect(content.html()).not.toContain('<h1')
+  })
+
   it('devrait avoir un bouton de fermeture', () => {
     const wrapper = mount(DocumentationViewModal, {
       props: { doc: mockDoc }
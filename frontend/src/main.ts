@@ -4,6 +4,7 @@ import App from "./App.vue";
 import axios from "axios";
 import authStore from "./stores/authStore";
 import router from "./router/routes";
+import { getLastWriteLsn, setLastWriteLsn } from "./utils/localStorage";
 
 import { library } from '@fortawesome/fontawesome-svg-core'
 import { FontAwesomeIcon } from '@fortawesome/vue-fontawesome'
@@ -12,12 +13,47 @@ import { faAngleLeft } from '@fortawesome/free-solid-svg-icons'
 
 library.add(faAngleLeft)
 
+// Read-your-writes: the API returns the position of each write, reads sent with it are not
+// served by a read replica that has yet to replay it
+const LAST_WRITE_LSN_HEADER = "X-Last-Write-Lsn";
+
+axios.interceptors.request.use((request) => {
+  const lsn = getLastWriteLsn();
+  if (lsn) {
+    request.headers[LAST_WRITE_LSN_HEADER] = lsn;
+  }
+  return request;
+});
+
 axios.interceptors.response.use(
-  (response) => response,
-  (error) => {
+  (response) => {
+    const lsn = response.headers[LAST_WRITE_LSN_HEADER.toLowerCase()];
+    if (lsn) {
+      setLastWriteLsn(lsn);
+    }
+    return response;
+  },
+  async (error) => {
     if (error.response && error.response.status === 401 ) {
       const data = error.response.data;
       if (data && data.error === "TokenExpired") {
+        const request = error.config;
+        // Renew the access token once, then replay the request. The requests failing together
+        // share the renewal, and one that failed after it only needs the new token
+        if (request && !request._retried) {
+          request._retried = true;
+          try {
+            const current = authStore.getToken();
+            const token =
+              current && request.headers['Authorization'] !== `Bearer ${current}`
+                ? current
+                : await authStore.refresh();
+            request.headers['Authorization'] = `Bearer ${token}`;
+            return axios(request);
+          } catch {
+            // Refresh token expired or revoked, fall through to logout
+          }
+        }
         authStore.logout();
         router.push('/auth');
       }
@@ -1,5 +1,5 @@
 import axios from 'axios'
-import { setUserData, getAuthToken, clearUserData } from '../utils/localStorage'
+import { setUserData, getAuthToken, getRefreshToken, clearUserData } from '../utils/localStorage'
 import type { ErrorResponse } from '../utils'
 
 const API_URL = '/api/auth'
@@ -18,6 +18,7 @@ export interface RegisterRequest {
 export interface AuthResponse {
     id: number
     token: string
+    refreshToken: string
     email: string
     name: string
 }
@@ -98,6 +99,32 @@ const authService = {
         }
     },
 
+    /**
+     * Exchanges the stored refresh token for a new token pair.
+     * The refresh token is single-use, the new one replaces it.
+     */
+    async refresh(): Promise<AuthResponse> {
+        const refreshToken = getRefreshToken()
+        if (!refreshToken) {
+            throw new Error('No refresh token')
+        }
+        const response = await axios.post<AuthResponse>(`${API_URL}/refresh`, { refreshToken })
+        addDatasInLocalStorage(response.data)
+        authService.setToken(response.data.token)
+        return response.data
+    },
+
+    /**
+     * Revokes the current session on the server.
+     * Failures are ignored, the local data is cleared anyway.
+     */
+    async logout(): Promise<void> {
+        const refreshToken = getRefreshToken()
+        if (refreshToken) {
+            await axios.post(`${API_URL}/logout`, { refreshToken }).catch(() => undefined)
+        }
+    },
+
     /**
      * Retrieves the stored authentication token.
      * @returns The JWT token or null if not found.
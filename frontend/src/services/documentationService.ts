@@ -10,14 +10,50 @@ export interface DocumentationDto {
     updatedAt?: string
 }
 
+export interface DocumentationSummaryDto {
+    id: number
+    version: number
+    title: string
+    size: number
+    contentHash: string
+    createdAt?: string
+    updatedAt?: string
+}
+
 const documentationService = {
     /**
-     * Retrieves all documentation for a project.
+     * Retrieves all documentation for a project, without their content.
      * @param projectId - The ID of the project.
-     * @returns A list of documentation.
+     * @returns A list of documentation summaries.
+     */
+    async getDocumentationByProject(projectId: string): Promise<DocumentationSummaryDto[]> {
+        const response = await axios.get<DocumentationSummaryDto[]>(`${API_URL}/${projectId}/docs`)
+        return response.data
+    },
+
+    /**
+     * Retrieves the markdown content of a documentation.
+     * @param projectId - The ID of the project.
+     * @param docId - The ID of the documentation.
+     * @returns The content of the documentation.
+     */
+    async getDocumentationContent(projectId: string, docId: number): Promise<string> {
+        const response = await axios.get<string>(`${API_URL}/${projectId}/docs/${docId}/content`, {
+            responseType: 'text'
+        })
+        return response.data
+    },
+
+    /**
+     * Retrieves a documentation rendered to sanitized HTML by the server.
+     * @param projectId - The ID of the project.
+     * @param docId - The ID of the documentation.
+     * @returns The HTML of the documentation.
      */
-    async getDocumentationByProject(projectId: string): Promise<DocumentationDto[]> {
-        const response = await axios.get<DocumentationDto[]>(`${API_URL}/${projectId}/docs`)
+    async getRenderedDocumentation(projectId: string, docId: number): Promise<string> {
+        const response = await axios.get<string>(`${API_URL}/${projectId}/docs/${docId}/html`, {
+            responseType: 'text'
+        })
         return response.data
     },
 
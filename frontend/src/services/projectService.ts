@@ -95,6 +95,8 @@ export interface SprintResponse {
     endDate: string
     projectId: string
     issueIds: number[]
+    totalStoryPoints?: number
+    issueCountByStatus?: Record<IssueStatus, number>
     createdAt: string
 }
 
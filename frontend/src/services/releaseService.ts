@@ -1,5 +1,6 @@
 import axios from 'axios'
 import { getHeaders } from '../utils/headers'
+import type { IssueStatus } from './projectService'
 
 const API_URL = '/api/projects'
 
@@ -31,6 +32,8 @@ export interface ReleaseResponse {
   releaseNotes?: string
   creatorId: number
   issueIds: readonly number[]
+  totalStoryPoints?: number
+  issueCountByStatus?: Readonly<Record<IssueStatus, number>>
   projectId: string
 }
 
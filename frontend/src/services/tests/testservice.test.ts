@@ -141,6 +141,29 @@ describe('testService', () => {
     })
   })
 
+  describe('runTests', () => {
+    it('devrait exécuter les tests d\'un sprint sur le serveur', async () => {
+      const mockReport = {
+        success: true,
+        testCount: 3,
+        passedCount: 2,
+        failedCount: 1,
+        results: [{ testId: 1, issueId: 123, success: true, testCount: 3, passedCount: 2, failedCount: 1 }]
+      }
+
+      vi.mocked(axios.post).mockResolvedValue({ data: mockReport })
+
+      const result = await testService.runTests('project-1', 'sprints', 7)
+
+      expect(axios.post).toHaveBeenCalledWith(
+        '/api/projects/project-1/sprints/7/tests/run',
+        null,
+        { headers: { Authorization: 'Bearer mock-token' } }
+      )
+      expect(result).toEqual(mockReport)
+    })
+  })
+
   describe('deleteTest', () => {
     it('devrait supprimer un test avec succès', async () => {
       vi.mocked(axios.delete).mockResolvedValue({ data: undefined })
@@ -5,6 +5,9 @@ export interface TestResponse {
   id: number
   programCode: string
   testCode: string
+  // SHA-256 du code, sous lequel le serveur ne le stocke qu'une fois
+  programHash?: string
+  testHash?: string
   issueId: number
   creatorId: number
   createdAt: string
@@ -15,6 +18,31 @@ export interface CreateTestRequest {
   testCode: string
 }
 
+// Résultat d'un test exécuté sur le serveur, même forme que la réponse du worker
+export interface TestRunResult {
+  testId: number
+  issueId: number
+  success: boolean
+  output?: string
+  error?: string
+  stack?: string
+  testCount?: number
+  passedCount?: number
+  failedCount?: number
+}
+
+export interface TestRunReport {
+  success: boolean
+  output?: string
+  error?: string
+  testCount: number
+  passedCount: number
+  failedCount: number
+  results: TestRunResult[]
+}
+
+export type TestRunScope = 'issues' | 'sprints' | 'releases'
+
 const testService = {
   async createTest(
     projectId: string,
@@ -37,6 +65,16 @@ const testService = {
     return response.data
   },
 
+  // Exécute sur le serveur tous les tests d'une issue, d'un sprint ou d'une release
+  async runTests(projectId: string, scope: TestRunScope, id: number): Promise<TestRunReport> {
+    const response = await axios.post(
+      `/api/projects/${projectId}/${scope}/${id}/tests/run`,
+      null,
+      { headers: getHeaders() }
+    )
+    return response.data
+  },
+
   async deleteTest(projectId: string, issueId: number, testId: number): Promise<void> {
     await axios.delete(
       `/api/projects/${projectId}/issues/${issueId}/tests/${testId}`,
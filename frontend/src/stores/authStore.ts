@@ -27,6 +27,9 @@ const state = reactive<AuthState>({
   error: null
 })
 
+// Renewal of the access token in progress, shared by the requests that fail meanwhile
+let pendingRefresh: Promise<string> | null = null
+
 /**
  * Authentication Store (Reactive Store Pattern).
  * Exposes read-only state and methods to modify it.
@@ -85,12 +88,33 @@ export const authStore = {
    * Removes token and resets state.
    */
   logout() {
+    authService.logout()
     state.token = null
     state.user = null
     state.isAuthenticated = false
     authService.clearAuthData()
   },
 
+  /**
+   * Renews the access token with the refresh token.
+   * Concurrent calls share the same renewal, the refresh token can only be used once.
+   * @returns The new access token
+   */
+  refresh(): Promise<string> {
+    if (!pendingRefresh) {
+      pendingRefresh = authService
+        .refresh()
+        .then((response) => {
+          state.token = response.token
+          return response.token
+        })
+        .finally(() => {
+          pendingRefresh = null
+        })
+    }
+    return pendingRefresh
+  },
+
   /**
    * Updates the user in the state.
    * @param user - The new user data
@@ -6,6 +6,8 @@ vi.mock('../../services/authService', () => ({
   default: {
     login: vi.fn(),
     register: vi.fn(),
+    logout: vi.fn(),
+    refresh: vi.fn(),
     clearAuthData: vi.fn(),
     initializeToken: vi.fn()
   }
@@ -117,6 +119,34 @@ describe('authStore', () => {
     })
   })
 
+  describe('refresh', () => {
+    it('devrait partager un seul renouvellement entre les appels simultanés', async () => {
+      let resolve: (response: { token: string }) => void = () => {}
+      vi.mocked(authService.refresh).mockReturnValue(
+        new Promise((r) => {
+          resolve = r
+        }) as any
+      )
+
+      const tokens = Promise.all([authStore.refresh(), authStore.refresh(), authStore.refresh()])
+      resolve({ token: 'renewed-token' })
+
+      expect(await tokens).toEqual(['renewed-token', 'renewed-token', 'renewed-token'])
+      expect(authService.refresh).toHaveBeenCalledTimes(1)
+      expect(authStore.state.token).toBe('renewed-token')
+    })
+
+    it('devrait renouveler à nouveau une fois le renouvellement précédent terminé', async () => {
+      vi.mocked(authService.refresh)
+        .mockRejectedValueOnce(new Error('Refresh token expiré'))
+        .mockResolvedValueOnce({ token: 'second-token' } as any)
+
+      await expect(authStore.refresh()).rejects.toThrow('Refresh token expiré')
+      expect(await authStore.refresh()).toBe('second-token')
+      expect(authService.refresh).toHaveBeenCalledTimes(2)
+    })
+  })
+
   describe('setUser', () => {
     it('devrait mettre à jour l\'utilisateur', () => {
       const newUser = { id: 2, email: 'new@example.com', name: 'New User' }
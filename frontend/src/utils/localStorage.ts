@@ -19,6 +19,22 @@ export const setAuthToken = (token: string): void => {
     localStorage.setItem('authToken', token)
 }
 
+/**
+ * Get the refresh token from localStorage
+ * @returns {string | null} The refresh token or null if not found
+ */
+export const getRefreshToken = (): string | null => {
+    return localStorage.getItem('refreshToken')
+}
+
+/**
+ * Set the refresh token in localStorage
+ * @param {string} token - The refresh token
+ */
+export const setRefreshToken = (token: string): void => {
+    localStorage.setItem('refreshToken', token)
+}
+
 /**
  * Get the user ID from localStorage
  * @returns {number} The parsed user ID, or 0 if not found
@@ -68,6 +84,22 @@ export const setUserName = (name: string): void => {
     localStorage.setItem('userName', name)
 }
 
+/**
+ * Get the position of the last write sent back by the API
+ * @returns {string | null} The position or null if not found
+ */
+export const getLastWriteLsn = (): string | null => {
+    return localStorage.getItem('lastWriteLsn')
+}
+
+/**
+ * Set the position of the last write sent back by the API
+ * @param {string} lsn - The position, as received in the X-Last-Write-Lsn header
+ */
+export const setLastWriteLsn = (lsn: string): void => {
+    localStorage.setItem('lastWriteLsn', lsn)
+}
+
 /**
  * Get all user data from localStorage at once
  * @returns {object} Object containing userId, userEmail, userName, and authToken
@@ -83,10 +115,13 @@ export const getUserData = () => {
 
 /**
  * Set all user data in localStorage at once
- * @param {object} data - Object containing token, email, name, and id
+ * @param {object} data - Object containing token, refreshToken, email, name, and id
  */
-export const setUserData = (data: { token: string; email: string; name: string; id: number }): void => {
+export const setUserData = (data: { token: string; refreshToken?: string; email: string; name: string; id: number }): void => {
     setAuthToken(data.token)
+    if (data.refreshToken) {
+        setRefreshToken(data.refreshToken)
+    }
     setUserEmail(data.email)
     setUserName(data.name)
     setUserId(data.id)
@@ -97,6 +132,7 @@ export const setUserData = (data: { token: string; email: string; name: string;
  */
 export const clearUserData = (): void => {
     localStorage.removeItem('authToken')
+    localStorage.removeItem('refreshToken')
     localStorage.removeItem('userEmail')
     localStorage.removeItem('userName')
     localStorage.removeItem('userId')